@@ -0,0 +1,97 @@
+package dao.impl;
+
+import model.Booking;
+import model.BookingStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.RowSetMetaData;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a bookings result set into model objects, as done by every BookingDaoJdbc
+ * finder. Rows come from an in-memory CachedRowSet shaped like the bookings table, so the
+ * number isolates mapping from the network and the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingMappingBenchmark {
+    private static final String[] COLUMNS = {
+        "id", "member_id", "facility_id", "coach_id", "start_time", "end_time",
+        "type", "status", "facility_fee", "coach_fee", "total_fee"
+    };
+    private static final int[] TYPES = {
+        Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP,
+        Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE
+    };
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private final BookingDaoJdbc dao = new BookingDaoJdbc();
+    private CachedRowSet rs;
+
+    @Setup
+    public void setUp() throws SQLException {
+        rs = RowSetProvider.newFactory().createCachedRowSet();
+        RowSetMetaData md = new RowSetMetaDataImpl();
+        md.setColumnCount(COLUMNS.length);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            md.setColumnName(i + 1, COLUMNS[i]);
+            md.setColumnLabel(i + 1, COLUMNS[i]);
+            md.setColumnType(i + 1, TYPES[i]);
+            md.setNullable(i + 1, RowSetMetaData.columnNullable);
+        }
+        rs.setMetaData(md);
+
+        LocalDateTime start = LocalDateTime.of(2025, 1, 6, 8, 0);
+        for (int i = 0; i < rows; i++) {
+            boolean training = i % 4 == 0;
+            LocalDateTime s = start.plusHours(i);
+            rs.moveToInsertRow();
+            rs.updateLong("id", i + 1);
+            rs.updateLong("member_id", 1 + i % 50);
+            rs.updateLong("facility_id", 1 + i % 8);
+            if (training) rs.updateLong("coach_id", 1 + i % 5); else rs.updateNull("coach_id");
+            rs.updateTimestamp("start_time", Timestamp.valueOf(s));
+            rs.updateTimestamp("end_time", Timestamp.valueOf(s.plusHours(1)));
+            rs.updateString("type", training ? "TRAINING" : "FACILITY");
+            rs.updateString("status", BookingStatus.CONFIRMED.name());
+            rs.updateDouble("facility_fee", 20.0);
+            rs.updateDouble("coach_fee", training ? 15.0 : 0.0);
+            rs.updateDouble("total_fee", training ? 35.0 : 20.0);
+            rs.insertRow();
+            rs.moveToCurrentRow();
+        }
+    }
+
+    @Benchmark
+    public void mapAll(Blackhole bh) throws SQLException {
+        rs.beforeFirst();
+        while (rs.next()) {
+            Booking b = "FACILITY".equals(rs.getString("type")) ? dao.mapFacility(rs) : dao.mapTraining(rs);
+            bh.consume(b);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package perf;
+
+import dao.impl.BookingDaoInMemory;
+import dao.impl.FacilityDaoInMemory;
+import dao.impl.InMemoryStore;
+import dao.impl.UserDaoInMemory;
+import model.Booking;
+import model.BookingStatus;
+import model.Facility;
+import model.FacilityBooking;
+import model.FacilityStatus;
+import model.Role;
+import model.TrainingBooking;
+import model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.impl.AnalyticsServiceImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revenue by facility and month over a year, and member visit counts over 90 days, two ways: the
+ * object path the dashboard used (the boxed bookings from findAll, with instanceof checks) and the
+ * columnar snapshot of {@link AnalyticsServiceImpl}, loaded once in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingAnalyticsBenchmark {
+    @Param({"10", "50"})
+    public int facilityCount;
+
+    private BookingDaoInMemory bookings;
+    private AnalyticsServiceImpl analytics;
+    private YearMonth from;
+    private YearMonth to;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        InMemoryStore store = new InMemoryStore();
+        UserDaoInMemory users = new UserDaoInMemory(store);
+        List<Long> members = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            User member = new User();
+            member.setEmail("member" + i + "@bench.local");
+            member.setPasswordHash("-");
+            member.setFullName("Bench Member " + i);
+            member.setRole(Role.MEMBER);
+            members.add(users.create(member));
+        }
+        FacilityDaoInMemory facilities = new FacilityDaoInMemory(store);
+        bookings = new BookingDaoInMemory(store);
+        analytics = new AnalyticsServiceImpl(bookings);
+
+        Random random = new Random(42);
+        today = LocalDate.now();
+        for (int i = 0; i < facilityCount; i++) {
+            Facility f = new Facility();
+            f.setName("Court " + i);
+            f.setHourlyRate(20);
+            f.setStatus(FacilityStatus.AVAILABLE);
+            f.setCapacity(2);
+            Long facilityId = facilities.create(f);
+            for (int day = -365; day < 0; day++) {
+                for (int hour = 7; hour < 22; hour++) {
+                    if (random.nextInt(100) >= (hour >= 17 ? 80 : 30)) continue;
+                    LocalDateTime start = today.plusDays(day).atTime(hour, 0);
+                    FacilityBooking b = new FacilityBooking();
+                    b.setMemberId(members.get(random.nextInt(members.size())));
+                    b.setFacilityId(facilityId);
+                    b.setStartTime(start);
+                    b.setEndTime(start.plusHours(1));
+                    b.setTotalFee(20);
+                    b.setStatus(random.nextInt(10) == 0 ? BookingStatus.CANCELLED : BookingStatus.CONFIRMED);
+                    bookings.createFacilityBooking(b);
+                }
+            }
+        }
+        to = YearMonth.from(today);
+        from = to.minusMonths(11);
+        // Loads the snapshot
+        analytics.bookingsByMonth(to, to);
+    }
+
+    @Benchmark
+    public Map<Long, Map<YearMonth, Double>> revenueColumns() {
+        return analytics.revenueByFacilityAndMonth(from, to);
+    }
+
+    @Benchmark
+    public Map<Long, Map<YearMonth, Double>> revenueObjects() {
+        Map<Long, Map<YearMonth, Double>> result = new HashMap<>();
+        for (Object o : bookings.findAll()) {
+            Booking b;
+            if (o instanceof FacilityBooking) b = (FacilityBooking) o;
+            else if (o instanceof TrainingBooking) b = (TrainingBooking) o;
+            else continue;
+            if (b.getStatus() != BookingStatus.CONFIRMED) continue;
+            YearMonth month = YearMonth.from(b.getStartTime());
+            if (month.isBefore(from) || month.isAfter(to)) continue;
+            result.computeIfAbsent(b.getFacilityId(), id -> new HashMap<>()).merge(month, b.getTotalFee(), Double::sum);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Map<Long, Long> visitsColumns() {
+        return analytics.visitsByMember(today.minusDays(90), today);
+    }
+
+    @Benchmark
+    public Map<Long, Long> visitsObjects() {
+        LocalDateTime start = today.minusDays(90).atStartOfDay();
+        LocalDateTime end = today.atStartOfDay();
+        Map<Long, Long> result = new HashMap<>();
+        for (Object o : bookings.findAll()) {
+            Booking b;
+            if (o instanceof FacilityBooking) b = (FacilityBooking) o;
+            else if (o instanceof TrainingBooking) b = (TrainingBooking) o;
+            else continue;
+            if (b.getStatus() != BookingStatus.CONFIRMED || b.getStartTime().isBefore(start) || !b.getStartTime().isBefore(end)) continue;
+            result.merge(b.getMemberId(), 1L, Long::sum);
+        }
+        return result;
+    }
+}
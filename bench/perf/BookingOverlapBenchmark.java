@@ -0,0 +1,121 @@
+package perf;
+
+import dao.impl.BookingDaoInMemory;
+import dao.impl.FacilityDaoInMemory;
+import dao.impl.InMemoryStore;
+import dao.impl.UserDaoInMemory;
+import model.Booking;
+import model.BookingStatus;
+import model.Facility;
+import model.FacilityBooking;
+import model.FacilityStatus;
+import model.Role;
+import model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.impl.BookingServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingServiceImpl's validation path (times, facility status, capacity) for a slot that is free
+ * and for one that clashes with an existing booking, against an exclusive facility with a
+ * configurable number of confirmed bookings held in the in-memory backend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingOverlapBenchmark {
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2025, 1, 6, 0, 0);
+
+    @Param({"100", "10000"})
+    public int existingBookings;
+
+    private Long facilityId;
+    private BookingServiceImpl service;
+    private FacilityBooking freeSlot;
+    private FacilityBooking clashingSlot;
+
+    @Setup
+    public void setUp() {
+        InMemoryStore store = new InMemoryStore();
+        User member = new User();
+        member.setEmail("member@bench.local");
+        member.setPasswordHash("-");
+        member.setFullName("Bench Member");
+        member.setRole(Role.MEMBER);
+        Long memberId = new UserDaoInMemory(store).create(member);
+        Facility court = new Facility();
+        court.setName("Court 1");
+        court.setHourlyRate(20);
+        court.setStatus(FacilityStatus.AVAILABLE);
+        FacilityDaoInMemory facilities = new FacilityDaoInMemory(store);
+        facilityId = facilities.create(court);
+
+        BookingDaoInMemory bookings = new BookingDaoInMemory(store) {
+            // Accepted bookings are not kept, and freeSlot cancels its own, so every invocation
+            // sees the same schedule
+            @Override
+            public Long createWithinCapacity(Booking booking) { return -1L; }
+
+            @Override
+            public Optional<FacilityBooking> findFacilityBookingById(Long id) {
+                return id == -1L ? Optional.of(freeSlot) : super.findFacilityBookingById(id);
+            }
+
+            @Override
+            public void updateStatus(Long bookingId, BookingStatus status) {}
+        };
+        BookingDaoInMemory writer = new BookingDaoInMemory(store);
+        // One-hour bookings on the hour, 16 a day; the free slot is after the last one
+        for (int i = 0; i < existingBookings; i++) {
+            LocalDateTime start = DAY_ONE.plusDays(i / 16).plusHours(6 + i % 16);
+            writer.createFacilityBooking(booking(memberId, start, start.plusHours(1)));
+        }
+        service = new BookingServiceImpl(bookings, facilities);
+        LocalDateTime last = DAY_ONE.plusDays(existingBookings / 16 + 1).plusHours(6);
+        freeSlot = booking(memberId, last, last.plusHours(1));
+        LocalDateTime mid = DAY_ONE.plusDays(existingBookings / 32).plusHours(9).plusMinutes(30);
+        clashingSlot = booking(memberId, mid, mid.plusHours(1));
+    }
+
+    @Benchmark
+    public Long freeSlot() {
+        Long id = service.createFacilityBooking(freeSlot);
+        service.cancel(id);
+        return id;
+    }
+
+    @Benchmark
+    public boolean clashingSlot() {
+        try {
+            service.createFacilityBooking(clashingSlot);
+            return false;
+        } catch (IllegalStateException expected) {
+            return true;
+        }
+    }
+
+    private FacilityBooking booking(Long memberId, LocalDateTime start, LocalDateTime end) {
+        FacilityBooking b = new FacilityBooking();
+        b.setMemberId(memberId);
+        b.setFacilityId(facilityId);
+        b.setStartTime(start);
+        b.setEndTime(end);
+        return b;
+    }
+}
@@ -0,0 +1,102 @@
+package perf;
+
+import dao.impl.BookingDaoInMemory;
+import dao.impl.FacilityDaoInMemory;
+import dao.impl.InMemoryStore;
+import dao.impl.UserDaoInMemory;
+import model.Facility;
+import model.FacilityBooking;
+import model.FacilityStatus;
+import model.Role;
+import model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.impl.BookingServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission against capacity on one crowded day: a pool of capacity 40 holding a configurable
+ * number of staggered 90-minute bookings, and a request for its busiest slot. indexReject is
+ * the service turning it away from its in-memory occupancy tree; databaseGuard is the DAO's
+ * locked sweep over the overlapping rows, the check every admitted booking also pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapacityAdmissionBenchmark {
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 1, 6, 6, 0);
+    private static final int CAPACITY = 40;
+
+    @Param({"100", "1000", "5000"})
+    public int bookingsPerDay;
+
+    private BookingServiceImpl service;
+    private BookingDaoInMemory bookings;
+    private FacilityBooking fullSlot;
+
+    @Setup
+    public void setUp() {
+        InMemoryStore store = new InMemoryStore();
+        User member = new User();
+        member.setEmail("member@bench.local");
+        member.setPasswordHash("-");
+        member.setFullName("Bench Member");
+        member.setRole(Role.MEMBER);
+        Long memberId = new UserDaoInMemory(store).create(member);
+        Facility pool = new Facility();
+        pool.setName("Pool");
+        pool.setHourlyRate(25);
+        pool.setStatus(FacilityStatus.AVAILABLE);
+        pool.setCapacity(CAPACITY);
+        FacilityDaoInMemory facilities = new FacilityDaoInMemory(store);
+        Long poolId = facilities.create(pool);
+
+        bookings = new BookingDaoInMemory(store);
+        // Starts spread evenly over 06:00-22:00 without regard to capacity, like a bulk import
+        for (int i = 0; i < bookingsPerDay; i++) {
+            LocalDateTime start = DAY.plusMinutes(i * 16L * 60 / bookingsPerDay);
+            bookings.createFacilityBooking(booking(memberId, poolId, start, start.plusMinutes(90)));
+        }
+        service = new BookingServiceImpl(bookings, facilities);
+        LocalDateTime noon = DAY.plusHours(6);
+        fullSlot = booking(memberId, poolId, noon, noon.plusHours(1));
+    }
+
+    @Benchmark
+    public boolean indexReject() {
+        try {
+            service.createFacilityBooking(fullSlot);
+            return false;
+        } catch (IllegalStateException expected) {
+            return true;
+        }
+    }
+
+    @Benchmark
+    public Long databaseGuard() {
+        return bookings.createWithinCapacity(fullSlot);
+    }
+
+    private static FacilityBooking booking(Long memberId, Long facilityId, LocalDateTime start, LocalDateTime end) {
+        FacilityBooking b = new FacilityBooking();
+        b.setMemberId(memberId);
+        b.setFacilityId(facilityId);
+        b.setStartTime(start);
+        b.setEndTime(end);
+        return b;
+    }
+}
@@ -0,0 +1,123 @@
+package perf;
+
+import dao.impl.BookingDaoInMemory;
+import dao.impl.FacilityDaoInMemory;
+import dao.impl.InMemoryStore;
+import dao.impl.UserDaoInMemory;
+import model.Booking;
+import model.Facility;
+import model.FacilityStatus;
+import model.Role;
+import model.TrainingBooking;
+import model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.impl.BookingServiceImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A training booking at an empty court for a coach who is already booked at that time elsewhere,
+ * with a configurable number of bookings on the coach's calendar. coachClash goes through
+ * BookingServiceImpl and its per-coach index; linearScan is the same question answered by walking
+ * the coach's bookings, for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoachConflictBenchmark {
+    @Param({"100", "10000"})
+    public int coachBookings;
+
+    private BookingServiceImpl service;
+    private TrainingBooking clash;
+    private final List<Booking> calendar = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        InMemoryStore store = new InMemoryStore();
+        UserDaoInMemory users = new UserDaoInMemory(store);
+        Long memberId = users.create(user("member@bench.local", Role.MEMBER));
+        Long coachId = users.create(user("coach@bench.local", Role.COACH));
+        FacilityDaoInMemory facilities = new FacilityDaoInMemory(store);
+        Long busyCourt = facilities.create(court("Court 1"));
+        Long emptyCourt = facilities.create(court("Court 2"));
+
+        BookingDaoInMemory bookings = new BookingDaoInMemory(store);
+        // Back-to-back sessions from tomorrow, packed into 80 days so all of them fall inside the
+        // index's 90-day horizon: 30 minutes every 45 for the small calendar, shorter for the big one
+        LocalDateTime first = LocalDate.now().plusDays(1).atStartOfDay();
+        long step = Math.min(45, 80L * 24 * 60 / coachBookings);
+        long length = step * 2 / 3;
+        for (int i = 0; i < coachBookings; i++) {
+            LocalDateTime start = first.plusMinutes(i * step);
+            TrainingBooking b = training(memberId, coachId, busyCourt, start, start.plusMinutes(length));
+            b.setId(bookings.createTrainingBooking(b));
+            calendar.add(b);
+        }
+        service = new BookingServiceImpl(bookings, facilities);
+        Booking middle = calendar.get(coachBookings / 2);
+        clash = training(memberId, coachId, emptyCourt, middle.getStartTime().plusMinutes(1), middle.getEndTime().plusMinutes(1));
+    }
+
+    @Benchmark
+    public boolean coachClash() {
+        try {
+            service.createTrainingBooking(clash);
+            return false;
+        } catch (IllegalStateException expected) {
+            return true;
+        }
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        for (Booking b : calendar) {
+            if (b.getStartTime().isBefore(clash.getEndTime()) && b.getEndTime().isAfter(clash.getStartTime())) return true;
+        }
+        return false;
+    }
+
+    private static User user(String email, Role role) {
+        User u = new User();
+        u.setEmail(email);
+        u.setPasswordHash("-");
+        u.setFullName(email);
+        u.setRole(role);
+        return u;
+    }
+
+    private static Facility court(String name) {
+        Facility f = new Facility();
+        f.setName(name);
+        f.setHourlyRate(20);
+        f.setStatus(FacilityStatus.AVAILABLE);
+        return f;
+    }
+
+    private static TrainingBooking training(Long memberId, Long coachId, Long facilityId, LocalDateTime start, LocalDateTime end) {
+        TrainingBooking b = new TrainingBooking();
+        b.setMemberId(memberId);
+        b.setCoachId(coachId);
+        b.setFacilityId(facilityId);
+        b.setStartTime(start);
+        b.setEndTime(end);
+        return b;
+    }
+}
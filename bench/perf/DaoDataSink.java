@@ -0,0 +1,79 @@
+package perf;
+
+import dao.BookingDao;
+import dao.FacilityDao;
+import dao.FeedbackDao;
+import dao.MaintenanceDao;
+import dao.PaymentDao;
+import dao.UserDao;
+import model.Booking;
+import model.Facility;
+import model.FacilityBooking;
+import model.Feedback;
+import model.MaintenanceRequest;
+import model.Payment;
+import model.TrainingBooking;
+import model.User;
+
+import java.util.List;
+
+/** Writes row by row through the DAO interfaces, e.g. into the in-memory backend. */
+class DaoDataSink implements DataSink {
+    private final UserDao users;
+    private final FacilityDao facilities;
+    private final BookingDao bookings;
+    private final PaymentDao payments;
+    private final MaintenanceDao maintenance;
+    private final FeedbackDao feedback;
+
+    DaoDataSink(UserDao users, FacilityDao facilities, BookingDao bookings, PaymentDao payments,
+                MaintenanceDao maintenance, FeedbackDao feedback) {
+        this.users = users;
+        this.facilities = facilities;
+        this.bookings = bookings;
+        this.payments = payments;
+        this.maintenance = maintenance;
+        this.feedback = feedback;
+    }
+
+    @Override
+    public void addUsers(List<User> list) {
+        for (User u : list) u.setId(users.create(u));
+    }
+
+    @Override
+    public void addFacilities(List<Facility> list) {
+        for (Facility f : list) f.setId(facilities.create(f));
+    }
+
+    @Override
+    public Session openSession() {
+        return new Session() {
+            @Override
+            public void booking(Booking booking, Payment payment) {
+                Long id = booking instanceof TrainingBooking
+                    ? bookings.createTrainingBooking((TrainingBooking) booking)
+                    : bookings.createFacilityBooking((FacilityBooking) booking);
+                booking.setId(id);
+                if (payment != null) {
+                    payment.setBookingId(id);
+                    payment.setId(payments.create(payment));
+                }
+            }
+
+            @Override
+            public void maintenance(MaintenanceRequest request) {
+                request.setId(maintenance.create(request));
+            }
+
+            @Override
+            public void feedback(Feedback f) {
+                f.setId(feedback.create(f));
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
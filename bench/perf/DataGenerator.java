@@ -0,0 +1,332 @@
+package perf;
+
+import dao.impl.BookingDaoInMemory;
+import dao.impl.FacilityDaoInMemory;
+import dao.impl.FeedbackDaoInMemory;
+import dao.impl.InMemoryStore;
+import dao.impl.MaintenanceDaoInMemory;
+import dao.impl.PaymentDaoInMemory;
+import dao.impl.UserDaoInMemory;
+import model.Booking;
+import model.BookingStatus;
+import model.Facility;
+import model.FacilityBooking;
+import model.FacilityStatus;
+import model.Feedback;
+import model.MaintenanceRequest;
+import model.MaintenanceStatus;
+import model.Payment;
+import model.PaymentMethod;
+import model.Role;
+import model.TrainingBooking;
+import model.User;
+import util.PasswordHasher;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Seedable generator for club-scale datasets: members, coaches and admins, facilities, and per
+ * facility a day-by-day schedule of non-overlapping bookings that follows weekday and weekend
+ * peak hours, with matching payments, maintenance requests and feedback.
+ *
+ * Each coach works at one facility (coaches are dealt out to facilities in turn), so training
+ * bookings inherit that facility's non-overlapping schedule and no coach is ever booked twice at
+ * once. Facilities left without a coach get no training bookings.
+ *
+ * Facilities are generated in parallel, each from its own random stream derived from the seed,
+ * so a given seed always produces the same rows; only the order in which facilities reach the
+ * sink (and so the generated ids) depends on scheduling.
+ *
+ * Usage: DataGenerator [--target jdbc|memory] [--seed n] [--members n] [--coaches n]
+ *        [--facilities n] [--from yyyy-mm-dd] [--days n] [--threads n] [--batch n]
+ * The jdbc target expects an empty schema (emails and facility names are unique).
+ */
+public class DataGenerator {
+    /** Password of every generated account. */
+    public static final String PASSWORD = "password123";
+
+    private static final int OPEN_HOUR = 6;
+    private static final int CLOSE_HOUR = 22;
+    private static final int SLOT_MINUTES = 30;
+    // Chance that a free half-hour slot starts a booking, by hour of day from OPEN_HOUR
+    private static final double[] WEEKDAY_PEAKS = {0.35, 0.6, 0.5, 0.3, 0.25, 0.3, 0.45, 0.35, 0.25, 0.3, 0.5, 0.8, 0.95, 0.9, 0.7, 0.4};
+    private static final double[] WEEKEND_PEAKS = {0.15, 0.3, 0.55, 0.8, 0.9, 0.85, 0.7, 0.6, 0.55, 0.55, 0.5, 0.45, 0.4, 0.3, 0.2, 0.1};
+
+    private static final String[] FACILITY_KINDS = {"Tennis Court", "Squash Court", "Badminton Court", "Swimming Lane", "Gym Studio", "Basketball Court", "Football Pitch", "Yoga Room"};
+    private static final double[] FACILITY_RATES = {20, 15, 12, 25, 15, 30, 45, 18};
+    private static final String[] FIRST_NAMES = {"Amal", "Nimal", "Kasun", "Dilani", "Ishara", "Saman", "Tharushi", "Ruwan", "Chamari", "Nuwan", "Sajith", "Kavindi", "Mahesh", "Anjali", "Pradeep", "Harini", "Lahiru", "Sanduni", "Dinesh", "Madhavi"};
+    private static final String[] LAST_NAMES = {"Perera", "Fernando", "Silva", "Jayasinghe", "Bandara", "Wickramasinghe", "Gunawardena", "Rajapaksa", "Herath", "Dissanayake", "Kumara", "Ekanayake"};
+    private static final String[] ISSUES = {"Broken light", "Leaking roof", "Damaged net", "Slippery floor", "Air conditioning fault", "Loose handrail", "Scoreboard not working", "Water pump noise", "Cracked tiles", "Door lock jammed"};
+    private static final String[] COMMENTS = {"Great session, well maintained", "Clean and tidy", "Staff were very helpful", "Booking process was quick", "A bit crowded at peak time", "Lighting could be better", "Changing rooms need cleaning", "Excellent coaching", "Equipment was worn out", "Will book again"};
+
+    private final long seed;
+    private final int members;
+    private final int coaches;
+    private final int admins;
+    private final int facilities;
+    private final LocalDate from;
+    private final int days;
+    private final int threads;
+
+    private final LongAdder bookingCount = new LongAdder();
+    private final LongAdder paymentCount = new LongAdder();
+    private final LongAdder maintenanceCount = new LongAdder();
+    private final LongAdder feedbackCount = new LongAdder();
+
+    public DataGenerator(long seed, int members, int coaches, int facilities, LocalDate from, int days, int threads) {
+        if (members < 1 || facilities < 1 || days < 1 || threads < 1) {
+            throw new IllegalArgumentException("members, facilities, days and threads must be positive");
+        }
+        this.seed = seed;
+        this.members = members;
+        this.coaches = Math.max(0, coaches);
+        this.admins = Math.max(1, members / 20_000);
+        this.facilities = facilities;
+        this.from = from;
+        this.days = days;
+        this.threads = threads;
+    }
+
+    /** Generated parents, for callers that go on to drive the data (e.g. the load test). */
+    public static final class Dataset {
+        public final List<User> users;
+        public final List<Facility> facilities;
+
+        Dataset(List<User> users, List<Facility> facilities) {
+            this.users = users;
+            this.facilities = facilities;
+        }
+    }
+
+    public Dataset generate(DataSink sink) throws Exception {
+        SplittableRandom random = new SplittableRandom(seed);
+        String passwordHash = PasswordHasher.hashWithRandomSalt(PASSWORD);
+
+        List<User> users = new ArrayList<>(admins + coaches + members);
+        for (int i = 1; i <= admins; i++) users.add(user(random, Role.ADMIN, "admin" + i + "@club.example", passwordHash));
+        for (int i = 1; i <= coaches; i++) users.add(user(random, Role.COACH, "coach" + i + "@club.example", passwordHash));
+        for (int i = 1; i <= members; i++) users.add(user(random, Role.MEMBER, "member" + i + "@club.example", passwordHash));
+        sink.addUsers(users);
+
+        List<Facility> facilityList = new ArrayList<>(facilities);
+        Map<String, Integer> perKind = new HashMap<>();
+        for (int i = 0; i < facilities; i++) {
+            int kind = random.nextInt(FACILITY_KINDS.length);
+            int n = perKind.merge(FACILITY_KINDS[kind], 1, Integer::sum);
+            Facility f = new Facility();
+            f.setName(FACILITY_KINDS[kind] + " " + n);
+            f.setDescription(FACILITY_KINDS[kind] + " number " + n);
+            f.setHourlyRate(FACILITY_RATES[kind]);
+            f.setStatus(FacilityStatus.AVAILABLE);
+            facilityList.add(f);
+        }
+        sink.addFacilities(facilityList);
+
+        List<User> staff = users.subList(0, admins + coaches);
+        List<User> coachList = users.subList(admins, admins + coaches);
+        List<User> memberList = users.subList(admins + coaches, users.size());
+
+        List<List<User>> coachesByFacility = new ArrayList<>(facilityList.size());
+        for (int i = 0; i < facilityList.size(); i++) coachesByFacility.add(new ArrayList<>());
+        for (int i = 0; i < coachList.size(); i++) coachesByFacility.get(i % facilityList.size()).add(coachList.get(i));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < facilityList.size(); i++) {
+                Facility f = facilityList.get(i);
+                List<User> facilityCoaches = coachesByFacility.get(i);
+                // Independent of thread scheduling: each facility's stream depends only on seed and index
+                SplittableRandom r = new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (i + 1)));
+                tasks.add(pool.submit(() -> {
+                    try (DataSink.Session session = sink.openSession()) {
+                        generateFacility(r, f, memberList, facilityCoaches, staff, session);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> t : tasks) t.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Dataset(users, facilityList);
+    }
+
+    private void generateFacility(SplittableRandom r, Facility facility, List<User> memberList, List<User> coachList,
+                                  List<User> staff, DataSink.Session session) {
+        // Some facilities are simply more popular than others
+        double popularity = 0.6 + r.nextDouble() * 0.5;
+        for (int d = 0; d < days; d++) {
+            LocalDate date = from.plusDays(d);
+            boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            double[] peaks = weekend ? WEEKEND_PEAKS : WEEKDAY_PEAKS;
+
+            LocalDateTime cursor = date.atTime(OPEN_HOUR, 0);
+            LocalDateTime close = date.atTime(CLOSE_HOUR, 0);
+            while (cursor.isBefore(close)) {
+                double p = peaks[cursor.getHour() - OPEN_HOUR] * popularity;
+                if (r.nextDouble() >= p) {
+                    cursor = cursor.plusMinutes(SLOT_MINUTES);
+                    continue;
+                }
+                LocalDateTime end = cursor.plusMinutes(duration(r));
+                if (end.isAfter(close)) end = close;
+                User member = memberList.get(r.nextInt(memberList.size()));
+                Booking b = booking(r, facility, member, coachList, cursor, end);
+                session.booking(b, payment(r, b, member));
+                bookingCount.increment();
+                if (b.getStatus() == BookingStatus.CONFIRMED && r.nextDouble() < 0.03) {
+                    session.feedback(feedback(r, facility, member, end));
+                    feedbackCount.increment();
+                }
+                cursor = end;
+            }
+
+            if (r.nextInt(14) == 0) {
+                session.maintenance(maintenance(r, facility, staff.get(r.nextInt(staff.size())), date, d));
+                maintenanceCount.increment();
+            }
+        }
+    }
+
+    private static int duration(SplittableRandom r) {
+        int roll = r.nextInt(100);
+        if (roll < 10) return 30;
+        if (roll < 70) return 60;
+        if (roll < 85) return 90;
+        return 120;
+    }
+
+    private static User user(SplittableRandom r, Role role, String email, String passwordHash) {
+        User u = new User();
+        u.setEmail(email);
+        u.setPasswordHash(passwordHash);
+        u.setFullName(FIRST_NAMES[r.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[r.nextInt(LAST_NAMES.length)]);
+        u.setRole(role);
+        u.setPhone(String.format("07%d-%03d-%04d", r.nextInt(10), r.nextInt(1000), r.nextInt(10_000)));
+        if (role == Role.COACH) u.setCoachFee((double) (10 + 5 * r.nextInt(7)));
+        return u;
+    }
+
+    private static Booking booking(SplittableRandom r, Facility facility, User member, List<User> coachList,
+                                   LocalDateTime start, LocalDateTime end) {
+        boolean training = !coachList.isEmpty() && r.nextInt(100) < 15;
+        Booking b = training ? new TrainingBooking() : new FacilityBooking();
+        b.setMemberId(member.getId());
+        b.setFacilityId(facility.getId());
+        b.setStartTime(start);
+        b.setEndTime(end);
+        b.setStatus(r.nextInt(100) < 7 ? BookingStatus.CANCELLED : BookingStatus.CONFIRMED);
+        double hours = Duration.between(start, end).toMinutes() / 60.0;
+        b.setFacilityFee(round(facility.getHourlyRate() * hours));
+        if (training) {
+            User coach = coachList.get(r.nextInt(coachList.size()));
+            b.setCoachId(coach.getId());
+            b.setCoachFee(round(coach.getCoachFee() * hours));
+        }
+        b.setTotalFee(round(b.getFacilityFee() + b.getCoachFee()));
+        return b;
+    }
+
+    private Payment payment(SplittableRandom r, Booking b, User member) {
+        if (b.getStatus() != BookingStatus.CONFIRMED || r.nextInt(100) >= 92) return null;
+        Payment p = new Payment();
+        p.setUserId(member.getId());
+        double discount = r.nextInt(10) == 0 ? round(b.getTotalFee() * (5 + r.nextInt(16)) / 100.0) : 0;
+        p.setDiscount(discount);
+        p.setAmount(round(b.getTotalFee() - discount));
+        int method = r.nextInt(100);
+        p.setMethod(method < 55 ? PaymentMethod.CARD : method < 80 ? PaymentMethod.CASH : PaymentMethod.ONLINE);
+        if (p.getMethod() != PaymentMethod.CASH) p.setReference("TX" + Long.toString(r.nextLong() & Long.MAX_VALUE, 36).toUpperCase());
+        p.setPaidAt(b.getStartTime().minusMinutes(r.nextInt(72 * 60)));
+        paymentCount.increment();
+        return p;
+    }
+
+    private MaintenanceRequest maintenance(SplittableRandom r, Facility facility, User reporter, LocalDate date, int dayIndex) {
+        MaintenanceRequest m = new MaintenanceRequest();
+        m.setFacilityId(facility.getId());
+        m.setRequestedBy(reporter.getId());
+        String issue = ISSUES[r.nextInt(ISSUES.length)];
+        m.setTitle(issue + " - " + facility.getName());
+        m.setDescription(issue + " reported at " + facility.getName() + " during the " + (r.nextBoolean() ? "morning" : "evening") + " shift");
+        // Older requests have mostly been dealt with
+        int age = days - dayIndex;
+        int roll = r.nextInt(100);
+        m.setStatus(age > 30 ? (roll < 95 ? MaintenanceStatus.RESOLVED : MaintenanceStatus.IN_PROGRESS)
+            : roll < 40 ? MaintenanceStatus.OPEN : roll < 75 ? MaintenanceStatus.IN_PROGRESS : MaintenanceStatus.RESOLVED);
+        m.setCreatedAt(date.atTime(OPEN_HOUR + r.nextInt(CLOSE_HOUR - OPEN_HOUR), r.nextInt(60)).atZone(ZoneId.systemDefault()).toInstant());
+        return m;
+    }
+
+    private static Feedback feedback(SplittableRandom r, Facility facility, User member, LocalDateTime after) {
+        Feedback f = new Feedback();
+        f.setUserId(member.getId());
+        f.setFacilityId(facility.getId());
+        int roll = r.nextInt(100);
+        f.setRating(roll < 5 ? 1 : roll < 13 ? 2 : roll < 30 ? 3 : roll < 65 ? 4 : 5);
+        f.setComments(COMMENTS[r.nextInt(COMMENTS.length)] + " at " + facility.getName());
+        f.setCreatedAt(after.plusMinutes(r.nextInt(24 * 60)).atZone(ZoneId.systemDefault()).toInstant());
+        return f;
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+
+    public long getBookingCount() { return bookingCount.sum(); }
+    public long getPaymentCount() { return paymentCount.sum(); }
+    public long getMaintenanceCount() { return maintenanceCount.sum(); }
+    public long getFeedbackCount() { return feedbackCount.sum(); }
+
+    /** Sink that writes straight into a fresh in-memory backend. */
+    static DataSink inMemory(InMemoryStore store) {
+        return new DaoDataSink(new UserDaoInMemory(store), new FacilityDaoInMemory(store), new BookingDaoInMemory(store),
+            new PaymentDaoInMemory(store), new MaintenanceDaoInMemory(store), new FeedbackDaoInMemory(store));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            opts.put(args[i].substring(2), args[i + 1]);
+        }
+        String target = opts.getOrDefault("target", "jdbc");
+        int cores = Runtime.getRuntime().availableProcessors();
+        DataGenerator gen = new DataGenerator(
+            Long.parseLong(opts.getOrDefault("seed", "42")),
+            Integer.parseInt(opts.getOrDefault("members", "100000")),
+            Integer.parseInt(opts.getOrDefault("coaches", "200")),
+            Integer.parseInt(opts.getOrDefault("facilities", "50")),
+            LocalDate.parse(opts.getOrDefault("from", "2024-01-01")),
+            Integer.parseInt(opts.getOrDefault("days", "365")),
+            Integer.parseInt(opts.getOrDefault("threads", String.valueOf(cores))));
+        DataSink sink;
+        switch (target) {
+            case "jdbc": sink = new JdbcDataSink(Integer.parseInt(opts.getOrDefault("batch", "1000"))); break;
+            case "memory": sink = inMemory(new InMemoryStore()); break;
+            default: throw new IllegalArgumentException("Unknown target " + target + " (expected jdbc or memory)");
+        }
+
+        long start = System.nanoTime();
+        Dataset data = gen.generate(sink);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("target=%s users=%d facilities=%d bookings=%d payments=%d maintenance=%d feedback=%d in %.1fs%n",
+            target, data.users.size(), data.facilities.size(), gen.getBookingCount(), gen.getPaymentCount(),
+            gen.getMaintenanceCount(), gen.getFeedbackCount(), seconds);
+        System.out.println("All generated accounts use the password '" + PASSWORD + "'.");
+    }
+}
@@ -0,0 +1,35 @@
+package perf;
+
+import model.Booking;
+import model.Facility;
+import model.Feedback;
+import model.MaintenanceRequest;
+import model.Payment;
+import model.User;
+
+import java.util.List;
+
+/**
+ * Destination for generated rows. Parents are written up front and get their ids assigned in
+ * place; per-facility rows go through a {@link Session}, one per generator thread.
+ */
+interface DataSink {
+    void addUsers(List<User> users);
+
+    void addFacilities(List<Facility> facilities);
+
+    Session openSession();
+
+    interface Session extends AutoCloseable {
+        /** @param payment payment for the booking, or null; its booking id is filled in by the sink */
+        void booking(Booking booking, Payment payment);
+
+        void maintenance(MaintenanceRequest request);
+
+        void feedback(Feedback feedback);
+
+        /** Writes anything still buffered. */
+        @Override
+        void close();
+    }
+}
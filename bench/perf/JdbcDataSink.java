@@ -0,0 +1,232 @@
+package perf;
+
+import db.ConnectionManager;
+import model.Booking;
+import model.Facility;
+import model.Feedback;
+import model.MaintenanceRequest;
+import model.Payment;
+import model.TrainingBooking;
+import model.User;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams rows into MySQL with batched multi-row inserts, one connection and transaction per batch
+ * and per session. Add rewriteBatchedStatements=true to db.url so Connector/J sends each batch as
+ * a single statement.
+ */
+class JdbcDataSink implements DataSink {
+    private static final String USER_SQL =
+        "INSERT INTO users(email, password_hash, full_name, role, phone, coach_fee) VALUES(?,?,?,?,?,?)";
+    private static final String FACILITY_SQL =
+        "INSERT INTO facilities(name, description, hourly_rate, status) VALUES(?,?,?,?)";
+    private static final String BOOKING_SQL =
+        "INSERT INTO bookings(member_id, facility_id, coach_id, start_time, end_time, type, status, facility_fee, coach_fee, total_fee) VALUES(?,?,?,?,?,?,?,?,?,?)";
+    private static final String PAYMENT_SQL =
+        "INSERT INTO payments(booking_id, user_id, amount, discount, paid_at, method, reference) VALUES(?,?,?,?,?,?,?)";
+    private static final String MAINTENANCE_SQL =
+        "INSERT INTO maintenance_requests(facility_id, requested_by, title, description, status, created_at, updated_at) VALUES(?,?,?,?,?,?,?)";
+    private static final String FEEDBACK_SQL =
+        "INSERT INTO feedback(user_id, facility_id, rating, comments, created_at) VALUES(?,?,?,?,?)";
+
+    private final int batchSize;
+
+    JdbcDataSink(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void addUsers(List<User> users) {
+        for (int from = 0; from < users.size(); from += batchSize) {
+            List<User> batch = users.subList(from, Math.min(users.size(), from + batchSize));
+            try (Connection c = ConnectionManager.getConnection()) {
+                c.setAutoCommit(false);
+                try (PreparedStatement ps = c.prepareStatement(USER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    for (User u : batch) {
+                        ps.setString(1, u.getEmail());
+                        ps.setString(2, u.getPasswordHash());
+                        ps.setString(3, u.getFullName());
+                        ps.setString(4, u.getRole().name());
+                        ps.setString(5, u.getPhone());
+                        if (u.getCoachFee() == null) ps.setNull(6, Types.DECIMAL); else ps.setDouble(6, u.getCoachFee());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    assignKeys(ps, batch.size(), (i, id) -> batch.get(i).setId(id));
+                }
+                c.commit();
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to insert generated users", e);
+            }
+        }
+    }
+
+    @Override
+    public void addFacilities(List<Facility> facilities) {
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(FACILITY_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (Facility f : facilities) {
+                ps.setString(1, f.getName());
+                ps.setString(2, f.getDescription());
+                ps.setDouble(3, f.getHourlyRate());
+                ps.setString(4, f.getStatus().name());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            assignKeys(ps, facilities.size(), (i, id) -> facilities.get(i).setId(id));
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to insert generated facilities", e);
+        }
+    }
+
+    @Override
+    public Session openSession() {
+        return new BatchSession();
+    }
+
+    private interface KeyConsumer {
+        void accept(int index, long id);
+    }
+
+    private static void assignKeys(PreparedStatement ps, int expected, KeyConsumer consumer) throws SQLException {
+        int i = 0;
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            while (keys.next() && i < expected) consumer.accept(i++, keys.getLong(1));
+        }
+        if (i != expected) throw new SQLException("Expected " + expected + " generated keys, got " + i);
+    }
+
+    private static Timestamp ts(Instant t) {
+        return t == null ? new Timestamp(System.currentTimeMillis()) : Timestamp.from(t);
+    }
+
+    /** Buffers one facility's rows and writes them a batch at a time; payments follow their bookings' keys. */
+    private final class BatchSession implements Session {
+        private final List<Booking> bookings = new ArrayList<>();
+        private final List<Payment> payments = new ArrayList<>();
+        private final List<MaintenanceRequest> requests = new ArrayList<>();
+        private final List<Feedback> feedback = new ArrayList<>();
+
+        @Override
+        public void booking(Booking booking, Payment payment) {
+            bookings.add(booking);
+            payments.add(payment);
+            if (bookings.size() >= batchSize) flush();
+        }
+
+        @Override
+        public void maintenance(MaintenanceRequest request) {
+            requests.add(request);
+            if (requests.size() >= batchSize) flush();
+        }
+
+        @Override
+        public void feedback(Feedback f) {
+            feedback.add(f);
+            if (feedback.size() >= batchSize) flush();
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+
+        private void flush() {
+            if (bookings.isEmpty() && requests.isEmpty() && feedback.isEmpty()) return;
+            try (Connection c = ConnectionManager.getConnection()) {
+                c.setAutoCommit(false);
+                writeBookings(c);
+                writeRequests(c);
+                writeFeedback(c);
+                c.commit();
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to insert generated facility data", e);
+            }
+            bookings.clear();
+            payments.clear();
+            requests.clear();
+            feedback.clear();
+        }
+
+        private void writeBookings(Connection c) throws SQLException {
+            if (bookings.isEmpty()) return;
+            try (PreparedStatement ps = c.prepareStatement(BOOKING_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Booking b : bookings) {
+                    ps.setLong(1, b.getMemberId());
+                    ps.setLong(2, b.getFacilityId());
+                    if (b.getCoachId() == null) ps.setNull(3, Types.BIGINT); else ps.setLong(3, b.getCoachId());
+                    ps.setTimestamp(4, Timestamp.valueOf(b.getStartTime()));
+                    ps.setTimestamp(5, Timestamp.valueOf(b.getEndTime()));
+                    ps.setString(6, b instanceof TrainingBooking ? "TRAINING" : "FACILITY");
+                    ps.setString(7, b.getStatus().name());
+                    ps.setDouble(8, b.getFacilityFee());
+                    ps.setDouble(9, b.getCoachFee());
+                    ps.setDouble(10, b.getTotalFee());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                assignKeys(ps, bookings.size(), (i, id) -> bookings.get(i).setId(id));
+            }
+            try (PreparedStatement ps = c.prepareStatement(PAYMENT_SQL)) {
+                boolean any = false;
+                for (int i = 0; i < bookings.size(); i++) {
+                    Payment p = payments.get(i);
+                    if (p == null) continue;
+                    p.setBookingId(bookings.get(i).getId());
+                    ps.setLong(1, p.getBookingId());
+                    ps.setLong(2, p.getUserId());
+                    ps.setDouble(3, p.getAmount());
+                    ps.setDouble(4, p.getDiscount());
+                    ps.setTimestamp(5, Timestamp.valueOf(p.getPaidAt()));
+                    ps.setString(6, p.getMethod().name());
+                    ps.setString(7, p.getReference());
+                    ps.addBatch();
+                    any = true;
+                }
+                if (any) ps.executeBatch();
+            }
+        }
+
+        private void writeRequests(Connection c) throws SQLException {
+            if (requests.isEmpty()) return;
+            try (PreparedStatement ps = c.prepareStatement(MAINTENANCE_SQL)) {
+                for (MaintenanceRequest m : requests) {
+                    ps.setLong(1, m.getFacilityId());
+                    ps.setLong(2, m.getRequestedBy());
+                    ps.setString(3, m.getTitle());
+                    ps.setString(4, m.getDescription());
+                    ps.setString(5, m.getStatus().name());
+                    ps.setTimestamp(6, ts(m.getCreatedAt()));
+                    ps.setTimestamp(7, ts(m.getUpdatedAt() != null ? m.getUpdatedAt() : m.getCreatedAt()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+
+        private void writeFeedback(Connection c) throws SQLException {
+            if (feedback.isEmpty()) return;
+            try (PreparedStatement ps = c.prepareStatement(FEEDBACK_SQL)) {
+                for (Feedback f : feedback) {
+                    ps.setLong(1, f.getUserId());
+                    if (f.getFacilityId() == null) ps.setNull(2, Types.BIGINT); else ps.setLong(2, f.getFacilityId());
+                    ps.setInt(3, f.getRating());
+                    ps.setString(4, f.getComments());
+                    ps.setTimestamp(5, ts(f.getCreatedAt()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+    }
+}
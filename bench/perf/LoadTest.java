@@ -0,0 +1,362 @@
+package perf;
+
+import dao.BookingDao;
+import dao.FacilityDao;
+import dao.PaymentDao;
+import dao.UserDao;
+import dao.impl.BookingDaoInMemory;
+import dao.impl.BookingDaoJdbc;
+import dao.impl.FacilityDaoInMemory;
+import dao.impl.FacilityDaoJdbc;
+import dao.impl.InMemoryStore;
+import dao.impl.PaymentDaoInMemory;
+import dao.impl.PaymentDaoJdbc;
+import dao.impl.UserDaoInMemory;
+import dao.impl.UserDaoJdbc;
+import model.Booking;
+import model.Facility;
+import model.FacilityBooking;
+import model.Payment;
+import model.PaymentMethod;
+import model.Role;
+import model.User;
+import service.LoginThrottledException;
+import service.impl.AuthServiceImpl;
+import service.impl.BookingServiceImpl;
+import service.impl.PaymentServiceImpl;
+import util.LatencyHistogram;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Headless load driver: N front-desk terminals and M self-service kiosks run the same service and
+ * DAO calls as the screens, concurrently, and the run reports throughput, p50/p95/p99 latency and
+ * error, conflict and throttling rates per operation.
+ *
+ * Front desks sign in once with a staff account, then repeatedly open the bookings list, search for
+ * a member, book a slot (and take payment), cancel one of their bookings, or refresh the dashboard.
+ * Kiosks run short member sessions: sign in, check a facility's day, book, usually pay, sometimes
+ * cancel, sign out.
+ *
+ * Usage: LoadTest [--backend memory|jdbc] [--desks n] [--kiosks n] [--duration 60s] [--warmup 10s]
+ *        [--think 500ms] [--seed n] [--members n] [--facilities n] [--days n]
+ * The memory backend generates its own dataset (members/facilities/days); the jdbc backend uses the
+ * database as it is and expects accounts created by DataGenerator.
+ */
+public class LoadTest {
+    enum Op { LOGIN, OPEN_BOOKINGS, SEARCH_MEMBER, CHECK_AVAILABILITY, CREATE_BOOKING, RECORD_PAYMENT, CANCEL_BOOKING, REFRESH_DASHBOARD, LOGOUT }
+
+    private static final String[] NAME_FRAGMENTS = {"per", "silva", "an", "kum", "dil", "ra", "her", "ish"};
+    private static final int BOOKING_WINDOW_DAYS = 14;
+
+    private final UserDao userDao;
+    private final FacilityDao facilityDao;
+    private final BookingDao bookingDao;
+    private final PaymentDao paymentDao;
+    private final AuthServiceImpl auth;
+    private final BookingServiceImpl bookings;
+    private final PaymentServiceImpl payments;
+    private final List<User> staff;
+    private final List<User> members;
+    private final List<Facility> facilities;
+    private final Duration think;
+    private final LocalDate firstBookableDay = LocalDate.now().plusDays(1);
+
+    private final Map<Op, Stats> stats = new EnumMap<>(Op.class);
+    private volatile boolean recording;
+
+    LoadTest(UserDao userDao, FacilityDao facilityDao, BookingDao bookingDao, PaymentDao paymentDao, Duration think) {
+        this.userDao = userDao;
+        this.facilityDao = facilityDao;
+        this.bookingDao = bookingDao;
+        this.paymentDao = paymentDao;
+        this.auth = new AuthServiceImpl(userDao);
+        this.bookings = new BookingServiceImpl(bookingDao, facilityDao);
+        this.payments = new PaymentServiceImpl(paymentDao);
+        this.think = think;
+        this.staff = generated(userDao.findByRole(Role.ADMIN));
+        this.staff.addAll(generated(userDao.findByRole(Role.COACH)));
+        this.members = generated(userDao.findByRole(Role.MEMBER));
+        this.facilities = facilityDao.findAll();
+        if (staff.isEmpty() || members.isEmpty() || facilities.isEmpty()) {
+            throw new IllegalStateException("No generated accounts or facilities found; run DataGenerator first");
+        }
+        for (Op op : Op.values()) stats.put(op, new Stats());
+    }
+
+    private static List<User> generated(List<User> users) {
+        return users.stream().filter(u -> u.getEmail().endsWith("@club.example")).collect(Collectors.toList());
+    }
+
+    private static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder throttled = new LongAdder();
+        volatile String lastError;
+    }
+
+    /** Outcome of one timed call; only successful calls feed the latency histogram. */
+    private interface Call<T> {
+        T run() throws Exception;
+    }
+
+    private <T> Optional<T> timed(Op op, Call<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.run();
+            if (recording) stats.get(op).latency.record(System.nanoTime() - start);
+            return Optional.ofNullable(result);
+        } catch (LoginThrottledException e) {
+            if (recording) stats.get(op).throttled.increment();
+        } catch (IllegalStateException e) {
+            // Overlapping bookings and unavailable facilities are business conflicts, not failures
+            if (recording) stats.get(op).conflicts.increment();
+        } catch (Exception e) {
+            if (recording) {
+                Stats s = stats.get(op);
+                s.errors.increment();
+                s.lastError = e.toString();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void pause(SplittableRandom r) throws InterruptedException {
+        if (think.isZero()) return;
+        // Exponential think times around the configured mean
+        double millis = -Math.log(1 - r.nextDouble()) * think.toMillis();
+        Thread.sleep((long) millis);
+    }
+
+    private void frontDesk(int desk, SplittableRandom r, long deadline) throws InterruptedException {
+        String terminal = "desk-" + desk;
+        User account = staff.get(desk % staff.size());
+        Optional<User> user = Optional.empty();
+        while (!user.isPresent() && System.nanoTime() < deadline) {
+            user = timed(Op.LOGIN, () -> auth.login(account.getEmail(), DataGenerator.PASSWORD, terminal).orElse(null));
+            if (!user.isPresent()) pause(r);
+        }
+        List<Long> mine = new ArrayList<>();
+        while (System.nanoTime() < deadline) {
+            int roll = r.nextInt(100);
+            if (roll < 25) {
+                timed(Op.OPEN_BOOKINGS, this::openBookings);
+            } else if (roll < 50) {
+                String fragment = NAME_FRAGMENTS[r.nextInt(NAME_FRAGMENTS.length)];
+                timed(Op.SEARCH_MEMBER, () -> searchMember(fragment));
+            } else if (roll < 70) {
+                User member = members.get(r.nextInt(members.size()));
+                bookAndPay(r, member, mine, 90);
+            } else if (roll < 80) {
+                cancelOne(r, mine);
+            } else {
+                timed(Op.REFRESH_DASHBOARD, this::refreshDashboard);
+            }
+            pause(r);
+        }
+    }
+
+    private void kiosk(int kiosk, SplittableRandom r, long deadline) throws InterruptedException {
+        String terminal = "kiosk-" + kiosk;
+        while (System.nanoTime() < deadline) {
+            User member = members.get(r.nextInt(members.size()));
+            Optional<User> user = timed(Op.LOGIN, () -> auth.login(member.getEmail(), DataGenerator.PASSWORD, terminal).orElse(null));
+            pause(r);
+            if (!user.isPresent()) continue;
+            String session = auth.openSession(user.get());
+
+            Facility f = facilities.get(r.nextInt(facilities.size()));
+            LocalDate day = firstBookableDay.plusDays(r.nextInt(BOOKING_WINDOW_DAYS));
+            timed(Op.CHECK_AVAILABILITY, () -> bookings.getFacilityAvailability(f.getId(), day.atStartOfDay(), day.plusDays(1).atStartOfDay()));
+            pause(r);
+            List<Long> mine = new ArrayList<>();
+            bookAndPay(r, member, mine, 70);
+            pause(r);
+            if (r.nextInt(10) == 0) cancelOne(r, mine);
+            timed(Op.LOGOUT, () -> {
+                auth.closeSession(session);
+                return Boolean.TRUE;
+            });
+            pause(r);
+        }
+    }
+
+    private void bookAndPay(SplittableRandom r, User member, List<Long> mine, int payPercent) throws InterruptedException {
+        Facility f = facilities.get(r.nextInt(facilities.size()));
+        LocalDateTime start = firstBookableDay.plusDays(r.nextInt(BOOKING_WINDOW_DAYS)).atTime(6, 0).plusMinutes(30L * r.nextInt(32));
+        FacilityBooking b = new FacilityBooking();
+        b.setMemberId(member.getId());
+        b.setFacilityId(f.getId());
+        b.setStartTime(start);
+        b.setEndTime(start.plusHours(1));
+        b.setFacilityFee(f.getHourlyRate());
+        b.setTotalFee(f.getHourlyRate());
+        Optional<Long> id = timed(Op.CREATE_BOOKING, () -> bookings.createFacilityBooking(b));
+        if (!id.isPresent()) return;
+        mine.add(id.get());
+        if (r.nextInt(100) >= payPercent) return;
+        pause(r);
+        Payment p = new Payment();
+        p.setBookingId(id.get());
+        p.setUserId(member.getId());
+        p.setAmount(b.getTotalFee());
+        p.setMethod(r.nextBoolean() ? PaymentMethod.CARD : PaymentMethod.CASH);
+        timed(Op.RECORD_PAYMENT, () -> payments.record(p));
+    }
+
+    private void cancelOne(SplittableRandom r, List<Long> mine) {
+        if (mine.isEmpty()) return;
+        Long id = mine.remove(r.nextInt(mine.size()));
+        timed(Op.CANCEL_BOOKING, () -> {
+            bookings.cancel(id);
+            return id;
+        });
+    }
+
+    // Same calls as BookingsPanel.loadData: every booking, then member/facility/coach names per row
+    private Integer openBookings() {
+        int rows = 0;
+        for (Object o : bookingDao.findAll()) {
+            Booking b = (Booking) o;
+            userDao.findById(b.getMemberId());
+            facilityDao.findById(b.getFacilityId());
+            if (b.getCoachId() != null) userDao.findById(b.getCoachId());
+            rows++;
+        }
+        return rows;
+    }
+
+    // Same as UsersPanel's search box: load everyone, filter in memory
+    private Integer searchMember(String fragment) {
+        String needle = fragment.toLowerCase(Locale.ROOT);
+        return (int) userDao.findAll().stream()
+            .filter(u -> u.getFullName().toLowerCase(Locale.ROOT).contains(needle) || u.getEmail().toLowerCase(Locale.ROOT).contains(needle))
+            .count();
+    }
+
+    // Same lists DashboardPanel.refreshStatistics loads
+    private Integer refreshDashboard() {
+        return userDao.findAll().size() + bookingDao.findAll().size() + paymentDao.findAll().size() + facilityDao.findAll().size();
+    }
+
+    void run(int desks, int kiosks, Duration warmup, Duration measure, long seed) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long deadline = measureFrom + measure.toNanos();
+        CountDownLatch done = new CountDownLatch(desks + kiosks);
+        List<Thread> threads = new ArrayList<>();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < desks + kiosks; i++) {
+            int n = i;
+            SplittableRandom r = seeds.split();
+            boolean desk = i < desks;
+            Thread t = new Thread(() -> {
+                try {
+                    if (desk) frontDesk(n, r, deadline); else kiosk(n - desks, r, deadline);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, desk ? "desk-" + n : "kiosk-" + (n - desks));
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+        Thread.sleep(Math.max(0, TimeUnit.NANOSECONDS.toMillis(measureFrom - System.nanoTime())));
+        recording = true;
+        long measuredFrom = System.nanoTime();
+        done.await();
+        recording = false;
+        report(desks, kiosks, (System.nanoTime() - measuredFrom) / 1e9);
+    }
+
+    private void report(int desks, int kiosks, double seconds) {
+        System.out.printf("desks=%d kiosks=%d think=%dms measured=%.1fs%n", desks, kiosks, think.toMillis(), seconds);
+        System.out.printf("%-20s %9s %9s %10s %10s %10s %10s %8s %9s %9s%n",
+            "operation", "count", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors", "conflicts", "throttled");
+        long totalOk = 0;
+        long totalFailed = 0;
+        for (Op op : Op.values()) {
+            Stats s = stats.get(op);
+            long ok = s.latency.getCount();
+            long failed = s.errors.sum() + s.conflicts.sum() + s.throttled.sum();
+            if (ok + failed == 0) continue;
+            totalOk += ok;
+            totalFailed += failed;
+            System.out.printf("%-20s %9d %9.1f %10.2f %10.2f %10.2f %10.2f %8d %9d %9d%n",
+                op.name().toLowerCase(Locale.ROOT), ok, ok / seconds,
+                ms(s.latency.getPercentileNanos(50)), ms(s.latency.getPercentileNanos(95)),
+                ms(s.latency.getPercentileNanos(99)), ms(s.latency.getMaxNanos()),
+                s.errors.sum(), s.conflicts.sum(), s.throttled.sum());
+        }
+        System.out.printf("total: %.1f successful ops/s, %.2f%% failed, conflicted or throttled%n",
+            totalOk / seconds, totalOk + totalFailed == 0 ? 0 : 100.0 * totalFailed / (totalOk + totalFailed));
+        for (Op op : Op.values()) {
+            String last = stats.get(op).lastError;
+            if (last != null) System.out.println("last " + op.name().toLowerCase(Locale.ROOT) + " error: " + last);
+        }
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    static Duration parseDuration(String s) {
+        String v = s.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        if (v.endsWith("s")) return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        if (v.endsWith("m")) return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        return Duration.ofMillis(Long.parseLong(v));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            opts.put(args[i].substring(2), args[i + 1]);
+        }
+        String backend = opts.getOrDefault("backend", "memory");
+        long seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+        Duration think = parseDuration(opts.getOrDefault("think", "500ms"));
+
+        LoadTest test;
+        if ("memory".equals(backend)) {
+            InMemoryStore store = new InMemoryStore();
+            DataGenerator gen = new DataGenerator(seed,
+                Integer.parseInt(opts.getOrDefault("members", "5000")), 50,
+                Integer.parseInt(opts.getOrDefault("facilities", "10")),
+                LocalDate.now().minusDays(Integer.parseInt(opts.getOrDefault("days", "30"))),
+                Integer.parseInt(opts.getOrDefault("days", "30")),
+                Runtime.getRuntime().availableProcessors());
+            gen.generate(DataGenerator.inMemory(store));
+            System.out.printf("generated %d bookings, %d payments in memory%n", gen.getBookingCount(), gen.getPaymentCount());
+            test = new LoadTest(new UserDaoInMemory(store), new FacilityDaoInMemory(store), new BookingDaoInMemory(store),
+                new PaymentDaoInMemory(store), think);
+        } else if ("jdbc".equals(backend)) {
+            test = new LoadTest(new UserDaoJdbc(), new FacilityDaoJdbc(), new BookingDaoJdbc(), new PaymentDaoJdbc(), think);
+        } else {
+            throw new IllegalArgumentException("Unknown backend " + backend + " (expected memory or jdbc)");
+        }
+        test.run(Integer.parseInt(opts.getOrDefault("desks", "8")),
+            Integer.parseInt(opts.getOrDefault("kiosks", "4")),
+            parseDuration(opts.getOrDefault("warmup", "10s")),
+            parseDuration(opts.getOrDefault("duration", "60s")),
+            seed);
+    }
+}
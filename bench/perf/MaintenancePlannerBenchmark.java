@@ -0,0 +1,103 @@
+package perf;
+
+import dao.impl.BookingDaoInMemory;
+import dao.impl.FacilityDaoInMemory;
+import dao.impl.InMemoryStore;
+import dao.impl.MaintenanceDaoInMemory;
+import dao.impl.UserDaoInMemory;
+import model.BookingStatus;
+import model.Facility;
+import model.FacilityBooking;
+import model.FacilityStatus;
+import model.MaintenanceProposal;
+import model.MaintenanceRequest;
+import model.Role;
+import model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.impl.BookingServiceImpl;
+import service.impl.MaintenanceServiceImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proposes a window for one open request per facility over a year of hourly bookings (busier in
+ * the evenings) and the next two weeks: the bookings scan, the occupancy matrix and the fork/join
+ * search together, against the in-memory backend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaintenancePlannerBenchmark {
+    @Param({"10", "50"})
+    public int facilityCount;
+
+    private MaintenanceServiceImpl service;
+
+    @Setup
+    public void setUp() {
+        InMemoryStore store = new InMemoryStore();
+        UserDaoInMemory users = new UserDaoInMemory(store);
+        User admin = new User();
+        admin.setEmail("admin@bench.local");
+        admin.setPasswordHash("-");
+        admin.setFullName("Bench Admin");
+        admin.setRole(Role.ADMIN);
+        Long adminId = users.create(admin);
+        FacilityDaoInMemory facilities = new FacilityDaoInMemory(store);
+        BookingDaoInMemory bookings = new BookingDaoInMemory(store);
+        MaintenanceDaoInMemory maintenance = new MaintenanceDaoInMemory(store);
+        service = new MaintenanceServiceImpl(maintenance, bookings, new BookingServiceImpl(bookings, facilities));
+
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < facilityCount; i++) {
+            Facility f = new Facility();
+            f.setName("Court " + i);
+            f.setHourlyRate(20);
+            f.setStatus(FacilityStatus.AVAILABLE);
+            f.setCapacity(2);
+            Long facilityId = facilities.create(f);
+            for (int day = -365; day < 14; day++) {
+                for (int hour = 7; hour < 22; hour++) {
+                    if (random.nextInt(100) >= (hour >= 17 ? 80 : 30)) continue;
+                    LocalDateTime start = today.plusDays(day).atTime(hour, 0);
+                    FacilityBooking b = new FacilityBooking();
+                    b.setMemberId(adminId);
+                    b.setFacilityId(facilityId);
+                    b.setStartTime(start);
+                    b.setEndTime(start.plusHours(1));
+                    b.setStatus(BookingStatus.CONFIRMED);
+                    bookings.createFacilityBooking(b);
+                }
+            }
+            MaintenanceRequest r = new MaintenanceRequest();
+            r.setFacilityId(facilityId);
+            r.setRequestedBy(adminId);
+            r.setTitle("Resurface court " + i);
+            r.setEstimatedMinutes(i % 2 == 0 ? 240 : 600);
+            maintenance.create(r);
+        }
+    }
+
+    @Benchmark
+    public List<MaintenanceProposal> proposeWindows() {
+        return service.proposeWindows();
+    }
+}
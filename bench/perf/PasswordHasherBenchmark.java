@@ -0,0 +1,63 @@
+package perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import util.PasswordHasher;
+import util.Pbkdf2PasswordScheme;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of PasswordHasher.hash and verify at a PBKDF2 iteration count, and how many logins per
+ * second a terminal absorbs with every core verifying at once. The suite runs the default cost;
+ * ant bench-password sweeps the cost levels so the calibrated cost can be weighed against kiosk
+ * login throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHasherBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"210000"})
+    public int iterations;
+
+    private String stored;
+
+    @Setup
+    public void setUp() {
+        PasswordHasher.setScheme(new Pbkdf2PasswordScheme(iterations));
+        stored = PasswordHasher.hashWithRandomSalt(PASSWORD);
+    }
+
+    @Benchmark
+    public String hash() {
+        return PasswordHasher.hashWithRandomSalt(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return PasswordHasher.verify(PASSWORD, stored);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public boolean verifyAllCores() {
+        return PasswordHasher.verify(PASSWORD, stored);
+    }
+}
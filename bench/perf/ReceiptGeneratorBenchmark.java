@@ -0,0 +1,58 @@
+package perf;
+
+import model.Payment;
+import model.PaymentMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.ReceiptGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receipt rendering alone, and rendering plus the file write the payments screen performs.
+ * Written receipts are deleted inside the measured call so runs do not fill the working directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReceiptGeneratorBenchmark {
+    private Payment payment;
+
+    @Setup
+    public void setUp() {
+        payment = new Payment();
+        payment.setId(4821L);
+        payment.setBookingId(10342L);
+        payment.setUserId(77L);
+        payment.setAmount(45.0);
+        payment.setDiscount(5.0);
+        payment.setMethod(PaymentMethod.CARD);
+        payment.setReference("POS-558120");
+        payment.setPaidAt(LocalDateTime.of(2025, 1, 6, 10, 15));
+    }
+
+    @Benchmark
+    public String format() {
+        return ReceiptGenerator.formatTextReceipt(payment);
+    }
+
+    @Benchmark
+    public boolean generateFile() throws IOException {
+        File f = ReceiptGenerator.generateTextReceipt(payment);
+        return f.delete();
+    }
+}
@@ -0,0 +1,152 @@
+package perf;
+
+import dao.impl.FacilityDaoInMemory;
+import dao.impl.GroupClassDaoInMemory;
+import dao.impl.InMemoryStore;
+import dao.impl.UserDaoInMemory;
+import model.Facility;
+import model.FacilityStatus;
+import model.GroupClass;
+import model.Role;
+import model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import service.impl.GroupClassServiceImpl;
+import util.SeatCounter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sixteen threads fighting over the last seats of a class. casSeat and lockedSeat claim a seat and
+ * give it straight back, on a {@link SeatCounter} and on the synchronized counter it replaced;
+ * fullClassReject is the common case once a popular class has filled up. enrollAndLeave runs the
+ * whole service path against the in-memory backend, each thread as its own member.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class SeatAllocationBenchmark {
+    private static final int CAPACITY = 8;
+    private static final int THREADS = 16;
+
+    /** The synchronized baseline. */
+    static final class LockedCounter {
+        private final int capacity;
+        private int taken;
+
+        LockedCounter(int capacity, int taken) {
+            this.capacity = capacity;
+            this.taken = taken;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (taken >= capacity) return false;
+            taken++;
+            return true;
+        }
+
+        synchronized void release() {
+            if (taken > 0) taken--;
+        }
+    }
+
+    /** One member per benchmark thread. */
+    @State(Scope.Thread)
+    public static class Member {
+        long id;
+
+        @Setup
+        public void setUp(SeatAllocationBenchmark shared) {
+            id = shared.members.poll();
+        }
+    }
+
+    // Every thread but one can hold a seat at once, so claims race for the last free ones
+    private final SeatCounter casCounter = new SeatCounter(THREADS - 1, 0);
+    private final LockedCounter lockedCounter = new LockedCounter(THREADS - 1, 0);
+    private final SeatCounter fullCounter = new SeatCounter(CAPACITY, CAPACITY);
+    private final ConcurrentLinkedQueue<Long> members = new ConcurrentLinkedQueue<>();
+    private GroupClassServiceImpl service;
+    private long classId;
+
+    @Setup
+    public void setUp() {
+        InMemoryStore store = new InMemoryStore();
+        UserDaoInMemory users = new UserDaoInMemory(store);
+        User coach = user("coach@bench.local", Role.COACH);
+        Long coachId = users.create(coach);
+        for (int i = 0; i < THREADS; i++) members.add(users.create(user("member" + i + "@bench.local", Role.MEMBER)));
+
+        Facility studio = new Facility();
+        studio.setName("Studio");
+        studio.setHourlyRate(10);
+        studio.setStatus(FacilityStatus.AVAILABLE);
+        studio.setCapacity(CAPACITY);
+        FacilityDaoInMemory facilities = new FacilityDaoInMemory(store);
+        Long studioId = facilities.create(studio);
+
+        service = new GroupClassServiceImpl(new GroupClassDaoInMemory(store), facilities, users);
+        GroupClass spin = new GroupClass();
+        spin.setTitle("Spin");
+        spin.setCoachId(coachId);
+        spin.setFacilityId(studioId);
+        spin.setStartTime(LocalDateTime.now().plusDays(1));
+        spin.setEndTime(spin.getStartTime().plusHours(1));
+        spin.setCapacity(CAPACITY);
+        classId = service.schedule(spin);
+    }
+
+    @Benchmark
+    public boolean casSeat() {
+        if (!casCounter.tryAcquire()) return false;
+        casCounter.release();
+        return true;
+    }
+
+    @Benchmark
+    public boolean lockedSeat() {
+        if (!lockedCounter.tryAcquire()) return false;
+        lockedCounter.release();
+        return true;
+    }
+
+    @Benchmark
+    public boolean fullClassReject() {
+        return fullCounter.tryAcquire();
+    }
+
+    @Benchmark
+    public boolean enrollAndLeave(Member member) {
+        try {
+            service.enroll(classId, member.id);
+        } catch (IllegalStateException full) {
+            return false;
+        }
+        service.leave(classId, member.id);
+        return true;
+    }
+
+    private static User user(String email, Role role) {
+        User u = new User();
+        u.setEmail(email);
+        u.setPasswordHash("-");
+        u.setFullName(email);
+        u.setRole(role);
+        return u;
+    }
+}
@@ -0,0 +1,108 @@
+package perf;
+
+import dao.impl.BookingDaoInMemory;
+import dao.impl.FacilityDaoInMemory;
+import dao.impl.InMemoryStore;
+import dao.impl.UserDaoInMemory;
+import model.BookingStatus;
+import model.Facility;
+import model.FacilityBooking;
+import model.FacilityStatus;
+import model.IdleWindow;
+import model.Role;
+import model.User;
+import model.UtilizationHeatmap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.impl.UtilizationServiceImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utilization over a year, the hour-of-week heatmap over a year and one day's idle windows from
+ * the slot bitmap, for a year of hourly bookings (busier in the evenings) per facility. The bitmap
+ * is built once in setup; the measured calls are the popcount aggregations alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UtilizationBenchmark {
+    @Param({"10", "50"})
+    public int facilityCount;
+
+    private UtilizationServiceImpl service;
+    private LocalDate today;
+    private Long facilityId;
+
+    @Setup
+    public void setUp() {
+        InMemoryStore store = new InMemoryStore();
+        UserDaoInMemory users = new UserDaoInMemory(store);
+        User member = new User();
+        member.setEmail("member@bench.local");
+        member.setPasswordHash("-");
+        member.setFullName("Bench Member");
+        member.setRole(Role.MEMBER);
+        Long memberId = users.create(member);
+        FacilityDaoInMemory facilities = new FacilityDaoInMemory(store);
+        BookingDaoInMemory bookings = new BookingDaoInMemory(store);
+        service = new UtilizationServiceImpl(bookings, facilities);
+
+        Random random = new Random(42);
+        today = LocalDate.now();
+        for (int i = 0; i < facilityCount; i++) {
+            Facility f = new Facility();
+            f.setName("Court " + i);
+            f.setHourlyRate(20);
+            f.setStatus(FacilityStatus.AVAILABLE);
+            f.setCapacity(2);
+            facilityId = facilities.create(f);
+            for (int day = -365; day < 0; day++) {
+                for (int hour = 7; hour < 22; hour++) {
+                    if (random.nextInt(100) >= (hour >= 17 ? 80 : 30)) continue;
+                    LocalDateTime start = today.plusDays(day).atTime(hour, 0);
+                    FacilityBooking b = new FacilityBooking();
+                    b.setMemberId(memberId);
+                    b.setFacilityId(facilityId);
+                    b.setStartTime(start);
+                    b.setEndTime(start.plusHours(1));
+                    b.setStatus(BookingStatus.CONFIRMED);
+                    bookings.createFacilityBooking(b);
+                }
+            }
+        }
+        // Builds the bitmap
+        service.utilization(today.minusDays(1), today);
+    }
+
+    @Benchmark
+    public double utilizationYear() {
+        return service.utilization(today.minusDays(365), today);
+    }
+
+    @Benchmark
+    public UtilizationHeatmap heatmapYear() {
+        return service.heatmap(today.minusDays(365), today);
+    }
+
+    @Benchmark
+    public List<IdleWindow> idleWindowsDay() {
+        return service.idleWindows(facilityId, today.minusDays(1), 60);
+    }
+}
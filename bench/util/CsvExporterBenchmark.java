@@ -0,0 +1,70 @@
+package util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report export cost: escaping a single row, and writing a whole payments-style report to disk.
+ * Every third row carries a comma or quote so both escaping branches are exercised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvExporterBenchmark {
+    private static final List<String> HEADER = Arrays.asList("ID", "Booking", "User", "Amount", "Discount", "Method", "Reference", "Paid At");
+
+    @Param({"1000", "50000"})
+    public int rows;
+
+    private List<List<String>> data;
+    private List<String> quotedRow;
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String reference = i % 3 == 0 ? "Smith, J. \"front desk\"" : "REF-" + i;
+            data.add(Arrays.asList(String.valueOf(i), String.valueOf(i * 2), String.valueOf(i % 500),
+                "25.00", "0.00", "CARD", reference, "2025-01-06 10:15"));
+        }
+        quotedRow = data.get(0);
+        file = File.createTempFile("csv-bench", ".csv");
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public String escapeRow() {
+        return CsvExporter.escapeRow(quotedRow);
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        CsvExporter.export(file, HEADER, data);
+        return file.length();
+    }
+}
@@ -22,7 +22,8 @@ CREATE TABLE facilities (
   name VARCHAR(255) NOT NULL UNIQUE,
   description TEXT,
   hourly_rate DECIMAL(10,2) NOT NULL,
-  status ENUM('AVAILABLE','UNDER_MAINTENANCE') NOT NULL DEFAULT 'AVAILABLE'
+  status ENUM('AVAILABLE','UNDER_MAINTENANCE') NOT NULL DEFAULT 'AVAILABLE',
+  capacity INT NOT NULL DEFAULT 1 CHECK (capacity >= 1)
 );
 
 -- Bookings
@@ -38,15 +39,24 @@ CREATE TABLE bookings (
   facility_fee DECIMAL(10,2) NOT NULL DEFAULT 0.00,
   coach_fee DECIMAL(10,2) NOT NULL DEFAULT 0.00,
   total_fee DECIMAL(10,2) NOT NULL DEFAULT 0.00,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
   CONSTRAINT fk_booking_member FOREIGN KEY (member_id) REFERENCES users(id),
   CONSTRAINT fk_booking_facility FOREIGN KEY (facility_id) REFERENCES facilities(id),
   CONSTRAINT fk_booking_coach FOREIGN KEY (coach_id) REFERENCES users(id)
 );
 
--- Prevent overlapping bookings for the same facility
--- Application should enforce; index helps search
+-- At most facilities.capacity confirmed bookings may overlap at any moment
+-- Application enforces it under a lock on the facility row; index helps search
 CREATE INDEX idx_bookings_facility_time ON bookings(facility_id, start_time, end_time);
 
+-- A coach has at most one confirmed booking at any moment, at any facility
+-- Application enforces it under a lock on the coach's user row; index serves the overlap check
+CREATE INDEX idx_bookings_coach_time ON bookings(coach_id, start_time);
+
+-- Member metrics find bookings changed or started since their last run
+CREATE INDEX idx_bookings_updated ON bookings(updated_at);
+CREATE INDEX idx_bookings_start ON bookings(start_time);
+
 -- Payments
 CREATE TABLE payments (
   id BIGINT PRIMARY KEY AUTO_INCREMENT,
@@ -62,6 +72,7 @@ CREATE TABLE payments (
 );
 
 -- Maintenance Requests
+-- A request with a window closes its facility for bookings over that window until it is resolved
 CREATE TABLE maintenance_requests (
   id BIGINT PRIMARY KEY AUTO_INCREMENT,
   facility_id BIGINT NOT NULL,
@@ -69,10 +80,18 @@ CREATE TABLE maintenance_requests (
   title VARCHAR(255) NOT NULL,
   description TEXT,
   status ENUM('OPEN','IN_PROGRESS','RESOLVED') NOT NULL DEFAULT 'OPEN',
+  window_start DATETIME NULL,
+  window_end DATETIME NULL,
+  estimated_minutes INT NULL,
   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
   updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
   CONSTRAINT fk_mr_facility FOREIGN KEY (facility_id) REFERENCES facilities(id),
-  CONSTRAINT fk_mr_user FOREIGN KEY (requested_by) REFERENCES users(id)
+  CONSTRAINT fk_mr_user FOREIGN KEY (requested_by) REFERENCES users(id),
+  CONSTRAINT chk_mr_window CHECK ((window_start IS NULL AND window_end IS NULL) OR window_end > window_start),
+  CONSTRAINT chk_mr_estimate CHECK (estimated_minutes IS NULL OR estimated_minutes > 0),
+  FULLTEXT INDEX ft_mr_text (title, description),
+  -- Windows overlapping a booking, checked on every admission
+  INDEX idx_mr_facility_window (facility_id, window_start)
 );
 
 -- Feedback
@@ -84,19 +103,138 @@ CREATE TABLE feedback (
   comments TEXT,
   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
   CONSTRAINT fk_feedback_user FOREIGN KEY (user_id) REFERENCES users(id),
-  CONSTRAINT fk_feedback_facility FOREIGN KEY (facility_id) REFERENCES facilities(id)
+  CONSTRAINT fk_feedback_facility FOREIGN KEY (facility_id) REFERENCES facilities(id),
+  FULLTEXT INDEX ft_feedback_comments (comments)
+);
+
+-- Group Classes
+-- seats_taken is only changed by a conditional UPDATE (seats_taken < capacity), so enrollment
+-- never needs more than the class row's own lock
+CREATE TABLE group_classes (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  title VARCHAR(255) NOT NULL,
+  coach_id BIGINT NOT NULL,
+  facility_id BIGINT NOT NULL,
+  start_time DATETIME NOT NULL,
+  end_time DATETIME NOT NULL,
+  capacity INT NOT NULL CHECK (capacity >= 1),
+  seats_taken INT NOT NULL DEFAULT 0,
+  fee DECIMAL(10,2) NOT NULL DEFAULT 0.00,
+  status ENUM('SCHEDULED','CANCELLED') NOT NULL DEFAULT 'SCHEDULED',
+  CONSTRAINT chk_class_seats CHECK (seats_taken BETWEEN 0 AND capacity),
+  CONSTRAINT fk_class_coach FOREIGN KEY (coach_id) REFERENCES users(id),
+  CONSTRAINT fk_class_facility FOREIGN KEY (facility_id) REFERENCES facilities(id),
+  INDEX idx_group_classes_start (start_time)
+);
+
+CREATE TABLE class_enrollments (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  class_id BIGINT NOT NULL,
+  member_id BIGINT NOT NULL,
+  enrolled_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT uq_class_member UNIQUE (class_id, member_id),
+  CONSTRAINT fk_enrollment_class FOREIGN KEY (class_id) REFERENCES group_classes(id),
+  CONSTRAINT fk_enrollment_member FOREIGN KEY (member_id) REFERENCES users(id),
+  INDEX idx_enrollments_member (member_id)
+);
+
+-- Waitlist
+-- Members queued for a full booking slot (class_id NULL) or class, served in request order;
+-- a promoted entry points at the booking or enrollment it became
+CREATE TABLE waitlist (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  member_id BIGINT NOT NULL,
+  facility_id BIGINT NOT NULL,
+  coach_id BIGINT,
+  class_id BIGINT,
+  start_time DATETIME NOT NULL,
+  end_time DATETIME NOT NULL,
+  facility_fee DECIMAL(10,2) NOT NULL DEFAULT 0.00,
+  coach_fee DECIMAL(10,2) NOT NULL DEFAULT 0.00,
+  total_fee DECIMAL(10,2) NOT NULL DEFAULT 0.00,
+  status ENUM('WAITING','PROMOTED','EXPIRED','CANCELLED') NOT NULL DEFAULT 'WAITING',
+  requested_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  booking_id BIGINT,
+  enrollment_id BIGINT,
+  CONSTRAINT fk_waitlist_member FOREIGN KEY (member_id) REFERENCES users(id),
+  CONSTRAINT fk_waitlist_facility FOREIGN KEY (facility_id) REFERENCES facilities(id),
+  CONSTRAINT fk_waitlist_coach FOREIGN KEY (coach_id) REFERENCES users(id),
+  CONSTRAINT fk_waitlist_class FOREIGN KEY (class_id) REFERENCES group_classes(id),
+  CONSTRAINT fk_waitlist_booking FOREIGN KEY (booking_id) REFERENCES bookings(id),
+  CONSTRAINT fk_waitlist_enrollment FOREIGN KEY (enrollment_id) REFERENCES class_enrollments(id) ON DELETE SET NULL,
+  INDEX idx_waitlist_facility (facility_id, status, start_time),
+  INDEX idx_waitlist_class (class_id, status),
+  INDEX idx_waitlist_member (member_id)
 );
 
+-- Coach working hours: training with a coach must fall inside one of the coach's windows
+-- A coach without any rows is bookable at any time
+CREATE TABLE coach_hours (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  coach_id BIGINT NOT NULL,
+  day_of_week TINYINT NOT NULL,
+  start_time TIME NOT NULL,
+  end_time TIME NOT NULL,
+  CONSTRAINT fk_coach_hours_coach FOREIGN KEY (coach_id) REFERENCES users(id) ON DELETE CASCADE,
+  CONSTRAINT chk_coach_hours_day CHECK (day_of_week BETWEEN 1 AND 7),
+  CONSTRAINT chk_coach_hours CHECK (end_time > start_time),
+  INDEX idx_coach_hours_coach (coach_id, day_of_week)
+);
+
+-- Member metrics: per-member totals and scores written by the metrics job, one row per member
+-- Visits are confirmed bookings already started; lifetime_value is the sum of the member's payments
+CREATE TABLE member_metrics (
+  member_id BIGINT PRIMARY KEY,
+  visits INT NOT NULL DEFAULT 0,
+  first_visit_at DATETIME NULL,
+  last_visit_at DATETIME NULL,
+  lifetime_value DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+  visits_per_week DECIMAL(8,3) NOT NULL DEFAULT 0.000,
+  avg_spend DECIMAL(10,2) NOT NULL DEFAULT 0.00,
+  days_since_last_visit INT NULL,
+  churn_risk DECIMAL(5,4) NOT NULL DEFAULT 1.0000,
+  computed_at DATETIME NOT NULL,
+  CONSTRAINT fk_member_metrics_member FOREIGN KEY (member_id) REFERENCES users(id) ON DELETE CASCADE,
+  CONSTRAINT chk_member_metrics_risk CHECK (churn_risk BETWEEN 0 AND 1),
+  INDEX idx_member_metrics_risk (churn_risk),
+  -- Rows not yet rescored today
+  INDEX idx_member_metrics_computed (computed_at)
+);
+
+-- One row per metrics run; the next run starts from the last one's started_at and last_payment_id
+CREATE TABLE member_metrics_runs (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  started_at DATETIME NOT NULL,
+  finished_at DATETIME NOT NULL,
+  last_payment_id BIGINT NOT NULL DEFAULT 0,
+  members_updated INT NOT NULL DEFAULT 0,
+  members_rescored INT NOT NULL DEFAULT 0
+);
+
+-- Existing databases: add the search indexes without recreating the tables
+-- ALTER TABLE maintenance_requests ADD FULLTEXT INDEX ft_mr_text (title, description);
+-- ALTER TABLE feedback ADD FULLTEXT INDEX ft_feedback_comments (comments);
+-- ALTER TABLE facilities ADD COLUMN capacity INT NOT NULL DEFAULT 1 CHECK (capacity >= 1);
+-- CREATE INDEX idx_bookings_coach_time ON bookings(coach_id, start_time);
+-- ALTER TABLE maintenance_requests ADD COLUMN window_start DATETIME NULL, ADD COLUMN window_end DATETIME NULL,
+--   ADD CONSTRAINT chk_mr_window CHECK ((window_start IS NULL AND window_end IS NULL) OR window_end > window_start),
+--   ADD INDEX idx_mr_facility_window (facility_id, window_start);
+-- ALTER TABLE maintenance_requests ADD COLUMN estimated_minutes INT NULL,
+--   ADD CONSTRAINT chk_mr_estimate CHECK (estimated_minutes IS NULL OR estimated_minutes > 0);
+-- ALTER TABLE bookings ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+--   ADD INDEX idx_bookings_updated (updated_at), ADD INDEX idx_bookings_start (start_time);
+-- (then create member_metrics and member_metrics_runs as above)
+
 -- Seed data
 INSERT INTO users(email, password_hash, full_name, role, phone)
 VALUES
 ('admin@scms.local', '$2a$10$K2Y2p1wX6q1L7rDkV1kz3e3YyQnN3w7y1jI5rYOXR6hGfW6z7t6yK', 'System Administrator', 'ADMIN', '000-000-0000');
 -- Password hash corresponds to bcrypt('admin123') placeholder. Replace if needed.
 
-INSERT INTO facilities(name, description, hourly_rate, status)
+INSERT INTO facilities(name, description, hourly_rate, status, capacity)
 VALUES
-('Gym', 'Indoor gym facility', 15.00, 'AVAILABLE'),
-('Swimming Pool', 'Olympic-size pool', 25.00, 'AVAILABLE'),
-('Tennis Court', 'Outdoor clay court', 20.00, 'AVAILABLE');
+('Gym', 'Indoor gym facility', 15.00, 'AVAILABLE', 30),
+('Swimming Pool', 'Olympic-size pool', 25.00, 'AVAILABLE', 40),
+('Tennis Court', 'Outdoor clay court', 20.00, 'AVAILABLE', 1);
 
 
@@ -0,0 +1,870 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.ConfigLoader;
+import dao.BookingDao;
+import dao.DataAccessException;
+import dao.UserDao;
+import model.Booking;
+import model.BookingStatus;
+import model.ClassEnrollment;
+import model.Facility;
+import model.FacilityBooking;
+import model.FacilityStatus;
+import model.GroupClass;
+import model.Payment;
+import model.PaymentMethod;
+import model.Role;
+import model.TrainingBooking;
+import model.User;
+import model.WaitlistEntry;
+import service.AuthService;
+import service.BookingService;
+import service.FacilityService;
+import service.GroupClassService;
+import service.LoginThrottledException;
+import service.PaymentService;
+import service.WaitlistService;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless HTTP/JSON front end for the auth, booking, facility, payment and class services, so kiosks and
+ * the member app share the desktop application's business rules.
+ *
+ * Requests run on a virtual thread each when the JDK has them (21+) and on a bounded pool of
+ * api.threads platform threads otherwise. Responses are streamed with {@link JsonWriter}.
+ * Sign in with POST /api/sessions and send the token as "Authorization: Bearer ..." afterwards.
+ * The facility listing and per-day availability are served from an {@link AvailabilityCache} and
+ * answer If-None-Match with 304.
+ *
+ * <pre>
+ * POST   /api/sessions                       {email, password}  -> {token, user}
+ * DELETE /api/sessions
+ * GET    /api/facilities[?status=AVAILABLE]
+ * GET    /api/facilities/{id}
+ * GET    /api/facilities/{id}/availability?from=...&amp;to=...   (no sign-in needed)
+ * GET    /api/facilities/{id}/availability/{date}               (no sign-in needed, cached, ETag)
+ * POST   /api/facilities                     admin
+ * PUT    /api/facilities/{id}                admin
+ * DELETE /api/facilities/{id}                admin
+ * POST   /api/bookings                       {facilityId, start, end, coachId?, memberId?}
+ * POST   /api/bookings/{id}/cancel
+ * GET    /api/bookings/{id}/payments
+ * GET    /api/payments                       admin
+ * POST   /api/payments                       {bookingId, amount, method, discount?, reference?}
+ * GET    /api/classes?from=...&amp;to=...         (no sign-in needed; default the next 7 days)
+ * POST   /api/classes                        admin or coach {title, facilityId, start, end, capacity, fee?, coachId?}
+ * POST   /api/classes/{id}/cancel            admin or the class's coach
+ * GET    /api/classes/{id}/enrollments       admin or the class's coach
+ * POST   /api/classes/{id}/enrollments       {memberId?}  -> 201, or 409 when full
+ * DELETE /api/classes/{id}/enrollments[?memberId=...]
+ * GET    /api/waitlist                       own entries; admin: everyone still waiting
+ * POST   /api/waitlist                       {facilityId, start, end, coachId?, memberId?} or {classId, memberId?}
+ * DELETE /api/waitlist/{id}                  the entry's member or admin
+ * </pre>
+ */
+public class ApiServer {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final Duration MAX_AVAILABILITY_RANGE = Duration.ofDays(31);
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final AuthService auth;
+    private final BookingService bookings;
+    private final FacilityService facilities;
+    private final PaymentService payments;
+    private final GroupClassService classes;
+    private final WaitlistService waitlist;
+    private final BookingDao bookingDao;
+    private final UserDao userDao;
+    private final AvailabilityCache availability;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private AutoCloseable promotions;
+
+    public ApiServer(AuthService auth, BookingService bookings, FacilityService facilities, PaymentService payments,
+                     GroupClassService classes, WaitlistService waitlist, BookingDao bookingDao, UserDao userDao) {
+        this.auth = auth;
+        this.bookings = bookings;
+        this.facilities = facilities;
+        this.payments = payments;
+        this.classes = classes;
+        this.waitlist = waitlist;
+        this.bookingDao = bookingDao;
+        this.userDao = userDao;
+        this.availability = new AvailabilityCache(
+            ConfigLoader.getDuration("availability.cache.ttl", Duration.ofSeconds(30)),
+            ConfigLoader.getInt("availability.cache.max.entries", 4096));
+    }
+
+    public synchronized void start(String host, int port, int fallbackThreads) throws IOException {
+        if (server != null) throw new IllegalStateException("API server already started");
+        // Headers and the chunked body go out as separate writes; without TCP_NODELAY each response
+        // waits on the client's delayed ACK (~40 ms). Read once when the first HttpServer is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) System.setProperty("sun.net.httpserver.nodelay", "true");
+        executor = requestExecutor(fallbackThreads);
+        server = HttpServer.create(new InetSocketAddress(host, port), 1024);
+        server.createContext("/api/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        // Bookings made off the waitlist change availability like any other booking
+        promotions = waitlist.onPromoted(entry -> {
+            if (!entry.isClassEntry()) availability.bookingChanged(entry.getFacilityId(), entry.getStartTime(), entry.getEndTime());
+        });
+    }
+
+    public synchronized void stop() {
+        if (server == null) return;
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        try {
+            promotions.close();
+        } catch (Exception ignore) { }
+    }
+
+    public synchronized InetSocketAddress getAddress() {
+        return server == null ? null : server.getAddress();
+    }
+
+    /** Virtual thread per request where the JDK supports it, otherwise a fixed pool. */
+    static ExecutorService requestExecutor(int fallbackThreads) {
+        try {
+            // Looked up reflectively so the project still compiles for Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger n = new AtomicInteger();
+            return Executors.newFixedThreadPool(fallbackThreads, r -> {
+                Thread t = new Thread(r, "api-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /** Maps to an HTTP status; everything else thrown by a route is a 500. */
+    private static final class ApiException extends RuntimeException {
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private final class Request {
+        final HttpExchange exchange;
+        final String method;
+        final String[] path;
+        private Map<String, String> query;
+        private Optional<User> user;
+
+        Request(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.method = exchange.getRequestMethod();
+            String p = exchange.getRequestURI().getPath().substring("/api/".length());
+            this.path = p.isEmpty() ? new String[0] : p.split("/");
+        }
+
+        boolean is(String method, int segments) {
+            return this.method.equals(method) && path.length == segments;
+        }
+
+        long id(int segment) {
+            try {
+                return Long.parseLong(path[segment]);
+            } catch (NumberFormatException e) {
+                throw new ApiException(404, "Not found");
+            }
+        }
+
+        String param(String name) {
+            if (query == null) query = parseQuery(exchange.getRequestURI().getRawQuery());
+            return query.get(name);
+        }
+
+        String token() {
+            String header = exchange.getRequestHeaders().getFirst("Authorization");
+            if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+            return header.substring(7).trim();
+        }
+
+        Optional<User> user() {
+            if (user == null) user = auth.resumeSession(token());
+            return user;
+        }
+
+        User requireUser() {
+            return user().orElseThrow(() -> new ApiException(401, "Sign in required"));
+        }
+
+        User requireAdmin() {
+            User u = requireUser();
+            if (u.getRole() != Role.ADMIN) throw new ApiException(403, "Administrator only");
+            return u;
+        }
+
+        Map<String, Object> body() throws IOException {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+                if (bytes.length > MAX_BODY_BYTES) throw new ApiException(413, "Request body too large");
+                return JsonReader.parseObject(new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Request req = new Request(exchange);
+            try {
+                route(req);
+            } catch (ApiException e) {
+                error(exchange, e.status, e.getMessage());
+            } catch (LoginThrottledException e) {
+                long seconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(e.getRetryAfterMillis() + 999));
+                exchange.getResponseHeaders().set("Retry-After", Long.toString(seconds));
+                error(exchange, 429, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                error(exchange, 400, e.getMessage());
+            } catch (IllegalStateException e) {
+                error(exchange, 409, e.getMessage());
+            } catch (DataAccessException e) {
+                if (e.isConstraintViolation()) error(exchange, 409, e.getMessage());
+                else error(exchange, 500, e.getMessage());
+            } catch (RuntimeException e) {
+                error(exchange, 500, "Internal error");
+            }
+        }
+    }
+
+    private void route(Request req) throws IOException {
+        String resource = req.path.length == 0 ? "" : req.path[0];
+        switch (resource) {
+            case "sessions":
+                if (req.is("POST", 1)) { login(req); return; }
+                if (req.is("DELETE", 1)) { logout(req); return; }
+                break;
+            case "facilities":
+                if (req.is("GET", 1)) { listFacilities(req); return; }
+                if (req.is("POST", 1)) { addFacility(req); return; }
+                if (req.is("GET", 2)) { getFacility(req); return; }
+                if (req.is("PUT", 2)) { updateFacility(req); return; }
+                if (req.is("DELETE", 2)) { removeFacility(req); return; }
+                if (req.is("GET", 3) && req.path[2].equals("availability")) { availability(req); return; }
+                if (req.is("GET", 4) && req.path[2].equals("availability")) { dayAvailability(req); return; }
+                break;
+            case "bookings":
+                if (req.is("POST", 1)) { createBooking(req); return; }
+                if (req.is("POST", 3) && req.path[2].equals("cancel")) { cancelBooking(req); return; }
+                if (req.is("GET", 3) && req.path[2].equals("payments")) { bookingPayments(req); return; }
+                break;
+            case "payments":
+                if (req.is("GET", 1)) { listPayments(req); return; }
+                if (req.is("POST", 1)) { recordPayment(req); return; }
+                break;
+            case "classes":
+                if (req.is("GET", 1)) { listClasses(req); return; }
+                if (req.is("POST", 1)) { scheduleClass(req); return; }
+                if (req.is("POST", 3) && req.path[2].equals("cancel")) { cancelClass(req); return; }
+                if (req.is("GET", 3) && req.path[2].equals("enrollments")) { classEnrollments(req); return; }
+                if (req.is("POST", 3) && req.path[2].equals("enrollments")) { enroll(req); return; }
+                if (req.is("DELETE", 3) && req.path[2].equals("enrollments")) { leaveClass(req); return; }
+                break;
+            case "waitlist":
+                if (req.is("GET", 1)) { listWaitlist(req); return; }
+                if (req.is("POST", 1)) { joinWaitlist(req); return; }
+                if (req.is("DELETE", 2)) { leaveWaitlist(req); return; }
+                break;
+            default:
+                throw new ApiException(404, "Not found");
+        }
+        throw new ApiException(405, "Method not allowed");
+    }
+
+    // Sessions
+
+    private void login(Request req) throws IOException {
+        Map<String, Object> body = req.body();
+        // Throttled per remote address; a label the client sends could be changed on every attempt
+        String terminal = "api:" + req.exchange.getRemoteAddress().getAddress().getHostAddress();
+        User user = auth.login(requiredString(body, "email"), requiredString(body, "password"), terminal)
+            .orElseThrow(() -> new ApiException(401, "Invalid credentials"));
+        String token = auth.openSession(user);
+        JsonWriter w = respond(req.exchange, 201);
+        w.beginObject().name("token").value(token).name("user");
+        writeUser(w, user);
+        w.endObject().flush();
+    }
+
+    private void logout(Request req) {
+        auth.closeSession(req.token());
+        noContent(req.exchange);
+    }
+
+    // Facilities
+
+    private void listFacilities(Request req) throws IOException {
+        String status = req.param("status");
+        if (status == null) {
+            sendCached(req, availability.listing(() -> render(w -> writeFacilities(w, facilities.listAll()))));
+            return;
+        }
+        JsonWriter w = respond(req.exchange, 200);
+        writeFacilities(w, facilities.listByStatus(enumValue(FacilityStatus.class, status, "status")));
+        w.flush();
+    }
+
+    private void getFacility(Request req) throws IOException {
+        Facility f = facilities.get(req.id(1)).orElseThrow(() -> new ApiException(404, "Facility not found"));
+        JsonWriter w = respond(req.exchange, 200);
+        writeFacility(w, f);
+        w.flush();
+    }
+
+    private void addFacility(Request req) throws IOException {
+        req.requireAdmin();
+        Facility f = new Facility();
+        readFacility(req.body(), f);
+        long id = facilities.add(f);
+        availability.facilityChanged(id);
+        JsonWriter w = respond(req.exchange, 201);
+        w.beginObject().name("id").value(id).endObject().flush();
+    }
+
+    private void updateFacility(Request req) throws IOException {
+        req.requireAdmin();
+        Facility f = facilities.get(req.id(1)).orElseThrow(() -> new ApiException(404, "Facility not found"));
+        readFacility(req.body(), f);
+        facilities.update(f);
+        availability.facilityChanged(f.getId());
+        noContent(req.exchange);
+    }
+
+    private void removeFacility(Request req) {
+        req.requireAdmin();
+        facilities.remove(req.id(1));
+        availability.facilityChanged(req.id(1));
+        noContent(req.exchange);
+    }
+
+    private void readFacility(Map<String, Object> body, Facility f) {
+        if (body.containsKey("name")) f.setName(requiredString(body, "name"));
+        if (body.containsKey("description")) f.setDescription(optionalString(body, "description"));
+        if (body.containsKey("hourlyRate")) f.setHourlyRate(requiredNumber(body, "hourlyRate").doubleValue());
+        if (body.containsKey("capacity")) f.setCapacity(requiredNumber(body, "capacity").intValue());
+        if (body.containsKey("status")) f.setStatus(enumValue(FacilityStatus.class, requiredString(body, "status"), "status"));
+        if (f.getStatus() == null) f.setStatus(FacilityStatus.AVAILABLE);
+    }
+
+    /** Busy slots only: who booked them is not exposed. */
+    private void availability(Request req) throws IOException {
+        long facilityId = req.id(1);
+        LocalDateTime from = dateTime(req.param("from"), "from");
+        LocalDateTime to = dateTime(req.param("to"), "to");
+        if (!to.isAfter(from)) throw new IllegalArgumentException("to must be after from");
+        if (Duration.between(from, to).compareTo(MAX_AVAILABILITY_RANGE) > 0) {
+            throw new IllegalArgumentException("Range is limited to " + MAX_AVAILABILITY_RANGE.toDays() + " days");
+        }
+        List<Object> busy = bookings.getFacilityAvailability(facilityId, from, to);
+        JsonWriter w = respond(req.exchange, 200);
+        w.beginObject().name("facilityId").value(facilityId).name("from").value(from).name("to").value(to).name("busy");
+        writeBusy(w, busy);
+        w.endObject().flush();
+    }
+
+    /** One calendar day, rendered once and then served from the cache until a booking changes it. */
+    private void dayAvailability(Request req) throws IOException {
+        long facilityId = req.id(1);
+        LocalDate date;
+        try {
+            date = LocalDate.parse(req.path[3]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("date must be an ISO date such as 2025-03-01");
+        }
+        AvailabilityCache.Snapshot day = availability.day(facilityId, date, () -> {
+            Optional<Facility> facility = facilities.get(facilityId);
+            if (!facility.isPresent()) return null;
+            LocalDateTime from = date.atStartOfDay();
+            List<Object> busy = bookings.getFacilityAvailability(facilityId, from, from.plusDays(1));
+            return render(w -> {
+                w.beginObject()
+                    .name("facilityId").value(facilityId)
+                    .name("date").value(date.toString())
+                    .name("status").value(facility.get().getStatus())
+                    .name("capacity").value(facility.get().getCapacity())
+                    .name("busy");
+                writeBusy(w, busy);
+                w.endObject();
+            });
+        });
+        if (day == null) throw new ApiException(404, "Facility not found");
+        sendCached(req, day);
+    }
+
+    private static void writeBusy(JsonWriter w, List<Object> bookings) throws IOException {
+        w.beginArray();
+        for (Object o : bookings) {
+            Booking b = (Booking) o;
+            if (b.getStatus() == BookingStatus.CANCELLED) continue;
+            w.beginObject()
+                .name("start").value(b.getStartTime())
+                .name("end").value(b.getEndTime())
+                .name("type").value(b instanceof TrainingBooking ? "TRAINING" : "FACILITY")
+                .endObject();
+        }
+        w.endArray();
+    }
+
+    // Bookings
+
+    private void createBooking(Request req) throws IOException {
+        User user = req.requireUser();
+        Map<String, Object> body = req.body();
+        long facilityId = requiredNumber(body, "facilityId").longValue();
+        Long coachId = optionalLong(body, "coachId");
+        Long memberId = optionalLong(body, "memberId");
+        if (memberId == null || user.getRole() == Role.MEMBER) memberId = user.getId();
+        LocalDateTime start = dateTime(optionalString(body, "start"), "start");
+        LocalDateTime end = dateTime(optionalString(body, "end"), "end");
+        Facility facility = facilities.get(facilityId).orElseThrow(() -> new IllegalArgumentException("Facility not found"));
+
+        Booking b = coachId == null ? new FacilityBooking() : new TrainingBooking();
+        b.setMemberId(memberId);
+        b.setFacilityId(facilityId);
+        b.setCoachId(coachId);
+        b.setStartTime(start);
+        b.setEndTime(end);
+        price(b, facility);
+        long id = b instanceof TrainingBooking
+            ? bookings.createTrainingBooking((TrainingBooking) b)
+            : bookings.createFacilityBooking((FacilityBooking) b);
+        availability.bookingChanged(facilityId, start, end);
+        JsonWriter w = respond(req.exchange, 201);
+        w.beginObject().name("id").value(id).name("totalFee").value(b.getTotalFee()).endObject().flush();
+    }
+
+    // Same fees as the Bookings screen: facility fee holds the hourly rate, coach fee the coach's rate times hours
+    private void price(Booking b, Facility facility) {
+        double hours = Math.max(0, Duration.between(b.getStartTime(), b.getEndTime()).toMinutes() / 60.0);
+        double facilityFee = Math.round(facility.getHourlyRate() * 100.0) / 100.0;
+        double coachFee = 0.0;
+        if (b instanceof TrainingBooking) {
+            Double coachRate = userDao.findById(b.getCoachId())
+                .filter(u -> u.getRole() == Role.COACH)
+                .orElseThrow(() -> new IllegalArgumentException("Coach not found"))
+                .getCoachFee();
+            coachFee = coachRate != null
+                ? Math.round(coachRate * hours * 100.0) / 100.0
+                : Math.round(facilityFee * hours * 0.25 * 100.0) / 100.0;
+        }
+        b.setFacilityFee(facilityFee);
+        b.setCoachFee(coachFee);
+        b.setTotalFee(Math.round((facilityFee * hours + coachFee) * 100.0) / 100.0);
+    }
+
+    private void cancelBooking(Request req) {
+        User user = req.requireUser();
+        Booking b = findBooking(req.id(1));
+        requireAccess(user, b);
+        bookings.cancel(b.getId());
+        availability.bookingChanged(b.getFacilityId(), b.getStartTime(), b.getEndTime());
+        noContent(req.exchange);
+    }
+
+    private void bookingPayments(Request req) throws IOException {
+        User user = req.requireUser();
+        Booking b = findBooking(req.id(1));
+        requireAccess(user, b);
+        writePayments(req.exchange, payments.listByBooking(b.getId()));
+    }
+
+    private Booking findBooking(long id) {
+        Optional<? extends Booking> b = bookingDao.findFacilityBookingById(id);
+        if (!b.isPresent()) b = bookingDao.findTrainingBookingById(id);
+        return b.orElseThrow(() -> new ApiException(404, "Booking not found"));
+    }
+
+    private static void requireAccess(User user, Booking b) {
+        if (user.getRole() == Role.ADMIN) return;
+        if (user.getId().equals(b.getMemberId()) || user.getId().equals(b.getCoachId())) return;
+        throw new ApiException(403, "Not your booking");
+    }
+
+    // Payments
+
+    private void listPayments(Request req) throws IOException {
+        req.requireAdmin();
+        writePayments(req.exchange, payments.listAll());
+    }
+
+    private void recordPayment(Request req) throws IOException {
+        User user = req.requireUser();
+        Map<String, Object> body = req.body();
+        Booking b = findBooking(requiredNumber(body, "bookingId").longValue());
+        if (user.getRole() != Role.ADMIN && !user.getId().equals(b.getMemberId())) throw new ApiException(403, "Not your booking");
+        Payment p = new Payment();
+        p.setBookingId(b.getId());
+        p.setUserId(b.getMemberId());
+        p.setAmount(requiredNumber(body, "amount").doubleValue());
+        Number discount = (Number) body.get("discount");
+        p.setDiscount(discount == null ? 0 : discount.doubleValue());
+        p.setMethod(enumValue(PaymentMethod.class, requiredString(body, "method"), "method"));
+        p.setReference(optionalString(body, "reference"));
+        p.setPaidAt(LocalDateTime.now());
+        long id = payments.record(p);
+        JsonWriter w = respond(req.exchange, 201);
+        w.beginObject().name("id").value(id).endObject().flush();
+    }
+
+    private void writePayments(HttpExchange exchange, List<Payment> list) throws IOException {
+        JsonWriter w = respond(exchange, 200);
+        w.beginArray();
+        for (Payment p : list) {
+            w.beginObject()
+                .name("id").value(p.getId())
+                .name("bookingId").value(p.getBookingId())
+                .name("userId").value(p.getUserId())
+                .name("amount").value(p.getAmount())
+                .name("discount").value(p.getDiscount())
+                .name("paidAt").value(p.getPaidAt())
+                .name("method").value(p.getMethod())
+                .name("reference").value(p.getReference())
+                .endObject();
+        }
+        w.endArray().flush();
+    }
+
+    // Group classes
+
+    private void listClasses(Request req) throws IOException {
+        String from = req.param("from");
+        String to = req.param("to");
+        LocalDateTime start = from == null ? LocalDate.now().atStartOfDay() : dateTime(from, "from");
+        LocalDateTime end = to == null ? start.plusDays(7) : dateTime(to, "to");
+        if (!end.isAfter(start)) throw new IllegalArgumentException("to must be after from");
+        if (Duration.between(start, end).compareTo(MAX_AVAILABILITY_RANGE) > 0) {
+            throw new IllegalArgumentException("Range may span at most " + MAX_AVAILABILITY_RANGE.toDays() + " days");
+        }
+        JsonWriter w = respond(req.exchange, 200);
+        w.beginArray();
+        for (GroupClass g : classes.listBetween(start, end)) writeClass(w, g);
+        w.endArray().flush();
+    }
+
+    private void scheduleClass(Request req) throws IOException {
+        User user = req.requireUser();
+        if (user.getRole() == Role.MEMBER) throw new ApiException(403, "Administrators and coaches only");
+        Map<String, Object> body = req.body();
+        GroupClass g = new GroupClass();
+        g.setTitle(requiredString(body, "title"));
+        Long coachId = optionalLong(body, "coachId");
+        g.setCoachId(coachId == null || user.getRole() == Role.COACH ? user.getId() : coachId);
+        g.setFacilityId(requiredNumber(body, "facilityId").longValue());
+        g.setStartTime(dateTime(optionalString(body, "start"), "start"));
+        g.setEndTime(dateTime(optionalString(body, "end"), "end"));
+        g.setCapacity(requiredNumber(body, "capacity").intValue());
+        Number fee = (Number) body.get("fee");
+        g.setFee(fee == null ? 0 : fee.doubleValue());
+        long id = classes.schedule(g);
+        JsonWriter w = respond(req.exchange, 201);
+        w.beginObject().name("id").value(id).endObject().flush();
+    }
+
+    private void cancelClass(Request req) {
+        GroupClass g = requireClassOwner(req);
+        classes.cancelClass(g.getId());
+        noContent(req.exchange);
+    }
+
+    private void classEnrollments(Request req) throws IOException {
+        GroupClass g = requireClassOwner(req);
+        JsonWriter w = respond(req.exchange, 200);
+        w.beginArray();
+        for (ClassEnrollment e : classes.enrollments(g.getId())) {
+            w.beginObject()
+                .name("id").value(e.getId())
+                .name("memberId").value(e.getMemberId())
+                .name("enrolledAt").value(e.getEnrolledAt())
+                .endObject();
+        }
+        w.endArray().flush();
+    }
+
+    private void enroll(Request req) throws IOException {
+        User user = req.requireUser();
+        long classId = req.id(1);
+        Long memberId = user.getRole() == Role.ADMIN ? optionalLong(req.body(), "memberId") : null;
+        long id = classes.enroll(classId, memberId == null ? user.getId() : memberId);
+        JsonWriter w = respond(req.exchange, 201);
+        w.beginObject().name("id").value(id).endObject().flush();
+    }
+
+    private void leaveClass(Request req) {
+        User user = req.requireUser();
+        String memberId = req.param("memberId");
+        if (memberId != null && user.getRole() != Role.ADMIN) throw new ApiException(403, "Administrator only");
+        classes.leave(req.id(1), memberId == null ? user.getId() : parseId(memberId, "memberId"));
+        noContent(req.exchange);
+    }
+
+    private GroupClass requireClassOwner(Request req) {
+        User user = req.requireUser();
+        GroupClass g = classes.get(req.id(1)).orElseThrow(() -> new ApiException(404, "Class not found"));
+        if (user.getRole() != Role.ADMIN && !user.getId().equals(g.getCoachId())) throw new ApiException(403, "Not your class");
+        return g;
+    }
+
+    private static void writeClass(JsonWriter w, GroupClass g) throws IOException {
+        w.beginObject()
+            .name("id").value(g.getId())
+            .name("title").value(g.getTitle())
+            .name("coachId").value(g.getCoachId())
+            .name("facilityId").value(g.getFacilityId())
+            .name("start").value(g.getStartTime())
+            .name("end").value(g.getEndTime())
+            .name("capacity").value(g.getCapacity())
+            .name("seatsTaken").value(g.getSeatsTaken())
+            .name("fee").value(g.getFee())
+            .name("status").value(g.getStatus())
+            .endObject();
+    }
+
+    // Waitlist
+
+    private void listWaitlist(Request req) throws IOException {
+        User user = req.requireUser();
+        List<WaitlistEntry> list = user.getRole() == Role.ADMIN ? waitlist.listWaiting() : waitlist.listForMember(user.getId());
+        JsonWriter w = respond(req.exchange, 200);
+        w.beginArray();
+        for (WaitlistEntry e : list) {
+            w.beginObject()
+                .name("id").value(e.getId())
+                .name("memberId").value(e.getMemberId())
+                .name("facilityId").value(e.getFacilityId())
+                .name("coachId").value(e.getCoachId())
+                .name("classId").value(e.getClassId())
+                .name("start").value(e.getStartTime())
+                .name("end").value(e.getEndTime())
+                .name("totalFee").value(e.getTotalFee())
+                .name("status").value(e.getStatus())
+                .name("requestedAt").value(e.getRequestedAt())
+                .name("bookingId").value(e.getBookingId())
+                .name("enrollmentId").value(e.getEnrollmentId())
+                .endObject();
+        }
+        w.endArray().flush();
+    }
+
+    private void joinWaitlist(Request req) throws IOException {
+        User user = req.requireUser();
+        Map<String, Object> body = req.body();
+        Long memberId = optionalLong(body, "memberId");
+        if (memberId == null || user.getRole() != Role.ADMIN) memberId = user.getId();
+        Long classId = optionalLong(body, "classId");
+        long id;
+        if (classId != null) {
+            id = classes.joinWaitlist(classId, memberId);
+        } else {
+            long facilityId = requiredNumber(body, "facilityId").longValue();
+            Long coachId = optionalLong(body, "coachId");
+            Facility facility = facilities.get(facilityId).orElseThrow(() -> new IllegalArgumentException("Facility not found"));
+            Booking b = coachId == null ? new FacilityBooking() : new TrainingBooking();
+            b.setMemberId(memberId);
+            b.setFacilityId(facilityId);
+            b.setCoachId(coachId);
+            b.setStartTime(dateTime(optionalString(body, "start"), "start"));
+            b.setEndTime(dateTime(optionalString(body, "end"), "end"));
+            price(b, facility);
+            id = bookings.joinWaitlist(b);
+        }
+        JsonWriter w = respond(req.exchange, 201);
+        w.beginObject().name("id").value(id).endObject().flush();
+    }
+
+    private void leaveWaitlist(Request req) {
+        User user = req.requireUser();
+        long id = req.id(1);
+        if (user.getRole() != Role.ADMIN) {
+            boolean mine = waitlist.listForMember(user.getId()).stream().anyMatch(e -> e.getId() == id);
+            if (!mine) throw new ApiException(404, "Waitlist entry not found");
+        }
+        waitlist.leave(id);
+        noContent(req.exchange);
+    }
+
+    // Encoding
+
+    private static void writeUser(JsonWriter w, User u) throws IOException {
+        w.beginObject()
+            .name("id").value(u.getId())
+            .name("email").value(u.getEmail())
+            .name("fullName").value(u.getFullName())
+            .name("role").value(u.getRole())
+            .endObject();
+    }
+
+    private static void writeFacilities(JsonWriter w, List<Facility> list) throws IOException {
+        w.beginArray();
+        for (Facility f : list) writeFacility(w, f);
+        w.endArray();
+    }
+
+    private static void writeFacility(JsonWriter w, Facility f) throws IOException {
+        w.beginObject()
+            .name("id").value(f.getId())
+            .name("name").value(f.getName())
+            .name("description").value(f.getDescription())
+            .name("hourlyRate").value(f.getHourlyRate())
+            .name("capacity").value(f.getCapacity())
+            .name("status").value(f.getStatus())
+            .endObject();
+    }
+
+    private static JsonWriter respond(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, 0);
+        Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 8192);
+        return new JsonWriter(out);
+    }
+
+    private interface Body {
+        void write(JsonWriter w) throws IOException;
+    }
+
+    private static byte[] render(Body body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        JsonWriter w = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8));
+        body.write(w);
+        w.flush();
+        return bytes.toByteArray();
+    }
+
+    /** Sends a cached response, or 304 when the client already holds this version. */
+    private static void sendCached(Request req, AvailabilityCache.Snapshot snapshot) throws IOException {
+        HttpExchange exchange = req.exchange;
+        exchange.getResponseHeaders().set("ETag", snapshot.etag);
+        // Clients may keep it but must revalidate, which is a 304 while nothing has changed
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        if (snapshot.matches(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            empty(exchange, 304);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(200, snapshot.json.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(snapshot.json);
+        }
+    }
+
+    private static void noContent(HttpExchange exchange) {
+        try {
+            empty(exchange, 204);
+        } catch (IOException e) {
+            // Client went away; nothing left to tell it
+        }
+    }
+
+    // The JDK server drops a keep-alive connection after a bodiless response unless the request
+    // body was closed first
+    private static void empty(HttpExchange exchange, int status) throws IOException {
+        exchange.getRequestBody().close();
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static void error(HttpExchange exchange, int status, String message) throws IOException {
+        JsonWriter w = respond(exchange, status);
+        w.beginObject().name("error").value(message == null ? "Error" : message).endObject().flush();
+    }
+
+    // Decoding
+
+    private static Map<String, String> parseQuery(String raw) {
+        if (raw == null || raw.isEmpty()) return Collections.emptyMap();
+        Map<String, String> params = new HashMap<>();
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    private static String requiredString(Map<String, Object> body, String key) {
+        String s = optionalString(body, key);
+        if (s == null || s.isEmpty()) throw new IllegalArgumentException(key + " is required");
+        return s;
+    }
+
+    private static String optionalString(Map<String, Object> body, String key) {
+        Object v = body.get(key);
+        if (v == null) return null;
+        if (!(v instanceof String)) throw new IllegalArgumentException(key + " must be a string");
+        return (String) v;
+    }
+
+    private static Number requiredNumber(Map<String, Object> body, String key) {
+        Object v = body.get(key);
+        if (!(v instanceof Number)) throw new IllegalArgumentException(key + " must be a number");
+        return (Number) v;
+    }
+
+    private static Long optionalLong(Map<String, Object> body, String key) {
+        return body.get(key) == null ? null : requiredNumber(body, key).longValue();
+    }
+
+    private static long parseId(String value, String name) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+
+    private static LocalDateTime dateTime(String value, String name) {
+        if (value == null) throw new IllegalArgumentException(name + " is required");
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO date-time such as 2025-03-01T18:00");
+        }
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + name + " '" + value + "'");
+        }
+    }
+}
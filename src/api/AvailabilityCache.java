@@ -0,0 +1,193 @@
+package api;
+
+import monitoring.CacheStats;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendered availability responses, one per facility per day plus the facility listing, each
+ * tagged with a version for ETag / If-None-Match. A fresh entry is answered without touching the
+ * database.
+ *
+ * Bookings and facility changes made through the API mark the affected entries stale. Changes made
+ * at other terminals are picked up when an entry's TTL runs out. A reload only gets a new version
+ * if its content actually changed, so clients keep their 304s across refreshes. Past the size
+ * limit, the days furthest from today are evicted first.
+ */
+final class AvailabilityCache {
+    private static final long LISTING = -1;
+
+    /** A rendered response and its ETag. */
+    static final class Snapshot {
+        final byte[] json;
+        final long version;
+        final String etag;
+        final long loadedAt;
+
+        Snapshot(byte[] json, long version, long loadedAt) {
+            this.json = json;
+            this.version = version;
+            this.etag = "\"" + Long.toString(version, 36) + "\"";
+            this.loadedAt = loadedAt;
+        }
+
+        boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) return false;
+            for (String tag : ifNoneMatch.split(",")) {
+                String t = tag.trim();
+                if (t.startsWith("W/")) t = t.substring(2);
+                if (t.equals(etag) || t.equals("*")) return true;
+            }
+            return false;
+        }
+    }
+
+    interface Loader {
+        /** Renders the response, or returns null when the facility does not exist. */
+        byte[] load() throws IOException;
+    }
+
+    private static final class Key {
+        final long facilityId;
+        final long epochDay;
+
+        Key(long facilityId, long epochDay) {
+            this.facilityId = facilityId;
+            this.epochDay = epochDay;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return facilityId == k.facilityId && epochDay == k.epochDay;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(facilityId, epochDay);
+        }
+    }
+
+    private static final class Entry {
+        volatile Snapshot snapshot;
+        volatile boolean stale;
+    }
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    // Seeded from the clock so tags handed out before a restart are not reused after it
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final CacheStats stats = CacheStats.named("availability");
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    AvailabilityCache(Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = Math.max(16, maxEntries);
+        stats.sizeFrom(entries::size);
+    }
+
+    Snapshot day(long facilityId, LocalDate date, Loader loader) {
+        return get(new Key(facilityId, date.toEpochDay()), loader);
+    }
+
+    Snapshot listing(Loader loader) {
+        return get(new Key(LISTING, 0), loader);
+    }
+
+    /** A booking was created or cancelled: every day it touches must be reloaded. */
+    void bookingChanged(long facilityId, LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) return;
+        LocalDate last = end.toLocalTime().equals(LocalTime.MIDNIGHT) && end.isAfter(start)
+            ? end.toLocalDate().minusDays(1) : end.toLocalDate();
+        for (LocalDate d = start.toLocalDate(); !d.isAfter(last); d = d.plusDays(1)) {
+            Entry e = entries.get(new Key(facilityId, d.toEpochDay()));
+            if (e != null) e.stale = true;
+        }
+    }
+
+    /** A facility was added, edited or removed: its days and the listing must be reloaded. */
+    void facilityChanged(long facilityId) {
+        entries.forEach((k, e) -> {
+            if (k.facilityId == facilityId || k.facilityId == LISTING) e.stale = true;
+        });
+    }
+
+    private Snapshot get(Key key, Loader loader) {
+        Entry e = entries.get(key);
+        if (e == null) {
+            e = entries.computeIfAbsent(key, k -> new Entry());
+            if (entries.size() > maxEntries) evict();
+        }
+        Snapshot s = e.snapshot;
+        if (isFresh(e, s)) {
+            stats.hit();
+            return s;
+        }
+        // One reload per entry; others asking for the same day wait for it rather than query too
+        synchronized (e) {
+            s = e.snapshot;
+            if (isFresh(e, s)) {
+                stats.hit();
+                return s;
+            }
+            stats.miss();
+            // Cleared before loading so a change that lands mid-load marks it stale again
+            e.stale = false;
+            byte[] json;
+            try {
+                json = loader.load();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            if (json == null) {
+                entries.remove(key, e);
+                return null;
+            }
+            long version = s != null && Arrays.equals(s.json, json) ? s.version : versions.incrementAndGet();
+            s = new Snapshot(json, version, System.nanoTime());
+            e.snapshot = s;
+            return s;
+        }
+    }
+
+    private boolean isFresh(Entry e, Snapshot s) {
+        return s != null && !e.stale && System.nanoTime() - s.loadedAt < ttlNanos;
+    }
+
+    // Trim to three quarters of the limit, dropping the days furthest from today (far-future
+    // first, then long past), and never the listing
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) return;
+        try {
+            long today = LocalDate.now().toEpochDay();
+            List<Key> keys = new ArrayList<>(entries.keySet());
+            keys.removeIf(k -> k.facilityId == LISTING);
+            keys.sort(Comparator.comparingLong((Key k) -> distance(k.epochDay, today)).reversed());
+            int excess = entries.size() - maxEntries * 3 / 4;
+            for (int i = 0; i < excess && i < keys.size(); i++) entries.remove(keys.get(i));
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    // Future days weigh double against past ones: yesterday is still looked at, next year rarely
+    private static long distance(long epochDay, long today) {
+        return epochDay >= today ? 2 * (epochDay - today) : today - epochDay;
+    }
+}
@@ -0,0 +1,191 @@
+package api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON parser for request bodies. Objects become maps, arrays lists, numbers Long when
+ * integral and Double otherwise. Malformed input throws IllegalArgumentException, which the API
+ * reports as 400.
+ */
+public final class JsonReader {
+    private static final int MAX_DEPTH = 32;
+
+    private final String s;
+    private int pos;
+
+    private JsonReader(String s) {
+        this.s = s;
+    }
+
+    public static Map<String, Object> parseObject(String json) {
+        JsonReader r = new JsonReader(json);
+        r.skipWhitespace();
+        if (r.pos == r.s.length()) return new LinkedHashMap<>();
+        Object value = r.value(0);
+        r.skipWhitespace();
+        if (r.pos != r.s.length()) throw r.error("Unexpected trailing content");
+        if (!(value instanceof Map)) throw new IllegalArgumentException("Request body must be a JSON object");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = (Map<String, Object>) value;
+        return map;
+    }
+
+    private Object value(int depth) {
+        if (depth > MAX_DEPTH) throw error("Nesting too deep");
+        skipWhitespace();
+        if (pos >= s.length()) throw error("Unexpected end of input");
+        char c = s.charAt(pos);
+        switch (c) {
+            case '{': return object(depth);
+            case '[': return array(depth);
+            case '"': return string();
+            case 't': return literal("true", Boolean.TRUE);
+            case 'f': return literal("false", Boolean.FALSE);
+            case 'n': return literal("null", null);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return number();
+                throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> object(int depth) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return map;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') throw error("Expected a field name");
+            String key = string();
+            skipWhitespace();
+            expect(':');
+            map.put(key, value(depth + 1));
+            skipWhitespace();
+            char c = next();
+            if (c == '}') return map;
+            if (c != ',') throw error("Expected ',' or '}'");
+        }
+    }
+
+    private List<Object> array(int depth) {
+        List<Object> list = new ArrayList<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return list;
+        }
+        while (true) {
+            list.add(value(depth + 1));
+            skipWhitespace();
+            char c = next();
+            if (c == ']') return list;
+            if (c != ',') throw error("Expected ',' or ']'");
+        }
+    }
+
+    private String string() {
+        pos++;
+        StringBuilder sb = null;
+        int from = pos;
+        while (true) {
+            if (pos >= s.length()) throw error("Unterminated string");
+            char c = s.charAt(pos);
+            if (c == '"') {
+                String tail = s.substring(from, pos++);
+                return sb == null ? tail : sb.append(tail).toString();
+            }
+            if (c < 0x20) throw error("Control character in string");
+            if (c != '\\') {
+                pos++;
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder();
+            sb.append(s, from, pos);
+            pos++;
+            char e = next();
+            switch (e) {
+                case '"': sb.append('"'); break;
+                case '\\': sb.append('\\'); break;
+                case '/': sb.append('/'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (pos + 4 > s.length()) throw error("Bad unicode escape");
+                    try {
+                        sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw error("Bad unicode escape");
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    throw error("Bad escape '\\" + e + "'");
+            }
+            from = pos;
+        }
+    }
+
+    private Number number() {
+        int start = pos;
+        boolean integral = true;
+        if (peek() == '-') pos++;
+        while (pos < s.length()) {
+            char c = s.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                pos++;
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                integral = false;
+                pos++;
+            } else {
+                break;
+            }
+        }
+        String text = s.substring(start, pos);
+        try {
+            return integral ? (Number) Long.parseLong(text) : (Number) Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw error("Bad number '" + text + "'");
+        }
+    }
+
+    private Object literal(String word, Object value) {
+        if (!s.startsWith(word, pos)) throw error("Unexpected token");
+        pos += word.length();
+        return value;
+    }
+
+    private void skipWhitespace() {
+        while (pos < s.length()) {
+            char c = s.charAt(pos);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') return;
+            pos++;
+        }
+    }
+
+    private char peek() {
+        return pos < s.length() ? s.charAt(pos) : '\0';
+    }
+
+    private char next() {
+        if (pos >= s.length()) throw error("Unexpected end of input");
+        return s.charAt(pos++);
+    }
+
+    private void expect(char c) {
+        if (next() != c) throw error("Expected '" + c + "'");
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid JSON at offset " + pos + ": " + message);
+    }
+}
@@ -1,38 +1,353 @@
-
 package config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
+/**
+ * Application configuration.
+ *
+ * Values resolve in this order: environment variable (db.url -> DB_URL), the external file named by
+ * the scms.config system property or SCMS_CONFIG environment variable, then the bundled
+ * db.properties. Resolved and parsed values are cached until the external file changes; once
+ * {@link #startWatching()} has been called, edits to that file are picked up and subscribers of the
+ * changed keys are notified.
+ */
 public class ConfigLoader {
     private static final String DB_PROPERTIES_RESOURCE = "/resources/db.properties";
+    private static final String CONFIG_FILE_PROPERTY = "scms.config";
+    private static final String CONFIG_FILE_ENV = "SCMS_CONFIG";
+    // Editors often write a file in several steps; wait for them to settle before reloading
+    private static final long RELOAD_SETTLE_MILLIS = 200;
+
+    private static final Properties BUNDLED = loadBundled();
+    private static final Path EXTERNAL_FILE = externalFile();
+    private static volatile Properties external = loadExternal();
+
+    // Optional.empty() marks a key known to be unset so it is not looked up again
+    private static final Map<String, Optional<String>> RESOLVED = new ConcurrentHashMap<>();
+    private static final Map<String, Parsed> PARSED = new ConcurrentHashMap<>();
+    // Every typed key read so far, by type:key, so a reload can check its new value first
+    private static final Map<String, Function<String, ?>> PARSERS = new ConcurrentHashMap<>();
+    private static final List<Subscription> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+    private static Thread watcher;
+    private static volatile String lastReloadError;
+
+    public static String getProperty(String key, String defaultValue) {
+        return resolve(key).orElse(defaultValue);
+    }
+
+    public static String requireProperty(String key) {
+        String value = getProperty(key, null);
+        return Objects.requireNonNull(value, "Missing required property: " + key);
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return parsed(key, "int", defaultValue, v -> {
+            try {
+                return Integer.parseInt(v);
+            } catch (NumberFormatException e) {
+                throw invalid(key, v, "an integer");
+            }
+        });
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        return parsed(key, "long", defaultValue, v -> {
+            try {
+                return Long.parseLong(v);
+            } catch (NumberFormatException e) {
+                throw invalid(key, v, "an integer");
+            }
+        });
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return parsed(key, "boolean", defaultValue, v -> {
+            switch (v.toLowerCase(Locale.ROOT)) {
+                case "true": case "yes": case "on": case "1": return true;
+                case "false": case "no": case "off": case "0": return false;
+                default: throw invalid(key, v, "true or false");
+            }
+        });
+    }
+
+    /**
+     * Accepts a number with an ms, s, m, h or d suffix ("250ms", "30s", "15m"), an ISO-8601
+     * duration ("PT30S"), or a bare number of milliseconds.
+     */
+    public static Duration getDuration(String key, Duration defaultValue) {
+        return parsed(key, "duration", defaultValue, v -> parseDuration(key, v));
+    }
+
+    /**
+     * Size in bytes. Accepts a bare number or a k, m or g suffix (optionally followed by b),
+     * in powers of 1024: "512", "64k", "16MB", "1g".
+     */
+    public static long getSize(String key, long defaultBytes) {
+        return parsed(key, "size", defaultBytes, v -> parseSize(key, v));
+    }
+
+    /**
+     * Runs {@code onChange} after a reload in which any of {@code keys} changed, or after any
+     * reload when no keys are given. Callbacks run on the watcher thread.
+     * @return a handle that cancels the subscription when closed
+     */
+    public static AutoCloseable subscribe(Runnable onChange, String... keys) {
+        Subscription s = new Subscription(onChange, new HashSet<>(Arrays.asList(keys)));
+        SUBSCRIBERS.add(s);
+        return () -> SUBSCRIBERS.remove(s);
+    }
+
+    /** Starts watching the external configuration file, if one is configured. Safe to call more than once. */
+    public static synchronized void startWatching() {
+        if (watcher != null || EXTERNAL_FILE == null) return;
+        Path dir = EXTERNAL_FILE.toAbsolutePath().getParent();
+        WatchService ws;
+        try {
+            ws = FileSystems.getDefault().newWatchService();
+            dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to watch configuration directory " + dir, e);
+        }
+        watcher = new Thread(() -> watch(ws), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Re-reads the external file and notifies subscribers of changed keys. A file that does not
+     * parse, or that gives a key already read as an int, duration and so on a value of the wrong
+     * type, is not applied; the last good configuration stays in use and the reason is reported by
+     * {@link #getLastReloadError()}.
+     */
+    public static synchronized void reload() {
+        Properties previous = external;
+        Properties next;
+        try {
+            next = readExternal();
+        } catch (IOException | IllegalArgumentException e) {
+            // Keep serving the last good configuration
+            lastReloadError = "Failed to reload " + EXTERNAL_FILE + ": " + e.getMessage();
+            return;
+        }
+        lastReloadError = null;
+        Set<String> changed = new HashSet<>();
+        for (String k : previous.stringPropertyNames()) {
+            if (!Objects.equals(previous.getProperty(k), next.getProperty(k))) changed.add(k);
+        }
+        for (String k : next.stringPropertyNames()) {
+            if (!previous.containsKey(k)) changed.add(k);
+        }
+        for (Map.Entry<String, Function<String, ?>> e : PARSERS.entrySet()) {
+            String key = e.getKey().substring(e.getKey().indexOf(':') + 1);
+            if (!changed.contains(key)) continue;
+            Optional<String> raw = lookup(next, key);
+            try {
+                raw.ifPresent(e.getValue()::apply);
+            } catch (IllegalArgumentException ex) {
+                lastReloadError = "Failed to reload " + EXTERNAL_FILE + ": " + ex.getMessage();
+                return;
+            }
+        }
+        external = next;
+        RESOLVED.clear();
+        PARSED.clear();
+        if (changed.isEmpty()) return;
+
+        Set<String> view = Collections.unmodifiableSet(changed);
+        for (Subscription s : SUBSCRIBERS) {
+            if (!s.keys.isEmpty() && Collections.disjoint(s.keys, view)) continue;
+            try {
+                s.onChange.run();
+            } catch (RuntimeException e) {
+                // One bad subscriber must not stop the others from seeing the change
+                lastReloadError = "Configuration subscriber failed: " + e.getMessage();
+            }
+        }
+    }
+
+    /** @return the external configuration file, or null when only bundled defaults are used */
+    public static Path getExternalFile() {
+        return EXTERNAL_FILE;
+    }
+
+    /** @return why the most recent reload was not applied, or null when it succeeded */
+    public static String getLastReloadError() {
+        return lastReloadError;
+    }
 
-    private static final Properties PROPERTIES = new Properties();
+    private static Optional<String> resolve(String key) {
+        return RESOLVED.computeIfAbsent(key, k -> lookup(external, k));
+    }
+
+    private static Optional<String> lookup(Properties externalProperties, String key) {
+        String envValue = System.getenv(key.replace('.', '_').toUpperCase(Locale.ROOT));
+        if (envValue != null && !envValue.isEmpty()) return Optional.of(envValue);
+        String value = externalProperties.getProperty(key);
+        if (value == null) value = BUNDLED.getProperty(key);
+        return value == null || value.trim().isEmpty() ? Optional.empty() : Optional.of(value.trim());
+    }
 
-    static {
+    @SuppressWarnings("unchecked")
+    private static <T> T parsed(String key, String type, T defaultValue, Function<String, T> parser) {
+        String k = type + ':' + key;
+        PARSERS.putIfAbsent(k, parser);
+        Optional<String> raw = resolve(key);
+        if (!raw.isPresent()) return defaultValue;
+        Parsed p = PARSED.get(k);
+        // A reload may race with this lookup; only trust a cached value parsed from the same text
+        if (p == null || !p.raw.equals(raw.get())) {
+            p = new Parsed(raw.get(), parser.apply(raw.get()));
+            PARSED.put(k, p);
+        }
+        return (T) p.value;
+    }
+
+    private static Duration parseDuration(String key, String v) {
+        String s = v.toLowerCase(Locale.ROOT);
+        try {
+            if (s.startsWith("p")) return Duration.parse(v);
+            if (s.endsWith("ms")) return Duration.ofMillis(Long.parseLong(s.substring(0, s.length() - 2).trim()));
+            long n;
+            switch (s.charAt(s.length() - 1)) {
+                case 's': n = Long.parseLong(s.substring(0, s.length() - 1).trim()); return Duration.ofSeconds(n);
+                case 'm': n = Long.parseLong(s.substring(0, s.length() - 1).trim()); return Duration.ofMinutes(n);
+                case 'h': n = Long.parseLong(s.substring(0, s.length() - 1).trim()); return Duration.ofHours(n);
+                case 'd': n = Long.parseLong(s.substring(0, s.length() - 1).trim()); return Duration.ofDays(n);
+                default: return Duration.ofMillis(Long.parseLong(s));
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw invalid(key, v, "a duration such as 250ms, 30s or 15m");
+        }
+    }
+
+    private static long parseSize(String key, String v) {
+        String s = v.toLowerCase(Locale.ROOT);
+        if (s.endsWith("b")) s = s.substring(0, s.length() - 1);
+        long multiplier = 1;
+        if (!s.isEmpty()) {
+            switch (s.charAt(s.length() - 1)) {
+                case 'k': multiplier = 1L << 10; break;
+                case 'm': multiplier = 1L << 20; break;
+                case 'g': multiplier = 1L << 30; break;
+                default: break;
+            }
+        }
+        if (multiplier != 1) s = s.substring(0, s.length() - 1);
+        try {
+            return Math.multiplyExact(Long.parseLong(s.trim()), multiplier);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw invalid(key, v, "a size such as 512, 64k or 16MB");
+        }
+    }
+
+    private static IllegalArgumentException invalid(String key, String value, String expected) {
+        return new IllegalArgumentException("Invalid value for " + key + ": '" + value + "' (expected " + expected + ")");
+    }
+
+    private static void watch(WatchService ws) {
+        Path name = EXTERNAL_FILE.getFileName();
+        try {
+            while (true) {
+                WatchKey key = ws.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (name.equals(event.context())) relevant = true;
+                }
+                key.reset();
+                if (!relevant) continue;
+                Thread.sleep(RELOAD_SETTLE_MILLIS);
+                WatchKey more = ws.poll();
+                if (more != null) {
+                    more.pollEvents();
+                    more.reset();
+                }
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private static Properties loadBundled() {
+        Properties p = new Properties();
         try (InputStream in = ConfigLoader.class.getResourceAsStream(DB_PROPERTIES_RESOURCE)) {
             if (in != null) {
-                PROPERTIES.load(in);
+                p.load(in);
             }
         } catch (IOException e) {
-            
+            throw new IllegalStateException("Failed to load " + DB_PROPERTIES_RESOURCE, e);
         }
+        return p;
     }
 
-    public static String getProperty(String key, String defaultValue) {
-        String envValue = System.getenv(key.replace('.', '_').toUpperCase());
-        if (envValue != null && !envValue.isEmpty()) {
-            return envValue;
+    private static Path externalFile() {
+        String location = System.getProperty(CONFIG_FILE_PROPERTY);
+        if (location == null || location.isEmpty()) location = System.getenv(CONFIG_FILE_ENV);
+        return location == null || location.isEmpty() ? null : Paths.get(location);
+    }
+
+    private static Properties loadExternal() {
+        try {
+            return readExternal();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load configuration from " + EXTERNAL_FILE, e);
         }
-        return PROPERTIES.getProperty(key, defaultValue);
     }
 
-    public static String requireProperty(String key) {
-        String value = getProperty(key, null);
-        return Objects.requireNonNull(value, "Missing required property: " + key);
+    private static Properties readExternal() throws IOException {
+        Properties p = new Properties();
+        if (EXTERNAL_FILE != null && Files.exists(EXTERNAL_FILE)) {
+            try (InputStream in = Files.newInputStream(EXTERNAL_FILE)) {
+                p.load(in);
+            }
+        }
+        return p;
+    }
+
+    private static final class Parsed {
+        final String raw;
+        final Object value;
+
+        Parsed(String raw, Object value) {
+            this.raw = raw;
+            this.value = value;
+        }
     }
-}
 
+    private static final class Subscription {
+        final Runnable onChange;
+        final Set<String> keys;
 
+        Subscription(Runnable onChange, Set<String> keys) {
+            this.onChange = onChange;
+            this.keys = keys;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package dao;
 
+import model.Booking;
 import model.BookingStatus;
+import model.BookingType;
 import model.FacilityBooking;
 import model.TrainingBooking;
 
@@ -9,14 +11,53 @@ import java.util.List;
 import java.util.Optional;
 
 public interface BookingDao {
+    /** Receives bookings as bare intervals, for scans too large to build a Booking per row. */
+    interface IntervalSink {
+        void accept(long facilityId, LocalDateTime start, LocalDateTime end);
+    }
+
+    /** Receives bookings as bare columns, fees in cents, for analytics over every booking. */
+    interface RowSink {
+        void accept(long memberId, long facilityId, BookingType type, BookingStatus status,
+                    LocalDateTime start, LocalDateTime end, long totalFeeCents);
+    }
+
     Long createFacilityBooking(FacilityBooking booking);
     Long createTrainingBooking(TrainingBooking booking);
     void updateStatus(Long bookingId, BookingStatus status);
+
+    /**
+     * Cancels the booking with a conditional update that only succeeds while it is confirmed;
+     * false when it was already cancelled (possibly at another terminal) or does not exist.
+     */
+    boolean cancelIfConfirmed(Long bookingId);
     Optional<FacilityBooking> findFacilityBookingById(Long id);
     Optional<TrainingBooking> findTrainingBookingById(Long id);
     List<Object> findAll();
     List<Object> findByFacilityAndRange(Long facilityId, LocalDateTime start, LocalDateTime end);
     boolean existsOverlap(Long facilityId, LocalDateTime start, LocalDateTime end);
+    /** Hands every confirmed booking overlapping [start, end), at any facility, to the sink. */
+    void scanConfirmed(LocalDateTime start, LocalDateTime end, IntervalSink sink);
+    /** Hands every booking of any status starting in [start, end) to the sink, in no particular order. */
+    void scanRows(LocalDateTime start, LocalDateTime end, RowSink sink);
+    /** The coach's bookings of any status overlapping [start, end), at any facility. */
+    List<Object> findByCoachAndRange(Long coachId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Inserts a facility or training booking only if, counting it, no more confirmed bookings than
+     * the facility's capacity overlap at any moment of its interval (each scheduled group class
+     * there counting as one per seat), no unresolved maintenance window overlaps it and, when it
+     * has a coach, the coach has no other confirmed booking or scheduled class overlapping it. Check and insert are atomic against other terminals. Returns the new id, or
+     * null when the facility is full or closed, or the coach is busy.
+     */
+    Long createWithinCapacity(Booking booking);
+
+    /**
+     * Moves a confirmed booking to [start, end) under the same checks as createWithinCapacity, not
+     * counting the booking itself. Returns false, leaving it where it was, if the new interval
+     * does not fit or the booking is no longer confirmed.
+     */
+    boolean moveWithinCapacity(Long bookingId, LocalDateTime start, LocalDateTime end);
 }
 
 
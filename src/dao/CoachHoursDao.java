@@ -0,0 +1,13 @@
+package dao;
+
+import model.CoachHours;
+
+import java.util.List;
+
+public interface CoachHoursDao {
+    /** The coach's windows ordered by day and start time; empty when no hours are set. */
+    List<CoachHours> findByCoach(Long coachId);
+
+    /** Replaces all of the coach's windows in one transaction. */
+    void replace(Long coachId, List<CoachHours> hours);
+}
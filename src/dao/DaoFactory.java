@@ -0,0 +1,133 @@
+package dao;
+
+import config.ConfigLoader;
+import dao.impl.BookingDaoInMemory;
+import dao.impl.BookingDaoJdbc;
+import dao.impl.CoachHoursDaoInMemory;
+import dao.impl.CoachHoursDaoJdbc;
+import dao.impl.FacilityDaoInMemory;
+import dao.impl.FacilityDaoJdbc;
+import dao.impl.FeedbackDaoInMemory;
+import dao.impl.FeedbackDaoJdbc;
+import dao.impl.GroupClassDaoInMemory;
+import dao.impl.GroupClassDaoJdbc;
+import dao.impl.InMemoryStore;
+import dao.impl.MaintenanceDaoInMemory;
+import dao.impl.MaintenanceDaoJdbc;
+import dao.impl.MemberMetricsDaoInMemory;
+import dao.impl.MemberMetricsDaoJdbc;
+import dao.impl.PaymentDaoInMemory;
+import dao.impl.PaymentDaoJdbc;
+import dao.impl.UserDaoInMemory;
+import dao.impl.UserDaoJdbc;
+import dao.impl.WaitlistDaoInMemory;
+import dao.impl.WaitlistDaoJdbc;
+import model.Facility;
+import model.FacilityStatus;
+import model.Role;
+import model.User;
+import monitoring.DaoMetrics;
+import util.PasswordHasher;
+
+import java.util.Locale;
+
+/**
+ * Process-wide DAO instances for the backend named by the dao.backend property:
+ * "jdbc" (default) for MySQL, or "memory" for an in-process store seeded with the same demo
+ * data as schema.sql, for offline demos and load tests. The backend is chosen once at startup.
+ * Every DAO is wrapped by {@link DaoMetrics} unless dao.metrics.enabled is false.
+ */
+public final class DaoFactory {
+    public static final String BACKEND_JDBC = "jdbc";
+    public static final String BACKEND_MEMORY = "memory";
+
+    private static final String BACKEND = ConfigLoader.getProperty("dao.backend", BACKEND_JDBC).toLowerCase(Locale.ROOT);
+
+    private static final UserDao USERS;
+    private static final FacilityDao FACILITIES;
+    private static final BookingDao BOOKINGS;
+    private static final PaymentDao PAYMENTS;
+    private static final MaintenanceDao MAINTENANCE;
+    private static final FeedbackDao FEEDBACK;
+    private static final GroupClassDao GROUP_CLASSES;
+    private static final WaitlistDao WAITLIST;
+    private static final CoachHoursDao COACH_HOURS;
+    private static final MemberMetricsDao MEMBER_METRICS;
+
+    static {
+        switch (BACKEND) {
+            case BACKEND_JDBC:
+                USERS = instrument(UserDao.class, new UserDaoJdbc());
+                FACILITIES = instrument(FacilityDao.class, new FacilityDaoJdbc());
+                BOOKINGS = instrument(BookingDao.class, new BookingDaoJdbc());
+                PAYMENTS = instrument(PaymentDao.class, new PaymentDaoJdbc());
+                MAINTENANCE = instrument(MaintenanceDao.class, new MaintenanceDaoJdbc());
+                FEEDBACK = instrument(FeedbackDao.class, new FeedbackDaoJdbc());
+                GROUP_CLASSES = instrument(GroupClassDao.class, new GroupClassDaoJdbc());
+                WAITLIST = instrument(WaitlistDao.class, new WaitlistDaoJdbc());
+                COACH_HOURS = instrument(CoachHoursDao.class, new CoachHoursDaoJdbc());
+                MEMBER_METRICS = instrument(MemberMetricsDao.class, new MemberMetricsDaoJdbc());
+                break;
+            case BACKEND_MEMORY:
+                InMemoryStore store = new InMemoryStore();
+                USERS = instrument(UserDao.class, new UserDaoInMemory(store));
+                FACILITIES = instrument(FacilityDao.class, new FacilityDaoInMemory(store));
+                BOOKINGS = instrument(BookingDao.class, new BookingDaoInMemory(store));
+                PAYMENTS = instrument(PaymentDao.class, new PaymentDaoInMemory(store));
+                MAINTENANCE = instrument(MaintenanceDao.class, new MaintenanceDaoInMemory(store));
+                FEEDBACK = instrument(FeedbackDao.class, new FeedbackDaoInMemory(store));
+                GROUP_CLASSES = instrument(GroupClassDao.class, new GroupClassDaoInMemory(store));
+                WAITLIST = instrument(WaitlistDao.class, new WaitlistDaoInMemory(store));
+                COACH_HOURS = instrument(CoachHoursDao.class, new CoachHoursDaoInMemory(store));
+                MEMBER_METRICS = instrument(MemberMetricsDao.class, new MemberMetricsDaoInMemory(store));
+                if (ConfigLoader.getBoolean("dao.memory.seed", true)) seed(USERS, FACILITIES);
+                break;
+            default:
+                throw new IllegalStateException("Unknown dao.backend '" + BACKEND + "' (expected jdbc or memory)");
+        }
+    }
+
+    private DaoFactory() {}
+
+    public static String backend() { return BACKEND; }
+
+    public static UserDao users() { return USERS; }
+    public static FacilityDao facilities() { return FACILITIES; }
+    public static BookingDao bookings() { return BOOKINGS; }
+    public static PaymentDao payments() { return PAYMENTS; }
+    public static MaintenanceDao maintenance() { return MAINTENANCE; }
+    public static FeedbackDao feedback() { return FEEDBACK; }
+    public static GroupClassDao groupClasses() { return GROUP_CLASSES; }
+    public static WaitlistDao waitlist() { return WAITLIST; }
+    public static CoachHoursDao coachHours() { return COACH_HOURS; }
+    public static MemberMetricsDao memberMetrics() { return MEMBER_METRICS; }
+
+    private static <T> T instrument(Class<T> daoInterface, T dao) {
+        return DaoMetrics.isEnabled() ? DaoMetrics.instrument(daoInterface, dao) : dao;
+    }
+
+    // Mirrors the seed rows at the end of schema.sql
+    private static void seed(UserDao users, FacilityDao facilities) {
+        User admin = new User();
+        admin.setEmail("admin@scms.local");
+        admin.setPasswordHash(PasswordHasher.hashWithRandomSalt("admin123"));
+        admin.setFullName("System Administrator");
+        admin.setRole(Role.ADMIN);
+        admin.setPhone("000-000-0000");
+        users.create(admin);
+
+        facilities.create(facility("Gym", "Indoor gym facility", 15.00, 30));
+        facilities.create(facility("Swimming Pool", "Olympic-size pool", 25.00, 40));
+        facilities.create(facility("Tennis Court", "Outdoor clay court", 20.00, 1));
+    }
+
+    private static Facility facility(String name, String description, double hourlyRate, int capacity) {
+        Facility f = new Facility();
+        f.setName(name);
+        f.setDescription(description);
+        f.setHourlyRate(hourlyRate);
+        f.setStatus(FacilityStatus.AVAILABLE);
+        f.setCapacity(capacity);
+        return f;
+    }
+}
@@ -0,0 +1,19 @@
+package dao;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+/**
+ * Thrown by every DAO implementation when a query fails. The message names the operation
+ * ("Failed to insert user"); the cause is the driver's SQLException, or the equivalent the
+ * in-memory backend raises for a broken constraint.
+ */
+public class DataAccessException extends RuntimeException {
+    public DataAccessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /** True for duplicate keys, missing references and NOT NULL violations. */
+    public boolean isConstraintViolation() {
+        return getCause() instanceof SQLIntegrityConstraintViolationException;
+    }
+}
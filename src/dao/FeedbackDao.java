@@ -9,6 +9,13 @@ public interface FeedbackDao {
     List<Feedback> findAll();
     List<Feedback> findByFacility(Long facilityId);
     List<Feedback> findByUser(Long userId);
+
+    /**
+     * Full-text search over comments, most relevant first, followed by feedback whose author's or
+     * facility's name contains the query or whose rating it names.
+     * Null filters are ignored; offset/limit page through the ranked results.
+     */
+    List<Feedback> search(String query, Long facilityId, Long userId, Integer minRating, int offset, int limit);
 }
 
 
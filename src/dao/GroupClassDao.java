@@ -0,0 +1,41 @@
+package dao;
+
+import model.ClassEnrollment;
+import model.GroupClass;
+import model.GroupClassStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface GroupClassDao {
+    Long create(GroupClass groupClass);
+
+    /**
+     * Inserts a scheduled class only if its seats fit the facility alongside the confirmed bookings
+     * and scheduled classes overlapping it, no unresolved maintenance window overlaps it and its
+     * coach has no other confirmed booking or scheduled class then, under the same locks and checks
+     * as {@link BookingDao#createWithinCapacity}. Returns the new id, or null when it does not fit.
+     */
+    Long createWithinCapacity(GroupClass groupClass);
+    void updateStatus(Long id, GroupClassStatus status);
+    Optional<GroupClass> findById(Long id);
+    /** Classes starting in [from, to), earliest first. */
+    List<GroupClass> findByRange(LocalDateTime from, LocalDateTime to);
+    /** Scheduled classes at the facility overlapping [start, end). */
+    List<GroupClass> findScheduledByFacility(Long facilityId, LocalDateTime start, LocalDateTime end);
+    /** Scheduled classes the coach teaches overlapping [start, end), at any facility. */
+    List<GroupClass> findScheduledByCoach(Long coachId, LocalDateTime start, LocalDateTime end);
+    List<ClassEnrollment> findEnrollments(Long classId);
+    List<ClassEnrollment> findEnrollmentsByMember(Long memberId);
+
+    /**
+     * Takes a seat with a conditional update that only succeeds while seats remain and the class
+     * is scheduled and has not started, and records the enrollment with it atomically. Returns the
+     * enrollment id, or null when there was no seat. Enrolling twice is a constraint violation.
+     */
+    Long enroll(Long classId, Long memberId);
+
+    /** Removes the enrollment and frees its seat; false when the member was not enrolled. */
+    boolean unenroll(Long classId, Long memberId);
+}
@@ -3,6 +3,7 @@ package dao;
 import model.MaintenanceRequest;
 import model.MaintenanceStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +13,16 @@ public interface MaintenanceDao {
     Optional<MaintenanceRequest> findById(Long id);
     List<MaintenanceRequest> findAll();
     List<MaintenanceRequest> findByStatus(MaintenanceStatus status);
+
+    /** Unresolved requests whose window overlaps [start, end) at the facility, by window start. */
+    List<MaintenanceRequest> findWindows(Long facilityId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Full-text search over title and description, most relevant first, followed by requests
+     * whose facility's or requester's name, or status, contains the query.
+     * Null filters are ignored; offset/limit page through the ranked results.
+     */
+    List<MaintenanceRequest> search(String query, Long facilityId, Long requestedBy, MaintenanceStatus status, int offset, int limit);
 }
 
 
@@ -0,0 +1,37 @@
+package dao;
+
+import model.MemberMetrics;
+import model.MemberMetricsRun;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface MemberMetricsDao {
+    Optional<MemberMetricsRun> lastRun();
+
+    void recordRun(MemberMetricsRun run);
+
+    /** Highest payment id so far, 0 when there are none. */
+    long maxPaymentId();
+
+    /**
+     * Members with no metrics row yet, a booking changed at or after changedSince, a confirmed
+     * booking starting in [startedSince, asOf), or a payment after paymentsAfter.
+     */
+    List<Long> findChangedMembers(LocalDateTime changedSince, LocalDateTime startedSince, LocalDateTime asOf, long paymentsAfter);
+
+    /**
+     * Totals per member, grouped in the database: confirmed bookings started by asOf as visits, and
+     * the sum of their payments. Derived fields are left for the caller to score.
+     */
+    List<MemberMetrics> aggregate(List<Long> memberIds, LocalDateTime asOf);
+
+    /** Rows computed before the given time, totals included. */
+    List<MemberMetrics> findComputedBefore(LocalDateTime time);
+
+    List<MemberMetrics> findAll();
+
+    /** Inserts or replaces each member's row. */
+    void saveAll(List<MemberMetrics> metrics);
+}
@@ -19,7 +19,7 @@ import java.util.Optional;
  * This interface abstracts the data access layer, allowing different implementations:
  * - UserDaoJdbc (JDBC implementation)
  * - UserDaoJpa (JPA implementation)
- * - UserDaoMock (Mock implementation for testing)
+ * - UserDaoInMemory (in-memory implementation for demos, load tests and benchmarks)
  */
 public interface UserDao {
     
@@ -39,6 +39,13 @@ public interface UserDao {
      */
     void update(User user);
     
+    /**
+     * Replaces only the stored password hash, e.g. when a password changes or an old hash is upgraded
+     * @param id the user ID
+     * @param passwordHash the new hash string
+     */
+    void updatePasswordHash(Long id, String passwordHash);
+    
     /**
      * Deletes a user from the data store
      * @param id the ID of the user to delete
@@ -0,0 +1,37 @@
+package dao;
+
+import model.WaitlistEntry;
+import model.WaitlistStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistDao {
+    Long create(WaitlistEntry entry);
+    Optional<WaitlistEntry> findById(Long id);
+    List<WaitlistEntry> findByMember(Long memberId);
+    /** Every waiting entry, in request order. */
+    List<WaitlistEntry> findWaiting();
+    /** Waiting booking entries for the facility whose interval overlaps [from, to), in request order. */
+    List<WaitlistEntry> findWaitingForFacility(Long facilityId, LocalDateTime from, LocalDateTime to);
+    /** Waiting entries for the class, in request order. */
+    List<WaitlistEntry> findWaitingForClass(Long classId);
+
+    /** Moves a waiting entry to CANCELLED or EXPIRED; false when it was no longer waiting. */
+    boolean close(Long id, WaitlistStatus status);
+
+    /**
+     * Turns a waiting booking entry into a confirmed booking, under the same capacity rule as
+     * {@link BookingDao#createWithinCapacity}, and marks it PROMOTED, in one transaction. Returns
+     * the booking id, or null when the slot is still full or the entry is no longer waiting.
+     */
+    Long promoteToBooking(WaitlistEntry entry);
+
+    /**
+     * Enrolls a waiting class entry's member the way {@link GroupClassDao#enroll} does and marks
+     * it PROMOTED, in one transaction. Returns the enrollment id, or null when there is no seat or
+     * the entry is no longer waiting.
+     */
+    Long promoteToEnrollment(WaitlistEntry entry);
+}
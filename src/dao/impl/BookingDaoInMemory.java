@@ -0,0 +1,270 @@
+package dao.impl;
+
+import dao.BookingDao;
+import model.Booking;
+import model.BookingStatus;
+import model.BookingType;
+import model.Facility;
+import model.FacilityBooking;
+import model.GroupClass;
+import model.MaintenanceRequest;
+import model.TrainingBooking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Range and overlap queries walk the per-facility (or per-coach) (start time, id) index from the
+ * start of the longest booking that could still be running, instead of scanning every booking.
+ */
+public class BookingDaoInMemory implements BookingDao {
+    private final InMemoryStore store;
+
+    public BookingDaoInMemory(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Long createFacilityBooking(FacilityBooking booking) {
+        return insert(booking, "Failed to insert facility booking");
+    }
+
+    @Override
+    public Long createTrainingBooking(TrainingBooking booking) {
+        return insert(booking, "Failed to insert training booking");
+    }
+
+    private Long insert(Booking booking, String op) {
+        InMemoryStore.notNull(booking.getMemberId(), op, "member_id");
+        InMemoryStore.notNull(booking.getFacilityId(), op, "facility_id");
+        InMemoryStore.notNull(booking.getStartTime(), op, "start_time");
+        InMemoryStore.notNull(booking.getEndTime(), op, "end_time");
+        InMemoryStore.notNull(booking.getStatus(), op, "status");
+        synchronized (store.lock) {
+            if (!store.users.containsKey(booking.getMemberId())
+                || !store.facilities.containsKey(booking.getFacilityId())
+                || (booking.getCoachId() != null && !store.users.containsKey(booking.getCoachId()))) {
+                throw InMemoryStore.violation(op, "Cannot add or update a child row: a foreign key constraint fails (bookings)");
+            }
+            long id = store.bookingIds.incrementAndGet();
+            Booking row = InMemoryStore.copy(booking);
+            row.setId(id);
+            row.setStartTime(InMemoryStore.seconds(row.getStartTime()));
+            row.setEndTime(InMemoryStore.seconds(row.getEndTime()));
+            store.bookings.put(id, row);
+            store.bookingUpdatedAt.put(id, LocalDateTime.now());
+            index(row);
+            return id;
+        }
+    }
+
+    private void index(Booking row) {
+        store.bookingsByFacility.computeIfAbsent(row.getFacilityId(), k -> new ConcurrentSkipListMap<>())
+            .put(new InMemoryStore.SlotKey(row.getStartTime(), row.getId()), row.getId());
+        Duration length = Duration.between(row.getStartTime(), row.getEndTime());
+        store.longestBookingByFacility.merge(row.getFacilityId(), length, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        if (row.getCoachId() != null) {
+            store.bookingsByCoach.computeIfAbsent(row.getCoachId(), k -> new ConcurrentSkipListMap<>())
+                .put(new InMemoryStore.SlotKey(row.getStartTime(), row.getId()), row.getId());
+            store.longestBookingByCoach.merge(row.getCoachId(), length, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        }
+    }
+
+    // The longest-booking bounds are left as they are: they only need to be at least as long
+    private void unindex(Booking row) {
+        InMemoryStore.SlotKey key = new InMemoryStore.SlotKey(row.getStartTime(), row.getId());
+        ConcurrentSkipListMap<InMemoryStore.SlotKey, Long> byFacility = store.bookingsByFacility.get(row.getFacilityId());
+        if (byFacility != null) byFacility.remove(key);
+        ConcurrentSkipListMap<InMemoryStore.SlotKey, Long> byCoach = row.getCoachId() == null ? null : store.bookingsByCoach.get(row.getCoachId());
+        if (byCoach != null) byCoach.remove(key);
+    }
+
+    @Override
+    public void updateStatus(Long bookingId, BookingStatus status) {
+        InMemoryStore.notNull(status, "Failed to update booking status", "status");
+        synchronized (store.lock) {
+            Booking existing = store.bookings.get(bookingId);
+            if (existing == null) return;
+            Booking row = InMemoryStore.copy(existing);
+            row.setStatus(status);
+            store.bookings.put(bookingId, row);
+            store.bookingUpdatedAt.put(bookingId, LocalDateTime.now());
+        }
+    }
+
+    @Override
+    public boolean cancelIfConfirmed(Long bookingId) {
+        synchronized (store.lock) {
+            Booking existing = store.bookings.get(bookingId);
+            if (existing == null || existing.getStatus() != BookingStatus.CONFIRMED) return false;
+            Booking row = InMemoryStore.copy(existing);
+            row.setStatus(BookingStatus.CANCELLED);
+            store.bookings.put(bookingId, row);
+            store.bookingUpdatedAt.put(bookingId, LocalDateTime.now());
+            return true;
+        }
+    }
+
+    @Override
+    public Optional<FacilityBooking> findFacilityBookingById(Long id) {
+        Booking b = store.bookings.get(id);
+        return b instanceof FacilityBooking ? Optional.of((FacilityBooking) InMemoryStore.copy(b)) : Optional.empty();
+    }
+
+    @Override
+    public Optional<TrainingBooking> findTrainingBookingById(Long id) {
+        Booking b = store.bookings.get(id);
+        return b instanceof TrainingBooking ? Optional.of((TrainingBooking) InMemoryStore.copy(b)) : Optional.empty();
+    }
+
+    @Override
+    public List<Object> findAll() {
+        return store.bookings.values().stream()
+            .sorted(Comparator.comparing(Booking::getStartTime).thenComparing(Booking::getId).reversed())
+            .<Object>map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Object> findByFacilityAndRange(Long facilityId, LocalDateTime start, LocalDateTime end) {
+        List<Object> list = new ArrayList<>();
+        for (Booking b : overlapping(facilityId, start, end)) list.add(InMemoryStore.copy(b));
+        return list;
+    }
+
+    @Override
+    public List<Object> findByCoachAndRange(Long coachId, LocalDateTime start, LocalDateTime end) {
+        List<Object> list = new ArrayList<>();
+        for (Booking b : overlapping(store.bookingsByCoach, store.longestBookingByCoach, coachId, start, end)) list.add(InMemoryStore.copy(b));
+        return list;
+    }
+
+    @Override
+    public void scanConfirmed(LocalDateTime start, LocalDateTime end, IntervalSink sink) {
+        LocalDateTime s = InMemoryStore.seconds(start);
+        LocalDateTime e = InMemoryStore.seconds(end);
+        for (Booking b : store.bookings.values()) {
+            if (b.getStatus() == BookingStatus.CONFIRMED && b.getStartTime().isBefore(e) && b.getEndTime().isAfter(s)) {
+                sink.accept(b.getFacilityId(), b.getStartTime(), b.getEndTime());
+            }
+        }
+    }
+
+    @Override
+    public void scanRows(LocalDateTime start, LocalDateTime end, RowSink sink) {
+        LocalDateTime s = InMemoryStore.seconds(start);
+        LocalDateTime e = InMemoryStore.seconds(end);
+        for (Booking b : store.bookings.values()) {
+            if (b.getStartTime().isBefore(s) || !b.getStartTime().isBefore(e)) continue;
+            BookingType type = b instanceof TrainingBooking ? BookingType.TRAINING : BookingType.FACILITY;
+            sink.accept(b.getMemberId(), b.getFacilityId(), type, b.getStatus(), b.getStartTime(), b.getEndTime(),
+                Math.round(b.getTotalFee() * 100));
+        }
+    }
+
+    @Override
+    public boolean existsOverlap(Long facilityId, LocalDateTime start, LocalDateTime end) {
+        for (Booking b : overlapping(facilityId, start, end)) {
+            if (b.getStatus() == BookingStatus.CONFIRMED) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Long createWithinCapacity(Booking booking) {
+        String op = "Failed to insert booking within capacity";
+        InMemoryStore.notNull(booking.getStartTime(), op, "start_time");
+        InMemoryStore.notNull(booking.getEndTime(), op, "end_time");
+        // The store lock plays the part of the facility row lock
+        synchronized (store.lock) {
+            LocalDateTime s = InMemoryStore.seconds(booking.getStartTime());
+            LocalDateTime e = InMemoryStore.seconds(booking.getEndTime());
+            if (!fits(booking.getFacilityId(), booking.getCoachId(), s, e, 1, null)) return null;
+            return insert(booking, op);
+        }
+    }
+
+    @Override
+    public boolean moveWithinCapacity(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        String op = "Failed to move booking within capacity";
+        InMemoryStore.notNull(start, op, "start_time");
+        InMemoryStore.notNull(end, op, "end_time");
+        synchronized (store.lock) {
+            Booking existing = store.bookings.get(bookingId);
+            if (existing == null || existing.getStatus() != BookingStatus.CONFIRMED) return false;
+            LocalDateTime s = InMemoryStore.seconds(start);
+            LocalDateTime e = InMemoryStore.seconds(end);
+            if (!fits(existing.getFacilityId(), existing.getCoachId(), s, e, 1, bookingId)) return false;
+            unindex(existing);
+            Booking row = InMemoryStore.copy(existing);
+            row.setStartTime(s);
+            row.setEndTime(e);
+            store.bookings.put(bookingId, row);
+            store.bookingUpdatedAt.put(bookingId, LocalDateTime.now());
+            index(row);
+            return true;
+        }
+    }
+
+    // Capacity for places more, maintenance windows and the coach, leaving out the booking being
+    // moved (if any); callers hold the store lock. Group classes admit through here too
+    boolean fits(Long facilityId, Long coachId, LocalDateTime s, LocalDateTime e, int places, Long exclude) {
+        Facility facility = store.facilities.get(facilityId);
+        if (facility == null) return false;
+        for (MaintenanceRequest m : store.maintenance.values()) {
+            if (facilityId.equals(m.getFacilityId()) && m.blocks(s, e)) return false;
+        }
+        SweepLine sweep = new SweepLine(s, e);
+        for (Booking b : overlapping(facilityId, s, e)) {
+            if (b.getStatus() == BookingStatus.CONFIRMED && !b.getId().equals(exclude)) sweep.add(b.getStartTime(), b.getEndTime());
+        }
+        // A group class holds one place per seat for its whole length, enrolled or not
+        for (GroupClass g : store.groupClasses.values()) {
+            if (facilityId.equals(g.getFacilityId()) && GroupClassDaoInMemory.scheduledWithin(g, s, e)) {
+                sweep.add(g.getStartTime(), g.getEndTime(), g.getCapacity());
+            }
+        }
+        if (sweep.peak() + places > facility.getCapacity()) return false;
+        // The coach is booked once at a time, wherever the booking is, and not while teaching a class
+        if (coachId != null) {
+            for (Booking b : overlapping(store.bookingsByCoach, store.longestBookingByCoach, coachId, s, e)) {
+                if (b.getStatus() == BookingStatus.CONFIRMED && !b.getId().equals(exclude)) return false;
+            }
+            for (GroupClass g : store.groupClasses.values()) {
+                if (coachId.equals(g.getCoachId()) && GroupClassDaoInMemory.scheduledWithin(g, s, e)) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Bookings with NOT (end_time <= start OR start_time >= end), by start time. */
+    private List<Booking> overlapping(Long facilityId, LocalDateTime start, LocalDateTime end) {
+        return overlapping(store.bookingsByFacility, store.longestBookingByFacility, facilityId, start, end);
+    }
+
+    // The same scan over either (start time, id) index: the facility one or the coach one
+    private List<Booking> overlapping(Map<Long, ConcurrentSkipListMap<InMemoryStore.SlotKey, Long>> indexes,
+                                      Map<Long, Duration> longestByKey, Long key, LocalDateTime start, LocalDateTime end) {
+        List<Booking> result = new ArrayList<>();
+        ConcurrentSkipListMap<InMemoryStore.SlotKey, Long> index = indexes.get(key);
+        if (index == null) return result;
+        LocalDateTime s = InMemoryStore.seconds(start);
+        LocalDateTime e = InMemoryStore.seconds(end);
+        Duration longest = longestByKey.getOrDefault(key, Duration.ZERO);
+        InMemoryStore.SlotKey from = new InMemoryStore.SlotKey(s.minus(longest), Long.MIN_VALUE);
+        InMemoryStore.SlotKey to = new InMemoryStore.SlotKey(e, Long.MIN_VALUE);
+        if (to.compareTo(from) <= 0) return result;
+        for (Map.Entry<InMemoryStore.SlotKey, Long> entry : index.subMap(from, true, to, false).entrySet()) {
+            Booking b = store.bookings.get(entry.getValue());
+            if (b != null && b.getEndTime().isAfter(s)) result.add(b);
+        }
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 package dao.impl;
 
 import dao.BookingDao;
+import dao.DataAccessException;
 import db.ConnectionManager;
 import model.*;
 
@@ -31,7 +32,7 @@ public class BookingDaoJdbc implements BookingDao {
             }
             return null;
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to insert facility booking", e);
+            throw new DataAccessException("Failed to insert facility booking", e);
         }
     }
 
@@ -55,7 +56,7 @@ public class BookingDaoJdbc implements BookingDao {
             }
             return null;
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to insert training booking", e);
+            throw new DataAccessException("Failed to insert training booking", e);
         }
     }
 
@@ -68,7 +69,19 @@ public class BookingDaoJdbc implements BookingDao {
             ps.setLong(2, bookingId);
             ps.executeUpdate();
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to update booking status", e);
+            throw new DataAccessException("Failed to update booking status", e);
+        }
+    }
+
+    @Override
+    public boolean cancelIfConfirmed(Long bookingId) {
+        String sql = "UPDATE bookings SET status='CANCELLED' WHERE id=? AND status='CONFIRMED'";
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, bookingId);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to cancel booking", e);
         }
     }
 
@@ -82,7 +95,7 @@ public class BookingDaoJdbc implements BookingDao {
                 if (rs.next()) return Optional.of(mapFacility(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to find facility booking", e);
+            throw new DataAccessException("Failed to find facility booking", e);
         }
         return Optional.empty();
     }
@@ -97,7 +110,7 @@ public class BookingDaoJdbc implements BookingDao {
                 if (rs.next()) return Optional.of(mapTraining(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to find training booking", e);
+            throw new DataAccessException("Failed to find training booking", e);
         }
         return Optional.empty();
     }
@@ -114,7 +127,7 @@ public class BookingDaoJdbc implements BookingDao {
                 if ("FACILITY".equals(type)) list.add(mapFacility(rs)); else list.add(mapTraining(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to list bookings", e);
+            throw new DataAccessException("Failed to list bookings", e);
         }
         return list;
     }
@@ -135,7 +148,29 @@ public class BookingDaoJdbc implements BookingDao {
                 }
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to query bookings by range", e);
+            throw new DataAccessException("Failed to query bookings by range", e);
+        }
+        return list;
+    }
+
+    @Override
+    public List<Object> findByCoachAndRange(Long coachId, LocalDateTime start, LocalDateTime end) {
+        // start_time < end bounds the idx_bookings_coach_time range scan
+        String sql = "SELECT * FROM bookings WHERE coach_id=? AND start_time<? AND end_time>? ORDER BY start_time";
+        List<Object> list = new ArrayList<>();
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, coachId);
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            ps.setTimestamp(3, Timestamp.valueOf(start));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String type = rs.getString("type");
+                    if ("FACILITY".equals(type)) list.add(mapFacility(rs)); else list.add(mapTraining(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to query coach bookings by range", e);
         }
         return list;
     }
@@ -152,24 +187,232 @@ public class BookingDaoJdbc implements BookingDao {
                 if (rs.next()) return rs.getInt(1) > 0;
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to check booking overlap", e);
+            throw new DataAccessException("Failed to check booking overlap", e);
         }
         return true;
     }
 
-    private FacilityBooking mapFacility(ResultSet rs) throws SQLException {
+    @Override
+    public void scanConfirmed(LocalDateTime start, LocalDateTime end, IntervalSink sink) {
+        String sql = "SELECT facility_id, start_time, end_time FROM bookings WHERE status='CONFIRMED' AND start_time<? AND end_time>?";
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J streams the rows instead of buffering a year of bookings only with this fetch size
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setTimestamp(1, Timestamp.valueOf(end));
+            ps.setTimestamp(2, Timestamp.valueOf(start));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) sink.accept(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getTimestamp(3).toLocalDateTime());
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to scan bookings", e);
+        }
+    }
+
+    @Override
+    public void scanRows(LocalDateTime start, LocalDateTime end, RowSink sink) {
+        String sql = "SELECT member_id, facility_id, type, status, start_time, end_time, total_fee FROM bookings WHERE start_time>=? AND start_time<?";
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setTimestamp(1, Timestamp.valueOf(start));
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    sink.accept(rs.getLong(1), rs.getLong(2), BookingType.valueOf(rs.getString(3)), BookingStatus.valueOf(rs.getString(4)),
+                        rs.getTimestamp(5).toLocalDateTime(), rs.getTimestamp(6).toLocalDateTime(), rs.getBigDecimal(7).movePointRight(2).longValue());
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to scan bookings", e);
+        }
+    }
+
+    @Override
+    public Long createWithinCapacity(Booking booking) {
+        try (Connection c = ConnectionManager.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                Long id = insertWithinCapacity(c, booking);
+                if (id == null) c.rollback(); else c.commit();
+                return id;
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to insert booking within capacity", e);
+        }
+    }
+
+    @Override
+    public boolean moveWithinCapacity(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        try (Connection c = ConnectionManager.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                boolean moved = move(c, bookingId, start, end);
+                if (moved) c.commit(); else c.rollback();
+                return moved;
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to move booking within capacity", e);
+        }
+    }
+
+    /**
+     * The capacity check and insert behind createWithinCapacity, on a connection whose transaction
+     * the caller owns (the waitlist promotes inside its own). Returns null when the facility is full
+     * or closed for maintenance, or the coach is booked elsewhere.
+     */
+    static Long insertWithinCapacity(Connection c, Booking booking) throws SQLException {
+        String insertSql = "INSERT INTO bookings(member_id, facility_id, coach_id, start_time, end_time, type, status, facility_fee, coach_fee, total_fee) VALUES(?,?,?,?,?,?,?,?,?,?)";
+        if (!fits(c, booking, null)) return null;
+        try (PreparedStatement ps = c.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setLong(1, booking.getMemberId());
+            ps.setLong(2, booking.getFacilityId());
+            if (booking.getCoachId() == null) ps.setNull(3, Types.BIGINT); else ps.setLong(3, booking.getCoachId());
+            ps.setTimestamp(4, Timestamp.valueOf(booking.getStartTime()));
+            ps.setTimestamp(5, Timestamp.valueOf(booking.getEndTime()));
+            ps.setString(6, booking instanceof TrainingBooking ? "TRAINING" : "FACILITY");
+            ps.setString(7, booking.getStatus().name());
+            ps.setDouble(8, booking.getFacilityFee());
+            ps.setDouble(9, booking.getCoachFee());
+            ps.setDouble(10, booking.getTotalFee());
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    private static boolean move(Connection c, Long bookingId, LocalDateTime start, LocalDateTime end) throws SQLException {
+        Booking moved = new FacilityBooking();
+        try (PreparedStatement ps = c.prepareStatement("SELECT facility_id, coach_id FROM bookings WHERE id=? AND status='CONFIRMED'")) {
+            ps.setLong(1, bookingId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return false;
+                moved.setFacilityId(rs.getLong(1));
+                long coach = rs.getLong(2);
+                if (!rs.wasNull()) moved.setCoachId(coach);
+            }
+        }
+        moved.setStartTime(start);
+        moved.setEndTime(end);
+        if (!fits(c, moved, bookingId)) return false;
+        // Still conditional on the status: a cancellation may have landed since the read above
+        try (PreparedStatement ps = c.prepareStatement("UPDATE bookings SET start_time=?, end_time=? WHERE id=? AND status='CONFIRMED'")) {
+            ps.setTimestamp(1, Timestamp.valueOf(start));
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            ps.setLong(3, bookingId);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    // Whether the booking fits its facility and coach, leaving out the booking with id exclude
+    // (the one being moved)
+    private static boolean fits(Connection c, Booking booking, Long exclude) throws SQLException {
+        return fits(c, booking.getFacilityId(), booking.getCoachId(), booking.getStartTime(), booking.getEndTime(), 1, exclude);
+    }
+
+    /**
+     * Whether places more places fit the facility over [start, end) and the coach (if any) is free,
+     * leaving out the booking with id exclude. Locks the facility row and then the coach's, so the
+     * caller's insert or update must run in the same transaction. Group classes admit through here.
+     */
+    static boolean fits(Connection c, long facilityId, Long coachId, LocalDateTime start, LocalDateTime end,
+                        int places, Long exclude) throws SQLException {
+        String lockSql = "SELECT capacity FROM facilities WHERE id=? FOR UPDATE";
+        String windowSql = "SELECT 1 FROM maintenance_requests WHERE facility_id=? AND status<>'RESOLVED' AND window_start<? AND window_end>? LIMIT 1";
+        String overlapSql = "SELECT start_time, end_time FROM bookings WHERE facility_id=? AND status='CONFIRMED' AND NOT (end_time<=? OR start_time>=?) AND id<>?";
+        String classSql = "SELECT start_time, end_time, capacity FROM group_classes WHERE facility_id=? AND status='SCHEDULED' AND start_time<? AND end_time>?";
+        long excluded = exclude == null ? 0 : exclude;
+        // The facility row lock serialises admissions for this facility across terminals
+        int capacity;
+        try (PreparedStatement ps = c.prepareStatement(lockSql)) {
+            ps.setLong(1, facilityId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return false;
+                capacity = rs.getInt(1);
+            }
+        }
+        try (PreparedStatement ps = c.prepareStatement(windowSql)) {
+            ps.setLong(1, facilityId);
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            ps.setTimestamp(3, Timestamp.valueOf(start));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return false;
+            }
+        }
+        SweepLine sweep = new SweepLine(start, end);
+        try (PreparedStatement ps = c.prepareStatement(overlapSql)) {
+            ps.setLong(1, facilityId);
+            ps.setTimestamp(2, Timestamp.valueOf(start));
+            ps.setTimestamp(3, Timestamp.valueOf(end));
+            ps.setLong(4, excluded);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) sweep.add(rs.getTimestamp(1).toLocalDateTime(), rs.getTimestamp(2).toLocalDateTime());
+            }
+        }
+        // A group class holds one place per seat for its whole length, enrolled or not
+        try (PreparedStatement ps = c.prepareStatement(classSql)) {
+            ps.setLong(1, facilityId);
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            ps.setTimestamp(3, Timestamp.valueOf(start));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) sweep.add(rs.getTimestamp(1).toLocalDateTime(), rs.getTimestamp(2).toLocalDateTime(), rs.getInt(3));
+            }
+        }
+        if (sweep.peak() + places > capacity) return false;
+        return coachId == null || !coachBusy(c, coachId, start, end, excluded);
+    }
+
+    // Locks the coach's user row, always after the facility row, so two admissions for the same
+    // coach at different facilities queue up instead of both passing the check
+    private static boolean coachBusy(Connection c, long coachId, LocalDateTime start, LocalDateTime end, long exclude) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT id FROM users WHERE id=? FOR UPDATE")) {
+            ps.setLong(1, coachId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return false;
+            }
+        }
+        String sql = "SELECT 1 FROM bookings WHERE coach_id=? AND status='CONFIRMED' AND start_time<? AND end_time>? AND id<>? LIMIT 1";
+        String classSql = "SELECT 1 FROM group_classes WHERE coach_id=? AND status='SCHEDULED' AND start_time<? AND end_time>? LIMIT 1";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, coachId);
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            ps.setTimestamp(3, Timestamp.valueOf(start));
+            ps.setLong(4, exclude);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return true;
+            }
+        }
+        try (PreparedStatement ps = c.prepareStatement(classSql)) {
+            ps.setLong(1, coachId);
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            ps.setTimestamp(3, Timestamp.valueOf(start));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // Row mapping is package-private so the benchmark suite can exercise it without a database
+    FacilityBooking mapFacility(ResultSet rs) throws SQLException {
         FacilityBooking b = new FacilityBooking();
         fillCommon(rs, b);
         return b;
     }
 
-    private TrainingBooking mapTraining(ResultSet rs) throws SQLException {
+    TrainingBooking mapTraining(ResultSet rs) throws SQLException {
         TrainingBooking b = new TrainingBooking();
         fillCommon(rs, b);
         return b;
     }
 
-    private void fillCommon(ResultSet rs, Booking b) throws SQLException {
+    void fillCommon(ResultSet rs, Booking b) throws SQLException {
         b.setId(rs.getLong("id"));
         b.setMemberId(rs.getLong("member_id"));
         b.setFacilityId(rs.getLong("facility_id"));
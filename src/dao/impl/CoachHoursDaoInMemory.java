@@ -0,0 +1,52 @@
+package dao.impl;
+
+import dao.CoachHoursDao;
+import model.CoachHours;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CoachHoursDaoInMemory implements CoachHoursDao {
+    private static final Comparator<CoachHours> BY_DAY =
+        Comparator.comparing(CoachHours::getDayOfWeek).thenComparing(CoachHours::getStartTime);
+
+    private final InMemoryStore store;
+
+    public CoachHoursDaoInMemory(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<CoachHours> findByCoach(Long coachId) {
+        List<CoachHours> rows = store.coachHours.get(coachId);
+        if (rows == null) return new ArrayList<>();
+        return rows.stream().sorted(BY_DAY).map(InMemoryStore::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public void replace(Long coachId, List<CoachHours> hours) {
+        String op = "Failed to replace coach hours";
+        List<CoachHours> rows = new ArrayList<>();
+        for (CoachHours h : hours) {
+            InMemoryStore.notNull(h.getDayOfWeek(), op, "day_of_week");
+            InMemoryStore.notNull(h.getStartTime(), op, "start_time");
+            InMemoryStore.notNull(h.getEndTime(), op, "end_time");
+            if (!h.getEndTime().isAfter(h.getStartTime())) throw InMemoryStore.violation(op, "Check constraint 'chk_coach_hours' is violated.");
+            CoachHours row = InMemoryStore.copy(h);
+            row.setCoachId(coachId);
+            row.setStartTime(InMemoryStore.seconds(row.getStartTime()));
+            row.setEndTime(InMemoryStore.seconds(row.getEndTime()));
+            rows.add(row);
+        }
+        synchronized (store.lock) {
+            if (!rows.isEmpty() && !store.users.containsKey(coachId)) {
+                throw InMemoryStore.violation(op, "Cannot add or update a child row: a foreign key constraint fails (coach_hours)");
+            }
+            for (CoachHours row : rows) row.setId(store.coachHoursIds.incrementAndGet());
+            // Swapped in whole, so readers see the old week or the new one, never half of each
+            if (rows.isEmpty()) store.coachHours.remove(coachId); else store.coachHours.put(coachId, List.copyOf(rows));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dao.impl;
+
+import dao.CoachHoursDao;
+import dao.DataAccessException;
+import db.ConnectionManager;
+import model.CoachHours;
+
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CoachHoursDaoJdbc implements CoachHoursDao {
+    @Override
+    public List<CoachHours> findByCoach(Long coachId) {
+        String sql = "SELECT * FROM coach_hours WHERE coach_id=? ORDER BY day_of_week, start_time";
+        List<CoachHours> list = new ArrayList<>();
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, coachId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(map(rs));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to list coach hours", e);
+        }
+        return list;
+    }
+
+    @Override
+    public void replace(Long coachId, List<CoachHours> hours) {
+        String deleteSql = "DELETE FROM coach_hours WHERE coach_id=?";
+        String insertSql = "INSERT INTO coach_hours(coach_id, day_of_week, start_time, end_time) VALUES(?,?,?,?)";
+        try (Connection c = ConnectionManager.getConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement delete = c.prepareStatement(deleteSql);
+                 PreparedStatement insert = c.prepareStatement(insertSql)) {
+                delete.setLong(1, coachId);
+                delete.executeUpdate();
+                for (CoachHours h : hours) {
+                    insert.setLong(1, coachId);
+                    insert.setInt(2, h.getDayOfWeek().getValue());
+                    insert.setTime(3, Time.valueOf(h.getStartTime()));
+                    insert.setTime(4, Time.valueOf(h.getEndTime()));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to replace coach hours", e);
+        }
+    }
+
+    private CoachHours map(ResultSet rs) throws SQLException {
+        CoachHours h = new CoachHours();
+        h.setId(rs.getLong("id"));
+        h.setCoachId(rs.getLong("coach_id"));
+        h.setDayOfWeek(DayOfWeek.of(rs.getInt("day_of_week")));
+        h.setStartTime(rs.getTime("start_time").toLocalTime());
+        h.setEndTime(rs.getTime("end_time").toLocalTime());
+        return h;
+    }
+}
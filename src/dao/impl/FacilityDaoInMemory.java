@@ -0,0 +1,110 @@
+package dao.impl;
+
+import dao.FacilityDao;
+import model.Facility;
+import model.FacilityStatus;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class FacilityDaoInMemory implements FacilityDao {
+    private static final Comparator<Facility> BY_NAME =
+        Comparator.comparing((Facility f) -> InMemoryStore.key(f.getName())).thenComparing(Facility::getId);
+
+    private final InMemoryStore store;
+
+    public FacilityDaoInMemory(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Long create(Facility facility) {
+        String op = "Failed to insert facility";
+        InMemoryStore.notNull(facility.getName(), op, "name");
+        InMemoryStore.notNull(facility.getStatus(), op, "status");
+        if (facility.getCapacity() < 1) throw InMemoryStore.violation(op, "Check constraint 'facilities_chk_1' is violated.");
+        synchronized (store.lock) {
+            String name = InMemoryStore.key(facility.getName());
+            if (store.facilityIdByName.containsKey(name)) {
+                throw InMemoryStore.violation(op, "Duplicate entry '" + facility.getName() + "' for key 'facilities.name'");
+            }
+            long id = store.facilityIds.incrementAndGet();
+            Facility row = InMemoryStore.copy(facility);
+            row.setId(id);
+            store.facilities.put(id, row);
+            store.facilityIdByName.put(name, id);
+            return id;
+        }
+    }
+
+    @Override
+    public void update(Facility facility) {
+        String op = "Failed to update facility";
+        InMemoryStore.notNull(facility.getName(), op, "name");
+        InMemoryStore.notNull(facility.getStatus(), op, "status");
+        if (facility.getCapacity() < 1) throw InMemoryStore.violation(op, "Check constraint 'facilities_chk_1' is violated.");
+        synchronized (store.lock) {
+            Facility existing = store.facilities.get(facility.getId());
+            if (existing == null) return;
+            String oldName = InMemoryStore.key(existing.getName());
+            String newName = InMemoryStore.key(facility.getName());
+            Long owner = store.facilityIdByName.get(newName);
+            if (owner != null && !owner.equals(existing.getId())) {
+                throw InMemoryStore.violation(op, "Duplicate entry '" + facility.getName() + "' for key 'facilities.name'");
+            }
+            store.facilities.put(existing.getId(), InMemoryStore.copy(facility));
+            if (!oldName.equals(newName)) {
+                store.facilityIdByName.remove(oldName);
+                store.facilityIdByName.put(newName, existing.getId());
+            }
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        String op = "Failed to delete facility";
+        synchronized (store.lock) {
+            Facility existing = store.facilities.get(id);
+            if (existing == null) return;
+            boolean referenced = store.bookingsByFacility.containsKey(id)
+                || store.maintenance.values().stream().anyMatch(m -> id.equals(m.getFacilityId()))
+                || store.feedback.values().stream().anyMatch(f -> id.equals(f.getFacilityId()))
+                || store.groupClasses.values().stream().anyMatch(g -> id.equals(g.getFacilityId()))
+                || store.waitlist.values().stream().anyMatch(w -> id.equals(w.getFacilityId()));
+            if (referenced) {
+                throw InMemoryStore.violation(op, "Cannot delete or update a parent row: a foreign key constraint fails (facilities)");
+            }
+            store.facilities.remove(id);
+            store.facilityIdByName.remove(InMemoryStore.key(existing.getName()));
+        }
+    }
+
+    @Override
+    public Optional<Facility> findById(Long id) {
+        Facility f = store.facilities.get(id);
+        return f == null ? Optional.empty() : Optional.of(InMemoryStore.copy(f));
+    }
+
+    @Override
+    public Optional<Facility> findByName(String name) {
+        if (name == null) return Optional.empty();
+        Long id = store.facilityIdByName.get(InMemoryStore.key(name));
+        return id == null ? Optional.empty() : findById(id);
+    }
+
+    @Override
+    public List<Facility> findAll() {
+        return store.facilities.values().stream().sorted(BY_NAME).map(InMemoryStore::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Facility> findByStatus(FacilityStatus status) {
+        return store.facilities.values().stream()
+            .filter(f -> f.getStatus() == status)
+            .sorted(BY_NAME)
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+}
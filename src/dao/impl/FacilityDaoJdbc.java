@@ -1,5 +1,6 @@
 package dao.impl;
 
+import dao.DataAccessException;
 import dao.FacilityDao;
 import db.ConnectionManager;
 import model.Facility;
@@ -13,36 +14,38 @@ import java.util.Optional;
 public class FacilityDaoJdbc implements FacilityDao {
     @Override
     public Long create(Facility facility) {
-        String sql = "INSERT INTO facilities(name, description, hourly_rate, status) VALUES(?,?,?,?)";
+        String sql = "INSERT INTO facilities(name, description, hourly_rate, status, capacity) VALUES(?,?,?,?,?)";
         try (Connection c = ConnectionManager.getConnection();
              PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, facility.getName());
             ps.setString(2, facility.getDescription());
             ps.setDouble(3, facility.getHourlyRate());
             ps.setString(4, facility.getStatus().name());
+            ps.setInt(5, facility.getCapacity());
             ps.executeUpdate();
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) return rs.getLong(1);
             }
             return null;
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to insert facility", e);
+            throw new DataAccessException("Failed to insert facility", e);
         }
     }
 
     @Override
     public void update(Facility facility) {
-        String sql = "UPDATE facilities SET name=?, description=?, hourly_rate=?, status=? WHERE id=?";
+        String sql = "UPDATE facilities SET name=?, description=?, hourly_rate=?, status=?, capacity=? WHERE id=?";
         try (Connection c = ConnectionManager.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, facility.getName());
             ps.setString(2, facility.getDescription());
             ps.setDouble(3, facility.getHourlyRate());
             ps.setString(4, facility.getStatus().name());
-            ps.setLong(5, facility.getId());
+            ps.setInt(5, facility.getCapacity());
+            ps.setLong(6, facility.getId());
             ps.executeUpdate();
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to update facility", e);
+            throw new DataAccessException("Failed to update facility", e);
         }
     }
 
@@ -54,7 +57,7 @@ public class FacilityDaoJdbc implements FacilityDao {
             ps.setLong(1, id);
             ps.executeUpdate();
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to delete facility", e);
+            throw new DataAccessException("Failed to delete facility", e);
         }
     }
 
@@ -68,7 +71,7 @@ public class FacilityDaoJdbc implements FacilityDao {
                 if (rs.next()) return Optional.of(map(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to find facility", e);
+            throw new DataAccessException("Failed to find facility", e);
         }
         return Optional.empty();
     }
@@ -83,7 +86,7 @@ public class FacilityDaoJdbc implements FacilityDao {
                 if (rs.next()) return Optional.of(map(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to find facility by name", e);
+            throw new DataAccessException("Failed to find facility by name", e);
         }
         return Optional.empty();
     }
@@ -97,7 +100,7 @@ public class FacilityDaoJdbc implements FacilityDao {
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) list.add(map(rs));
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to list facilities", e);
+            throw new DataAccessException("Failed to list facilities", e);
         }
         return list;
     }
@@ -113,7 +116,7 @@ public class FacilityDaoJdbc implements FacilityDao {
                 while (rs.next()) list.add(map(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to list facilities by status", e);
+            throw new DataAccessException("Failed to list facilities by status", e);
         }
         return list;
     }
@@ -125,6 +128,7 @@ public class FacilityDaoJdbc implements FacilityDao {
         f.setDescription(rs.getString("description"));
         f.setHourlyRate(rs.getDouble("hourly_rate"));
         f.setStatus(FacilityStatus.valueOf(rs.getString("status")));
+        f.setCapacity(rs.getInt("capacity"));
         return f;
     }
 }
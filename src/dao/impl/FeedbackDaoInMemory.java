@@ -0,0 +1,97 @@
+package dao.impl;
+
+import dao.FeedbackDao;
+import model.Facility;
+import model.Feedback;
+import model.User;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class FeedbackDaoInMemory implements FeedbackDao {
+    private static final Comparator<Feedback> NEWEST_FIRST =
+        Comparator.comparing(Feedback::getCreatedAt).thenComparing(Feedback::getId).reversed();
+
+    private final InMemoryStore store;
+
+    public FeedbackDaoInMemory(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Long create(Feedback feedback) {
+        String op = "Failed to insert feedback";
+        InMemoryStore.notNull(feedback.getUserId(), op, "user_id");
+        if (feedback.getRating() < 1 || feedback.getRating() > 5) {
+            throw InMemoryStore.violation(op, "Check constraint 'feedback_chk_1' is violated.");
+        }
+        synchronized (store.lock) {
+            if (!store.users.containsKey(feedback.getUserId())
+                || (feedback.getFacilityId() != null && !store.facilities.containsKey(feedback.getFacilityId()))) {
+                throw InMemoryStore.violation(op, "Cannot add or update a child row: a foreign key constraint fails (feedback)");
+            }
+            long id = store.feedbackIds.incrementAndGet();
+            Feedback row = InMemoryStore.copy(feedback);
+            row.setId(id);
+            row.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+            store.feedback.put(id, row);
+            return id;
+        }
+    }
+
+    @Override
+    public List<Feedback> findAll() {
+        return store.feedback.values().stream().sorted(NEWEST_FIRST).map(InMemoryStore::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Feedback> findByFacility(Long facilityId) {
+        return store.feedback.values().stream()
+            .filter(f -> facilityId.equals(f.getFacilityId()))
+            .sorted(NEWEST_FIRST)
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Feedback> findByUser(Long userId) {
+        return store.feedback.values().stream()
+            .filter(f -> userId.equals(f.getUserId()))
+            .sorted(NEWEST_FIRST)
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Feedback> search(String query, Long facilityId, Long userId, Integer minRating, int offset, int limit) {
+        List<String> terms = FullTextQuery.terms(query);
+        if (terms.isEmpty() || limit <= 0) return new ArrayList<>();
+        Integer rating = FeedbackDaoJdbc.rating(query);
+        return store.feedback.values().stream()
+            .filter(f -> facilityId == null || facilityId.equals(f.getFacilityId()))
+            .filter(f -> userId == null || userId.equals(f.getUserId()))
+            .filter(f -> minRating == null || f.getRating() >= minRating)
+            .map(f -> Map.entry(f, FullTextQuery.relevance(terms, f.getComments())))
+            .filter(e -> e.getValue() > 0 || matchesOther(e.getKey(), query, rating))
+            .sorted(Map.Entry.<Feedback, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey(NEWEST_FIRST)))
+            .skip(Math.max(0, offset))
+            .limit(limit)
+            .map(e -> InMemoryStore.copy(e.getKey()))
+            .collect(Collectors.toList());
+    }
+
+    // The joined-name and rating matches of the JDBC search
+    private boolean matchesOther(Feedback f, String query, Integer rating) {
+        User user = store.users.get(f.getUserId());
+        Facility facility = f.getFacilityId() == null ? null : store.facilities.get(f.getFacilityId());
+        return (user != null && FullTextQuery.contains(user.getFullName(), query))
+            || (facility != null && FullTextQuery.contains(facility.getName(), query))
+            || (rating != null && f.getRating() == rating);
+    }
+}
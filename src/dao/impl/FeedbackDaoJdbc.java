@@ -1,5 +1,6 @@
 package dao.impl;
 
+import dao.DataAccessException;
 import dao.FeedbackDao;
 import db.ConnectionManager;
 import model.Feedback;
@@ -25,7 +26,7 @@ public class FeedbackDaoJdbc implements FeedbackDao {
             }
             return null;
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to insert feedback", e);
+            throw new DataAccessException("Failed to insert feedback", e);
         }
     }
 
@@ -38,7 +39,7 @@ public class FeedbackDaoJdbc implements FeedbackDao {
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) list.add(map(rs));
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to list feedback", e);
+            throw new DataAccessException("Failed to list feedback", e);
         }
         return list;
     }
@@ -54,7 +55,7 @@ public class FeedbackDaoJdbc implements FeedbackDao {
                 while (rs.next()) list.add(map(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to list feedback by facility", e);
+            throw new DataAccessException("Failed to list feedback by facility", e);
         }
         return list;
     }
@@ -70,11 +71,57 @@ public class FeedbackDaoJdbc implements FeedbackDao {
                 while (rs.next()) list.add(map(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to list feedback by user", e);
+            throw new DataAccessException("Failed to list feedback by user", e);
         }
         return list;
     }
 
+    @Override
+    public List<Feedback> search(String query, Long facilityId, Long userId, Integer minRating, int offset, int limit) {
+        List<Feedback> list = new ArrayList<>();
+        String terms = FullTextQuery.toBooleanMode(query);
+        if (terms == null || limit <= 0) return list;
+        String names = FullTextQuery.containsPattern(query);
+        Integer rating = rating(query);
+        // Name matches come from the joined rows, so the search never leaves the database
+        StringBuilder sql = new StringBuilder(
+            "SELECT f.*, MATCH(f.comments) AGAINST(? IN BOOLEAN MODE) AS relevance FROM feedback f " +
+            "LEFT JOIN users u ON u.id=f.user_id LEFT JOIN facilities fa ON fa.id=f.facility_id " +
+            "WHERE (MATCH(f.comments) AGAINST(? IN BOOLEAN MODE) OR u.full_name LIKE ? OR fa.name LIKE ?");
+        if (rating != null) sql.append(" OR f.rating=?");
+        sql.append(")");
+        if (facilityId != null) sql.append(" AND f.facility_id=?");
+        if (userId != null) sql.append(" AND f.user_id=?");
+        if (minRating != null) sql.append(" AND f.rating>=?");
+        sql.append(" ORDER BY relevance DESC, f.created_at DESC LIMIT ? OFFSET ?");
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int i = 1;
+            ps.setString(i++, terms);
+            ps.setString(i++, terms);
+            ps.setString(i++, names);
+            ps.setString(i++, names);
+            if (rating != null) ps.setInt(i++, rating);
+            if (facilityId != null) ps.setLong(i++, facilityId);
+            if (userId != null) ps.setLong(i++, userId);
+            if (minRating != null) ps.setInt(i++, minRating);
+            ps.setInt(i++, limit);
+            ps.setInt(i, Math.max(0, offset));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(map(rs));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to search feedback", e);
+        }
+        return list;
+    }
+
+    // The rating a query such as "4" names, if any
+    static Integer rating(String query) {
+        String q = query == null ? "" : query.trim();
+        return q.length() == 1 && q.charAt(0) >= '1' && q.charAt(0) <= '5' ? q.charAt(0) - '0' : null;
+    }
+
     private Feedback map(ResultSet rs) throws SQLException {
         Feedback f = new Feedback();
         f.setId(rs.getLong("id"));
@@ -0,0 +1,72 @@
+package dao.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds MySQL BOOLEAN MODE search strings from free text typed by staff.
+ * Operator characters are stripped so user input can never change the query shape, and every
+ * word becomes an optional prefix term: rows matching more words rank higher, and a partly
+ * typed word still matches.
+ */
+final class FullTextQuery {
+    private static final String NON_WORD = "[^\\p{L}\\p{N}_]+";
+
+    private FullTextQuery() {}
+
+    /** @return the boolean-mode expression, or null when the input has no searchable words */
+    static String toBooleanMode(String text) {
+        List<String> terms = terms(text);
+        if (terms.isEmpty()) return null;
+        StringBuilder sb = new StringBuilder();
+        for (String term : terms) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(term).append('*');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A LIKE pattern matching values that contain the trimmed input, with LIKE's wildcards and
+     * escape character escaped; null when the input is blank.
+     */
+    static String containsPattern(String text) {
+        if (text == null || text.isBlank()) return null;
+        return "%" + text.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /** In-memory stand-in for LIKE with the pattern above: case-insensitive containment. */
+    static boolean contains(String value, String text) {
+        return value != null && text != null && !text.isBlank()
+            && value.toLowerCase(Locale.ROOT).contains(text.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /** Lower-cased words of the input, in order. */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) return terms;
+        for (String word : text.toLowerCase(Locale.ROOT).split(NON_WORD)) {
+            if (!word.isEmpty()) terms.add(word);
+        }
+        return terms;
+    }
+
+    /**
+     * In-memory stand-in for MATCH ... AGAINST with the prefix terms built above: every term that
+     * prefixes some word adds one, plus a small bonus per extra occurrence. Zero means no match.
+     */
+    static double relevance(List<String> terms, String... fields) {
+        List<String> words = new ArrayList<>();
+        for (String field : fields) words.addAll(terms(field));
+        double score = 0;
+        for (String term : terms) {
+            int hits = 0;
+            for (String word : words) {
+                if (word.startsWith(term)) hits++;
+            }
+            if (hits > 0) score += 1 + Math.log(hits);
+        }
+        return score;
+    }
+}
@@ -0,0 +1,218 @@
+package dao.impl;
+
+import dao.GroupClassDao;
+import model.ClassEnrollment;
+import model.GroupClass;
+import model.GroupClassStatus;
+import model.WaitlistEntry;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+public class GroupClassDaoInMemory implements GroupClassDao {
+    private static final Comparator<GroupClass> BY_START =
+        Comparator.comparing(GroupClass::getStartTime).thenComparing(GroupClass::getId);
+    private static final Comparator<ClassEnrollment> BY_ENROLLED =
+        Comparator.comparing(ClassEnrollment::getEnrolledAt).thenComparing(ClassEnrollment::getId);
+
+    private final InMemoryStore store;
+    private final BookingDaoInMemory bookings;
+
+    public GroupClassDaoInMemory(InMemoryStore store) {
+        this.store = store;
+        this.bookings = new BookingDaoInMemory(store);
+    }
+
+    @Override
+    public Long create(GroupClass groupClass) {
+        String op = "Failed to insert group class";
+        validate(groupClass, op);
+        synchronized (store.lock) {
+            return insert(groupClass, op);
+        }
+    }
+
+    @Override
+    public Long createWithinCapacity(GroupClass groupClass) {
+        String op = "Failed to insert group class within capacity";
+        validate(groupClass, op);
+        // The store lock plays the part of the facility and coach row locks
+        synchronized (store.lock) {
+            LocalDateTime s = InMemoryStore.seconds(groupClass.getStartTime());
+            LocalDateTime e = InMemoryStore.seconds(groupClass.getEndTime());
+            if (!bookings.fits(groupClass.getFacilityId(), groupClass.getCoachId(), s, e, groupClass.getCapacity(), null)) return null;
+            return insert(groupClass, op);
+        }
+    }
+
+    private static void validate(GroupClass groupClass, String op) {
+        InMemoryStore.notNull(groupClass.getTitle(), op, "title");
+        InMemoryStore.notNull(groupClass.getCoachId(), op, "coach_id");
+        InMemoryStore.notNull(groupClass.getFacilityId(), op, "facility_id");
+        InMemoryStore.notNull(groupClass.getStartTime(), op, "start_time");
+        InMemoryStore.notNull(groupClass.getEndTime(), op, "end_time");
+        InMemoryStore.notNull(groupClass.getStatus(), op, "status");
+        if (groupClass.getCapacity() < 1) throw InMemoryStore.violation(op, "Check constraint 'group_classes_chk_1' is violated.");
+    }
+
+    // Callers hold the store lock
+    private Long insert(GroupClass groupClass, String op) {
+        if (!store.users.containsKey(groupClass.getCoachId()) || !store.facilities.containsKey(groupClass.getFacilityId())) {
+            throw InMemoryStore.violation(op, "Cannot add or update a child row: a foreign key constraint fails (group_classes)");
+        }
+        long id = store.groupClassIds.incrementAndGet();
+        GroupClass row = InMemoryStore.copy(groupClass);
+        row.setId(id);
+        row.setSeatsTaken(0);
+        row.setStartTime(InMemoryStore.seconds(row.getStartTime()));
+        row.setEndTime(InMemoryStore.seconds(row.getEndTime()));
+        store.groupClasses.put(id, row);
+        return id;
+    }
+
+    @Override
+    public void updateStatus(Long id, GroupClassStatus status) {
+        InMemoryStore.notNull(status, "Failed to update group class status", "status");
+        store.groupClasses.computeIfPresent(id, (k, g) -> {
+            GroupClass row = InMemoryStore.copy(g);
+            row.setStatus(status);
+            return row;
+        });
+    }
+
+    @Override
+    public Optional<GroupClass> findById(Long id) {
+        GroupClass g = store.groupClasses.get(id);
+        return g == null ? Optional.empty() : Optional.of(InMemoryStore.copy(g));
+    }
+
+    @Override
+    public List<GroupClass> findByRange(LocalDateTime from, LocalDateTime to) {
+        return store.groupClasses.values().stream()
+            .filter(g -> !g.getStartTime().isBefore(from) && g.getStartTime().isBefore(to))
+            .sorted(BY_START)
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<GroupClass> findScheduledByFacility(Long facilityId, LocalDateTime start, LocalDateTime end) {
+        return store.groupClasses.values().stream()
+            .filter(g -> facilityId.equals(g.getFacilityId()) && scheduledWithin(g, start, end))
+            .sorted(BY_START)
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<GroupClass> findScheduledByCoach(Long coachId, LocalDateTime start, LocalDateTime end) {
+        return store.groupClasses.values().stream()
+            .filter(g -> coachId.equals(g.getCoachId()) && scheduledWithin(g, start, end))
+            .sorted(BY_START)
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    /** status='SCHEDULED' AND start_time < end AND end_time > start */
+    static boolean scheduledWithin(GroupClass g, LocalDateTime start, LocalDateTime end) {
+        return g.getStatus() == GroupClassStatus.SCHEDULED && g.getStartTime().isBefore(end) && g.getEndTime().isAfter(start);
+    }
+
+    @Override
+    public List<ClassEnrollment> findEnrollments(Long classId) {
+        Map<Long, Long> members = store.enrollmentsByClass.get(classId);
+        if (members == null) return new ArrayList<>();
+        List<ClassEnrollment> list = new ArrayList<>();
+        for (Long enrollmentId : members.values()) {
+            ClassEnrollment e = store.enrollments.get(enrollmentId);
+            if (e != null) list.add(InMemoryStore.copy(e));
+        }
+        list.sort(BY_ENROLLED);
+        return list;
+    }
+
+    @Override
+    public List<ClassEnrollment> findEnrollmentsByMember(Long memberId) {
+        return store.enrollments.values().stream()
+            .filter(e -> memberId.equals(e.getMemberId()) && isIndexed(e))
+            .sorted(BY_ENROLLED)
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public Long enroll(Long classId, Long memberId) {
+        String op = "Failed to enroll in group class";
+        InMemoryStore.notNull(classId, op, "class_id");
+        InMemoryStore.notNull(memberId, op, "member_id");
+        if (!store.users.containsKey(memberId) || !store.groupClasses.containsKey(classId)) {
+            throw InMemoryStore.violation(op, "Cannot add or update a child row: a foreign key constraint fails (class_enrollments)");
+        }
+        // The conditional seat update: the map's per-key lock stands in for the class row lock, so
+        // enrollments in different classes never wait on each other
+        if (!adjustSeats(classId, 1)) return null;
+
+        long id = store.enrollmentIds.incrementAndGet();
+        ClassEnrollment row = new ClassEnrollment();
+        row.setId(id);
+        row.setClassId(classId);
+        row.setMemberId(memberId);
+        row.setEnrolledAt(InMemoryStore.seconds(LocalDateTime.now()));
+        // The row goes in before the unique index entry, so whatever the index points to exists
+        store.enrollments.put(id, row);
+        Map<Long, Long> members = store.enrollmentsByClass.computeIfAbsent(classId, k -> new ConcurrentHashMap<>());
+        if (members.putIfAbsent(memberId, id) != null) {
+            store.enrollments.remove(id);
+            adjustSeats(classId, -1);
+            throw InMemoryStore.violation(op, "Duplicate entry '" + classId + "-" + memberId + "' for key 'class_enrollments.uq_class_member'");
+        }
+        return id;
+    }
+
+    @Override
+    public boolean unenroll(Long classId, Long memberId) {
+        Map<Long, Long> members = store.enrollmentsByClass.get(classId);
+        Long id = members == null ? null : members.remove(memberId);
+        if (id == null) return false;
+        store.enrollments.remove(id);
+        adjustSeats(classId, -1);
+        // waitlist.enrollment_id is ON DELETE SET NULL
+        synchronized (store.lock) {
+            store.waitlist.replaceAll((k, w) -> {
+                if (!id.equals(w.getEnrollmentId())) return w;
+                WaitlistEntry row = InMemoryStore.copy(w);
+                row.setEnrollmentId(null);
+                return row;
+            });
+        }
+        return true;
+    }
+
+    // seats_taken + delta, but only for a scheduled class not yet started with a seat left when
+    // taking one and never below zero when giving one back
+    private boolean adjustSeats(Long classId, int delta) {
+        boolean[] changed = {false};
+        LocalDateTime now = LocalDateTime.now();
+        store.groupClasses.computeIfPresent(classId, (k, g) -> {
+            int taken = g.getSeatsTaken() + delta;
+            if (delta > 0 && (g.getStatus() != GroupClassStatus.SCHEDULED || taken > g.getCapacity() || !g.getStartTime().isAfter(now))) return g;
+            if (taken < 0) return g;
+            GroupClass row = InMemoryStore.copy(g);
+            row.setSeatsTaken(taken);
+            changed[0] = true;
+            return row;
+        });
+        return changed[0];
+    }
+
+    private boolean isIndexed(ClassEnrollment e) {
+        Map<Long, Long> members = store.enrollmentsByClass.get(e.getClassId());
+        return members != null && e.getId().equals(members.get(e.getMemberId()));
+    }
+}
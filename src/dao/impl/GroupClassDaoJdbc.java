@@ -0,0 +1,256 @@
+package dao.impl;
+
+import dao.DataAccessException;
+import dao.GroupClassDao;
+import db.ConnectionManager;
+import model.ClassEnrollment;
+import model.GroupClass;
+import model.GroupClassStatus;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class GroupClassDaoJdbc implements GroupClassDao {
+    @Override
+    public Long create(GroupClass groupClass) {
+        try (Connection c = ConnectionManager.getConnection()) {
+            return insert(c, groupClass);
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to insert group class", e);
+        }
+    }
+
+    @Override
+    public Long createWithinCapacity(GroupClass groupClass) {
+        try (Connection c = ConnectionManager.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                Long id = null;
+                if (BookingDaoJdbc.fits(c, groupClass.getFacilityId(), groupClass.getCoachId(), groupClass.getStartTime(),
+                        groupClass.getEndTime(), groupClass.getCapacity(), null)) {
+                    id = insert(c, groupClass);
+                }
+                if (id == null) c.rollback(); else c.commit();
+                return id;
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to insert group class within capacity", e);
+        }
+    }
+
+    private static Long insert(Connection c, GroupClass groupClass) throws SQLException {
+        String sql = "INSERT INTO group_classes(title, coach_id, facility_id, start_time, end_time, capacity, fee, status) VALUES(?,?,?,?,?,?,?,?)";
+        try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, groupClass.getTitle());
+            ps.setLong(2, groupClass.getCoachId());
+            ps.setLong(3, groupClass.getFacilityId());
+            ps.setTimestamp(4, Timestamp.valueOf(groupClass.getStartTime()));
+            ps.setTimestamp(5, Timestamp.valueOf(groupClass.getEndTime()));
+            ps.setInt(6, groupClass.getCapacity());
+            ps.setDouble(7, groupClass.getFee());
+            ps.setString(8, groupClass.getStatus().name());
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    @Override
+    public void updateStatus(Long id, GroupClassStatus status) {
+        String sql = "UPDATE group_classes SET status=? WHERE id=?";
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, status.name());
+            ps.setLong(2, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to update group class status", e);
+        }
+    }
+
+    @Override
+    public Optional<GroupClass> findById(Long id) {
+        String sql = "SELECT * FROM group_classes WHERE id=?";
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return Optional.of(map(rs));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to find group class", e);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<GroupClass> findByRange(LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT * FROM group_classes WHERE start_time>=? AND start_time<? ORDER BY start_time, id";
+        List<GroupClass> list = new ArrayList<>();
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(map(rs));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to list group classes", e);
+        }
+        return list;
+    }
+
+    @Override
+    public List<GroupClass> findScheduledByFacility(Long facilityId, LocalDateTime start, LocalDateTime end) {
+        return scheduled("SELECT * FROM group_classes WHERE facility_id=? AND status='SCHEDULED' AND start_time<? AND end_time>? ORDER BY start_time, id",
+            facilityId, start, end, "Failed to list facility group classes");
+    }
+
+    @Override
+    public List<GroupClass> findScheduledByCoach(Long coachId, LocalDateTime start, LocalDateTime end) {
+        return scheduled("SELECT * FROM group_classes WHERE coach_id=? AND status='SCHEDULED' AND start_time<? AND end_time>? ORDER BY start_time, id",
+            coachId, start, end, "Failed to list coach group classes");
+    }
+
+    private List<GroupClass> scheduled(String sql, Long id, LocalDateTime start, LocalDateTime end, String failure) {
+        List<GroupClass> list = new ArrayList<>();
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, id);
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            ps.setTimestamp(3, Timestamp.valueOf(start));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(map(rs));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(failure, e);
+        }
+        return list;
+    }
+
+    @Override
+    public List<ClassEnrollment> findEnrollments(Long classId) {
+        return enrollments("SELECT * FROM class_enrollments WHERE class_id=? ORDER BY enrolled_at, id", classId,
+            "Failed to list class enrollments");
+    }
+
+    @Override
+    public List<ClassEnrollment> findEnrollmentsByMember(Long memberId) {
+        return enrollments("SELECT * FROM class_enrollments WHERE member_id=? ORDER BY enrolled_at, id", memberId,
+            "Failed to list member enrollments");
+    }
+
+    private List<ClassEnrollment> enrollments(String sql, Long id, String failure) {
+        List<ClassEnrollment> list = new ArrayList<>();
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(mapEnrollment(rs));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(failure, e);
+        }
+        return list;
+    }
+
+    @Override
+    public Long enroll(Long classId, Long memberId) {
+        try (Connection c = ConnectionManager.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                Long id = enroll(c, classId, memberId);
+                if (id == null) c.rollback(); else c.commit();
+                return id;
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to enroll in group class", e);
+        }
+    }
+
+    /** The seat update and insert behind enroll, in the caller's transaction; null when no seat. */
+    static Long enroll(Connection c, Long classId, Long memberId) throws SQLException {
+        // The conditional update decides the seat; only the class row is locked, and only until commit
+        String seatSql = "UPDATE group_classes SET seats_taken=seats_taken+1 WHERE id=? AND status='SCHEDULED' AND seats_taken<capacity AND start_time>?";
+        String insertSql = "INSERT INTO class_enrollments(class_id, member_id, enrolled_at) VALUES(?,?,?)";
+        try (PreparedStatement ps = c.prepareStatement(seatSql)) {
+            ps.setLong(1, classId);
+            ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            if (ps.executeUpdate() == 0) return null;
+        }
+        try (PreparedStatement ps = c.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setLong(1, classId);
+            ps.setLong(2, memberId);
+            ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now().withNano(0)));
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    @Override
+    public boolean unenroll(Long classId, Long memberId) {
+        String deleteSql = "DELETE FROM class_enrollments WHERE class_id=? AND member_id=?";
+        String seatSql = "UPDATE group_classes SET seats_taken=seats_taken-1 WHERE id=? AND seats_taken>0";
+        try (Connection c = ConnectionManager.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = c.prepareStatement(deleteSql)) {
+                    ps.setLong(1, classId);
+                    ps.setLong(2, memberId);
+                    if (ps.executeUpdate() == 0) {
+                        c.rollback();
+                        return false;
+                    }
+                }
+                try (PreparedStatement ps = c.prepareStatement(seatSql)) {
+                    ps.setLong(1, classId);
+                    ps.executeUpdate();
+                }
+                c.commit();
+                return true;
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to leave group class", e);
+        }
+    }
+
+    private GroupClass map(ResultSet rs) throws SQLException {
+        GroupClass g = new GroupClass();
+        g.setId(rs.getLong("id"));
+        g.setTitle(rs.getString("title"));
+        g.setCoachId(rs.getLong("coach_id"));
+        g.setFacilityId(rs.getLong("facility_id"));
+        g.setStartTime(rs.getTimestamp("start_time").toLocalDateTime());
+        g.setEndTime(rs.getTimestamp("end_time").toLocalDateTime());
+        g.setCapacity(rs.getInt("capacity"));
+        g.setSeatsTaken(rs.getInt("seats_taken"));
+        g.setFee(rs.getDouble("fee"));
+        g.setStatus(GroupClassStatus.valueOf(rs.getString("status")));
+        return g;
+    }
+
+    private ClassEnrollment mapEnrollment(ResultSet rs) throws SQLException {
+        ClassEnrollment e = new ClassEnrollment();
+        e.setId(rs.getLong("id"));
+        e.setClassId(rs.getLong("class_id"));
+        e.setMemberId(rs.getLong("member_id"));
+        Timestamp t = rs.getTimestamp("enrolled_at");
+        if (t != null) e.setEnrolledAt(t.toLocalDateTime());
+        return e;
+    }
+}
@@ -0,0 +1,298 @@
+package dao.impl;
+
+import dao.DataAccessException;
+import model.Booking;
+import model.ClassEnrollment;
+import model.CoachHours;
+import model.Facility;
+import model.FacilityBooking;
+import model.Feedback;
+import model.GroupClass;
+import model.MaintenanceRequest;
+import model.MemberMetrics;
+import model.MemberMetricsRun;
+import model.Payment;
+import model.TrainingBooking;
+import model.User;
+import model.WaitlistEntry;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared tables behind the *InMemory DAOs, standing in for the MySQL schema.
+ *
+ * Rows live in concurrent maps so reads never block. Writes take the store lock, which keeps the
+ * secondary indexes (email, facility name, facility + start time) and the foreign-key and unique
+ * checks consistent, the way the database does for the JDBC DAOs. Constraint violations surface as
+ * the same DataAccessException("Failed to ...") wrapping a SQLIntegrityConstraintViolationException
+ * that the JDBC DAOs throw. Objects are copied in and out so callers can never mutate a stored row.
+ */
+public class InMemoryStore {
+    final Object lock = new Object();
+
+    final Map<Long, User> users = new ConcurrentHashMap<>();
+    // Lower-cased like MySQL's case-insensitive collation
+    final Map<String, Long> userIdByEmail = new ConcurrentHashMap<>();
+    final AtomicLong userIds = new AtomicLong();
+
+    final Map<Long, Facility> facilities = new ConcurrentHashMap<>();
+    final Map<String, Long> facilityIdByName = new ConcurrentHashMap<>();
+    final AtomicLong facilityIds = new AtomicLong();
+
+    final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+    // facility id -> bookings ordered by (start time, id); mirrors idx_bookings_facility_time
+    final Map<Long, ConcurrentSkipListMap<SlotKey, Long>> bookingsByFacility = new ConcurrentHashMap<>();
+    // Longest booking per facility, so a range scan knows how far before its start to look
+    final Map<Long, Duration> longestBookingByFacility = new ConcurrentHashMap<>();
+    // coach id -> bookings ordered by (start time, id); mirrors idx_bookings_coach_time
+    final Map<Long, ConcurrentSkipListMap<SlotKey, Long>> bookingsByCoach = new ConcurrentHashMap<>();
+    final Map<Long, Duration> longestBookingByCoach = new ConcurrentHashMap<>();
+    // booking id -> last insert or update; mirrors bookings.updated_at
+    final Map<Long, LocalDateTime> bookingUpdatedAt = new ConcurrentHashMap<>();
+    final AtomicLong bookingIds = new AtomicLong();
+
+    final Map<Long, Payment> payments = new ConcurrentHashMap<>();
+    final AtomicLong paymentIds = new AtomicLong();
+
+    final Map<Long, MaintenanceRequest> maintenance = new ConcurrentHashMap<>();
+    final AtomicLong maintenanceIds = new AtomicLong();
+
+    final Map<Long, Feedback> feedback = new ConcurrentHashMap<>();
+    final AtomicLong feedbackIds = new AtomicLong();
+
+    // Seats are taken per class row (see GroupClassDaoInMemory.enroll), not under the store lock
+    final Map<Long, GroupClass> groupClasses = new ConcurrentHashMap<>();
+    final AtomicLong groupClassIds = new AtomicLong();
+    final Map<Long, ClassEnrollment> enrollments = new ConcurrentHashMap<>();
+    // class id -> member id -> enrollment id; mirrors the (class_id, member_id) unique key
+    final Map<Long, Map<Long, Long>> enrollmentsByClass = new ConcurrentHashMap<>();
+    final AtomicLong enrollmentIds = new AtomicLong();
+
+    final Map<Long, WaitlistEntry> waitlist = new ConcurrentHashMap<>();
+    final AtomicLong waitlistIds = new AtomicLong();
+
+    // coach id -> that coach's whole week, replaced as one list
+    final Map<Long, List<CoachHours>> coachHours = new ConcurrentHashMap<>();
+    final AtomicLong coachHoursIds = new AtomicLong();
+
+    final Map<Long, MemberMetrics> memberMetrics = new ConcurrentHashMap<>();
+    final List<MemberMetricsRun> memberMetricsRuns = new CopyOnWriteArrayList<>();
+    final AtomicLong memberMetricsRunIds = new AtomicLong();
+
+    static String key(String caseInsensitive) {
+        return caseInsensitive.toLowerCase(Locale.ROOT);
+    }
+
+    /** DATETIME columns keep whole seconds. */
+    static LocalDateTime seconds(LocalDateTime t) {
+        return t == null ? null : t.truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    /** TIME columns too. */
+    static LocalTime seconds(LocalTime t) {
+        return t == null ? null : t.truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    static DataAccessException violation(String operation, String detail) {
+        return new DataAccessException(operation, new SQLIntegrityConstraintViolationException(detail));
+    }
+
+    static void notNull(Object value, String operation, String column) {
+        if (value == null) throw violation(operation, "Column '" + column + "' cannot be null");
+    }
+
+    static final class SlotKey implements Comparable<SlotKey> {
+        private static final Comparator<SlotKey> ORDER =
+            Comparator.comparing((SlotKey k) -> k.start).thenComparingLong(k -> k.id);
+
+        final LocalDateTime start;
+        final long id;
+
+        SlotKey(LocalDateTime start, long id) {
+            this.start = start;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(SlotKey o) {
+            return ORDER.compare(this, o);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SlotKey && ((SlotKey) o).id == id && ((SlotKey) o).start.equals(start);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(start, id);
+        }
+    }
+
+    static User copy(User u) {
+        User c = new User();
+        c.setId(u.getId());
+        c.setEmail(u.getEmail());
+        c.setPasswordHash(u.getPasswordHash());
+        c.setFullName(u.getFullName());
+        c.setRole(u.getRole());
+        c.setPhone(u.getPhone());
+        c.setCoachFee(u.getCoachFee());
+        c.setCreatedAt(u.getCreatedAt());
+        c.setUpdatedAt(u.getUpdatedAt());
+        return c;
+    }
+
+    static Facility copy(Facility f) {
+        Facility c = new Facility();
+        c.setId(f.getId());
+        c.setName(f.getName());
+        c.setDescription(f.getDescription());
+        c.setHourlyRate(f.getHourlyRate());
+        c.setStatus(f.getStatus());
+        c.setCapacity(f.getCapacity());
+        return c;
+    }
+
+    static Booking copy(Booking b) {
+        Booking c = b instanceof TrainingBooking ? new TrainingBooking() : new FacilityBooking();
+        c.setId(b.getId());
+        c.setMemberId(b.getMemberId());
+        c.setFacilityId(b.getFacilityId());
+        c.setCoachId(b.getCoachId());
+        c.setStartTime(b.getStartTime());
+        c.setEndTime(b.getEndTime());
+        c.setStatus(b.getStatus());
+        c.setFacilityFee(b.getFacilityFee());
+        c.setCoachFee(b.getCoachFee());
+        c.setTotalFee(b.getTotalFee());
+        return c;
+    }
+
+    static Payment copy(Payment p) {
+        Payment c = new Payment();
+        c.setId(p.getId());
+        c.setBookingId(p.getBookingId());
+        c.setUserId(p.getUserId());
+        c.setAmount(p.getAmount());
+        c.setDiscount(p.getDiscount());
+        c.setPaidAt(p.getPaidAt());
+        c.setMethod(p.getMethod());
+        c.setReference(p.getReference());
+        return c;
+    }
+
+    static MaintenanceRequest copy(MaintenanceRequest m) {
+        MaintenanceRequest c = new MaintenanceRequest();
+        c.setId(m.getId());
+        c.setFacilityId(m.getFacilityId());
+        c.setRequestedBy(m.getRequestedBy());
+        c.setTitle(m.getTitle());
+        c.setDescription(m.getDescription());
+        c.setStatus(m.getStatus());
+        c.setWindowStart(m.getWindowStart());
+        c.setWindowEnd(m.getWindowEnd());
+        c.setEstimatedMinutes(m.getEstimatedMinutes());
+        c.setCreatedAt(m.getCreatedAt());
+        c.setUpdatedAt(m.getUpdatedAt());
+        return c;
+    }
+
+    static Feedback copy(Feedback f) {
+        Feedback c = new Feedback();
+        c.setId(f.getId());
+        c.setUserId(f.getUserId());
+        c.setFacilityId(f.getFacilityId());
+        c.setRating(f.getRating());
+        c.setComments(f.getComments());
+        c.setCreatedAt(f.getCreatedAt());
+        return c;
+    }
+
+    static GroupClass copy(GroupClass g) {
+        GroupClass c = new GroupClass();
+        c.setId(g.getId());
+        c.setTitle(g.getTitle());
+        c.setCoachId(g.getCoachId());
+        c.setFacilityId(g.getFacilityId());
+        c.setStartTime(g.getStartTime());
+        c.setEndTime(g.getEndTime());
+        c.setCapacity(g.getCapacity());
+        c.setSeatsTaken(g.getSeatsTaken());
+        c.setFee(g.getFee());
+        c.setStatus(g.getStatus());
+        return c;
+    }
+
+    static ClassEnrollment copy(ClassEnrollment e) {
+        ClassEnrollment c = new ClassEnrollment();
+        c.setId(e.getId());
+        c.setClassId(e.getClassId());
+        c.setMemberId(e.getMemberId());
+        c.setEnrolledAt(e.getEnrolledAt());
+        return c;
+    }
+
+    static CoachHours copy(CoachHours h) {
+        CoachHours c = new CoachHours(h.getCoachId(), h.getDayOfWeek(), h.getStartTime(), h.getEndTime());
+        c.setId(h.getId());
+        return c;
+    }
+
+    static MemberMetrics copy(MemberMetrics m) {
+        MemberMetrics c = new MemberMetrics(m.getMemberId());
+        c.setVisits(m.getVisits());
+        c.setFirstVisitAt(m.getFirstVisitAt());
+        c.setLastVisitAt(m.getLastVisitAt());
+        c.setLifetimeValue(m.getLifetimeValue());
+        c.setVisitsPerWeek(m.getVisitsPerWeek());
+        c.setAvgSpend(m.getAvgSpend());
+        c.setDaysSinceLastVisit(m.getDaysSinceLastVisit());
+        c.setChurnRisk(m.getChurnRisk());
+        c.setComputedAt(m.getComputedAt());
+        return c;
+    }
+
+    static MemberMetricsRun copy(MemberMetricsRun r) {
+        MemberMetricsRun c = new MemberMetricsRun();
+        c.setId(r.getId());
+        c.setStartedAt(r.getStartedAt());
+        c.setFinishedAt(r.getFinishedAt());
+        c.setLastPaymentId(r.getLastPaymentId());
+        c.setMembersUpdated(r.getMembersUpdated());
+        c.setMembersRescored(r.getMembersRescored());
+        return c;
+    }
+
+    static WaitlistEntry copy(WaitlistEntry w) {
+        WaitlistEntry c = new WaitlistEntry();
+        c.setId(w.getId());
+        c.setMemberId(w.getMemberId());
+        c.setFacilityId(w.getFacilityId());
+        c.setCoachId(w.getCoachId());
+        c.setClassId(w.getClassId());
+        c.setStartTime(w.getStartTime());
+        c.setEndTime(w.getEndTime());
+        c.setFacilityFee(w.getFacilityFee());
+        c.setCoachFee(w.getCoachFee());
+        c.setTotalFee(w.getTotalFee());
+        c.setStatus(w.getStatus());
+        c.setRequestedAt(w.getRequestedAt());
+        c.setBookingId(w.getBookingId());
+        c.setEnrollmentId(w.getEnrollmentId());
+        return c;
+    }
+}
@@ -0,0 +1,150 @@
+package dao.impl;
+
+import dao.MaintenanceDao;
+import model.Facility;
+import model.MaintenanceRequest;
+import model.MaintenanceStatus;
+import model.User;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class MaintenanceDaoInMemory implements MaintenanceDao {
+    private static final Comparator<MaintenanceRequest> NEWEST_FIRST =
+        Comparator.comparing(MaintenanceRequest::getCreatedAt).thenComparing(MaintenanceRequest::getId).reversed();
+
+    private final InMemoryStore store;
+
+    public MaintenanceDaoInMemory(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Long create(MaintenanceRequest request) {
+        String op = "Failed to insert maintenance request";
+        InMemoryStore.notNull(request.getFacilityId(), op, "facility_id");
+        InMemoryStore.notNull(request.getRequestedBy(), op, "requested_by");
+        InMemoryStore.notNull(request.getTitle(), op, "title");
+        InMemoryStore.notNull(request.getStatus(), op, "status");
+        checkConstraints(request, op);
+        synchronized (store.lock) {
+            checkParents(request, op);
+            long id = store.maintenanceIds.incrementAndGet();
+            Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            MaintenanceRequest row = InMemoryStore.copy(request);
+            window(row);
+            row.setId(id);
+            row.setCreatedAt(now);
+            row.setUpdatedAt(now);
+            store.maintenance.put(id, row);
+            return id;
+        }
+    }
+
+    @Override
+    public void update(MaintenanceRequest request) {
+        String op = "Failed to update maintenance request";
+        InMemoryStore.notNull(request.getFacilityId(), op, "facility_id");
+        InMemoryStore.notNull(request.getRequestedBy(), op, "requested_by");
+        InMemoryStore.notNull(request.getTitle(), op, "title");
+        InMemoryStore.notNull(request.getStatus(), op, "status");
+        checkConstraints(request, op);
+        synchronized (store.lock) {
+            MaintenanceRequest existing = store.maintenance.get(request.getId());
+            if (existing == null) return;
+            checkParents(request, op);
+            MaintenanceRequest row = InMemoryStore.copy(request);
+            window(row);
+            row.setCreatedAt(existing.getCreatedAt());
+            row.setUpdatedAt(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+            store.maintenance.put(row.getId(), row);
+        }
+    }
+
+    private void checkParents(MaintenanceRequest request, String op) {
+        if (!store.facilities.containsKey(request.getFacilityId()) || !store.users.containsKey(request.getRequestedBy())) {
+            throw InMemoryStore.violation(op, "Cannot add or update a child row: a foreign key constraint fails (maintenance_requests)");
+        }
+    }
+
+    private static void checkConstraints(MaintenanceRequest request, String op) {
+        LocalDateTime start = request.getWindowStart();
+        LocalDateTime end = request.getWindowEnd();
+        if ((start == null) != (end == null) || (start != null && !end.isAfter(start))) {
+            throw InMemoryStore.violation(op, "Check constraint 'chk_mr_window' is violated.");
+        }
+        if (request.getEstimatedMinutes() != null && request.getEstimatedMinutes() <= 0) {
+            throw InMemoryStore.violation(op, "Check constraint 'chk_mr_estimate' is violated.");
+        }
+    }
+
+    private static void window(MaintenanceRequest row) {
+        row.setWindowStart(InMemoryStore.seconds(row.getWindowStart()));
+        row.setWindowEnd(InMemoryStore.seconds(row.getWindowEnd()));
+    }
+
+    @Override
+    public Optional<MaintenanceRequest> findById(Long id) {
+        MaintenanceRequest m = store.maintenance.get(id);
+        return m == null ? Optional.empty() : Optional.of(InMemoryStore.copy(m));
+    }
+
+    @Override
+    public List<MaintenanceRequest> findAll() {
+        return store.maintenance.values().stream().sorted(NEWEST_FIRST).map(InMemoryStore::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MaintenanceRequest> findByStatus(MaintenanceStatus status) {
+        return store.maintenance.values().stream()
+            .filter(m -> m.getStatus() == status)
+            .sorted(NEWEST_FIRST)
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MaintenanceRequest> findWindows(Long facilityId, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime s = InMemoryStore.seconds(start);
+        LocalDateTime e = InMemoryStore.seconds(end);
+        return store.maintenance.values().stream()
+            .filter(m -> facilityId.equals(m.getFacilityId()) && m.blocks(s, e))
+            .sorted(Comparator.comparing(MaintenanceRequest::getWindowStart))
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MaintenanceRequest> search(String query, Long facilityId, Long requestedBy, MaintenanceStatus status, int offset, int limit) {
+        List<String> terms = FullTextQuery.terms(query);
+        if (terms.isEmpty() || limit <= 0) return new ArrayList<>();
+        return store.maintenance.values().stream()
+            .filter(m -> facilityId == null || facilityId.equals(m.getFacilityId()))
+            .filter(m -> requestedBy == null || requestedBy.equals(m.getRequestedBy()))
+            .filter(m -> status == null || status == m.getStatus())
+            .map(m -> Map.entry(m, FullTextQuery.relevance(terms, m.getTitle(), m.getDescription())))
+            .filter(e -> e.getValue() > 0 || matchesOther(e.getKey(), query))
+            .sorted(Map.Entry.<MaintenanceRequest, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey(NEWEST_FIRST)))
+            .skip(Math.max(0, offset))
+            .limit(limit)
+            .map(e -> InMemoryStore.copy(e.getKey()))
+            .collect(Collectors.toList());
+    }
+
+    // The joined-name and status matches of the JDBC search
+    private boolean matchesOther(MaintenanceRequest m, String query) {
+        Facility facility = store.facilities.get(m.getFacilityId());
+        User requester = m.getRequestedBy() == null ? null : store.users.get(m.getRequestedBy());
+        return (facility != null && FullTextQuery.contains(facility.getName(), query))
+            || (requester != null && FullTextQuery.contains(requester.getFullName(), query))
+            || (m.getStatus() != null && FullTextQuery.contains(m.getStatus().name(), query));
+    }
+}
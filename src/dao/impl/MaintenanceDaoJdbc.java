@@ -1,5 +1,6 @@
 package dao.impl;
 
+import dao.DataAccessException;
 import dao.MaintenanceDao;
 import db.ConnectionManager;
 import model.MaintenanceRequest;
@@ -7,6 +8,7 @@ import model.MaintenanceStatus;
 
 import java.sql.*;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -14,7 +16,7 @@ import java.util.Optional;
 public class MaintenanceDaoJdbc implements MaintenanceDao {
     @Override
     public Long create(MaintenanceRequest request) {
-        String sql = "INSERT INTO maintenance_requests(facility_id, requested_by, title, description, status) VALUES(?,?,?,?,?)";
+        String sql = "INSERT INTO maintenance_requests(facility_id, requested_by, title, description, status, window_start, window_end, estimated_minutes) VALUES(?,?,?,?,?,?,?,?)";
         try (Connection c = ConnectionManager.getConnection();
              PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setLong(1, request.getFacilityId());
@@ -22,19 +24,21 @@ public class MaintenanceDaoJdbc implements MaintenanceDao {
             ps.setString(3, request.getTitle());
             ps.setString(4, request.getDescription());
             ps.setString(5, request.getStatus().name());
+            setWindow(ps, 6, request);
+            setEstimate(ps, 8, request);
             ps.executeUpdate();
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) return rs.getLong(1);
             }
             return null;
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to insert maintenance request", e);
+            throw new DataAccessException("Failed to insert maintenance request", e);
         }
     }
 
     @Override
     public void update(MaintenanceRequest request) {
-        String sql = "UPDATE maintenance_requests SET facility_id=?, requested_by=?, title=?, description=?, status=? WHERE id=?";
+        String sql = "UPDATE maintenance_requests SET facility_id=?, requested_by=?, title=?, description=?, status=?, window_start=?, window_end=?, estimated_minutes=? WHERE id=?";
         try (Connection c = ConnectionManager.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, request.getFacilityId());
@@ -42,10 +46,12 @@ public class MaintenanceDaoJdbc implements MaintenanceDao {
             ps.setString(3, request.getTitle());
             ps.setString(4, request.getDescription());
             ps.setString(5, request.getStatus().name());
-            ps.setLong(6, request.getId());
+            setWindow(ps, 6, request);
+            setEstimate(ps, 8, request);
+            ps.setLong(9, request.getId());
             ps.executeUpdate();
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to update maintenance request", e);
+            throw new DataAccessException("Failed to update maintenance request", e);
         }
     }
 
@@ -59,7 +65,7 @@ public class MaintenanceDaoJdbc implements MaintenanceDao {
                 if (rs.next()) return Optional.of(map(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to find maintenance request", e);
+            throw new DataAccessException("Failed to find maintenance request", e);
         }
         return Optional.empty();
     }
@@ -73,7 +79,7 @@ public class MaintenanceDaoJdbc implements MaintenanceDao {
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) list.add(map(rs));
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to list maintenance requests", e);
+            throw new DataAccessException("Failed to list maintenance requests", e);
         }
         return list;
     }
@@ -89,11 +95,79 @@ public class MaintenanceDaoJdbc implements MaintenanceDao {
                 while (rs.next()) list.add(map(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to list maintenance requests by status", e);
+            throw new DataAccessException("Failed to list maintenance requests by status", e);
         }
         return list;
     }
 
+    @Override
+    public List<MaintenanceRequest> findWindows(Long facilityId, LocalDateTime start, LocalDateTime end) {
+        String sql = "SELECT * FROM maintenance_requests WHERE facility_id=? AND status<>'RESOLVED' " +
+            "AND window_start<? AND window_end>? ORDER BY window_start";
+        List<MaintenanceRequest> list = new ArrayList<>();
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, facilityId);
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            ps.setTimestamp(3, Timestamp.valueOf(start));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(map(rs));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to list maintenance windows", e);
+        }
+        return list;
+    }
+
+    @Override
+    public List<MaintenanceRequest> search(String query, Long facilityId, Long requestedBy, MaintenanceStatus status, int offset, int limit) {
+        List<MaintenanceRequest> list = new ArrayList<>();
+        String terms = FullTextQuery.toBooleanMode(query);
+        if (terms == null || limit <= 0) return list;
+        String names = FullTextQuery.containsPattern(query);
+        // Name matches come from the joined rows, so the search never leaves the database
+        StringBuilder sql = new StringBuilder(
+            "SELECT m.*, MATCH(m.title, m.description) AGAINST(? IN BOOLEAN MODE) AS relevance FROM maintenance_requests m " +
+            "LEFT JOIN facilities fa ON fa.id=m.facility_id LEFT JOIN users u ON u.id=m.requested_by " +
+            "WHERE (MATCH(m.title, m.description) AGAINST(? IN BOOLEAN MODE) OR fa.name LIKE ? OR u.full_name LIKE ? OR m.status LIKE ?)");
+        if (facilityId != null) sql.append(" AND m.facility_id=?");
+        if (requestedBy != null) sql.append(" AND m.requested_by=?");
+        if (status != null) sql.append(" AND m.status=?");
+        sql.append(" ORDER BY relevance DESC, m.created_at DESC LIMIT ? OFFSET ?");
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int i = 1;
+            ps.setString(i++, terms);
+            ps.setString(i++, terms);
+            ps.setString(i++, names);
+            ps.setString(i++, names);
+            ps.setString(i++, names);
+            if (facilityId != null) ps.setLong(i++, facilityId);
+            if (requestedBy != null) ps.setLong(i++, requestedBy);
+            if (status != null) ps.setString(i++, status.name());
+            ps.setInt(i++, limit);
+            ps.setInt(i, Math.max(0, offset));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(map(rs));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to search maintenance requests", e);
+        }
+        return list;
+    }
+
+    private static void setWindow(PreparedStatement ps, int index, MaintenanceRequest request) throws SQLException {
+        if (request.getWindowStart() == null) ps.setNull(index, Types.TIMESTAMP);
+        else ps.setTimestamp(index, Timestamp.valueOf(request.getWindowStart()));
+        if (request.getWindowEnd() == null) ps.setNull(index + 1, Types.TIMESTAMP);
+        else ps.setTimestamp(index + 1, Timestamp.valueOf(request.getWindowEnd()));
+    }
+
+    private static void setEstimate(PreparedStatement ps, int index, MaintenanceRequest request) throws SQLException {
+        if (request.getEstimatedMinutes() == null) ps.setNull(index, Types.INTEGER);
+        else ps.setInt(index, request.getEstimatedMinutes());
+    }
+
     private MaintenanceRequest map(ResultSet rs) throws SQLException {
         MaintenanceRequest m = new MaintenanceRequest();
         m.setId(rs.getLong("id"));
@@ -102,6 +176,12 @@ public class MaintenanceDaoJdbc implements MaintenanceDao {
         m.setTitle(rs.getString("title"));
         m.setDescription(rs.getString("description"));
         m.setStatus(MaintenanceStatus.valueOf(rs.getString("status")));
+        Timestamp windowStart = rs.getTimestamp("window_start");
+        Timestamp windowEnd = rs.getTimestamp("window_end");
+        if (windowStart != null) m.setWindowStart(windowStart.toLocalDateTime());
+        if (windowEnd != null) m.setWindowEnd(windowEnd.toLocalDateTime());
+        int estimate = rs.getInt("estimated_minutes");
+        if (!rs.wasNull()) m.setEstimatedMinutes(estimate);
         Timestamp created = rs.getTimestamp("created_at");
         Timestamp updated = rs.getTimestamp("updated_at");
         if (created != null) m.setCreatedAt(Instant.ofEpochMilli(created.getTime()));
@@ -0,0 +1,123 @@
+package dao.impl;
+
+import dao.MemberMetricsDao;
+import model.Booking;
+import model.BookingStatus;
+import model.MemberMetrics;
+import model.MemberMetricsRun;
+import model.Payment;
+import model.Role;
+import model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/** Grouping walks every booking and payment once per call, as the database would without an index. */
+public class MemberMetricsDaoInMemory implements MemberMetricsDao {
+    private final InMemoryStore store;
+
+    public MemberMetricsDaoInMemory(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Optional<MemberMetricsRun> lastRun() {
+        List<MemberMetricsRun> runs = store.memberMetricsRuns;
+        return runs.isEmpty() ? Optional.empty() : Optional.of(InMemoryStore.copy(runs.get(runs.size() - 1)));
+    }
+
+    @Override
+    public void recordRun(MemberMetricsRun run) {
+        String op = "Failed to record member metrics run";
+        InMemoryStore.notNull(run.getStartedAt(), op, "started_at");
+        InMemoryStore.notNull(run.getFinishedAt(), op, "finished_at");
+        MemberMetricsRun row = InMemoryStore.copy(run);
+        row.setId(store.memberMetricsRunIds.incrementAndGet());
+        row.setStartedAt(InMemoryStore.seconds(row.getStartedAt()));
+        row.setFinishedAt(InMemoryStore.seconds(row.getFinishedAt()));
+        store.memberMetricsRuns.add(row);
+        run.setId(row.getId());
+    }
+
+    @Override
+    public long maxPaymentId() {
+        return store.paymentIds.get();
+    }
+
+    @Override
+    public List<Long> findChangedMembers(LocalDateTime changedSince, LocalDateTime startedSince, LocalDateTime asOf, long paymentsAfter) {
+        Set<Long> ids = new HashSet<>();
+        for (User u : store.users.values()) {
+            if (u.getRole() == Role.MEMBER && !store.memberMetrics.containsKey(u.getId())) ids.add(u.getId());
+        }
+        for (Booking b : store.bookings.values()) {
+            LocalDateTime updated = store.bookingUpdatedAt.get(b.getId());
+            boolean changed = updated != null && !updated.isBefore(changedSince);
+            boolean started = b.getStatus() == BookingStatus.CONFIRMED
+                && !b.getStartTime().isBefore(startedSince) && b.getStartTime().isBefore(asOf);
+            if (changed || started) ids.add(b.getMemberId());
+        }
+        for (Payment p : store.payments.values()) {
+            if (p.getId() > paymentsAfter) ids.add(p.getUserId());
+        }
+        return new ArrayList<>(ids);
+    }
+
+    @Override
+    public List<MemberMetrics> aggregate(List<Long> memberIds, LocalDateTime asOf) {
+        Map<Long, MemberMetrics> result = new LinkedHashMap<>();
+        for (Long id : memberIds) result.put(id, new MemberMetrics(id));
+        for (Booking b : store.bookings.values()) {
+            MemberMetrics m = result.get(b.getMemberId());
+            if (m == null || b.getStatus() != BookingStatus.CONFIRMED || b.getStartTime().isAfter(asOf)) continue;
+            m.setVisits(m.getVisits() + 1);
+            if (m.getFirstVisitAt() == null || b.getStartTime().isBefore(m.getFirstVisitAt())) m.setFirstVisitAt(b.getStartTime());
+            if (m.getLastVisitAt() == null || b.getStartTime().isAfter(m.getLastVisitAt())) m.setLastVisitAt(b.getStartTime());
+        }
+        for (Payment p : store.payments.values()) {
+            MemberMetrics m = result.get(p.getUserId());
+            if (m != null) m.setLifetimeValue(m.getLifetimeValue() + p.getAmount());
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    @Override
+    public List<MemberMetrics> findComputedBefore(LocalDateTime time) {
+        return store.memberMetrics.values().stream()
+            .filter(m -> m.getComputedAt().isBefore(time))
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MemberMetrics> findAll() {
+        return store.memberMetrics.values().stream().map(InMemoryStore::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public void saveAll(List<MemberMetrics> metrics) {
+        String op = "Failed to save member metrics";
+        synchronized (store.lock) {
+            for (MemberMetrics m : metrics) {
+                InMemoryStore.notNull(m.getComputedAt(), op, "computed_at");
+                if (!store.users.containsKey(m.getMemberId())) {
+                    throw InMemoryStore.violation(op, "Cannot add or update a child row: a foreign key constraint fails (member_metrics)");
+                }
+            }
+            for (MemberMetrics m : metrics) {
+                MemberMetrics row = InMemoryStore.copy(m);
+                row.setFirstVisitAt(InMemoryStore.seconds(row.getFirstVisitAt()));
+                row.setLastVisitAt(InMemoryStore.seconds(row.getLastVisitAt()));
+                row.setComputedAt(InMemoryStore.seconds(row.getComputedAt()));
+                store.memberMetrics.put(row.getMemberId(), row);
+            }
+        }
+    }
+}
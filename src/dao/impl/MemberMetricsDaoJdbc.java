@@ -0,0 +1,216 @@
+package dao.impl;
+
+import dao.DataAccessException;
+import dao.MemberMetricsDao;
+import db.ConnectionManager;
+import model.MemberMetrics;
+import model.MemberMetricsRun;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Member totals are grouped in MySQL a chunk of ids at a time, so only one row per member comes
+ * back however many bookings and payments they have.
+ */
+public class MemberMetricsDaoJdbc implements MemberMetricsDao {
+    // Ids per IN list and rows per upsert batch
+    private static final int CHUNK = 1000;
+
+    @Override
+    public Optional<MemberMetricsRun> lastRun() {
+        String sql = "SELECT * FROM member_metrics_runs ORDER BY id DESC LIMIT 1";
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) return Optional.empty();
+            MemberMetricsRun run = new MemberMetricsRun();
+            run.setId(rs.getLong("id"));
+            run.setStartedAt(rs.getTimestamp("started_at").toLocalDateTime());
+            run.setFinishedAt(rs.getTimestamp("finished_at").toLocalDateTime());
+            run.setLastPaymentId(rs.getLong("last_payment_id"));
+            run.setMembersUpdated(rs.getInt("members_updated"));
+            run.setMembersRescored(rs.getInt("members_rescored"));
+            return Optional.of(run);
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to find last member metrics run", e);
+        }
+    }
+
+    @Override
+    public void recordRun(MemberMetricsRun run) {
+        String sql = "INSERT INTO member_metrics_runs(started_at, finished_at, last_payment_id, members_updated, members_rescored) VALUES(?,?,?,?,?)";
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setTimestamp(1, Timestamp.valueOf(run.getStartedAt()));
+            ps.setTimestamp(2, Timestamp.valueOf(run.getFinishedAt()));
+            ps.setLong(3, run.getLastPaymentId());
+            ps.setInt(4, run.getMembersUpdated());
+            ps.setInt(5, run.getMembersRescored());
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (rs.next()) run.setId(rs.getLong(1));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to record member metrics run", e);
+        }
+    }
+
+    @Override
+    public long maxPaymentId() {
+        String sql = "SELECT COALESCE(MAX(id), 0) FROM payments";
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to find last payment", e);
+        }
+    }
+
+    @Override
+    public List<Long> findChangedMembers(LocalDateTime changedSince, LocalDateTime startedSince, LocalDateTime asOf, long paymentsAfter) {
+        String sql = "SELECT u.id FROM users u LEFT JOIN member_metrics m ON m.member_id=u.id WHERE u.role='MEMBER' AND m.member_id IS NULL"
+            + " UNION SELECT member_id FROM bookings WHERE updated_at>=?"
+            + " UNION SELECT member_id FROM bookings WHERE start_time>=? AND start_time<? AND status='CONFIRMED'"
+            + " UNION SELECT user_id FROM payments WHERE id>?";
+        List<Long> ids = new ArrayList<>();
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(changedSince));
+            ps.setTimestamp(2, Timestamp.valueOf(startedSince));
+            ps.setTimestamp(3, Timestamp.valueOf(asOf));
+            ps.setLong(4, paymentsAfter);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getLong(1));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to find members with new activity", e);
+        }
+        return ids;
+    }
+
+    @Override
+    public List<MemberMetrics> aggregate(List<Long> memberIds, LocalDateTime asOf) {
+        Map<Long, MemberMetrics> result = new LinkedHashMap<>();
+        for (Long id : memberIds) result.put(id, new MemberMetrics(id));
+        try (Connection c = ConnectionManager.getConnection()) {
+            for (int from = 0; from < memberIds.size(); from += CHUNK) {
+                List<Long> chunk = memberIds.subList(from, Math.min(memberIds.size(), from + CHUNK));
+                String in = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                String visits = "SELECT member_id, COUNT(*), MIN(start_time), MAX(start_time) FROM bookings"
+                    + " WHERE status='CONFIRMED' AND start_time<=? AND member_id IN (" + in + ") GROUP BY member_id";
+                try (PreparedStatement ps = c.prepareStatement(visits)) {
+                    ps.setTimestamp(1, Timestamp.valueOf(asOf));
+                    for (int i = 0; i < chunk.size(); i++) ps.setLong(i + 2, chunk.get(i));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            MemberMetrics m = result.get(rs.getLong(1));
+                            m.setVisits(rs.getInt(2));
+                            m.setFirstVisitAt(rs.getTimestamp(3).toLocalDateTime());
+                            m.setLastVisitAt(rs.getTimestamp(4).toLocalDateTime());
+                        }
+                    }
+                }
+                String spend = "SELECT user_id, SUM(amount) FROM payments WHERE user_id IN (" + in + ") GROUP BY user_id";
+                try (PreparedStatement ps = c.prepareStatement(spend)) {
+                    for (int i = 0; i < chunk.size(); i++) ps.setLong(i + 1, chunk.get(i));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) result.get(rs.getLong(1)).setLifetimeValue(rs.getBigDecimal(2).doubleValue());
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to aggregate member activity", e);
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    @Override
+    public List<MemberMetrics> findComputedBefore(LocalDateTime time) {
+        return query("SELECT * FROM member_metrics WHERE computed_at<?", time, "Failed to list stale member metrics");
+    }
+
+    @Override
+    public List<MemberMetrics> findAll() {
+        return query("SELECT * FROM member_metrics", null, "Failed to list member metrics");
+    }
+
+    private List<MemberMetrics> query(String sql, LocalDateTime param, String failure) {
+        List<MemberMetrics> list = new ArrayList<>();
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Integer.MIN_VALUE);
+            if (param != null) ps.setTimestamp(1, Timestamp.valueOf(param));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(map(rs));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(failure, e);
+        }
+        return list;
+    }
+
+    @Override
+    public void saveAll(List<MemberMetrics> metrics) {
+        String sql = "INSERT INTO member_metrics(member_id, visits, first_visit_at, last_visit_at, lifetime_value, visits_per_week,"
+            + " avg_spend, days_since_last_visit, churn_risk, computed_at) VALUES(?,?,?,?,?,?,?,?,?,?)"
+            + " ON DUPLICATE KEY UPDATE visits=VALUES(visits), first_visit_at=VALUES(first_visit_at), last_visit_at=VALUES(last_visit_at),"
+            + " lifetime_value=VALUES(lifetime_value), visits_per_week=VALUES(visits_per_week), avg_spend=VALUES(avg_spend),"
+            + " days_since_last_visit=VALUES(days_since_last_visit), churn_risk=VALUES(churn_risk), computed_at=VALUES(computed_at)";
+        try (Connection c = ConnectionManager.getConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                int pending = 0;
+                for (MemberMetrics m : metrics) {
+                    ps.setLong(1, m.getMemberId());
+                    ps.setInt(2, m.getVisits());
+                    ps.setTimestamp(3, m.getFirstVisitAt() == null ? null : Timestamp.valueOf(m.getFirstVisitAt()));
+                    ps.setTimestamp(4, m.getLastVisitAt() == null ? null : Timestamp.valueOf(m.getLastVisitAt()));
+                    ps.setDouble(5, m.getLifetimeValue());
+                    ps.setDouble(6, m.getVisitsPerWeek());
+                    ps.setDouble(7, m.getAvgSpend());
+                    if (m.getDaysSinceLastVisit() == null) ps.setNull(8, Types.INTEGER); else ps.setInt(8, m.getDaysSinceLastVisit());
+                    ps.setDouble(9, m.getChurnRisk());
+                    ps.setTimestamp(10, Timestamp.valueOf(m.getComputedAt()));
+                    ps.addBatch();
+                    if (++pending == CHUNK) {
+                        ps.executeBatch();
+                        c.commit();
+                        pending = 0;
+                    }
+                }
+                ps.executeBatch();
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to save member metrics", e);
+        }
+    }
+
+    private MemberMetrics map(ResultSet rs) throws SQLException {
+        MemberMetrics m = new MemberMetrics(rs.getLong("member_id"));
+        m.setVisits(rs.getInt("visits"));
+        Timestamp first = rs.getTimestamp("first_visit_at");
+        m.setFirstVisitAt(first == null ? null : first.toLocalDateTime());
+        Timestamp last = rs.getTimestamp("last_visit_at");
+        m.setLastVisitAt(last == null ? null : last.toLocalDateTime());
+        m.setLifetimeValue(rs.getDouble("lifetime_value"));
+        m.setVisitsPerWeek(rs.getDouble("visits_per_week"));
+        m.setAvgSpend(rs.getDouble("avg_spend"));
+        int days = rs.getInt("days_since_last_visit");
+        m.setDaysSinceLastVisit(rs.wasNull() ? null : days);
+        m.setChurnRisk(rs.getDouble("churn_risk"));
+        m.setComputedAt(rs.getTimestamp("computed_at").toLocalDateTime());
+        return m;
+    }
+}
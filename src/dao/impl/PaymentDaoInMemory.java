@@ -0,0 +1,60 @@
+package dao.impl;
+
+import dao.PaymentDao;
+import model.Payment;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class PaymentDaoInMemory implements PaymentDao {
+    private static final Comparator<Payment> NEWEST_FIRST =
+        Comparator.comparing(Payment::getPaidAt).thenComparing(Payment::getId).reversed();
+
+    private final InMemoryStore store;
+
+    public PaymentDaoInMemory(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Long create(Payment payment) {
+        String op = "Failed to insert payment";
+        InMemoryStore.notNull(payment.getBookingId(), op, "booking_id");
+        InMemoryStore.notNull(payment.getUserId(), op, "user_id");
+        InMemoryStore.notNull(payment.getMethod(), op, "method");
+        synchronized (store.lock) {
+            if (!store.bookings.containsKey(payment.getBookingId()) || !store.users.containsKey(payment.getUserId())) {
+                throw InMemoryStore.violation(op, "Cannot add or update a child row: a foreign key constraint fails (payments)");
+            }
+            long id = store.paymentIds.incrementAndGet();
+            Payment row = InMemoryStore.copy(payment);
+            row.setId(id);
+            row.setPaidAt(InMemoryStore.seconds(payment.getPaidAt() != null ? payment.getPaidAt() : LocalDateTime.now()));
+            store.payments.put(id, row);
+            return id;
+        }
+    }
+
+    @Override
+    public Optional<Payment> findById(Long id) {
+        Payment p = store.payments.get(id);
+        return p == null ? Optional.empty() : Optional.of(InMemoryStore.copy(p));
+    }
+
+    @Override
+    public List<Payment> findByBooking(Long bookingId) {
+        return store.payments.values().stream()
+            .filter(p -> p.getBookingId().equals(bookingId))
+            .sorted(NEWEST_FIRST)
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Payment> findAll() {
+        return store.payments.values().stream().sorted(NEWEST_FIRST).map(InMemoryStore::copy).collect(Collectors.toList());
+    }
+}
@@ -1,5 +1,6 @@
 package dao.impl;
 
+import dao.DataAccessException;
 import dao.PaymentDao;
 import db.ConnectionManager;
 import model.Payment;
@@ -30,7 +31,7 @@ public class PaymentDaoJdbc implements PaymentDao {
             }
             return null;
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to insert payment", e);
+            throw new DataAccessException("Failed to insert payment", e);
         }
     }
 
@@ -44,7 +45,7 @@ public class PaymentDaoJdbc implements PaymentDao {
                 if (rs.next()) return Optional.of(map(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to find payment", e);
+            throw new DataAccessException("Failed to find payment", e);
         }
         return Optional.empty();
     }
@@ -60,7 +61,7 @@ public class PaymentDaoJdbc implements PaymentDao {
                 while (rs.next()) list.add(map(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to list payments by booking", e);
+            throw new DataAccessException("Failed to list payments by booking", e);
         }
         return list;
     }
@@ -74,7 +75,7 @@ public class PaymentDaoJdbc implements PaymentDao {
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) list.add(map(rs));
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to list payments", e);
+            throw new DataAccessException("Failed to list payments", e);
         }
         return list;
     }
@@ -0,0 +1,61 @@
+package dao.impl;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Peak number of simultaneously open intervals within a window, by sorting the start and end
+ * points and sweeping across them. Intervals are half-open, so one ending exactly when another
+ * starts does not count as overlapping it.
+ */
+final class SweepLine {
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private LocalDateTime[] starts = new LocalDateTime[16];
+    private LocalDateTime[] ends = new LocalDateTime[16];
+    private int size;
+
+    SweepLine(LocalDateTime from, LocalDateTime to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /** Adds an interval, clipped to the window; intervals outside it are ignored. */
+    void add(LocalDateTime start, LocalDateTime end) {
+        add(start, end, 1);
+    }
+
+    /** Adds the interval count times, e.g. once per seat of a group class. */
+    void add(LocalDateTime start, LocalDateTime end, int count) {
+        LocalDateTime s = start.isBefore(from) ? from : start;
+        LocalDateTime e = end.isAfter(to) ? to : end;
+        if (!e.isAfter(s)) return;
+        for (int i = 0; i < count; i++) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = s;
+            ends[size] = e;
+            size++;
+        }
+    }
+
+    int peak() {
+        Arrays.sort(starts, 0, size);
+        Arrays.sort(ends, 0, size);
+        int open = 0;
+        int peak = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            // Close everything that ended at or before this start first
+            while (!ends[j].isAfter(starts[i])) {
+                j++;
+                open--;
+            }
+            open++;
+            if (open > peak) peak = open;
+        }
+        return peak;
+    }
+}
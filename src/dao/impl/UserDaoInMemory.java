@@ -0,0 +1,139 @@
+package dao.impl;
+
+import dao.UserDao;
+import model.Role;
+import model.User;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class UserDaoInMemory implements UserDao {
+    private final InMemoryStore store;
+
+    public UserDaoInMemory(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Long create(User user) {
+        String op = "Failed to insert user";
+        InMemoryStore.notNull(user.getEmail(), op, "email");
+        InMemoryStore.notNull(user.getPasswordHash(), op, "password_hash");
+        InMemoryStore.notNull(user.getFullName(), op, "full_name");
+        InMemoryStore.notNull(user.getRole(), op, "role");
+        synchronized (store.lock) {
+            String email = InMemoryStore.key(user.getEmail());
+            if (store.userIdByEmail.containsKey(email)) {
+                throw InMemoryStore.violation(op, "Duplicate entry '" + user.getEmail() + "' for key 'users.email'");
+            }
+            long id = store.userIds.incrementAndGet();
+            Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            User row = InMemoryStore.copy(user);
+            row.setId(id);
+            row.setCreatedAt(now);
+            row.setUpdatedAt(now);
+            store.users.put(id, row);
+            store.userIdByEmail.put(email, id);
+            return id;
+        }
+    }
+
+    @Override
+    public void update(User user) {
+        String op = "Failed to update user";
+        InMemoryStore.notNull(user.getEmail(), op, "email");
+        InMemoryStore.notNull(user.getFullName(), op, "full_name");
+        InMemoryStore.notNull(user.getRole(), op, "role");
+        synchronized (store.lock) {
+            User existing = store.users.get(user.getId());
+            if (existing == null) return;
+            String oldEmail = InMemoryStore.key(existing.getEmail());
+            String newEmail = InMemoryStore.key(user.getEmail());
+            Long owner = store.userIdByEmail.get(newEmail);
+            if (owner != null && !owner.equals(existing.getId())) {
+                throw InMemoryStore.violation(op, "Duplicate entry '" + user.getEmail() + "' for key 'users.email'");
+            }
+            // Like the UPDATE statement, the password hash and creation time are left alone
+            User row = InMemoryStore.copy(user);
+            row.setPasswordHash(existing.getPasswordHash());
+            row.setCreatedAt(existing.getCreatedAt());
+            row.setUpdatedAt(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+            store.users.put(row.getId(), row);
+            if (!oldEmail.equals(newEmail)) {
+                store.userIdByEmail.remove(oldEmail);
+                store.userIdByEmail.put(newEmail, row.getId());
+            }
+        }
+    }
+
+    @Override
+    public void updatePasswordHash(Long id, String passwordHash) {
+        InMemoryStore.notNull(passwordHash, "Failed to update password hash", "password_hash");
+        synchronized (store.lock) {
+            User existing = store.users.get(id);
+            if (existing == null) return;
+            User row = InMemoryStore.copy(existing);
+            row.setPasswordHash(passwordHash);
+            row.setUpdatedAt(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+            store.users.put(id, row);
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        String op = "Failed to delete user";
+        synchronized (store.lock) {
+            User existing = store.users.get(id);
+            if (existing == null) return;
+            boolean referenced = store.bookings.values().stream().anyMatch(b -> id.equals(b.getMemberId()) || id.equals(b.getCoachId()))
+                || store.payments.values().stream().anyMatch(p -> id.equals(p.getUserId()))
+                || store.maintenance.values().stream().anyMatch(m -> id.equals(m.getRequestedBy()))
+                || store.feedback.values().stream().anyMatch(f -> id.equals(f.getUserId()))
+                || store.groupClasses.values().stream().anyMatch(g -> id.equals(g.getCoachId()))
+                || store.enrollments.values().stream().anyMatch(e -> id.equals(e.getMemberId()))
+                || store.waitlist.values().stream().anyMatch(w -> id.equals(w.getMemberId()) || id.equals(w.getCoachId()));
+            if (referenced) {
+                throw InMemoryStore.violation(op, "Cannot delete or update a parent row: a foreign key constraint fails (users)");
+            }
+            store.users.remove(id);
+            store.userIdByEmail.remove(InMemoryStore.key(existing.getEmail()));
+            // coach_hours.coach_id and member_metrics.member_id are ON DELETE CASCADE
+            store.coachHours.remove(id);
+            store.memberMetrics.remove(id);
+        }
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        User u = store.users.get(id);
+        return u == null ? Optional.empty() : Optional.of(InMemoryStore.copy(u));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        if (email == null) return Optional.empty();
+        Long id = store.userIdByEmail.get(InMemoryStore.key(email));
+        return id == null ? Optional.empty() : findById(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return store.users.values().stream()
+            .sorted(Comparator.comparing(User::getCreatedAt).thenComparing(User::getId).reversed())
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<User> findByRole(Role role) {
+        return store.users.values().stream()
+            .filter(u -> u.getRole() == role)
+            .sorted(Comparator.comparing((User u) -> InMemoryStore.key(u.getFullName())).thenComparing(User::getId))
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+}
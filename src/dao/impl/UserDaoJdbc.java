@@ -1,5 +1,6 @@
 package dao.impl;
 
+import dao.DataAccessException;
 import dao.UserDao;
 import db.ConnectionManager;
 import model.Role;
@@ -35,7 +36,7 @@ public class UserDaoJdbc implements UserDao {
                 return null;
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to insert user", e);
+            throw new DataAccessException("Failed to insert user", e);
         }
     }
 
@@ -52,7 +53,20 @@ public class UserDaoJdbc implements UserDao {
             ps.setLong(6, user.getId());
             ps.executeUpdate();
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to update user", e);
+            throw new DataAccessException("Failed to update user", e);
+        }
+    }
+
+    @Override
+    public void updatePasswordHash(Long id, String passwordHash) {
+        String sql = "UPDATE users SET password_hash=? WHERE id=?";
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, passwordHash);
+            ps.setLong(2, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to update password hash", e);
         }
     }
 
@@ -64,7 +78,7 @@ public class UserDaoJdbc implements UserDao {
             ps.setLong(1, id);
             ps.executeUpdate();
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to delete user", e);
+            throw new DataAccessException("Failed to delete user", e);
         }
     }
 
@@ -78,7 +92,7 @@ public class UserDaoJdbc implements UserDao {
                 if (rs.next()) return Optional.of(map(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to find user by id", e);
+            throw new DataAccessException("Failed to find user by id", e);
         }
         return Optional.empty();
     }
@@ -93,7 +107,7 @@ public class UserDaoJdbc implements UserDao {
                 if (rs.next()) return Optional.of(map(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to find user by email", e);
+            throw new DataAccessException("Failed to find user by email", e);
         }
         return Optional.empty();
     }
@@ -107,7 +121,7 @@ public class UserDaoJdbc implements UserDao {
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) result.add(map(rs));
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to list users", e);
+            throw new DataAccessException("Failed to list users", e);
         }
         return result;
     }
@@ -123,7 +137,7 @@ public class UserDaoJdbc implements UserDao {
                 while (rs.next()) result.add(map(rs));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to list users by role", e);
+            throw new DataAccessException("Failed to list users by role", e);
         }
         return result;
     }
@@ -0,0 +1,136 @@
+package dao.impl;
+
+import dao.WaitlistDao;
+import model.WaitlistEntry;
+import model.WaitlistStatus;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+public class WaitlistDaoInMemory implements WaitlistDao {
+    private static final Comparator<WaitlistEntry> REQUEST_ORDER =
+        Comparator.comparing(WaitlistEntry::getRequestedAt).thenComparing(WaitlistEntry::getId);
+
+    private final InMemoryStore store;
+    private final BookingDaoInMemory bookings;
+    private final GroupClassDaoInMemory classes;
+
+    public WaitlistDaoInMemory(InMemoryStore store) {
+        this.store = store;
+        this.bookings = new BookingDaoInMemory(store);
+        this.classes = new GroupClassDaoInMemory(store);
+    }
+
+    @Override
+    public Long create(WaitlistEntry entry) {
+        String op = "Failed to insert waitlist entry";
+        InMemoryStore.notNull(entry.getMemberId(), op, "member_id");
+        InMemoryStore.notNull(entry.getFacilityId(), op, "facility_id");
+        InMemoryStore.notNull(entry.getStartTime(), op, "start_time");
+        InMemoryStore.notNull(entry.getEndTime(), op, "end_time");
+        InMemoryStore.notNull(entry.getStatus(), op, "status");
+        synchronized (store.lock) {
+            if (!store.users.containsKey(entry.getMemberId())
+                || !store.facilities.containsKey(entry.getFacilityId())
+                || (entry.getCoachId() != null && !store.users.containsKey(entry.getCoachId()))
+                || (entry.getClassId() != null && !store.groupClasses.containsKey(entry.getClassId()))) {
+                throw InMemoryStore.violation(op, "Cannot add or update a child row: a foreign key constraint fails (waitlist)");
+            }
+            long id = store.waitlistIds.incrementAndGet();
+            WaitlistEntry row = InMemoryStore.copy(entry);
+            row.setId(id);
+            row.setStartTime(InMemoryStore.seconds(row.getStartTime()));
+            row.setEndTime(InMemoryStore.seconds(row.getEndTime()));
+            row.setRequestedAt(InMemoryStore.seconds(row.getRequestedAt() == null ? LocalDateTime.now() : row.getRequestedAt()));
+            store.waitlist.put(id, row);
+            return id;
+        }
+    }
+
+    @Override
+    public Optional<WaitlistEntry> findById(Long id) {
+        WaitlistEntry w = store.waitlist.get(id);
+        return w == null ? Optional.empty() : Optional.of(InMemoryStore.copy(w));
+    }
+
+    @Override
+    public List<WaitlistEntry> findByMember(Long memberId) {
+        return store.waitlist.values().stream()
+            .filter(w -> memberId.equals(w.getMemberId()))
+            .sorted(REQUEST_ORDER.reversed())
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaiting() {
+        return waiting(w -> true);
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaitingForFacility(Long facilityId, LocalDateTime from, LocalDateTime to) {
+        return waiting(w -> w.getClassId() == null && facilityId.equals(w.getFacilityId())
+            && w.getEndTime().isAfter(from) && w.getStartTime().isBefore(to));
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaitingForClass(Long classId) {
+        return waiting(w -> classId.equals(w.getClassId()));
+    }
+
+    private List<WaitlistEntry> waiting(Predicate<WaitlistEntry> filter) {
+        return store.waitlist.values().stream()
+            .filter(w -> w.getStatus() == WaitlistStatus.WAITING && filter.test(w))
+            .sorted(REQUEST_ORDER)
+            .map(InMemoryStore::copy)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean close(Long id, WaitlistStatus status) {
+        InMemoryStore.notNull(status, "Failed to update waitlist entry", "status");
+        synchronized (store.lock) {
+            WaitlistEntry existing = store.waitlist.get(id);
+            if (existing == null || existing.getStatus() != WaitlistStatus.WAITING) return false;
+            WaitlistEntry row = InMemoryStore.copy(existing);
+            row.setStatus(status);
+            store.waitlist.put(id, row);
+            return true;
+        }
+    }
+
+    @Override
+    public Long promoteToBooking(WaitlistEntry entry) {
+        // The store lock covers the capacity check, the insert and the status change together
+        synchronized (store.lock) {
+            WaitlistEntry existing = store.waitlist.get(entry.getId());
+            if (existing == null || existing.getStatus() != WaitlistStatus.WAITING) return null;
+            Long bookingId = bookings.createWithinCapacity(existing.toBooking());
+            if (bookingId == null) return null;
+            WaitlistEntry row = InMemoryStore.copy(existing);
+            row.setStatus(WaitlistStatus.PROMOTED);
+            row.setBookingId(bookingId);
+            store.waitlist.put(row.getId(), row);
+            return bookingId;
+        }
+    }
+
+    @Override
+    public Long promoteToEnrollment(WaitlistEntry entry) {
+        synchronized (store.lock) {
+            WaitlistEntry existing = store.waitlist.get(entry.getId());
+            if (existing == null || existing.getStatus() != WaitlistStatus.WAITING) return null;
+            Long enrollmentId = classes.enroll(existing.getClassId(), existing.getMemberId());
+            if (enrollmentId == null) return null;
+            WaitlistEntry row = InMemoryStore.copy(existing);
+            row.setStatus(WaitlistStatus.PROMOTED);
+            row.setEnrollmentId(enrollmentId);
+            store.waitlist.put(row.getId(), row);
+            return enrollmentId;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package dao.impl;
+
+import dao.DataAccessException;
+import dao.WaitlistDao;
+import db.ConnectionManager;
+import model.WaitlistEntry;
+import model.WaitlistStatus;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class WaitlistDaoJdbc implements WaitlistDao {
+    @Override
+    public Long create(WaitlistEntry entry) {
+        String sql = "INSERT INTO waitlist(member_id, facility_id, coach_id, class_id, start_time, end_time, facility_fee, coach_fee, total_fee, status, requested_at) VALUES(?,?,?,?,?,?,?,?,?,?,?)";
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setLong(1, entry.getMemberId());
+            ps.setLong(2, entry.getFacilityId());
+            setNullableLong(ps, 3, entry.getCoachId());
+            setNullableLong(ps, 4, entry.getClassId());
+            ps.setTimestamp(5, Timestamp.valueOf(entry.getStartTime()));
+            ps.setTimestamp(6, Timestamp.valueOf(entry.getEndTime()));
+            ps.setDouble(7, entry.getFacilityFee());
+            ps.setDouble(8, entry.getCoachFee());
+            ps.setDouble(9, entry.getTotalFee());
+            ps.setString(10, entry.getStatus().name());
+            ps.setTimestamp(11, Timestamp.valueOf(entry.getRequestedAt() == null ? LocalDateTime.now().withNano(0) : entry.getRequestedAt()));
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (rs.next()) return rs.getLong(1);
+            }
+            return null;
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to insert waitlist entry", e);
+        }
+    }
+
+    @Override
+    public Optional<WaitlistEntry> findById(Long id) {
+        List<WaitlistEntry> list = query("SELECT * FROM waitlist WHERE id=?", "Failed to find waitlist entry", id);
+        return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
+    }
+
+    @Override
+    public List<WaitlistEntry> findByMember(Long memberId) {
+        return query("SELECT * FROM waitlist WHERE member_id=? ORDER BY requested_at DESC, id DESC",
+            "Failed to list member waitlist", memberId);
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaiting() {
+        return query("SELECT * FROM waitlist WHERE status='WAITING' ORDER BY requested_at, id", "Failed to list waitlist");
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaitingForFacility(Long facilityId, LocalDateTime from, LocalDateTime to) {
+        return query("SELECT * FROM waitlist WHERE facility_id=? AND status='WAITING' AND class_id IS NULL"
+                + " AND NOT (end_time<=? OR start_time>=?) ORDER BY requested_at, id",
+            "Failed to list facility waitlist", facilityId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaitingForClass(Long classId) {
+        return query("SELECT * FROM waitlist WHERE class_id=? AND status='WAITING' ORDER BY requested_at, id",
+            "Failed to list class waitlist", classId);
+    }
+
+    @Override
+    public boolean close(Long id, WaitlistStatus status) {
+        String sql = "UPDATE waitlist SET status=? WHERE id=? AND status='WAITING'";
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, status.name());
+            ps.setLong(2, id);
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to update waitlist entry", e);
+        }
+    }
+
+    @Override
+    public Long promoteToBooking(WaitlistEntry entry) {
+        try (Connection c = ConnectionManager.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                Long bookingId = claim(c, entry.getId()) ? BookingDaoJdbc.insertWithinCapacity(c, entry.toBooking()) : null;
+                if (bookingId == null) {
+                    c.rollback();
+                    return null;
+                }
+                link(c, entry.getId(), "booking_id", bookingId);
+                c.commit();
+                return bookingId;
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to promote waitlist entry", e);
+        }
+    }
+
+    @Override
+    public Long promoteToEnrollment(WaitlistEntry entry) {
+        try (Connection c = ConnectionManager.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                Long enrollmentId = claim(c, entry.getId())
+                    ? GroupClassDaoJdbc.enroll(c, entry.getClassId(), entry.getMemberId()) : null;
+                if (enrollmentId == null) {
+                    c.rollback();
+                    return null;
+                }
+                link(c, entry.getId(), "enrollment_id", enrollmentId);
+                c.commit();
+                return enrollmentId;
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to promote waitlist entry", e);
+        }
+    }
+
+    // Takes the entry off the queue; its row lock keeps a concurrent leave or promotion out until commit
+    private static boolean claim(Connection c, Long id) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("UPDATE waitlist SET status='PROMOTED' WHERE id=? AND status='WAITING'")) {
+            ps.setLong(1, id);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    private static void link(Connection c, Long id, String column, Long target) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("UPDATE waitlist SET " + column + "=? WHERE id=?")) {
+            ps.setLong(1, target);
+            ps.setLong(2, id);
+            ps.executeUpdate();
+        }
+    }
+
+    private List<WaitlistEntry> query(String sql, String failure, Object... params) {
+        List<WaitlistEntry> list = new ArrayList<>();
+        try (Connection c = ConnectionManager.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) ps.setObject(i + 1, params[i]);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(map(rs));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(failure, e);
+        }
+        return list;
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.BIGINT); else ps.setLong(index, value);
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long v = rs.getLong(column);
+        return rs.wasNull() ? null : v;
+    }
+
+    private WaitlistEntry map(ResultSet rs) throws SQLException {
+        WaitlistEntry w = new WaitlistEntry();
+        w.setId(rs.getLong("id"));
+        w.setMemberId(rs.getLong("member_id"));
+        w.setFacilityId(rs.getLong("facility_id"));
+        w.setCoachId(nullableLong(rs, "coach_id"));
+        w.setClassId(nullableLong(rs, "class_id"));
+        w.setStartTime(rs.getTimestamp("start_time").toLocalDateTime());
+        w.setEndTime(rs.getTimestamp("end_time").toLocalDateTime());
+        w.setFacilityFee(rs.getDouble("facility_fee"));
+        w.setCoachFee(rs.getDouble("coach_fee"));
+        w.setTotalFee(rs.getDouble("total_fee"));
+        w.setStatus(WaitlistStatus.valueOf(rs.getString("status")));
+        w.setRequestedAt(rs.getTimestamp("requested_at").toLocalDateTime());
+        w.setBookingId(nullableLong(rs, "booking_id"));
+        w.setEnrollmentId(nullableLong(rs, "enrollment_id"));
+        return w;
+    }
+}
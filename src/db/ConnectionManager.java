@@ -1,6 +1,8 @@
 package db;
 
 import config.ConfigLoader;
+import monitoring.DaoMetrics;
+import monitoring.SqlTracer;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
@@ -20,7 +22,11 @@ public class ConnectionManager {
     }
 
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        if (!DaoMetrics.isEnabled()) return DriverManager.getConnection(URL, USER, PASSWORD);
+        long start = System.nanoTime();
+        Connection c = DriverManager.getConnection(URL, USER, PASSWORD);
+        DaoMetrics.connectionAcquired(System.nanoTime() - start);
+        return SqlTracer.wrap(c);
     }
 }
 
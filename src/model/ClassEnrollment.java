@@ -0,0 +1,22 @@
+package model;
+
+import java.time.LocalDateTime;
+
+public class ClassEnrollment {
+    private Long id;
+    private Long classId;
+    private Long memberId;
+    private LocalDateTime enrolledAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getClassId() { return classId; }
+    public void setClassId(Long classId) { this.classId = classId; }
+
+    public Long getMemberId() { return memberId; }
+    public void setMemberId(Long memberId) { this.memberId = memberId; }
+
+    public LocalDateTime getEnrolledAt() { return enrolledAt; }
+    public void setEnrolledAt(LocalDateTime enrolledAt) { this.enrolledAt = enrolledAt; }
+}
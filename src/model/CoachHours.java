@@ -0,0 +1,44 @@
+package model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/** One window of a coach's working week, e.g. Monday 09:00-17:00. A day may have several. */
+public class CoachHours {
+    private Long id;
+    private Long coachId;
+    private DayOfWeek dayOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+
+    public CoachHours() { }
+
+    public CoachHours(Long coachId, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        this.coachId = coachId;
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    /** Whether [start, end) falls inside this window; a window never spans midnight. */
+    public boolean covers(LocalDateTime start, LocalDateTime end) {
+        if (start.getDayOfWeek() != dayOfWeek || !start.toLocalDate().equals(end.toLocalDate())) return false;
+        return !start.toLocalTime().isBefore(startTime) && !end.toLocalTime().isAfter(endTime);
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getCoachId() { return coachId; }
+    public void setCoachId(Long coachId) { this.coachId = coachId; }
+
+    public DayOfWeek getDayOfWeek() { return dayOfWeek; }
+    public void setDayOfWeek(DayOfWeek dayOfWeek) { this.dayOfWeek = dayOfWeek; }
+
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+}
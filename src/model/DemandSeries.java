@@ -0,0 +1,48 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hourly demand for one facility from {@link #getStart()}: booked hours in each hour, so two
+ * bookings over the whole hour count 2 and a half-hour booking counts 0.5. Either what was booked
+ * or what is forecast.
+ */
+public class DemandSeries {
+    private final Long facilityId;
+    private final LocalDateTime start;
+    private final double[] hourly;
+    private final boolean forecast;
+
+    public DemandSeries(Long facilityId, LocalDateTime start, double[] hourly, boolean forecast) {
+        this.facilityId = facilityId;
+        this.start = start;
+        this.hourly = hourly;
+        this.forecast = forecast;
+    }
+
+    public Long getFacilityId() { return facilityId; }
+    public LocalDateTime getStart() { return start; }
+    public LocalDateTime getEnd() { return start.plusHours(hourly.length); }
+    public boolean isForecast() { return forecast; }
+
+    public int getHours() { return hourly.length; }
+
+    /** Demand in the i-th hour from the start. */
+    public double getHour(int i) { return hourly[i]; }
+
+    public double getTotal() {
+        double total = 0;
+        for (double h : hourly) total += h;
+        return total;
+    }
+
+    /** Booked hours per day, in order; a day only partly covered sums the hours it has. */
+    public Map<LocalDate, Double> getDailyTotals() {
+        Map<LocalDate, Double> days = new LinkedHashMap<>();
+        for (int i = 0; i < hourly.length; i++) days.merge(start.plusHours(i).toLocalDate(), hourly[i], Double::sum);
+        return days;
+    }
+}
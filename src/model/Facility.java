@@ -6,6 +6,8 @@ public class Facility {
     private String description;
     private double hourlyRate;
     private FacilityStatus status;
+    // How many bookings may overlap at once; 1 for exclusive facilities such as a court
+    private int capacity = 1;
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -21,6 +23,9 @@ public class Facility {
 
     public FacilityStatus getStatus() { return status; }
     public void setStatus(FacilityStatus status) { this.status = status; }
+
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
 }
 
 
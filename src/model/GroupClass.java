@@ -0,0 +1,47 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/** A coach-led session at a facility that members enroll into until its seats run out. */
+public class GroupClass {
+    private Long id;
+    private String title;
+    private Long coachId;
+    private Long facilityId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private int capacity;
+    private int seatsTaken;
+    private double fee;
+    private GroupClassStatus status = GroupClassStatus.SCHEDULED;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public Long getCoachId() { return coachId; }
+    public void setCoachId(Long coachId) { this.coachId = coachId; }
+
+    public Long getFacilityId() { return facilityId; }
+    public void setFacilityId(Long facilityId) { this.facilityId = facilityId; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+
+    public int getSeatsTaken() { return seatsTaken; }
+    public void setSeatsTaken(int seatsTaken) { this.seatsTaken = seatsTaken; }
+
+    public double getFee() { return fee; }
+    public void setFee(double fee) { this.fee = fee; }
+
+    public GroupClassStatus getStatus() { return status; }
+    public void setStatus(GroupClassStatus status) { this.status = status; }
+}
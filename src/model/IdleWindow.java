@@ -0,0 +1,32 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/** A stretch of opening hours in which a facility has nothing booked. */
+public class IdleWindow {
+    private Long facilityId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    public IdleWindow() { }
+
+    public IdleWindow(Long facilityId, LocalDateTime start, LocalDateTime end) {
+        this.facilityId = facilityId;
+        this.start = start;
+        this.end = end;
+    }
+
+    public long getMinutes() {
+        return Duration.between(start, end).toMinutes();
+    }
+
+    public Long getFacilityId() { return facilityId; }
+    public void setFacilityId(Long facilityId) { this.facilityId = facilityId; }
+
+    public LocalDateTime getStart() { return start; }
+    public void setStart(LocalDateTime start) { this.start = start; }
+
+    public LocalDateTime getEnd() { return end; }
+    public void setEnd(LocalDateTime end) { this.end = end; }
+}
@@ -0,0 +1,46 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A window suggested for a maintenance request: bookedHours of bookings already in it would have
+ * to move, and expectedHours is what the same hours of the week have drawn on average.
+ */
+public class MaintenanceProposal {
+    private Long requestId;
+    private Long facilityId;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private double bookedHours;
+    private double expectedHours;
+
+    public MaintenanceProposal() { }
+
+    public MaintenanceProposal(Long requestId, Long facilityId, LocalDateTime windowStart, LocalDateTime windowEnd,
+                               double bookedHours, double expectedHours) {
+        this.requestId = requestId;
+        this.facilityId = facilityId;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.bookedHours = bookedHours;
+        this.expectedHours = expectedHours;
+    }
+
+    public Long getRequestId() { return requestId; }
+    public void setRequestId(Long requestId) { this.requestId = requestId; }
+
+    public Long getFacilityId() { return facilityId; }
+    public void setFacilityId(Long facilityId) { this.facilityId = facilityId; }
+
+    public LocalDateTime getWindowStart() { return windowStart; }
+    public void setWindowStart(LocalDateTime windowStart) { this.windowStart = windowStart; }
+
+    public LocalDateTime getWindowEnd() { return windowEnd; }
+    public void setWindowEnd(LocalDateTime windowEnd) { this.windowEnd = windowEnd; }
+
+    public double getBookedHours() { return bookedHours; }
+    public void setBookedHours(double bookedHours) { this.bookedHours = bookedHours; }
+
+    public double getExpectedHours() { return expectedHours; }
+    public void setExpectedHours(double expectedHours) { this.expectedHours = expectedHours; }
+}
@@ -1,6 +1,7 @@
 package model;
 
 import java.time.Instant;
+import java.time.LocalDateTime;
 
 public class MaintenanceRequest {
     private Long id;
@@ -9,6 +10,11 @@ public class MaintenanceRequest {
     private String title;
     private String description;
     private MaintenanceStatus status = MaintenanceStatus.OPEN;
+    // Optional: when set, the facility cannot be booked from windowStart to windowEnd until resolved
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    // Optional: how long the work is expected to take, for planning a window
+    private Integer estimatedMinutes;
     private Instant createdAt;
     private Instant updatedAt;
 
@@ -30,6 +36,22 @@ public class MaintenanceRequest {
     public MaintenanceStatus getStatus() { return status; }
     public void setStatus(MaintenanceStatus status) { this.status = status; }
 
+    public LocalDateTime getWindowStart() { return windowStart; }
+    public void setWindowStart(LocalDateTime windowStart) { this.windowStart = windowStart; }
+
+    public LocalDateTime getWindowEnd() { return windowEnd; }
+    public void setWindowEnd(LocalDateTime windowEnd) { this.windowEnd = windowEnd; }
+
+    public Integer getEstimatedMinutes() { return estimatedMinutes; }
+    public void setEstimatedMinutes(Integer estimatedMinutes) { this.estimatedMinutes = estimatedMinutes; }
+
+    public boolean hasWindow() { return windowStart != null && windowEnd != null; }
+
+    /** True if this request's window is still open and overlaps [start, end). */
+    public boolean blocks(LocalDateTime start, LocalDateTime end) {
+        return hasWindow() && status != MaintenanceStatus.RESOLVED && windowStart.isBefore(end) && windowEnd.isAfter(start);
+    }
+
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 
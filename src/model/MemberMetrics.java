@@ -0,0 +1,59 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One member's activity as of {@link #getComputedAt()}: confirmed bookings already started count as
+ * visits, and lifetime value is everything the member has paid. The derived figures are kept next
+ * to the totals so the users screen can sort and filter on them.
+ */
+public class MemberMetrics {
+    private Long memberId;
+    private int visits;
+    private LocalDateTime firstVisitAt;
+    private LocalDateTime lastVisitAt;
+    private double lifetimeValue;
+    private double visitsPerWeek;
+    private double avgSpend;
+    private Integer daysSinceLastVisit;
+    private double churnRisk;
+    private LocalDateTime computedAt;
+
+    public MemberMetrics() { }
+
+    public MemberMetrics(Long memberId) {
+        this.memberId = memberId;
+    }
+
+    public Long getMemberId() { return memberId; }
+    public void setMemberId(Long memberId) { this.memberId = memberId; }
+
+    public int getVisits() { return visits; }
+    public void setVisits(int visits) { this.visits = visits; }
+
+    public LocalDateTime getFirstVisitAt() { return firstVisitAt; }
+    public void setFirstVisitAt(LocalDateTime firstVisitAt) { this.firstVisitAt = firstVisitAt; }
+
+    public LocalDateTime getLastVisitAt() { return lastVisitAt; }
+    public void setLastVisitAt(LocalDateTime lastVisitAt) { this.lastVisitAt = lastVisitAt; }
+
+    public double getLifetimeValue() { return lifetimeValue; }
+    public void setLifetimeValue(double lifetimeValue) { this.lifetimeValue = lifetimeValue; }
+
+    public double getVisitsPerWeek() { return visitsPerWeek; }
+    public void setVisitsPerWeek(double visitsPerWeek) { this.visitsPerWeek = visitsPerWeek; }
+
+    public double getAvgSpend() { return avgSpend; }
+    public void setAvgSpend(double avgSpend) { this.avgSpend = avgSpend; }
+
+    /** Null for a member who has never visited. */
+    public Integer getDaysSinceLastVisit() { return daysSinceLastVisit; }
+    public void setDaysSinceLastVisit(Integer daysSinceLastVisit) { this.daysSinceLastVisit = daysSinceLastVisit; }
+
+    /** 0 (visiting as often as usual) to 1 (gone, or never came). */
+    public double getChurnRisk() { return churnRisk; }
+    public void setChurnRisk(double churnRisk) { this.churnRisk = churnRisk; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
@@ -0,0 +1,36 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pass of the member metrics job. The next pass recomputes members with bookings changed since
+ * {@link #getStartedAt()} or payments after {@link #getLastPaymentId()}.
+ */
+public class MemberMetricsRun {
+    private Long id;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long lastPaymentId;
+    private int membersUpdated;
+    private int membersRescored;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public long getLastPaymentId() { return lastPaymentId; }
+    public void setLastPaymentId(long lastPaymentId) { this.lastPaymentId = lastPaymentId; }
+
+    /** Members whose totals were aggregated again from bookings and payments. */
+    public int getMembersUpdated() { return membersUpdated; }
+    public void setMembersUpdated(int membersUpdated) { this.membersUpdated = membersUpdated; }
+
+    /** Members with no new activity whose recency and churn risk were rescored from stored totals. */
+    public int getMembersRescored() { return membersRescored; }
+    public void setMembersRescored(int membersRescored) { this.membersRescored = membersRescored; }
+}
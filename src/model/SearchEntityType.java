@@ -0,0 +1,9 @@
+package model;
+
+public enum SearchEntityType {
+    USER,
+    FACILITY,
+    BOOKING,
+    PAYMENT,
+    MAINTENANCE
+}
@@ -0,0 +1,24 @@
+package model;
+
+public class SearchResult {
+    private SearchEntityType type;
+    private Long id;
+    private String title;
+    private String subtitle;
+    private double score;
+
+    public SearchEntityType getType() { return type; }
+    public void setType(SearchEntityType type) { this.type = type; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getSubtitle() { return subtitle; }
+    public void setSubtitle(String subtitle) { this.subtitle = subtitle; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+}
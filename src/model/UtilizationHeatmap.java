@@ -0,0 +1,48 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Share of opening time in use per facility and hour of the week over [from, to): one row per
+ * facility, 168 columns from Monday 00:00. A share of 0.5 means the hour had a booking in it for
+ * half of its quarter hours across the weeks of the range.
+ */
+public class UtilizationHeatmap {
+    public static final int HOURS_PER_WEEK = 7 * 24;
+
+    private LocalDate from;
+    private LocalDate to;
+    private final List<Long> facilityIds = new ArrayList<>();
+    private final List<String> facilityNames = new ArrayList<>();
+    private final List<double[]> shares = new ArrayList<>();
+
+    public UtilizationHeatmap() { }
+
+    public UtilizationHeatmap(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /** Adds a facility's row of HOURS_PER_WEEK shares. */
+    public void addRow(Long facilityId, String facilityName, double[] hourShares) {
+        facilityIds.add(facilityId);
+        facilityNames.add(facilityName);
+        shares.add(hourShares);
+    }
+
+    public int getRowCount() { return shares.size(); }
+
+    public double getShare(int row, int hourOfWeek) { return shares.get(row)[hourOfWeek]; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public List<Long> getFacilityIds() { return facilityIds; }
+
+    public List<String> getFacilityNames() { return facilityNames; }
+}
@@ -0,0 +1,84 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A member queued for a full slot: a facility or training booking (classId null), or a seat in a
+ * group class. Entries are served in request order; a promoted entry points at the booking or
+ * enrollment it became.
+ */
+public class WaitlistEntry {
+    private Long id;
+    private Long memberId;
+    private Long facilityId;
+    private Long coachId;
+    private Long classId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private double facilityFee;
+    private double coachFee;
+    private double totalFee;
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+    private LocalDateTime requestedAt;
+    private Long bookingId;
+    private Long enrollmentId;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getMemberId() { return memberId; }
+    public void setMemberId(Long memberId) { this.memberId = memberId; }
+
+    public Long getFacilityId() { return facilityId; }
+    public void setFacilityId(Long facilityId) { this.facilityId = facilityId; }
+
+    public Long getCoachId() { return coachId; }
+    public void setCoachId(Long coachId) { this.coachId = coachId; }
+
+    public Long getClassId() { return classId; }
+    public void setClassId(Long classId) { this.classId = classId; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+
+    public double getFacilityFee() { return facilityFee; }
+    public void setFacilityFee(double facilityFee) { this.facilityFee = facilityFee; }
+
+    public double getCoachFee() { return coachFee; }
+    public void setCoachFee(double coachFee) { this.coachFee = coachFee; }
+
+    public double getTotalFee() { return totalFee; }
+    public void setTotalFee(double totalFee) { this.totalFee = totalFee; }
+
+    public WaitlistStatus getStatus() { return status; }
+    public void setStatus(WaitlistStatus status) { this.status = status; }
+
+    public LocalDateTime getRequestedAt() { return requestedAt; }
+    public void setRequestedAt(LocalDateTime requestedAt) { this.requestedAt = requestedAt; }
+
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+
+    public Long getEnrollmentId() { return enrollmentId; }
+    public void setEnrollmentId(Long enrollmentId) { this.enrollmentId = enrollmentId; }
+
+    public boolean isClassEntry() { return classId != null; }
+
+    /** The confirmed booking this entry becomes when promoted: a training booking if it names a coach. */
+    public Booking toBooking() {
+        Booking b = coachId == null ? new FacilityBooking() : new TrainingBooking();
+        b.setMemberId(memberId);
+        b.setFacilityId(facilityId);
+        b.setCoachId(coachId);
+        b.setStartTime(startTime);
+        b.setEndTime(endTime);
+        b.setStatus(BookingStatus.CONFIRMED);
+        b.setFacilityFee(facilityFee);
+        b.setCoachFee(coachFee);
+        b.setTotalFee(totalFee);
+        return b;
+    }
+}
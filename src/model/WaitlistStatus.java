@@ -0,0 +1,8 @@
+package model;
+
+public enum WaitlistStatus {
+    WAITING,
+    PROMOTED,
+    EXPIRED,
+    CANCELLED
+}
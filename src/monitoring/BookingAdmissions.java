@@ -0,0 +1,30 @@
+package monitoring;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Running totals of booking admission outcomes and the time spent waiting for admission locks. */
+public final class BookingAdmissions {
+    private static final Map<String, LongAdder> OUTCOMES = new ConcurrentHashMap<>();
+    private static final LongAdder LOCK_WAIT_NANOS = new LongAdder();
+
+    private BookingAdmissions() {}
+
+    public static void record(String outcome, long lockWaitNanos) {
+        OUTCOMES.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+        LOCK_WAIT_NANOS.add(lockWaitNanos);
+    }
+
+    /** Count per outcome, sorted by outcome name. */
+    public static Map<String, Long> counts() {
+        Map<String, Long> counts = new TreeMap<>();
+        OUTCOMES.forEach((outcome, n) -> counts.put(outcome, n.sum()));
+        return counts;
+    }
+
+    public static long getLockWaitNanos() {
+        return LOCK_WAIT_NANOS.sum();
+    }
+}
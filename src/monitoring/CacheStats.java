@@ -0,0 +1,42 @@
+package monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/** Hit and miss counters for an in-process cache, registered by name for the metrics endpoint. */
+public final class CacheStats {
+    private static final Map<String, CacheStats> CACHES = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile LongSupplier size = () -> -1;
+
+    private CacheStats(String name) {
+        this.name = name;
+    }
+
+    /** The counters for the named cache, shared by every instance using that name. */
+    public static CacheStats named(String name) {
+        return CACHES.computeIfAbsent(name, CacheStats::new);
+    }
+
+    public static List<CacheStats> all() {
+        return new ArrayList<>(CACHES.values());
+    }
+
+    public void hit() { hits.increment(); }
+    public void miss() { misses.increment(); }
+
+    /** Reports the cache's current entry count alongside the counters. */
+    public void sizeFrom(LongSupplier size) { this.size = size; }
+
+    public String getName() { return name; }
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getSize() { return size.getAsLong(); }
+}
@@ -0,0 +1,161 @@
+package monitoring;
+
+import config.ConfigLoader;
+import monitoring.events.DaoQueryEvent;
+import util.LatencyHistogram;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-method call statistics for the DAO layer. {@link #instrument} wraps a DAO in a dynamic proxy
+ * that times every interface call into a lock-free histogram and counts errors, rows returned
+ * (list sizes, present Optionals) and time spent acquiring JDBC connections inside the call, and
+ * emits a {@link DaoQueryEvent} for flight recordings.
+ * Set dao.metrics.enabled=false to leave DAOs and connections unwrapped.
+ */
+public final class DaoMetrics {
+    private static final boolean ENABLED = ConfigLoader.getBoolean("dao.metrics.enabled", true);
+    private static final Map<String, MethodStats> METHODS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+    private static final LongAdder CONNECTIONS = new LongAdder();
+    private static final LongAdder ACQUIRE_NANOS = new LongAdder();
+
+    private DaoMetrics() {}
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static final class MethodStats {
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder connections = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+
+        MethodStats(String name) {
+            this.name = name;
+        }
+
+        public String getName() { return name; }
+        public long getCalls() { return latency.getCount(); }
+        public long getErrors() { return errors.sum(); }
+        public long getRows() { return rows.sum(); }
+        public long getConnections() { return connections.sum(); }
+        public long getAcquireNanos() { return acquireNanos.sum(); }
+        public LatencyHistogram getLatency() { return latency; }
+    }
+
+    /** Innermost instrumented call on this thread; DAOs calling other DAOs nest. */
+    private static final class Call {
+        final MethodStats stats;
+        final Call outer;
+        long acquireNanos;
+        int connections;
+
+        Call(MethodStats stats, Call outer) {
+            this.stats = stats;
+            this.outer = outer;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T instrument(Class<T> daoInterface, T target) {
+        String prefix = daoInterface.getSimpleName() + ".";
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) return invoke(method, target, args);
+            MethodStats stats = METHODS.computeIfAbsent(prefix + method.getName(), MethodStats::new);
+            Call call = new Call(stats, CURRENT.get());
+            CURRENT.set(call);
+            DaoQueryEvent event = new DaoQueryEvent();
+            event.begin();
+            long start = System.nanoTime();
+            boolean failed = true;
+            long rows = 0;
+            try {
+                Object result = invoke(method, target, args);
+                rows = rowCount(result);
+                failed = false;
+                return result;
+            } finally {
+                stats.latency.record(System.nanoTime() - start);
+                if (failed) stats.errors.increment();
+                stats.rows.add(rows);
+                stats.connections.add(call.connections);
+                stats.acquireNanos.add(call.acquireNanos);
+                if (call.outer == null) CURRENT.remove(); else CURRENT.set(call.outer);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.method = stats.name;
+                    event.rows = rows;
+                    event.connections = call.connections;
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        };
+        return (T) Proxy.newProxyInstance(daoInterface.getClassLoader(), new Class<?>[] {daoInterface}, handler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Collection) return ((Collection<?>) result).size();
+        if (result instanceof Optional) return ((Optional<?>) result).isPresent() ? 1 : 0;
+        return 0;
+    }
+
+    /** Called by ConnectionManager after each connection is handed out. */
+    public static void connectionAcquired(long nanos) {
+        CONNECTIONS.increment();
+        ACQUIRE_NANOS.add(nanos);
+        Call call = CURRENT.get();
+        if (call == null) return;
+        call.connections++;
+        call.acquireNanos += nanos;
+    }
+
+    /** Connections opened by ConnectionManager since startup, inside DAO calls or not. */
+    public static long getConnectionsAcquired() {
+        return CONNECTIONS.sum();
+    }
+
+    public static long getConnectionAcquireNanos() {
+        return ACQUIRE_NANOS.sum();
+    }
+
+    /** Name of the DAO method running on this thread, e.g. "UserDao.findById", or null. */
+    public static String currentMethod() {
+        Call call = CURRENT.get();
+        return call == null ? null : call.stats.name;
+    }
+
+    /** Methods called so far, slowest total time first. */
+    public static List<MethodStats> snapshot() {
+        List<MethodStats> list = new ArrayList<>(METHODS.values());
+        list.sort(Comparator.comparingDouble((MethodStats s) -> s.latency.getMeanNanos() * s.latency.getCount()).reversed());
+        return list;
+    }
+
+    public static void reset() {
+        METHODS.clear();
+    }
+}
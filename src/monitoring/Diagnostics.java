@@ -0,0 +1,16 @@
+package monitoring;
+
+import config.ConfigLoader;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/** Where diagnostic files go: diagnostics.dir, or ~/.scms/diagnostics by default. */
+final class Diagnostics {
+    private Diagnostics() {}
+
+    static Path directory() {
+        String dir = ConfigLoader.getProperty("diagnostics.dir", null);
+        return dir != null && !dir.isEmpty() ? Paths.get(dir) : Paths.get(System.getProperty("user.home"), ".scms", "diagnostics");
+    }
+}
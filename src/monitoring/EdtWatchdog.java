@@ -0,0 +1,233 @@
+package monitoring;
+
+import config.ConfigLoader;
+
+import java.awt.EventQueue;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Detects Event Dispatch Thread stalls. A daemon thread posts a ping to the event queue every
+ * few milliseconds; when one is not handled within edt.watchdog.threshold (default 100ms) the EDT
+ * stack is captured, attributed to the active screen and, once the EDT catches up, appended with
+ * the stall's duration to edt-stalls.log in the diagnostics directory. That file rolls over at
+ * edt.watchdog.log.size, keeping three old copies. edt-stalls-summary.txt is rewritten after every
+ * stall with counts and total time per call site (the innermost ui frame), worst first.
+ */
+public final class EdtWatchdog {
+    private static final Logger LOG = Logger.getLogger("scms.edt");
+    private static final String LOG_FILE = "edt-stalls.log";
+    private static final String SUMMARY_FILE = "edt-stalls-summary.txt";
+    private static final int KEPT_LOGS = 3;
+    private static final long ONGOING_REPORT_MILLIS = 5000;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private static final Map<String, Site> SITES = new ConcurrentHashMap<>();
+    private static final LongAdder STALLS = new LongAdder();
+    private static final LongAdder STALL_NANOS = new LongAdder();
+    private static volatile String activeScreen = "-";
+    private static volatile long thresholdNanos;
+    private static volatile Thread edt;
+    private static Thread watcher;
+
+    private EdtWatchdog() {}
+
+    /** Aggregated stalls at one call site. */
+    public static final class Site {
+        private final String frame;
+        private final TreeSet<String> screens = new TreeSet<>();
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        Site(String frame) {
+            this.frame = frame;
+        }
+
+        synchronized void add(String screen, long nanos) {
+            screens.add(screen);
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        public String getFrame() { return frame; }
+        public synchronized long getCount() { return count; }
+        public synchronized long getTotalNanos() { return totalNanos; }
+        public synchronized long getMaxNanos() { return maxNanos; }
+        public synchronized List<String> getScreens() { return new ArrayList<>(screens); }
+    }
+
+    private static final class Ping implements Runnable {
+        final long postedAt = System.nanoTime();
+        final CountDownLatch handled = new CountDownLatch(1);
+        volatile long handledAt;
+
+        @Override
+        public void run() {
+            edt = Thread.currentThread();
+            handledAt = System.nanoTime();
+            handled.countDown();
+        }
+    }
+
+    /**
+     * Starts the watchdog unless edt.watchdog.enabled is false; later calls do nothing. The pings
+     * keep the EDT alive, so the application must exit explicitly (EXIT_ON_CLOSE does).
+     */
+    public static synchronized void start() {
+        if (watcher != null || !ConfigLoader.getBoolean("edt.watchdog.enabled", true)) return;
+        configure();
+        ConfigLoader.subscribe(EdtWatchdog::configure, "edt.watchdog.threshold");
+        watcher = new Thread(EdtWatchdog::watch, "edt-watchdog");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private static void configure() {
+        thresholdNanos = ConfigLoader.getDuration("edt.watchdog.threshold", Duration.ofMillis(100)).toNanos();
+    }
+
+    /** Names the screen the user is on, so stalls can be attributed to it. */
+    public static void setActiveScreen(String screen) {
+        activeScreen = screen;
+    }
+
+    /** Call sites seen so far, longest total stall time first. */
+    public static List<Site> sites() {
+        List<Site> list = new ArrayList<>(SITES.values());
+        list.sort(Comparator.comparingLong(Site::getTotalNanos).reversed());
+        return list;
+    }
+
+    public static long getStallCount() {
+        return STALLS.sum();
+    }
+
+    public static long getStallNanos() {
+        return STALL_NANOS.sum();
+    }
+
+    private static void watch() {
+        try {
+            while (true) {
+                long threshold = thresholdNanos;
+                Ping ping = new Ping();
+                EventQueue.invokeLater(ping);
+                if (!ping.handled.await(threshold, TimeUnit.NANOSECONDS)) {
+                    stalled(ping);
+                }
+                // Ping a few times per threshold so a stall is caught close to when it crosses it
+                TimeUnit.NANOSECONDS.sleep(Math.max(TimeUnit.MILLISECONDS.toNanos(10), threshold / 4));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void stalled(Ping ping) throws InterruptedException {
+        Thread dispatch = edt;
+        if (dispatch == null) {
+            // The first ping never ran: nothing to sample yet
+            ping.handled.await();
+            return;
+        }
+        String screen = activeScreen;
+        StackTraceElement[] stack = dispatch.getStackTrace();
+        if (!ping.handled.await(ONGOING_REPORT_MILLIS, TimeUnit.MILLISECONDS)) {
+            // Possibly deadlocked: report what it is doing now rather than waiting for it to finish
+            write(screen, System.nanoTime() - ping.postedAt, stack, true);
+            stack = dispatch.getStackTrace();
+            ping.handled.await();
+        }
+        long nanos = ping.handledAt - ping.postedAt;
+        String site = callSite(stack);
+        SITES.computeIfAbsent(site, Site::new).add(screen, nanos);
+        STALLS.increment();
+        STALL_NANOS.add(nanos);
+        write(screen, nanos, stack, false);
+    }
+
+    // Innermost frame in our UI code, else innermost non-platform frame, else the top frame
+    static String callSite(StackTraceElement[] stack) {
+        StackTraceElement app = null;
+        for (StackTraceElement f : stack) {
+            String c = f.getClassName();
+            if (c.startsWith("ui.")) return frame(f);
+            if (app == null && !isPlatform(c) && !c.startsWith("monitoring.")) app = f;
+        }
+        if (app != null) return frame(app);
+        return stack.length > 0 ? frame(stack[0]) : "unknown";
+    }
+
+    private static String frame(StackTraceElement f) {
+        return f.getClassName() + "." + f.getMethodName() + "(" + f.getFileName() + ":" + f.getLineNumber() + ")";
+    }
+
+    private static boolean isPlatform(String className) {
+        return className.startsWith("java.") || className.startsWith("javax.") || className.startsWith("sun.")
+            || className.startsWith("jdk.") || className.startsWith("com.sun.") || className.startsWith("com.mysql.");
+    }
+
+    private static synchronized void write(String screen, long nanos, StackTraceElement[] stack, boolean ongoing) {
+        try {
+            Path dir = Diagnostics.directory();
+            Files.createDirectories(dir);
+            Path log = dir.resolve(LOG_FILE);
+            roll(log);
+            StringBuilder sb = new StringBuilder();
+            sb.append(LocalDateTime.now().format(TIMESTAMP))
+              .append(ongoing ? " EDT still blocked after " : " EDT stalled ")
+              .append(String.format("%.0f ms", nanos / 1e6))
+              .append(" on screen ").append(screen)
+              .append(" at ").append(callSite(stack)).append(System.lineSeparator());
+            for (StackTraceElement f : stack) sb.append("    at ").append(f).append(System.lineSeparator());
+            sb.append(System.lineSeparator());
+            Files.write(log, sb.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (!ongoing) writeSummary(dir.resolve(SUMMARY_FILE));
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to write EDT stall report", e);
+        }
+    }
+
+    private static void roll(Path log) throws IOException {
+        long limit = ConfigLoader.getSize("edt.watchdog.log.size", 1024 * 1024);
+        if (!Files.exists(log) || Files.size(log) < limit) return;
+        for (int i = KEPT_LOGS - 1; i >= 1; i--) {
+            Path from = log.resolveSibling(LOG_FILE + "." + i);
+            if (Files.exists(from)) Files.move(from, log.resolveSibling(LOG_FILE + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.move(log, log.resolveSibling(LOG_FILE + ".1"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeSummary(Path summary) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("EDT stalls over " + thresholdNanos / 1_000_000 + " ms by call site, as of " + LocalDateTime.now().format(TIMESTAMP));
+        lines.add(String.format("%8s %10s %10s  %-30s %s", "count", "total ms", "max ms", "screens", "call site"));
+        for (Site s : sites()) {
+            lines.add(String.format("%8d %10.0f %10.0f  %-30s %s", s.getCount(), s.getTotalNanos() / 1e6, s.getMaxNanos() / 1e6,
+                String.join(",", s.getScreens()), s.getFrame()));
+        }
+        Path tmp = summary.resolveSibling(SUMMARY_FILE + ".tmp");
+        Files.write(tmp, lines, StandardCharsets.UTF_8);
+        Files.move(tmp, summary, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
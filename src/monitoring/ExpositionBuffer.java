@@ -0,0 +1,143 @@
+package monitoring;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that writes Prometheus text exposition format directly as bytes. Numbers
+ * are formatted digit by digit, so a scrape reuses the same array and allocates next to nothing.
+ */
+final class ExpositionBuffer {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private byte[] bytes = new byte[16 * 1024];
+    private int size;
+
+    void reset() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    ExpositionBuffer header(String name, String type, String help) {
+        return text("# HELP ").text(name).text(" ").text(help).newline()
+            .text("# TYPE ").text(name).text(" ").text(type).newline();
+    }
+
+    /** Starts a sample line: name, then an optional single label. Finish it with value(). */
+    ExpositionBuffer sample(String name, String label, String labelValue) {
+        text(name);
+        if (label != null) {
+            text("{").text(label).text("=\"").labelValue(labelValue).text("\"}");
+        }
+        return text(" ");
+    }
+
+    ExpositionBuffer sample(String name) {
+        return sample(name, null, null);
+    }
+
+    /** Name with a label and the bucket's le, for histogram series. */
+    ExpositionBuffer bucket(String name, String label, String labelValue, String le) {
+        return text(name).text("_bucket{").text(label).text("=\"").labelValue(labelValue)
+            .text("\",le=\"").text(le).text("\"} ");
+    }
+
+    ExpositionBuffer value(long v) {
+        number(v);
+        return newline();
+    }
+
+    /** Writes nanoseconds as seconds with nine decimals, without going through double. */
+    ExpositionBuffer seconds(long nanos) {
+        if (nanos < 0) {
+            put((byte) '-');
+            nanos = -nanos;
+        }
+        number(nanos / NANOS_PER_SECOND);
+        put((byte) '.');
+        long frac = nanos % NANOS_PER_SECOND;
+        for (long div = NANOS_PER_SECOND / 10; div > 0; div /= 10) {
+            put((byte) ('0' + frac / div % 10));
+        }
+        return newline();
+    }
+
+    ExpositionBuffer text(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                put((byte) c);
+            } else {
+                // Rare: fall back to a proper encoding for the rest of the string
+                byte[] utf8 = s.substring(i).getBytes(StandardCharsets.UTF_8);
+                for (byte b : utf8) put(b);
+                return this;
+            }
+        }
+        return this;
+    }
+
+    private ExpositionBuffer labelValue(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' || c == '"') {
+                put((byte) '\\');
+                put((byte) c);
+            } else if (c == '\n') {
+                put((byte) '\\');
+                put((byte) 'n');
+            } else if (c < 0x80) {
+                put((byte) c);
+            } else {
+                text(String.valueOf(c));
+            }
+        }
+        return this;
+    }
+
+    private ExpositionBuffer newline() {
+        put((byte) '\n');
+        return this;
+    }
+
+    private void number(long v) {
+        if (v == Long.MIN_VALUE) {
+            text(Long.toString(v));
+            return;
+        }
+        if (v < 0) {
+            put((byte) '-');
+            v = -v;
+        }
+        if (v == 0) {
+            put((byte) '0');
+            return;
+        }
+        int digits = 0;
+        for (long t = v; t > 0; t /= 10) digits++;
+        ensure(digits);
+        for (int i = size + digits - 1; i >= size; i--) {
+            bytes[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        size += digits;
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        bytes[size++] = b;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+    }
+}
@@ -0,0 +1,62 @@
+package monitoring;
+
+import config.ConfigLoader;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import monitoring.events.DaoQueryEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Continuous Java Flight Recorder recording with a bounded ring buffer (jfr.max.size, default
+ * 64 MB, and jfr.max.age, default 1h) that can be dumped to the diagnostics directory at any time.
+ * Starts with the application when jfr.enabled is true; the JDK events come from the jfr.settings
+ * configuration ("default" or "profile") and the application's own events from monitoring.events.
+ */
+public final class FlightRecording {
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static Recording recording;
+
+    private FlightRecording() {}
+
+    public static void startIfEnabled() {
+        if (ConfigLoader.getBoolean("jfr.enabled", false)) start();
+    }
+
+    public static synchronized void start() {
+        if (recording != null) return;
+        try {
+            Recording r = new Recording(Configuration.getConfiguration(ConfigLoader.getProperty("jfr.settings", "default")));
+            r.setName("scms-continuous");
+            r.setToDisk(true);
+            r.setMaxSize(ConfigLoader.getSize("jfr.max.size", 64L * 1024 * 1024));
+            r.setMaxAge(ConfigLoader.getDuration("jfr.max.age", Duration.ofHours(1)));
+            // DAO calls are the busiest event; skip the fastest ones if the buffer turns over too quickly
+            r.enable(DaoQueryEvent.class).withThreshold(ConfigLoader.getDuration("jfr.dao.threshold", Duration.ZERO));
+            r.start();
+            recording = r;
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Failed to start flight recording", e);
+        }
+    }
+
+    public static synchronized boolean isRunning() {
+        return recording != null;
+    }
+
+    /** Writes the buffered recording to a new .jfr file and returns its path; recording continues. */
+    public static synchronized Path dump() throws IOException {
+        if (recording == null) throw new IllegalStateException("No flight recording is running");
+        Path dir = Diagnostics.directory();
+        Files.createDirectories(dir);
+        Path file = dir.resolve("scms-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+        recording.dump(file);
+        return file;
+    }
+}
@@ -0,0 +1,173 @@
+package monitoring;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.ConfigLoader;
+import util.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Optional /metrics endpoint in Prometheus text format on the JDK's built-in HTTP server, for
+ * scraping desk terminals. Enable with metrics.http.enabled=true; it listens on
+ * metrics.http.host:metrics.http.port (default 127.0.0.1:9404, use 0.0.0.0 to allow remote
+ * scrapes). Scrapes are served one at a time on a single low-priority thread and rendered into a
+ * reused buffer, so they stay out of the UI's way.
+ */
+public final class MetricsHttpServer {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final long[] BUCKET_NANOS = {
+        1_000_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L, 100_000_000L,
+        250_000_000L, 500_000_000L, 1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+    private static final String[] BUCKET_LABELS = {
+        "0.001", "0.005", "0.01", "0.025", "0.05", "0.1", "0.25", "0.5", "1", "2.5", "5", "10"
+    };
+
+    private static HttpServer server;
+
+    private final ExpositionBuffer buffer = new ExpositionBuffer();
+    private final long[] cumulative = new long[BUCKET_NANOS.length];
+
+    private MetricsHttpServer() {}
+
+    public static synchronized void startIfEnabled() {
+        if (server != null || !ConfigLoader.getBoolean("metrics.http.enabled", false)) return;
+        String host = ConfigLoader.getProperty("metrics.http.host", "127.0.0.1");
+        int port = ConfigLoader.getInt("metrics.http.port", 9404);
+        try {
+            HttpServer s = HttpServer.create(new InetSocketAddress(host, port), 0);
+            MetricsHttpServer metrics = new MetricsHttpServer();
+            s.createContext("/metrics", metrics::handle);
+            s.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "metrics-http");
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            }));
+            s.start();
+            server = s;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start metrics endpoint on " + host + ":" + port, e);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            // One executor thread, so the buffer is never shared between scrapes
+            render();
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, buffer.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                buffer.writeTo(out);
+            }
+        }
+    }
+
+    void render() {
+        ExpositionBuffer b = buffer;
+        b.reset();
+        renderConnections(b);
+        renderDao(b);
+        renderCaches(b);
+        renderBookings(b);
+        renderEdt(b);
+        renderJvm(b);
+    }
+
+    // No pool: ConnectionManager opens a connection per DAO call, so this is what a pool would save
+    private static void renderConnections(ExpositionBuffer b) {
+        b.header("scms_db_connections_opened_total", "counter", "JDBC connections opened by ConnectionManager");
+        b.sample("scms_db_connections_opened_total").value(DaoMetrics.getConnectionsAcquired());
+        b.header("scms_db_connection_acquire_seconds_total", "counter", "Time spent opening JDBC connections");
+        b.sample("scms_db_connection_acquire_seconds_total").seconds(DaoMetrics.getConnectionAcquireNanos());
+    }
+
+    private void renderDao(ExpositionBuffer b) {
+        List<DaoMetrics.MethodStats> methods = DaoMetrics.snapshot();
+        b.header("scms_dao_call_duration_seconds", "histogram", "DAO call latency by interface method");
+        for (DaoMetrics.MethodStats m : methods) {
+            LatencyHistogram h = m.getLatency();
+            long count = h.cumulativeCounts(BUCKET_NANOS, cumulative);
+            for (int i = 0; i < BUCKET_NANOS.length; i++) {
+                b.bucket("scms_dao_call_duration_seconds", "method", m.getName(), BUCKET_LABELS[i]).value(cumulative[i]);
+            }
+            b.bucket("scms_dao_call_duration_seconds", "method", m.getName(), "+Inf").value(count);
+            b.sample("scms_dao_call_duration_seconds_sum", "method", m.getName()).seconds(h.getTotalNanos());
+            b.sample("scms_dao_call_duration_seconds_count", "method", m.getName()).value(count);
+        }
+        b.header("scms_dao_errors_total", "counter", "DAO calls that threw");
+        for (DaoMetrics.MethodStats m : methods) b.sample("scms_dao_errors_total", "method", m.getName()).value(m.getErrors());
+        b.header("scms_dao_rows_total", "counter", "Rows returned by DAO calls");
+        for (DaoMetrics.MethodStats m : methods) b.sample("scms_dao_rows_total", "method", m.getName()).value(m.getRows());
+    }
+
+    private static void renderCaches(ExpositionBuffer b) {
+        List<CacheStats> caches = CacheStats.all();
+        b.header("scms_cache_hits_total", "counter", "Cache lookups answered from the cache");
+        for (CacheStats c : caches) b.sample("scms_cache_hits_total", "cache", c.getName()).value(c.getHits());
+        b.header("scms_cache_misses_total", "counter", "Cache lookups that missed");
+        for (CacheStats c : caches) b.sample("scms_cache_misses_total", "cache", c.getName()).value(c.getMisses());
+        b.header("scms_cache_entries", "gauge", "Entries currently cached");
+        for (CacheStats c : caches) {
+            long size = c.getSize();
+            if (size >= 0) b.sample("scms_cache_entries", "cache", c.getName()).value(size);
+        }
+    }
+
+    private static void renderBookings(ExpositionBuffer b) {
+        b.header("scms_booking_admissions_total", "counter", "Booking attempts by outcome (CONFLICT is an overlapping booking)");
+        for (Map.Entry<String, Long> e : BookingAdmissions.counts().entrySet()) {
+            b.sample("scms_booking_admissions_total", "outcome", e.getKey()).value(e.getValue());
+        }
+        b.header("scms_booking_admission_lock_wait_seconds_total", "counter", "Time bookings waited to be admitted");
+        b.sample("scms_booking_admission_lock_wait_seconds_total").seconds(BookingAdmissions.getLockWaitNanos());
+    }
+
+    private static void renderEdt(ExpositionBuffer b) {
+        b.header("scms_edt_stalls_total", "counter", "Event dispatch thread stalls over the watchdog threshold");
+        b.sample("scms_edt_stalls_total").value(EdtWatchdog.getStallCount());
+        b.header("scms_edt_stall_seconds_total", "counter", "Total time the event dispatch thread was stalled");
+        b.sample("scms_edt_stall_seconds_total").seconds(EdtWatchdog.getStallNanos());
+    }
+
+    private static void renderJvm(ExpositionBuffer b) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+        b.header("jvm_memory_bytes_used", "gauge", "Used bytes of a JVM memory area");
+        b.sample("jvm_memory_bytes_used", "area", "heap").value(heap.getUsed());
+        b.sample("jvm_memory_bytes_used", "area", "nonheap").value(nonHeap.getUsed());
+        b.header("jvm_memory_bytes_committed", "gauge", "Committed bytes of a JVM memory area");
+        b.sample("jvm_memory_bytes_committed", "area", "heap").value(heap.getCommitted());
+        b.sample("jvm_memory_bytes_committed", "area", "nonheap").value(nonHeap.getCommitted());
+        b.header("jvm_memory_bytes_max", "gauge", "Max bytes of a JVM memory area");
+        b.sample("jvm_memory_bytes_max", "area", "heap").value(heap.getMax());
+
+        List<GarbageCollectorMXBean> gcs = ManagementFactory.getGarbageCollectorMXBeans();
+        b.header("jvm_gc_collections_total", "counter", "Collections run by a garbage collector");
+        for (GarbageCollectorMXBean gc : gcs) b.sample("jvm_gc_collections_total", "gc", gc.getName()).value(gc.getCollectionCount());
+        b.header("jvm_gc_collection_seconds_total", "counter", "Time spent in a garbage collector");
+        for (GarbageCollectorMXBean gc : gcs) {
+            b.sample("jvm_gc_collection_seconds_total", "gc", gc.getName()).seconds(gc.getCollectionTime() * 1_000_000L);
+        }
+        b.header("jvm_threads_live", "gauge", "Live JVM threads");
+        b.sample("jvm_threads_live").value(ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+}
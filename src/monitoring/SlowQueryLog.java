@@ -0,0 +1,87 @@
+package monitoring;
+
+import config.ConfigLoader;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Statements that ran longer than dao.slow.threshold (default 250ms), with their SQL, bound
+ * parameters and the DAO method that issued them. The most recent entries are kept for the
+ * diagnostics screen and each one is also written to the "scms.slowquery" java.util.logging logger.
+ */
+public final class SlowQueryLog {
+    private static final Logger LOG = Logger.getLogger("scms.slowquery");
+    private static final int CAPACITY = 200;
+    private static final Deque<Entry> RECENT = new ArrayDeque<>();
+    private static volatile long thresholdNanos;
+
+    static {
+        configure();
+        ConfigLoader.subscribe(SlowQueryLog::configure, "dao.slow.threshold");
+    }
+
+    private SlowQueryLog() {}
+
+    public static final class Entry {
+        private final LocalDateTime at;
+        private final String method;
+        private final String sql;
+        private final String parameters;
+        private final long nanos;
+
+        Entry(LocalDateTime at, String method, String sql, String parameters, long nanos) {
+            this.at = at;
+            this.method = method;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.nanos = nanos;
+        }
+
+        public LocalDateTime getAt() { return at; }
+        public String getMethod() { return method; }
+        public String getSql() { return sql; }
+        public String getParameters() { return parameters; }
+        public long getNanos() { return nanos; }
+    }
+
+    private static void configure() {
+        thresholdNanos = ConfigLoader.getDuration("dao.slow.threshold", Duration.ofMillis(250)).toNanos();
+    }
+
+    public static boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    public static Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    static void record(String sql, String parameters, long nanos) {
+        String method = DaoMetrics.currentMethod();
+        Entry entry = new Entry(LocalDateTime.now(), method == null ? "-" : method, sql, parameters, nanos);
+        synchronized (RECENT) {
+            if (RECENT.size() == CAPACITY) RECENT.removeLast();
+            RECENT.addFirst(entry);
+        }
+        LOG.warning(String.format("Slow query (%.1f ms) in %s: %s %s", nanos / 1e6, entry.method, sql, parameters));
+    }
+
+    /** Newest first. */
+    public static List<Entry> recent() {
+        synchronized (RECENT) {
+            return new ArrayList<>(RECENT);
+        }
+    }
+
+    public static void clear() {
+        synchronized (RECENT) {
+            RECENT.clear();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package monitoring;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Wraps JDBC connections so every statement they create is timed, and statements over the
+ * slow-query threshold are reported to {@link SlowQueryLog} with their SQL and bound parameters.
+ * Parameters of statements touching password columns are masked.
+ */
+public final class SqlTracer {
+    private static final int MAX_PARAMETER_LENGTH = 60;
+
+    private SqlTracer() {}
+
+    public static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(SqlTracer.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                Object result = invoke(method, connection, args);
+                if (result instanceof PreparedStatement && method.getName().startsWith("prepare")) {
+                    return trace((PreparedStatement) result, (String) args[0]);
+                }
+                if (result instanceof Statement && method.getName().equals("createStatement")) {
+                    return trace((Statement) result, null);
+                }
+                return result;
+            });
+    }
+
+    private static Statement trace(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return (Statement) Proxy.newProxyInstance(SqlTracer.class.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                } else if (name.startsWith("execute")) {
+                    String sql = preparedSql != null ? preparedSql : args != null && args.length > 0 ? (String) args[0] : "?";
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(method, statement, args);
+                    } finally {
+                        long nanos = System.nanoTime() - start;
+                        if (SlowQueryLog.isSlow(nanos)) SlowQueryLog.record(sql, render(sql, parameters), nanos);
+                    }
+                }
+                return invoke(method, statement, args);
+            });
+    }
+
+    private static String render(String sql, Map<Integer, Object> parameters) {
+        if (parameters.isEmpty()) return "";
+        boolean mask = sql.toLowerCase(Locale.ROOT).contains("password");
+        StringBuilder sb = new StringBuilder("[");
+        for (Map.Entry<Integer, Object> p : parameters.entrySet()) {
+            if (sb.length() > 1) sb.append(", ");
+            Object v = p.getValue();
+            if (v == null) {
+                sb.append("NULL");
+            } else if (v instanceof String) {
+                String s = mask ? "***" : (String) v;
+                if (s.length() > MAX_PARAMETER_LENGTH) s = s.substring(0, MAX_PARAMETER_LENGTH) + "...";
+                sb.append('\'').append(s).append('\'');
+            } else {
+                sb.append(v);
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("scms.BookingAdmission")
+@Label("Booking Admission")
+@Category({"SCMS", "Bookings"})
+@Description("Validation, availability and overlap checks and insert for one new booking")
+public class BookingAdmissionEvent extends jdk.jfr.Event {
+    public static final String ADMITTED = "ADMITTED";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String UNAVAILABLE = "UNAVAILABLE";
+    public static final String INVALID = "INVALID";
+    public static final String ERROR = "ERROR";
+
+    @Label("Facility")
+    public long facilityId;
+
+    @Label("Type")
+    public String type;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Lock Wait")
+    @Description("Time spent waiting to serialize admission for the facility")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lockWait;
+}
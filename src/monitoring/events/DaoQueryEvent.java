@@ -0,0 +1,25 @@
+package monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("scms.DaoQuery")
+@Label("DAO Query")
+@Category({"SCMS", "Data Access"})
+@Description("One call through a DAO interface")
+public class DaoQueryEvent extends jdk.jfr.Event {
+    @Label("Method")
+    public String method;
+
+    @Label("Rows")
+    @Description("List size or present Optional returned")
+    public long rows;
+
+    @Label("Connections")
+    public int connections;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,22 @@
+package monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("scms.PaymentRecorded")
+@Label("Payment Recorded")
+@Category({"SCMS", "Payments"})
+public class PaymentRecordedEvent extends jdk.jfr.Event {
+    @Label("Booking")
+    public long bookingId;
+
+    @Label("Amount")
+    public double amount;
+
+    @Label("Discount")
+    public double discount;
+
+    @Label("Method")
+    public String method;
+}
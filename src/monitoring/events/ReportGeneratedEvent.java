@@ -0,0 +1,21 @@
+package monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("scms.ReportGenerated")
+@Label("Report Generated")
+@Category({"SCMS", "Reports"})
+public class ReportGeneratedEvent extends jdk.jfr.Event {
+    @Label("Type")
+    public String type;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
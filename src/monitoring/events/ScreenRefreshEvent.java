@@ -0,0 +1,37 @@
+package monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("scms.ScreenRefresh")
+@Label("Screen Refresh")
+@Category({"SCMS", "UI"})
+@Description("A screen reloading its table or statistics")
+public class ScreenRefreshEvent extends jdk.jfr.Event {
+    @Label("Panel")
+    public String panel;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("On EDT")
+    public boolean onEdt;
+
+    public static ScreenRefreshEvent start(String panel) {
+        ScreenRefreshEvent event = new ScreenRefreshEvent();
+        event.panel = panel;
+        event.begin();
+        return event;
+    }
+
+    public void finish(long rows) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            this.onEdt = java.awt.EventQueue.isDispatchThread();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * Booking aggregates for reporting. Figures come from a snapshot of the bookings that may be a
+ * few minutes old. Months are [from, to] inclusive and days [from, to); a booking counts in the
+ * period it starts in.
+ */
+public interface AnalyticsService {
+    /** Confirmed bookings per month, every month of the range present. */
+    Map<YearMonth, Long> bookingsByMonth(YearMonth from, YearMonth to);
+
+    /** Fees of confirmed bookings per facility id and month, facilities with no bookings left out. */
+    Map<Long, Map<YearMonth, Double>> revenueByFacilityAndMonth(YearMonth from, YearMonth to);
+
+    /** Confirmed bookings per member id, most frequent first, members with none left out. */
+    Map<Long, Long> visitsByMember(LocalDate from, LocalDate to);
+
+    /**
+     * Percentage of bookings per facility id that were cancelled. Bookings carry no attendance, so
+     * this is the closest the data comes to a no-show rate.
+     */
+    Map<Long, Double> cancellationRateByFacility(LocalDate from, LocalDate to);
+
+    /** The same per member id, for members with at least minBookings bookings, highest first. */
+    Map<Long, Double> cancellationRateByMember(LocalDate from, LocalDate to, int minBookings);
+}
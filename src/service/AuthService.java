@@ -6,6 +6,21 @@ import java.util.Optional;
 
 public interface AuthService {
     Optional<User> login(String email, String password);
-}
 
+    /**
+     * Same as {@link #login(String, String)}, throttled per account and per terminal.
+     * @throws LoginThrottledException when either budget is exhausted
+     */
+    Optional<User> login(String email, String password, String terminalId);
+
+    /** Issues a short-lived token for an authenticated user. */
+    String openSession(User user);
+
+    /** Resolves a token without re-verifying the password; empty once it expires or is closed. */
+    Optional<User> resumeSession(String token);
 
+    void closeSession(String token);
+
+    /** Closes every session of the user; call it when their password or role changes or they are removed. */
+    void endSessions(Long userId);
+}
@@ -1,16 +1,32 @@
 package service;
 
+import model.Booking;
 import model.FacilityBooking;
 import model.TrainingBooking;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingService {
     Long createFacilityBooking(FacilityBooking booking);
     Long createTrainingBooking(TrainingBooking booking);
     void cancel(Long bookingId);
     List<Object> getFacilityAvailability(Long facilityId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Queues the member for a slot that is full; the booking is made for them, in request order,
+     * as soon as cancellations leave room. Returns the waitlist entry id.
+     */
+    Long joinWaitlist(Booking booking);
+
+    /**
+     * Moves a confirmed booking, keeping its length, to the first slot from notBefore where the
+     * facility has room, is not closed for maintenance, and the coach (if any) is free and working:
+     * first the rest of that day in quarter hours, then the booking's own time of day on each of
+     * the following days. Returns the moved booking, or empty if no slot was found.
+     */
+    Optional<Booking> rescheduleAfter(Long bookingId, LocalDateTime notBefore);
 }
 
 
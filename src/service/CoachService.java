@@ -0,0 +1,13 @@
+package service;
+
+import model.CoachHours;
+
+import java.util.List;
+
+/** Coaches' working hours; training with a coach can only be booked inside them. */
+public interface CoachService {
+    List<CoachHours> getHours(Long coachId);
+
+    /** Replaces the coach's week; an empty list lets the coach be booked at any time. */
+    void setHours(Long coachId, List<CoachHours> hours);
+}
@@ -0,0 +1,21 @@
+package service;
+
+import model.DemandSeries;
+
+import java.time.LocalDate;
+
+/**
+ * Hourly demand per facility, booked and forecast, for staffing and pricing. Ranges are days
+ * [from, to). History covers whole days up to yesterday; forecasts start today and are refitted
+ * once a day.
+ */
+public interface DemandForecastService {
+    /** Booked hours per hour, clipped to the history kept. */
+    DemandSeries history(Long facilityId, LocalDate from, LocalDate to);
+
+    /** Expected booked hours per hour, from a weekly seasonal model of the facility's history. */
+    DemandSeries forecast(Long facilityId, LocalDate from, LocalDate to);
+
+    /** Typical error of the facility's model one hour ahead, in booked hours. */
+    double forecastError(Long facilityId);
+}
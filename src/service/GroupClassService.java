@@ -0,0 +1,22 @@
+package service;
+
+import model.ClassEnrollment;
+import model.GroupClass;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface GroupClassService {
+    Long schedule(GroupClass groupClass);
+    void cancelClass(Long classId);
+    Optional<GroupClass> get(Long classId);
+    List<GroupClass> listBetween(LocalDateTime from, LocalDateTime to);
+    Long enroll(Long classId, Long memberId);
+    void leave(Long classId, Long memberId);
+    List<ClassEnrollment> enrollments(Long classId);
+    List<ClassEnrollment> enrollmentsOf(Long memberId);
+
+    /** Queues the member for a full class; they are enrolled, in request order, as seats free up. */
+    Long joinWaitlist(Long classId, Long memberId);
+}
@@ -0,0 +1,15 @@
+package service;
+
+/**
+ * Thrown by {@link AuthService#login} when an account or terminal has used up its attempt budget.
+ */
+public class LoginThrottledException extends IllegalStateException {
+    private final long retryAfterMillis;
+
+    public LoginThrottledException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public long getRetryAfterMillis() { return retryAfterMillis; }
+}
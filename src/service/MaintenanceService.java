@@ -0,0 +1,39 @@
+package service;
+
+import model.Booking;
+import model.MaintenanceProposal;
+import model.MaintenanceRequest;
+import model.MaintenanceStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintenance requests. A request with a window closes its facility for bookings over that window
+ * until it is resolved.
+ */
+public interface MaintenanceService {
+    Long create(MaintenanceRequest request);
+
+    /** Returns the updated request; resolving one reopens its window for bookings. */
+    MaintenanceRequest updateStatus(Long requestId, MaintenanceStatus status);
+
+    /** Sets or moves the request's window; the facility is closed over it from now on. */
+    MaintenanceRequest scheduleWindow(Long requestId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Proposes a window of least booking impact for each open request that has an estimated
+     * duration but no window yet. Nothing is scheduled until a proposal is passed to
+     * {@link #scheduleWindow}.
+     */
+    List<MaintenanceProposal> proposeWindows();
+
+    /** Confirmed bookings overlapping the request's window, by start time. */
+    List<Booking> affectedBookings(Long requestId);
+
+    /**
+     * Moves every booking overlapping the request's window to the next free slot after it (see
+     * {@link BookingService#rescheduleAfter}). Returns the bookings that could not be moved.
+     */
+    List<Booking> rescheduleAffected(Long requestId);
+}
@@ -0,0 +1,25 @@
+package service;
+
+import model.MemberMetrics;
+import model.MemberMetricsRun;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-member visit frequency, spend and churn risk, kept in the member_metrics table by a batch job
+ * that only recomputes members with new activity. Figures are as of the last run.
+ */
+public interface MemberMetricsService {
+    /**
+     * Recomputes members with bookings or payments since the last run, and rescores the rest once a
+     * day since their recency moves on without them doing anything.
+     * @throws IllegalStateException if a refresh is already running in this process
+     */
+    MemberMetricsRun refresh();
+
+    Optional<MemberMetricsRun> lastRun();
+
+    /** Every member's metrics by member id; members not yet computed are missing. */
+    Map<Long, MemberMetrics> metricsByMember();
+}
@@ -0,0 +1,34 @@
+package service;
+
+import model.Booking;
+import model.Facility;
+import model.MaintenanceRequest;
+import model.Payment;
+import model.SearchEntityType;
+import model.SearchResult;
+import model.User;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cross-entity search answered from an in-memory inverted index.
+ * The index is loaded once with {@link #rebuild()} and then kept current by
+ * calling the index/remove methods whenever a screen writes an entity.
+ */
+public interface SearchService {
+    void rebuild();
+    boolean isReady();
+    void indexUser(User user);
+    void indexFacility(Facility facility);
+    void indexBooking(Booking booking);
+    void indexPayment(Payment payment);
+    void indexMaintenance(MaintenanceRequest request);
+    void remove(SearchEntityType type, Long id);
+
+    /**
+     * Matches every query term as a word prefix, so partial input works while typing.
+     * @return results grouped by entity type, best match first within each group
+     */
+    Map<SearchEntityType, List<SearchResult>> search(String query, int limitPerType);
+}
@@ -0,0 +1,12 @@
+package service;
+
+/**
+ * Thrown when a booking or class enrollment is refused because the slot has no room left, as
+ * opposed to other conflicts such as a facility under maintenance. The member may join the
+ * waitlist for it instead.
+ */
+public class SlotFullException extends IllegalStateException {
+    public SlotFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package service;
+
+import model.IdleWindow;
+import model.UtilizationHeatmap;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * How much of the opening hours facilities are in use. A slot counts as used when it has at least
+ * one confirmed booking, whatever the facility's capacity. Ranges are days [from, to).
+ */
+public interface UtilizationService {
+    /** Percentage of the opening hours of every facility that was in use. */
+    double utilization(LocalDate from, LocalDate to);
+
+    double utilization(Long facilityId, LocalDate from, LocalDate to);
+
+    /** In-use share per facility and hour of the week, for a heatmap. */
+    UtilizationHeatmap heatmap(LocalDate from, LocalDate to);
+
+    /** Stretches of the day's opening hours, at least minMinutes long, with nothing booked. */
+    List<IdleWindow> idleWindows(Long facilityId, LocalDate date, int minMinutes);
+}
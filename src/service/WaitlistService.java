@@ -0,0 +1,20 @@
+package service;
+
+import model.WaitlistEntry;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Members waiting for full booking slots and classes. Joining goes through
+ * {@link BookingService#joinWaitlist} and {@link GroupClassService#joinWaitlist}; those services
+ * promote waiters in the background whenever a booking is cancelled or a seat is given up.
+ */
+public interface WaitlistService {
+    List<WaitlistEntry> listForMember(Long memberId);
+    List<WaitlistEntry> listWaiting();
+    void leave(Long entryId);
+
+    /** Calls the listener with every entry promoted in this process; close the result to stop. */
+    AutoCloseable onPromoted(Consumer<WaitlistEntry> listener);
+}
@@ -0,0 +1,151 @@
+package service.impl;
+
+import config.ConfigLoader;
+import dao.BookingDao;
+import service.AnalyticsService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates over a {@link BookingColumns} snapshot of the bookings starting in the last
+ * analytics.snapshot.history.days or the year ahead, loaded in one streaming scan when first
+ * needed and again once older than analytics.snapshot.ttl. Each call is one parallel pass over the
+ * arrays; ids and months are only boxed for the result.
+ */
+public class AnalyticsServiceImpl implements AnalyticsService {
+    private static final int FUTURE_DAYS = 366;
+    // One snapshot per DAO, shared by every service instance
+    private static final SnapshotCache<BookingColumns> SNAPSHOTS = new SnapshotCache<>("booking_columns", BookingColumns::bytes);
+
+    private final BookingDao bookingDao;
+
+    public AnalyticsServiceImpl(BookingDao bookingDao) {
+        this.bookingDao = bookingDao;
+    }
+
+    @Override
+    public Map<YearMonth, Long> bookingsByMonth(YearMonth from, YearMonth to) {
+        long[] bounds = months(from, to);
+        BookingColumns b = columns();
+        long[] counts = b.tally(bounds.length - 1, (acc, i) -> {
+            if (b.status[i] != BookingColumns.CONFIRMED) return;
+            int m = BookingColumns.period(bounds, b.start[i]);
+            if (m >= 0) acc[m]++;
+        });
+        Map<YearMonth, Long> result = new LinkedHashMap<>();
+        for (int m = 0; m < counts.length; m++) result.put(from.plusMonths(m), counts[m]);
+        return result;
+    }
+
+    @Override
+    public Map<Long, Map<YearMonth, Double>> revenueByFacilityAndMonth(YearMonth from, YearMonth to) {
+        long[] bounds = months(from, to);
+        int months = bounds.length - 1;
+        BookingColumns b = columns();
+        long[] cents = b.tally(b.facilityIds.size() * months, (acc, i) -> {
+            if (b.status[i] != BookingColumns.CONFIRMED) return;
+            int m = BookingColumns.period(bounds, b.start[i]);
+            if (m >= 0) acc[b.facility[i] * months + m] += b.feeCents[i];
+        });
+        List<Integer> order = new ArrayList<>();
+        for (int f = 0; f < b.facilityIds.size(); f++) order.add(f);
+        order.sort(Comparator.comparingLong(b.facilityIds::id));
+        Map<Long, Map<YearMonth, Double>> result = new LinkedHashMap<>();
+        for (int f : order) {
+            Map<YearMonth, Double> byMonth = new LinkedHashMap<>();
+            boolean any = false;
+            for (int m = 0; m < months; m++) {
+                byMonth.put(from.plusMonths(m), cents[f * months + m] / 100.0);
+                any |= cents[f * months + m] != 0;
+            }
+            if (any) result.put(b.facilityIds.id(f), byMonth);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Long, Long> visitsByMember(LocalDate from, LocalDate to) {
+        long[] bounds = days(from, to);
+        BookingColumns b = columns();
+        long[] visits = b.tally(b.memberIds.size(), (acc, i) -> {
+            if (b.status[i] == BookingColumns.CONFIRMED && BookingColumns.period(bounds, b.start[i]) == 0) acc[b.member[i]]++;
+        });
+        List<Integer> members = new ArrayList<>();
+        for (int m = 0; m < visits.length; m++) if (visits[m] > 0) members.add(m);
+        members.sort(Comparator.<Integer>comparingLong(m -> -visits[m]).thenComparingLong(b.memberIds::id));
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (int m : members) result.put(b.memberIds.id(m), visits[m]);
+        return result;
+    }
+
+    @Override
+    public Map<Long, Double> cancellationRateByFacility(LocalDate from, LocalDate to) {
+        BookingColumns b = columns();
+        return cancellationRates(b, b.facility, b.facilityIds, from, to, 1, Comparator.naturalOrder());
+    }
+
+    @Override
+    public Map<Long, Double> cancellationRateByMember(LocalDate from, LocalDate to, int minBookings) {
+        BookingColumns b = columns();
+        return cancellationRates(b, b.member, b.memberIds, from, to, Math.max(1, minBookings), Comparator.reverseOrder());
+    }
+
+    // Counters are [total, cancelled] per key; results are ordered by rate, then id
+    private static Map<Long, Double> cancellationRates(BookingColumns b, int[] key, BookingColumns.IdIndex ids,
+                                                       LocalDate from, LocalDate to, int minBookings, Comparator<Double> byRate) {
+        long[] bounds = days(from, to);
+        long[] counts = b.tally(ids.size() * 2, (acc, i) -> {
+            if (BookingColumns.period(bounds, b.start[i]) != 0) return;
+            acc[2 * key[i]]++;
+            if (b.status[i] == BookingColumns.CANCELLED) acc[2 * key[i] + 1]++;
+        });
+        List<Map.Entry<Long, Double>> rates = new ArrayList<>();
+        for (int k = 0; k < ids.size(); k++) {
+            if (counts[2 * k] < minBookings) continue;
+            rates.add(Map.entry(ids.id(k), 100.0 * counts[2 * k + 1] / counts[2 * k]));
+        }
+        rates.sort(Map.Entry.<Long, Double>comparingByValue(byRate).thenComparing(Map.Entry.comparingByKey()));
+        Map<Long, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<Long, Double> e : rates) result.put(e.getKey(), e.getValue());
+        return result;
+    }
+
+    private BookingColumns columns() {
+        return SNAPSHOTS.get(bookingDao, c -> SnapshotCache.younger(c.loadedAt, ttl()), previous -> {
+            LocalDate today = LocalDate.now();
+            return BookingColumns.load(bookingDao, today.minusDays(Math.max(1, historyDays())).atStartOfDay(),
+                today.plusDays(FUTURE_DAYS).atStartOfDay());
+        });
+    }
+
+    // Start of each month of [from, to], then the end of the last
+    private static long[] months(YearMonth from, YearMonth to) {
+        if (from == null || to == null) throw new IllegalArgumentException("Month range required");
+        if (to.isBefore(from)) throw new IllegalArgumentException("End month must not be before start month");
+        int count = (int) (to.getYear() * 12L + to.getMonthValue() - (from.getYear() * 12L + from.getMonthValue())) + 1;
+        long[] bounds = new long[count + 1];
+        for (int m = 0; m <= count; m++) bounds[m] = BookingColumns.seconds(from.plusMonths(m).atDay(1).atStartOfDay());
+        return bounds;
+    }
+
+    private static long[] days(LocalDate from, LocalDate to) {
+        if (from == null || to == null) throw new IllegalArgumentException("Date range required");
+        if (!to.isAfter(from)) throw new IllegalArgumentException("End date must be after start date");
+        return new long[] {BookingColumns.seconds(from.atStartOfDay()), BookingColumns.seconds(to.atStartOfDay())};
+    }
+
+    private static Duration ttl() {
+        return ConfigLoader.getDuration("analytics.snapshot.ttl", Duration.ofMinutes(5));
+    }
+
+    private static int historyDays() {
+        return ConfigLoader.getInt("analytics.snapshot.history.days", 730);
+    }
+}
@@ -1,11 +1,20 @@
 package service.impl;
 
+import config.ConfigLoader;
 import dao.UserDao;
 import model.User;
 import service.AuthService;
 import util.PasswordHasher;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * AuthServiceImpl class demonstrating ENCAPSULATION and ABSTRACTION principles
@@ -26,18 +35,63 @@ import java.util.Optional;
  */
 public class AuthServiceImpl implements AuthService {
     
+    // Password checks are deliberately expensive; run them on a small bounded pool so a burst of
+    // kiosk logins queues up instead of starving the UI thread or every core
+    private static final int VERIFY_QUEUE = 64;
+    private static final ThreadPoolExecutor VERIFY_POOL = new ThreadPoolExecutor(
+        verifyThreads(), verifyThreads(), 30, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(VERIFY_QUEUE),
+        r -> {
+            Thread t = new Thread(r, "password-verify");
+            t.setDaemon(true);
+            return t;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+
+    static {
+        ConfigLoader.subscribe(AuthServiceImpl::resizeVerifyPool, "auth.verify.threads");
+    }
+
+    // One session cache per DAO, so a screen that changes a user can end the sessions the
+    // launcher's service opened
+    private static final Map<UserDao, SessionCache> SESSIONS = new ConcurrentHashMap<>();
+
+    /** Terminal id used by {@link #login(String, String)}. */
+    public static final String LOCAL_TERMINAL = "local";
+    
     // ENCAPSULATION: Private field - UserDao dependency is hidden from external access
     private final UserDao userDao;
+    private final LoginThrottle throttle;
+    private final SessionCache sessions;
 
     // ENCAPSULATION: Constructor encapsulates dependency injection
     public AuthServiceImpl(UserDao userDao) {
         this.userDao = userDao;
+        this.throttle = new LoginThrottle(accountBurst(), accountRefillMillis(), terminalBurst(), terminalRefillMillis());
+        this.sessions = SESSIONS.computeIfAbsent(userDao, AuthServiceImpl::newSessionCache);
+        ConfigLoader.subscribe(() -> throttle.configure(accountBurst(), accountRefillMillis(), terminalBurst(), terminalRefillMillis()),
+            "auth.throttle.account.burst", "auth.throttle.account.refill", "auth.throttle.terminal.burst", "auth.throttle.terminal.refill");
+    }
+
+    private static SessionCache newSessionCache(UserDao userDao) {
+        SessionCache cache = new SessionCache(userDao, sessionTtlMillis(), sessionRecheckMillis());
+        ConfigLoader.subscribe(() -> cache.setTtlMillis(sessionTtlMillis()), "auth.session.ttl");
+        ConfigLoader.subscribe(() -> cache.setRecheckMillis(sessionRecheckMillis()), "auth.session.recheck");
+        return cache;
+    }
+
+    @Override
+    public Optional<User> login(String email, String password) {
+        return login(email, password, LOCAL_TERMINAL);
     }
 
     // ABSTRACTION: Public method provides high-level authentication operation
     // ENCAPSULATION: Complex authentication logic is hidden from client code
     @Override
-    public Optional<User> login(String email, String password) {
+    public Optional<User> login(String email, String password, String terminalId) {
+        // Rejected attempts cost two CAS operations, not a lookup and a hash
+        throttle.acquire(email, terminalId);
+
         // ABSTRACTION: Uses UserDao abstraction to find user
         Optional<User> u = userDao.findByEmail(email);
         if (!u.isPresent()) return Optional.empty();
@@ -45,18 +99,94 @@ public class AuthServiceImpl implements AuthService {
         String stored = user.getPasswordHash();
         
         // ENCAPSULATION: Password verification logic is hidden within this method
-        // Primary verification using SHA-256 + salt (our scheme)
-        if (PasswordHasher.verify(password, stored)) {
-            return Optional.of(user);
+        // Verify with whichever scheme produced the stored hash; on success also compute the
+        // upgraded hash while still on the verification thread
+        String upgraded;
+        try {
+            upgraded = VERIFY_POOL.submit(() -> verifyAndUpgrade(email, password, stored)).get();
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Too many sign-in attempts in progress, please try again", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException("Password verification failed", cause);
         }
+        if (upgraded == null) return Optional.empty();
+        throttle.succeeded(email);
+        
+        // Transparent upgrade of legacy or under-cost hashes; never fail the login over it
+        if (!upgraded.equals(stored)) {
+            try {
+                userDao.updatePasswordHash(user.getId(), upgraded);
+                user.setPasswordHash(upgraded);
+            } catch (RuntimeException ignore) {
+                // Keep the old hash; the upgrade is retried on the next successful login
+            }
+        }
+        return Optional.of(user);
+    }
+
+    @Override
+    public String openSession(User user) {
+        if (user == null) throw new IllegalArgumentException("User is required");
+        return sessions.open(user);
+    }
+
+    @Override
+    public Optional<User> resumeSession(String token) {
+        return sessions.resume(token);
+    }
+
+    @Override
+    public void closeSession(String token) {
+        sessions.close(token);
+    }
+
+    @Override
+    public void endSessions(Long userId) {
+        sessions.closeAll(userId);
+    }
+
+    // Tunables; attempt budgets are a short burst, then one attempt per refill interval
+    private static int verifyThreads() {
+        return Math.max(1, ConfigLoader.getInt("auth.verify.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+    }
+
+    private static int accountBurst() { return ConfigLoader.getInt("auth.throttle.account.burst", 5); }
+    private static long accountRefillMillis() { return ConfigLoader.getDuration("auth.throttle.account.refill", Duration.ofSeconds(30)).toMillis(); }
+    private static int terminalBurst() { return ConfigLoader.getInt("auth.throttle.terminal.burst", 20); }
+    private static long terminalRefillMillis() { return ConfigLoader.getDuration("auth.throttle.terminal.refill", Duration.ofSeconds(3)).toMillis(); }
+    private static long sessionTtlMillis() { return ConfigLoader.getDuration("auth.session.ttl", Duration.ofMinutes(15)).toMillis(); }
+    private static long sessionRecheckMillis() { return ConfigLoader.getDuration("auth.session.recheck", Duration.ofSeconds(30)).toMillis(); }
+
+    private static synchronized void resizeVerifyPool() {
+        int n = verifyThreads();
+        // Core size may never exceed maximum, so grow the maximum first and shrink it last
+        if (n > VERIFY_POOL.getMaximumPoolSize()) {
+            VERIFY_POOL.setMaximumPoolSize(n);
+            VERIFY_POOL.setCorePoolSize(n);
+        } else {
+            VERIFY_POOL.setCorePoolSize(n);
+            VERIFY_POOL.setMaximumPoolSize(n);
+        }
+    }
+
+    /**
+     * @return null when the password is wrong, the stored hash when it is current,
+     *         or a freshly computed hash when the stored one should be upgraded
+     */
+    private static String verifyAndUpgrade(String email, String password, String stored) {
+        boolean ok = PasswordHasher.verify(password, stored);
         
         // ENCAPSULATION: Legacy authentication logic is encapsulated
         // Temporary compatibility for seeded bcrypt-style admin hash in schema.sql
-        if ("admin@scms.local".equalsIgnoreCase(email) && stored.startsWith("$2a$") && "admin123".equals(password)) {
-            return Optional.of(user);
+        if (!ok && "admin@scms.local".equalsIgnoreCase(email) && stored != null && stored.startsWith("$2a$") && "admin123".equals(password)) {
+            ok = true;
         }
-        return Optional.empty();
+        if (!ok) return null;
+        return PasswordHasher.needsRehash(stored) ? PasswordHasher.hashWithRandomSalt(password) : stored;
     }
 }
-
-
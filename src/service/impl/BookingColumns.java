@@ -0,0 +1,178 @@
+package service.impl;
+
+import dao.BookingDao;
+import model.BookingStatus;
+import model.BookingType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A read-only snapshot of bookings as parallel primitive arrays, one entry per booking: start and
+ * end as local wall-clock seconds (the LocalDateTime read as UTC), facility and member as indexes
+ * into {@link #facilityIds} and {@link #memberIds}, status and type as enum ordinals and the total
+ * fee in cents. About 34 bytes a booking, against several hundred for a FacilityBooking with its
+ * boxed ids and LocalDateTimes.
+ *
+ * Aggregations run over the rows with a parallel stream that gives each split its own long[] of
+ * counters and adds them up at the end, so no row is boxed and no counter is shared.
+ */
+final class BookingColumns {
+    /** Adds row i to the split's counters. */
+    interface Tally {
+        void add(long[] counters, int i);
+    }
+
+    static final byte CONFIRMED = (byte) BookingStatus.CONFIRMED.ordinal();
+    static final byte CANCELLED = (byte) BookingStatus.CANCELLED.ordinal();
+
+    int size;
+    long[] start = new long[1024];
+    long[] end = new long[1024];
+    int[] facility = new int[1024];
+    int[] member = new int[1024];
+    byte[] status = new byte[1024];
+    byte[] type = new byte[1024];
+    long[] feeCents = new long[1024];
+    final IdIndex facilityIds = new IdIndex();
+    final IdIndex memberIds = new IdIndex();
+    final long loadedAt = System.nanoTime();
+
+    /** Bookings starting in [from, to), streamed from the DAO. */
+    static BookingColumns load(BookingDao bookingDao, LocalDateTime from, LocalDateTime to) {
+        BookingColumns columns = new BookingColumns();
+        bookingDao.scanRows(from, to, columns::add);
+        columns.trim();
+        return columns;
+    }
+
+    static long seconds(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private void add(long memberId, long facilityId, BookingType bookingType, BookingStatus bookingStatus,
+                     LocalDateTime startTime, LocalDateTime endTime, long totalFeeCents) {
+        if (size == start.length) grow();
+        start[size] = seconds(startTime);
+        end[size] = seconds(endTime);
+        facility[size] = facilityIds.indexOf(facilityId);
+        member[size] = memberIds.indexOf(memberId);
+        status[size] = (byte) bookingStatus.ordinal();
+        type[size] = (byte) bookingType.ordinal();
+        feeCents[size] = totalFeeCents;
+        size++;
+    }
+
+    private void grow() {
+        int n = start.length * 2;
+        start = Arrays.copyOf(start, n);
+        end = Arrays.copyOf(end, n);
+        facility = Arrays.copyOf(facility, n);
+        member = Arrays.copyOf(member, n);
+        status = Arrays.copyOf(status, n);
+        type = Arrays.copyOf(type, n);
+        feeCents = Arrays.copyOf(feeCents, n);
+    }
+
+    private void trim() {
+        start = Arrays.copyOf(start, size);
+        end = Arrays.copyOf(end, size);
+        facility = Arrays.copyOf(facility, size);
+        member = Arrays.copyOf(member, size);
+        status = Arrays.copyOf(status, size);
+        type = Arrays.copyOf(type, size);
+        feeCents = Arrays.copyOf(feeCents, size);
+    }
+
+    long bytes() {
+        return (long) size * (8 + 8 + 4 + 4 + 1 + 1 + 8) + facilityIds.bytes() + memberIds.bytes();
+    }
+
+    /** Runs the tally over every row in parallel and returns the summed counters. */
+    long[] tally(int width, Tally tally) {
+        return IntStream.range(0, size).parallel().collect(() -> new long[width], tally::add, BookingColumns::addInto);
+    }
+
+    /** Index of the period starting at or before t, or -1 before the first and after the last (bounds has one more entry than periods). */
+    static int period(long[] bounds, long t) {
+        if (t < bounds[0] || t >= bounds[bounds.length - 1]) return -1;
+        int i = Arrays.binarySearch(bounds, t);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private static void addInto(long[] into, long[] from) {
+        for (int i = 0; i < into.length; i++) into[i] += from[i];
+    }
+
+    /**
+     * Dense indexes for ids in order of first appearance: an open-addressing long -> int table, so
+     * looking up a row's member does not box it.
+     */
+    static final class IdIndex {
+        private long[] keys = new long[64];
+        private int[] slots = new int[64];
+        private long[] ids = new long[16];
+        private int count;
+
+        int indexOf(long id) {
+            int mask = keys.length - 1;
+            int h = hash(id) & mask;
+            while (slots[h] != 0) {
+                if (keys[h] == id) return slots[h] - 1;
+                h = (h + 1) & mask;
+            }
+            if (count == ids.length) ids = Arrays.copyOf(ids, count * 2);
+            ids[count] = id;
+            keys[h] = id;
+            // 0 marks an empty slot, so slots hold index + 1
+            slots[h] = ++count;
+            if (count * 2 > keys.length) rehash();
+            return count - 1;
+        }
+
+        /** Index of an id already seen, or -1. */
+        int find(long id) {
+            int mask = keys.length - 1;
+            int h = hash(id) & mask;
+            while (slots[h] != 0) {
+                if (keys[h] == id) return slots[h] - 1;
+                h = (h + 1) & mask;
+            }
+            return -1;
+        }
+
+        long id(int index) {
+            return ids[index];
+        }
+
+        int size() {
+            return count;
+        }
+
+        long bytes() {
+            return (long) keys.length * (8 + 4) + (long) ids.length * 8;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldSlots = slots;
+            keys = new long[oldKeys.length * 2];
+            slots = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldSlots[i] == 0) continue;
+                int h = hash(oldKeys[i]) & mask;
+                while (slots[h] != 0) h = (h + 1) & mask;
+                keys[h] = oldKeys[i];
+                slots[h] = oldSlots[i];
+            }
+        }
+
+        private static int hash(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -1,41 +1,409 @@
 package service.impl;
 
+import config.ConfigLoader;
 import dao.BookingDao;
+import dao.CoachHoursDao;
+import dao.DataAccessException;
 import dao.FacilityDao;
+import dao.GroupClassDao;
+import dao.MaintenanceDao;
+import dao.WaitlistDao;
 import model.*;
+import monitoring.BookingAdmissions;
+import monitoring.events.BookingAdmissionEvent;
 import service.BookingService;
+import service.SlotFullException;
+import util.DateTimeUtil;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Admits bookings against facility capacity. The in-memory {@link OccupancyIndex} turns away
+ * bookings for full slots without a database round trip; the ones it lets through are re-checked
+ * and inserted atomically by {@link BookingDao#createWithinCapacity}, which also catches bookings
+ * made at other terminals since the index last loaded the day.
+ *
+ * Bookings with a coach are also checked against the coach's other bookings, at any facility, in
+ * the {@link CoachScheduleIndex}, and (with a {@link CoachHoursDao}) against the coach's working
+ * hours. The DAO repeats the coach check under a lock on the coach's row.
+ *
+ * With a {@link MaintenanceDao}, unresolved maintenance windows are loaded into the occupancy
+ * index alongside the bookings, so a booking is refused only if it overlaps a window; the DAO
+ * checks the windows again in the same transaction as the insert.
+ *
+ * Group classes are admitted here too (see {@link #admitClass}): a class holds one place per seat
+ * at its facility and keeps its coach busy, in both indexes and in the DAO's checks.
+ *
+ * Admissions, cancellations and moves are passed on to the utilization bitmap of
+ * {@link UtilizationServiceImpl}, if one has been built.
+ *
+ * With a {@link WaitlistDao}, cancelling a booking queues a promotion pass for the slot it frees
+ * (see {@link WaitlistServiceImpl}).
+ */
 public class BookingServiceImpl implements BookingService {
+    // One index per DAO, shared by every service instance (each screen creates its own)
+    private static final Map<BookingDao, OccupancyIndex> INDEXES = new ConcurrentHashMap<>();
+    private static final Map<BookingDao, CoachScheduleIndex> COACH_INDEXES = new ConcurrentHashMap<>();
+    private static final DateTimeFormatter HH_MM = DateTimeFormatter.ofPattern("HH:mm");
+    private static final int SLOT_MINUTES = 15;
+
     private final BookingDao bookingDao;
     private final FacilityDao facilityDao;
+    private final WaitlistDao waitlistDao;
+    private final CoachHoursDao coachHoursDao;
+    private final OccupancyIndex occupancy;
+    private final CoachScheduleIndex coaches;
 
     public BookingServiceImpl(BookingDao bookingDao, FacilityDao facilityDao) {
+        this(bookingDao, facilityDao, null, null);
+    }
+
+    public BookingServiceImpl(BookingDao bookingDao, FacilityDao facilityDao, WaitlistDao waitlistDao) {
+        this(bookingDao, facilityDao, waitlistDao, null);
+    }
+
+    public BookingServiceImpl(BookingDao bookingDao, FacilityDao facilityDao, WaitlistDao waitlistDao, CoachHoursDao coachHoursDao) {
+        this(bookingDao, facilityDao, waitlistDao, coachHoursDao, null);
+    }
+
+    public BookingServiceImpl(BookingDao bookingDao, FacilityDao facilityDao, WaitlistDao waitlistDao, CoachHoursDao coachHoursDao,
+                              MaintenanceDao maintenanceDao) {
         this.bookingDao = bookingDao;
         this.facilityDao = facilityDao;
+        this.waitlistDao = waitlistDao;
+        this.coachHoursDao = coachHoursDao;
+        this.occupancy = INDEXES.computeIfAbsent(bookingDao, BookingServiceImpl::newIndex);
+        this.coaches = COACH_INDEXES.computeIfAbsent(bookingDao, BookingServiceImpl::newCoachIndex);
+        if (maintenanceDao != null) occupancy.windowsFrom(maintenanceDao);
+    }
+
+    private static OccupancyIndex newIndex(BookingDao bookingDao) {
+        OccupancyIndex index = new OccupancyIndex(bookingDao, occupancyTtlMillis(), occupancyMaxDays());
+        ConfigLoader.subscribe(() -> index.configure(occupancyTtlMillis(), occupancyMaxDays()),
+            "booking.occupancy.ttl", "booking.occupancy.max.days");
+        return index;
+    }
+
+    private static CoachScheduleIndex newCoachIndex(BookingDao bookingDao) {
+        CoachScheduleIndex index = new CoachScheduleIndex(bookingDao, occupancyTtlMillis(), coachHorizonDays(), coachMaxSchedules());
+        ConfigLoader.subscribe(() -> index.configure(occupancyTtlMillis(), coachHorizonDays(), coachMaxSchedules()),
+            "booking.occupancy.ttl", "booking.coach.horizon.days", "booking.coach.max.schedules");
+        return index;
+    }
+
+    /** A maintenance window was scheduled, moved or resolved: reload the days it covers. */
+    static void windowChanged(BookingDao bookingDao, Long facilityId, LocalDateTime start, LocalDateTime end) {
+        OccupancyIndex index = INDEXES.get(bookingDao);
+        if (index == null) return;
+        ReentrantLock lock = index.lockFor(facilityId);
+        lock.lock();
+        try {
+            index.invalidate(facilityId, start, end);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Counts the scheduled classes of groupClassDao in the occupancy and coach indexes. */
+    void classesFrom(GroupClassDao groupClassDao) {
+        occupancy.classesFrom(groupClassDao);
+        coaches.classesFrom(groupClassDao);
+    }
+
+    /**
+     * Creates a scheduled class if its seats fit the facility alongside the bookings and classes
+     * already there, no maintenance window closes it and its coach is free and (with a
+     * {@link CoachHoursDao}) working, under the same facility and coach locks as a booking. The DAO
+     * repeats the capacity, window and coach checks in the same transaction as the insert.
+     */
+    Long admitClass(GroupClass g, GroupClassDao groupClassDao) {
+        Facility facility = ensureFacilityAvailable(g.getFacilityId());
+        ensureWithinHours(g.getCoachId(), g.getStartTime(), g.getEndTime());
+        ReentrantLock lock = occupancy.lockFor(facility.getId());
+        ReentrantLock coachLock = coaches.lockFor(g.getCoachId());
+        lock.lock();
+        coachLock.lock();
+        try {
+            ensurePlaces(facility, g.getStartTime(), g.getEndTime(), g.getCapacity());
+            ensureCoachFree(g.getCoachId(), g.getStartTime(), g.getEndTime());
+            Long id = groupClassDao.createWithinCapacity(g);
+            if (id == null) {
+                // Something the indexes missed got there first; reload them and report it
+                occupancy.invalidate(facility.getId(), g.getStartTime(), g.getEndTime());
+                coaches.invalidate(g.getCoachId());
+                ensurePlaces(facility, g.getStartTime(), g.getEndTime(), g.getCapacity());
+                ensureCoachFree(g.getCoachId(), g.getStartTime(), g.getEndTime());
+                throw conflict(facility);
+            }
+            occupancy.add(facility.getId(), g.getStartTime(), g.getEndTime(), g.getCapacity());
+            coaches.add(g.getCoachId(), g.getStartTime(), g.getEndTime());
+            return id;
+        } finally {
+            coachLock.unlock();
+            lock.unlock();
+        }
+    }
+
+    /** Gives a cancelled class's places back and reloads its coach's schedule. */
+    void classCancelled(GroupClass g) {
+        ReentrantLock lock = occupancy.lockFor(g.getFacilityId());
+        lock.lock();
+        try {
+            occupancy.add(g.getFacilityId(), g.getStartTime(), g.getEndTime(), -g.getCapacity());
+            coaches.invalidate(g.getCoachId());
+        } finally {
+            lock.unlock();
+        }
+        schedulePromotion(g.getFacilityId(), g.getStartTime(), g.getEndTime());
     }
 
     @Override
     public Long createFacilityBooking(FacilityBooking booking) {
-        validateTimes(booking.getStartTime(), booking.getEndTime());
-        ensureFacilityAvailable(booking.getFacilityId());
-        ensureNoOverlap(booking.getFacilityId(), booking.getStartTime(), booking.getEndTime());
-        return bookingDao.createFacilityBooking(booking);
+        return admit(booking, BookingType.FACILITY);
     }
 
     @Override
     public Long createTrainingBooking(TrainingBooking booking) {
-        validateTimes(booking.getStartTime(), booking.getEndTime());
-        ensureFacilityAvailable(booking.getFacilityId());
-        ensureNoOverlap(booking.getFacilityId(), booking.getStartTime(), booking.getEndTime());
-        return bookingDao.createTrainingBooking(booking);
+        return admit(booking, BookingType.TRAINING);
+    }
+
+    private Long admit(Booking booking, BookingType type) {
+        BookingAdmissionEvent event = new BookingAdmissionEvent();
+        event.begin();
+        String outcome = BookingAdmissionEvent.INVALID;
+        long lockWait = 0;
+        try {
+            validateTimes(booking.getStartTime(), booking.getEndTime());
+            outcome = BookingAdmissionEvent.UNAVAILABLE;
+            Facility facility = ensureFacilityAvailable(booking.getFacilityId());
+            Long coachId = booking.getCoachId();
+            if (coachId != null) ensureWithinHours(coachId, booking.getStartTime(), booking.getEndTime());
+            outcome = BookingAdmissionEvent.CONFLICT;
+            ReentrantLock lock = occupancy.lockFor(facility.getId());
+            ReentrantLock coachLock = coachId == null ? null : coaches.lockFor(coachId);
+            long waitStart = System.nanoTime();
+            lock.lock();
+            if (coachLock != null) coachLock.lock();
+            lockWait = System.nanoTime() - waitStart;
+            try {
+                ensureCapacity(facility, booking.getStartTime(), booking.getEndTime());
+                if (coachId != null) ensureCoachFree(coachId, booking.getStartTime(), booking.getEndTime());
+                outcome = BookingAdmissionEvent.ERROR;
+                Long id = bookingDao.createWithinCapacity(booking);
+                if (id == null) {
+                    // Another terminal got there first; the indexes missed it, so reload them and
+                    // report whichever one the database disagreed with
+                    outcome = BookingAdmissionEvent.CONFLICT;
+                    occupancy.invalidate(facility.getId(), booking.getStartTime(), booking.getEndTime());
+                    MaintenanceRequest window = occupancy.closure(facility.getId(), booking.getStartTime(), booking.getEndTime());
+                    if (window != null) throw closed(window);
+                    if (coachId != null) {
+                        coaches.invalidate(coachId);
+                        ensureCoachFree(coachId, booking.getStartTime(), booking.getEndTime());
+                    }
+                    throw conflict(facility);
+                }
+                occupancy.add(facility.getId(), booking.getStartTime(), booking.getEndTime(), 1);
+                if (coachId != null) coaches.add(coachId, booking.getStartTime(), booking.getEndTime());
+                UtilizationServiceImpl.booked(bookingDao, facility.getId(), booking.getStartTime(), booking.getEndTime());
+                outcome = BookingAdmissionEvent.ADMITTED;
+                return id;
+            } finally {
+                if (coachLock != null) coachLock.unlock();
+                lock.unlock();
+            }
+        } catch (DataAccessException e) {
+            outcome = BookingAdmissionEvent.ERROR;
+            throw e;
+        } finally {
+            BookingAdmissions.record(outcome, lockWait);
+            event.end();
+            if (event.shouldCommit()) {
+                event.facilityId = booking.getFacilityId() == null ? 0 : booking.getFacilityId();
+                event.type = type.name();
+                event.outcome = outcome;
+                event.lockWait = lockWait;
+                event.commit();
+            }
+        }
     }
 
     @Override
     public void cancel(Long bookingId) {
-        bookingDao.updateStatus(bookingId, BookingStatus.CANCELLED);
+        Optional<? extends Booking> found = bookingDao.findFacilityBookingById(bookingId);
+        if (!found.isPresent()) found = bookingDao.findTrainingBookingById(bookingId);
+        if (!found.isPresent()) return;
+        Booking b = found.get();
+        ReentrantLock lock = occupancy.lockFor(b.getFacilityId());
+        lock.lock();
+        try {
+            // Only the cancel that actually changes the row gives the place back, so two
+            // terminals cancelling the same booking cannot release it twice
+            if (!bookingDao.cancelIfConfirmed(bookingId)) return;
+            occupancy.add(b.getFacilityId(), b.getStartTime(), b.getEndTime(), -1);
+            if (b.getCoachId() != null) coaches.invalidate(b.getCoachId());
+        } finally {
+            lock.unlock();
+        }
+        UtilizationServiceImpl.released(bookingDao, b.getFacilityId(), b.getStartTime(), b.getEndTime());
+        schedulePromotion(b.getFacilityId(), b.getStartTime(), b.getEndTime());
+    }
+
+    @Override
+    public Long joinWaitlist(Booking booking) {
+        if (waitlistDao == null) throw new IllegalStateException("Waitlist not available");
+        validateTimes(booking.getStartTime(), booking.getEndTime());
+        if (!booking.getStartTime().isAfter(LocalDateTime.now())) throw new IllegalArgumentException("This slot has already started");
+        if (booking.getMemberId() == null) throw new IllegalArgumentException("Member required");
+        facilityDao.findById(booking.getFacilityId()).orElseThrow(() -> new IllegalArgumentException("Facility not found"));
+        if (booking.getCoachId() != null) ensureWithinHours(booking.getCoachId(), booking.getStartTime(), booking.getEndTime());
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setMemberId(booking.getMemberId());
+        entry.setFacilityId(booking.getFacilityId());
+        entry.setCoachId(booking.getCoachId());
+        entry.setStartTime(booking.getStartTime());
+        entry.setEndTime(booking.getEndTime());
+        entry.setFacilityFee(booking.getFacilityFee());
+        entry.setCoachFee(booking.getCoachFee());
+        entry.setTotalFee(booking.getTotalFee());
+        Long id = waitlistDao.create(entry);
+        // Room may have opened since the booking was refused
+        schedulePromotion(booking.getFacilityId(), booking.getStartTime(), booking.getEndTime());
+        return id;
+    }
+
+    @Override
+    public Optional<Booking> rescheduleAfter(Long bookingId, LocalDateTime notBefore) {
+        Optional<? extends Booking> found = bookingDao.findFacilityBookingById(bookingId);
+        if (!found.isPresent()) found = bookingDao.findTrainingBookingById(bookingId);
+        Booking b = found.orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+        if (b.getStatus() != BookingStatus.CONFIRMED) throw new IllegalStateException("Only confirmed bookings can be rescheduled");
+        Facility facility = ensureFacilityAvailable(b.getFacilityId());
+        Long coachId = b.getCoachId();
+        List<CoachHours> hours = coachId == null || coachHoursDao == null ? List.of() : coachHoursDao.findByCoach(coachId);
+        Duration length = Duration.between(b.getStartTime(), b.getEndTime());
+        LocalDateTime oldStart = b.getStartTime();
+        LocalDateTime oldEnd = b.getEndTime();
+        ReentrantLock lock = occupancy.lockFor(facility.getId());
+        ReentrantLock coachLock = coachId == null ? null : coaches.lockFor(coachId);
+        lock.lock();
+        if (coachLock != null) coachLock.lock();
+        try {
+            // Out of the index while looking, so a slot overlapping its current one is not counted twice
+            occupancy.add(facility.getId(), oldStart, oldEnd, -1);
+            for (LocalDateTime start : candidates(b, notBefore)) {
+                LocalDateTime end = start.plus(length);
+                if (!hours.isEmpty() && hours.stream().noneMatch(h -> h.covers(start, end))) continue;
+                if (occupancy.peak(facility.getId(), start, end) >= facility.getCapacity()) continue;
+                if (coachId != null && !coachFreeBesides(b, start, end)) continue;
+                if (!bookingDao.moveWithinCapacity(bookingId, start, end)) {
+                    occupancy.invalidate(facility.getId(), start, end);
+                    if (coachId != null) coaches.invalidate(coachId);
+                    continue;
+                }
+                occupancy.add(facility.getId(), start, end, 1);
+                // Merged busy blocks cannot give the old slot back; reload them
+                if (coachId != null) coaches.invalidate(coachId);
+                UtilizationServiceImpl.released(bookingDao, facility.getId(), oldStart, oldEnd);
+                UtilizationServiceImpl.booked(bookingDao, facility.getId(), start, end);
+                b.setStartTime(start);
+                b.setEndTime(end);
+                schedulePromotion(facility.getId(), oldStart, oldEnd);
+                return Optional.of(b);
+            }
+            occupancy.add(facility.getId(), oldStart, oldEnd, 1);
+            return Optional.empty();
+        } finally {
+            if (coachLock != null) coachLock.unlock();
+            lock.unlock();
+        }
+    }
+
+    // The rest of notBefore's day in quarter hours, then the booking's own time on following days
+    private List<LocalDateTime> candidates(Booking b, LocalDateTime notBefore) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = notBefore.isBefore(now) ? now : notBefore;
+        LocalDateTime t = from.truncatedTo(ChronoUnit.HOURS);
+        while (t.isBefore(from)) t = t.plusMinutes(SLOT_MINUTES);
+        List<LocalDateTime> starts = new ArrayList<>();
+        LocalDate day = from.toLocalDate();
+        for (; t.toLocalDate().equals(day); t = t.plusMinutes(SLOT_MINUTES)) starts.add(t);
+        for (int i = 1; i <= rescheduleDays(); i++) starts.add(day.plusDays(i).atTime(b.getStartTime().toLocalTime()));
+        return starts;
+    }
+
+    // The coach index cannot tell the booking's own block from another; when the new slot overlaps
+    // the old one, ask the database without it
+    private boolean coachFreeBesides(Booking b, LocalDateTime start, LocalDateTime end) {
+        if (coaches.conflict(b.getCoachId(), start, end) == null) return true;
+        if (!start.isBefore(b.getEndTime()) || !end.isAfter(b.getStartTime())) return false;
+        return bookingDao.findByCoachAndRange(b.getCoachId(), start, end).stream()
+            .map(Booking.class::cast)
+            .noneMatch(o -> o.getStatus() == BookingStatus.CONFIRMED && !o.getId().equals(b.getId()));
+    }
+
+    private void schedulePromotion(Long facilityId, LocalDateTime from, LocalDateTime to) {
+        if (waitlistDao == null) return;
+        WaitlistServiceImpl.submit("facility " + facilityId + " " + from + " - " + to, () -> promote(facilityId, from, to));
+    }
+
+    /**
+     * Books waiters whose slot overlaps [from, to) in request order, skipping any that still do not
+     * fit. Each promotion goes into the occupancy index before the next waiter is checked, so one
+     * pass fills a freed two-hour window with as many one-hour waiters as it has room for. Waiters
+     * for training whose coach has been booked elsewhere in the meantime are skipped too.
+     */
+    private void promote(Long facilityId, LocalDateTime from, LocalDateTime to) {
+        Facility facility = facilityDao.findById(facilityId).orElse(null);
+        if (facility == null || facility.getStatus() != FacilityStatus.AVAILABLE) return;
+        List<WaitlistEntry> waiting = waitlistDao.findWaitingForFacility(facilityId, from, to);
+        if (waiting.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        ReentrantLock lock = occupancy.lockFor(facilityId);
+        lock.lock();
+        try {
+            for (WaitlistEntry w : waiting) {
+                if (!w.getStartTime().isAfter(now)) {
+                    waitlistDao.close(w.getId(), WaitlistStatus.EXPIRED);
+                    continue;
+                }
+                if (occupancy.peak(facilityId, w.getStartTime(), w.getEndTime()) >= facility.getCapacity()) continue;
+                ReentrantLock coachLock = w.getCoachId() == null ? null : coaches.lockFor(w.getCoachId());
+                if (coachLock != null) coachLock.lock();
+                Long bookingId;
+                try {
+                    if (coachLock != null && coaches.conflict(w.getCoachId(), w.getStartTime(), w.getEndTime()) != null) continue;
+                    bookingId = waitlistDao.promoteToBooking(w);
+                    if (bookingId == null) {
+                        // Full after all (or the member withdrew); the indexes missed something, reload them
+                        occupancy.invalidate(facilityId, w.getStartTime(), w.getEndTime());
+                        if (coachLock != null) coaches.invalidate(w.getCoachId());
+                        continue;
+                    }
+                    occupancy.add(facilityId, w.getStartTime(), w.getEndTime(), 1);
+                    UtilizationServiceImpl.booked(bookingDao, facilityId, w.getStartTime(), w.getEndTime());
+                    if (coachLock != null) coaches.add(w.getCoachId(), w.getStartTime(), w.getEndTime());
+                } finally {
+                    if (coachLock != null) coachLock.unlock();
+                }
+                w.setStatus(WaitlistStatus.PROMOTED);
+                w.setBookingId(bookingId);
+                WaitlistServiceImpl.promoted(w);
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
@@ -48,18 +416,89 @@ public class BookingServiceImpl implements BookingService {
         if (!end.isAfter(start)) throw new IllegalArgumentException("End time must be after start time");
     }
 
-    private void ensureFacilityAvailable(Long facilityId) {
+    private Facility ensureFacilityAvailable(Long facilityId) {
         Facility f = facilityDao.findById(facilityId).orElseThrow(() -> new IllegalArgumentException("Facility not found"));
         if (f.getStatus() != FacilityStatus.AVAILABLE) {
             throw new IllegalStateException("Facility not available");
         }
+        return f;
+    }
+
+    private void ensureCapacity(Facility facility, LocalDateTime start, LocalDateTime end) {
+        int peak = occupancy.peak(facility.getId(), start, end);
+        if (peak >= OccupancyIndex.CLOSED) {
+            MaintenanceRequest window = occupancy.closure(facility.getId(), start, end);
+            if (window != null) throw closed(window);
+        }
+        if (peak >= facility.getCapacity()) throw conflict(facility);
+    }
+
+    // The same for a class, which takes places at once
+    private void ensurePlaces(Facility facility, LocalDateTime start, LocalDateTime end, int places) {
+        int peak = occupancy.peak(facility.getId(), start, end);
+        if (peak >= OccupancyIndex.CLOSED) {
+            MaintenanceRequest window = occupancy.closure(facility.getId(), start, end);
+            if (window != null) throw closed(window);
+        }
+        if (peak + places > facility.getCapacity()) {
+            throw new SlotFullException("Only " + Math.max(0, facility.getCapacity() - peak) + " of the facility's "
+                + facility.getCapacity() + " places are free for this time range");
+        }
     }
 
-    private void ensureNoOverlap(Long facilityId, LocalDateTime start, LocalDateTime end) {
-        if (bookingDao.existsOverlap(facilityId, start, end)) {
-            throw new IllegalStateException("Overlapping booking exists for this facility and time range");
+    private void ensureCoachFree(Long coachId, LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> busy = coaches.conflict(coachId, start, end);
+        if (busy != null) {
+            throw new IllegalStateException("Coach is already booked from " + busy.getKey().format(HH_MM)
+                + " to " + busy.getValue().format(HH_MM) + " on " + busy.getKey().toLocalDate());
         }
     }
+
+    // A coach without working hours can be booked at any time
+    private void ensureWithinHours(Long coachId, LocalDateTime start, LocalDateTime end) {
+        if (coachHoursDao == null) return;
+        List<CoachHours> hours = coachHoursDao.findByCoach(coachId);
+        if (hours.isEmpty() || hours.stream().anyMatch(h -> h.covers(start, end))) return;
+        String today = hours.stream()
+            .filter(h -> h.getDayOfWeek() == start.getDayOfWeek())
+            .map(h -> h.getStartTime().format(HH_MM) + "-" + h.getEndTime().format(HH_MM))
+            .collect(Collectors.joining(", "));
+        throw new IllegalStateException(today.isEmpty()
+            ? "The coach does not work on " + start.getDayOfWeek()
+            : "Outside the coach's working hours on " + start.getDayOfWeek() + " (" + today + ")");
+    }
+
+    private static IllegalStateException closed(MaintenanceRequest window) {
+        return new IllegalStateException("Facility is closed for maintenance from " + DateTimeUtil.formatDateTime(window.getWindowStart())
+            + " to " + DateTimeUtil.formatDateTime(window.getWindowEnd()) + " (" + window.getTitle() + ")");
+    }
+
+    private static SlotFullException conflict(Facility facility) {
+        if (facility.getCapacity() <= 1) {
+            return new SlotFullException("Overlapping booking exists for this facility and time range");
+        }
+        return new SlotFullException("Facility is full for this time range (capacity " + facility.getCapacity() + ")");
+    }
+
+    private static long occupancyTtlMillis() {
+        return ConfigLoader.getDuration("booking.occupancy.ttl", Duration.ofSeconds(30)).toMillis();
+    }
+
+    private static int occupancyMaxDays() {
+        return ConfigLoader.getInt("booking.occupancy.max.days", 512);
+    }
+
+    private static int coachHorizonDays() {
+        return ConfigLoader.getInt("booking.coach.horizon.days", 90);
+    }
+
+    private static int coachMaxSchedules() {
+        return ConfigLoader.getInt("booking.coach.max.schedules", 1024);
+    }
+
+    private static int rescheduleDays() {
+        return ConfigLoader.getInt("maintenance.reschedule.days", 7);
+    }
 }
 
 
@@ -0,0 +1,158 @@
+package service.impl;
+
+import dao.BookingDao;
+import dao.GroupClassDao;
+import model.Booking;
+import model.BookingStatus;
+import model.GroupClass;
+import monitoring.CacheStats;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Each coach's confirmed bookings (and, once {@link #classesFrom} has been called, the scheduled
+ * group classes they teach) over the coming weeks, merged into disjoint busy blocks in a
+ * {@link TreeMap} keyed by start. Since the blocks never overlap, the only one that can overlap
+ * [start, end) is the last one starting before end, so a conflict check is one O(log n) lookup
+ * however full the coach's calendar is.
+ *
+ * A coach's schedule is loaded from the DAO (through idx_bookings_coach_time) the first time it is
+ * needed and again once older than the TTL. Merged blocks cannot give a single booking back, so a
+ * cancellation drops the coach's schedule and the next check reloads it. Callers hold the coach's
+ * lock (see {@link #lockFor}) around every read and update of that coach's schedule; when they
+ * also hold a facility lock from {@link OccupancyIndex}, the facility lock is taken first.
+ */
+final class CoachScheduleIndex {
+    /** Busy blocks from {@code from} to {@code to}, start -> end. */
+    static final class Schedule {
+        final TreeMap<LocalDateTime, LocalDateTime> busy = new TreeMap<>();
+        final LocalDateTime from;
+        final LocalDateTime to;
+        final long loadedAt = System.nanoTime();
+
+        Schedule(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean covers(LocalDateTime start, LocalDateTime end) {
+            return !start.isBefore(from) && !end.isAfter(to);
+        }
+
+        /** The busy block overlapping [start, end), or null. */
+        Map.Entry<LocalDateTime, LocalDateTime> overlap(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> block = busy.lowerEntry(end);
+            return block != null && block.getValue().isAfter(start) ? block : null;
+        }
+
+        /** Marks [start, end) busy, merging it with every block it overlaps or touches. */
+        void add(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> before = busy.floorEntry(start);
+            if (before != null && !before.getValue().isBefore(start)) start = before.getKey();
+            Map.Entry<LocalDateTime, LocalDateTime> next;
+            while ((next = busy.ceilingEntry(start)) != null && !next.getKey().isAfter(end)) {
+                if (next.getValue().isAfter(end)) end = next.getValue();
+                busy.remove(next.getKey());
+            }
+            busy.put(start, end);
+        }
+    }
+
+    private final BookingDao bookingDao;
+    private final Map<Long, Schedule> schedules = new ConcurrentHashMap<>();
+    private final Map<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private final CacheStats stats = CacheStats.named("coach_schedule");
+    private volatile GroupClassDao groupClassDao;
+    private volatile long ttlNanos;
+    private volatile int horizonDays;
+    private volatile int maxCoaches;
+
+    CoachScheduleIndex(BookingDao bookingDao, long ttlMillis, int horizonDays, int maxCoaches) {
+        this.bookingDao = bookingDao;
+        configure(ttlMillis, horizonDays, maxCoaches);
+        stats.sizeFrom(schedules::size);
+    }
+
+    void configure(long ttlMillis, int horizonDays, int maxCoaches) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.horizonDays = Math.max(1, horizonDays);
+        this.maxCoaches = Math.max(8, maxCoaches);
+    }
+
+    /** Counts the classes a coach teaches as busy from now on; loaded schedules are dropped. */
+    void classesFrom(GroupClassDao groupClassDao) {
+        if (this.groupClassDao == groupClassDao) return;
+        this.groupClassDao = groupClassDao;
+        schedules.clear();
+    }
+
+    ReentrantLock lockFor(long coachId) {
+        return locks.computeIfAbsent(coachId, id -> new ReentrantLock());
+    }
+
+    /**
+     * The coach's busy block overlapping [start, end), or null when the coach is free. Intervals
+     * beyond the loaded horizon are answered straight from the database.
+     */
+    Map.Entry<LocalDateTime, LocalDateTime> conflict(long coachId, LocalDateTime start, LocalDateTime end) {
+        Schedule schedule = schedule(coachId);
+        if (schedule.covers(start, end)) return schedule.overlap(start, end);
+        Schedule once = new Schedule(start, end);
+        load(once, coachId);
+        return once.overlap(start, end);
+    }
+
+    /** Records a new confirmed booking or class in the coach's schedule, if it is loaded. */
+    void add(long coachId, LocalDateTime start, LocalDateTime end) {
+        Schedule schedule = schedules.get(coachId);
+        if (schedule != null) schedule.add(start, end);
+    }
+
+    /** Drops the coach's schedule, after a cancellation or when the database disagreed with it. */
+    void invalidate(long coachId) {
+        schedules.remove(coachId);
+    }
+
+    private Schedule schedule(long coachId) {
+        Schedule schedule = schedules.get(coachId);
+        if (schedule != null && System.nanoTime() - schedule.loadedAt < ttlNanos) {
+            stats.hit();
+            return schedule;
+        }
+        stats.miss();
+        // From yesterday, so a booking running past midnight still counts
+        LocalDateTime from = LocalDate.now().minusDays(1).atStartOfDay();
+        schedule = new Schedule(from, from.plusDays(horizonDays + 1));
+        load(schedule, coachId);
+        if (schedules.size() >= maxCoaches) evict();
+        schedules.put(coachId, schedule);
+        return schedule;
+    }
+
+    private void load(Schedule schedule, long coachId) {
+        for (Object o : bookingDao.findByCoachAndRange(coachId, schedule.from, schedule.to)) {
+            Booking b = (Booking) o;
+            if (b.getStatus() == BookingStatus.CONFIRMED) schedule.add(b.getStartTime(), b.getEndTime());
+        }
+        GroupClassDao classes = groupClassDao;
+        if (classes != null) {
+            for (GroupClass g : classes.findScheduledByCoach(coachId, schedule.from, schedule.to)) schedule.add(g.getStartTime(), g.getEndTime());
+        }
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        schedules.values().removeIf(s -> now - s.loadedAt >= ttlNanos);
+        Iterator<Long> it = schedules.keySet().iterator();
+        while (schedules.size() >= maxCoaches && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
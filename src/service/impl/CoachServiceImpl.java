@@ -0,0 +1,49 @@
+package service.impl;
+
+import dao.CoachHoursDao;
+import dao.UserDao;
+import model.CoachHours;
+import model.Role;
+import model.User;
+import service.CoachService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class CoachServiceImpl implements CoachService {
+    private final UserDao userDao;
+    private final CoachHoursDao coachHoursDao;
+
+    public CoachServiceImpl(UserDao userDao, CoachHoursDao coachHoursDao) {
+        this.userDao = userDao;
+        this.coachHoursDao = coachHoursDao;
+    }
+
+    @Override
+    public List<CoachHours> getHours(Long coachId) {
+        return coachHoursDao.findByCoach(coachId);
+    }
+
+    @Override
+    public void setHours(Long coachId, List<CoachHours> hours) {
+        User coach = coachId == null ? null : userDao.findById(coachId).orElse(null);
+        if (coach == null || coach.getRole() != Role.COACH) throw new IllegalArgumentException("Coach not found");
+        List<CoachHours> sorted = new ArrayList<>(hours);
+        for (CoachHours h : sorted) {
+            if (h.getDayOfWeek() == null || h.getStartTime() == null || h.getEndTime() == null) {
+                throw new IllegalArgumentException("Day, start and end required");
+            }
+            if (!h.getEndTime().isAfter(h.getStartTime())) throw new IllegalArgumentException("End time must be after start time");
+        }
+        sorted.sort(Comparator.comparing(CoachHours::getDayOfWeek).thenComparing(CoachHours::getStartTime));
+        for (int i = 1; i < sorted.size(); i++) {
+            CoachHours prev = sorted.get(i - 1);
+            CoachHours h = sorted.get(i);
+            if (prev.getDayOfWeek() == h.getDayOfWeek() && h.getStartTime().isBefore(prev.getEndTime())) {
+                throw new IllegalArgumentException("Working hours overlap on " + h.getDayOfWeek());
+            }
+        }
+        coachHoursDao.replace(coachId, sorted);
+    }
+}
@@ -0,0 +1,160 @@
+package service.impl;
+
+import config.ConfigLoader;
+import dao.BookingDao;
+import dao.FacilityDao;
+import model.DemandSeries;
+import model.Facility;
+import service.DemandForecastService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Forecasts from a {@link HoltWinters} model per facility, fitted on hourly demand rolled up from
+ * the confirmed bookings of the last forecast.history.days whole days. The first forecast after
+ * midnight rolls the days since the last one into the kept rollups (scanning only those days'
+ * bookings), drops the days that fell out of the window and refits every facility in parallel
+ * from the rollups, so history is read from the database once per process. A booking changed
+ * after its day was rolled up is only seen after a restart.
+ */
+public class DemandForecastServiceImpl implements DemandForecastService {
+    // One set of rollups and models per DAO, shared like the other analytics snapshots
+    private static final SnapshotCache<Models> MODELS = new SnapshotCache<>("demand_forecast", Models::bytes);
+
+    private final BookingDao bookingDao;
+    private final FacilityDao facilityDao;
+
+    public DemandForecastServiceImpl(BookingDao bookingDao, FacilityDao facilityDao) {
+        this.bookingDao = bookingDao;
+        this.facilityDao = facilityDao;
+    }
+
+    @Override
+    public DemandSeries history(Long facilityId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        facilityDao.findById(facilityId).orElseThrow(() -> new IllegalArgumentException("Facility not found"));
+        Models models = models();
+        LocalDate f = from.isBefore(models.from) ? models.from : from;
+        LocalDate t = to.isAfter(models.to) ? models.to : to;
+        if (!t.isAfter(f)) return new DemandSeries(facilityId, f.atStartOfDay(), new double[0], false);
+        double[] kept = models.hourly.get(facilityId);
+        double[] hours = new double[(int) (t.toEpochDay() - f.toEpochDay()) * 24];
+        if (kept != null) System.arraycopy(kept, (int) (f.toEpochDay() - models.from.toEpochDay()) * 24, hours, 0, hours.length);
+        return new DemandSeries(facilityId, f.atStartOfDay(), hours, false);
+    }
+
+    @Override
+    public DemandSeries forecast(Long facilityId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        facilityDao.findById(facilityId).orElseThrow(() -> new IllegalArgumentException("Facility not found"));
+        Models models = models();
+        if (from.isBefore(models.to)) throw new IllegalArgumentException("Forecasts start from " + models.to);
+        int horizon = Math.max(1, horizonDays());
+        if (to.isAfter(models.to.plusDays(horizon))) throw new IllegalArgumentException("Forecasts only reach " + horizon + " days ahead");
+        double[] hours = new double[(int) (to.toEpochDay() - from.toEpochDay()) * 24];
+        HoltWinters model = models.fits.get(facilityId);
+        // A facility added since the last fit has no history, and so no expected demand yet
+        if (model != null) {
+            int offset = (int) (from.toEpochDay() - models.to.toEpochDay()) * 24;
+            int firstHour = hourOfWeek(from);
+            for (int i = 0; i < hours.length; i++) hours[i] = model.forecast(offset + i + 1, (firstHour + i) % HoltWinters.SEASON);
+        }
+        return new DemandSeries(facilityId, from.atStartOfDay(), hours, true);
+    }
+
+    @Override
+    public double forecastError(Long facilityId) {
+        HoltWinters model = models().fits.get(facilityId);
+        return model == null ? 0 : model.rmse();
+    }
+
+    // Refitted on the first call of each day, from the previous day's rollups
+    private Models models() {
+        LocalDate today = LocalDate.now();
+        return MODELS.get(bookingDao, m -> m.to.equals(today),
+            previous -> Models.roll(previous, bookingDao, facilityDao, today.minusDays(Math.max(14, historyDays())), today));
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) throw new IllegalArgumentException("Date range required");
+        if (!to.isAfter(from)) throw new IllegalArgumentException("End date must be after start date");
+    }
+
+    private static int hourOfWeek(LocalDate day) {
+        return day.getDayOfWeek().ordinal() * 24;
+    }
+
+    private static int historyDays() {
+        return ConfigLoader.getInt("forecast.history.days", 84);
+    }
+
+    private static int horizonDays() {
+        return ConfigLoader.getInt("forecast.horizon.days", 28);
+    }
+
+    /** Hourly rollups per facility over days [from, to), and the models fitted on them. Read-only once built. */
+    private static final class Models {
+        final LocalDate from;
+        final LocalDate to;
+        final Map<Long, double[]> hourly;
+        final Map<Long, HoltWinters> fits;
+
+        private Models(LocalDate from, LocalDate to, Map<Long, double[]> hourly) {
+            this.from = from;
+            this.to = to;
+            this.hourly = hourly;
+            this.fits = hourly.entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> HoltWinters.fit(e.getValue(), hourOfWeek(from))));
+        }
+
+        /**
+         * Rollups for [from, to), keeping the days previous already has and scanning the rest;
+         * everything is scanned when there is no previous or it does not reach back far enough.
+         */
+        static Models roll(Models previous, BookingDao bookingDao, FacilityDao facilityDao, LocalDate from, LocalDate to) {
+            int hours = (int) (to.toEpochDay() - from.toEpochDay()) * 24;
+            boolean reuse = previous != null && !from.isBefore(previous.from) && !previous.to.isAfter(to) && previous.to.isAfter(from);
+            LocalDate scanFrom = reuse ? previous.to : from;
+            Map<Long, double[]> hourly = new HashMap<>();
+            Function<Long, double[]> newRow = id -> new double[hours];
+            for (Facility f : facilityDao.findAll()) hourly.computeIfAbsent(f.getId(), newRow);
+            if (reuse) {
+                int skip = (int) (from.toEpochDay() - previous.from.toEpochDay()) * 24;
+                int keep = (int) (previous.to.toEpochDay() - from.toEpochDay()) * 24;
+                for (Map.Entry<Long, double[]> e : previous.hourly.entrySet()) {
+                    System.arraycopy(e.getValue(), skip, hourly.computeIfAbsent(e.getKey(), newRow), 0, keep);
+                }
+            }
+            LocalDateTime windowStart = from.atStartOfDay();
+            LocalDateTime scanStart = scanFrom.atStartOfDay();
+            LocalDateTime scanEnd = to.atStartOfDay();
+            if (scanStart.isBefore(scanEnd)) {
+                bookingDao.scanConfirmed(scanStart, scanEnd, (facilityId, start, end) ->
+                    addBooked(hourly.computeIfAbsent(facilityId, newRow), windowStart,
+                        start.isBefore(scanStart) ? scanStart : start, end.isAfter(scanEnd) ? scanEnd : end));
+            }
+            return new Models(from, to, hourly);
+        }
+
+        // Spreads [start, end) over the hours it touches, in fractions of an hour
+        private static void addBooked(double[] row, LocalDateTime windowStart, LocalDateTime start, LocalDateTime end) {
+            long s = Duration.between(windowStart, start).getSeconds();
+            long e = Duration.between(windowStart, end).getSeconds();
+            for (long hour = s / 3600; hour * 3600 < e && hour < row.length; hour++) {
+                long overlap = Math.min(e, (hour + 1) * 3600) - Math.max(s, hour * 3600);
+                if (overlap > 0) row[(int) hour] += overlap / 3600.0;
+            }
+        }
+
+        long bytes() {
+            return (long) hourly.size() * (to.toEpochDay() - from.toEpochDay()) * 24 * Double.BYTES
+                + (long) fits.size() * HoltWinters.SEASON * Double.BYTES;
+        }
+    }
+}
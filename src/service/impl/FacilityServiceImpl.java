@@ -46,6 +46,7 @@ public class FacilityServiceImpl implements FacilityService {
         if (f.getName() == null || f.getName().trim().isEmpty()) throw new IllegalArgumentException("Name required");
         if (f.getHourlyRate() < 0) throw new IllegalArgumentException("Hourly rate must be >= 0");
         if (f.getStatus() == null) throw new IllegalArgumentException("Status required");
+        if (f.getCapacity() < 1) throw new IllegalArgumentException("Capacity must be >= 1");
     }
 }
 
@@ -0,0 +1,266 @@
+package service.impl;
+
+import config.ConfigLoader;
+import dao.DataAccessException;
+import dao.FacilityDao;
+import dao.GroupClassDao;
+import dao.UserDao;
+import dao.WaitlistDao;
+import model.*;
+import service.GroupClassService;
+import service.SlotFullException;
+import util.SeatCounter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Schedules group classes and enrolls members into them. Each class's free seats are counted by a
+ * {@link SeatCounter}, so members are claimed a seat with a compare-and-set and a full class turns
+ * them away without a database round trip or any lock. A claimed seat is then confirmed by
+ * {@link GroupClassDao#enroll}, whose conditional update is the authority: if it finds the class
+ * full (seats taken at another terminal), the counter is reloaded from the database.
+ *
+ * With a {@link WaitlistDao}, every seat given up queues a promotion pass for the class's
+ * waitlist (see {@link WaitlistServiceImpl}).
+ *
+ * Given the application's {@link BookingServiceImpl}, a new class is admitted by it like a booking
+ * holding one place per seat: it must fit the facility's capacity alongside the bookings and
+ * classes already there and outside maintenance windows, and its coach must be working and not
+ * booked or teaching at the time. Pass the booking service wired with the coach-hours and
+ * maintenance DAOs, or those checks are skipped.
+ */
+public class GroupClassServiceImpl implements GroupClassService {
+    private static final int MAX_COUNTERS = 4096;
+
+    /** A class's seat counter as of loadedAt, with what enrollment needs to know about the class. */
+    private static final class Seats {
+        final SeatCounter counter;
+        final GroupClassStatus status;
+        final LocalDateTime startTime;
+        final long loadedAt = System.nanoTime();
+
+        Seats(GroupClass g) {
+            this.counter = new SeatCounter(g.getCapacity(), g.getSeatsTaken());
+            this.status = g.getStatus();
+            this.startTime = g.getStartTime();
+        }
+    }
+
+    // One set of counters per DAO, shared by every service instance (each screen creates its own)
+    private static final Map<GroupClassDao, Map<Long, Seats>> COUNTERS = new ConcurrentHashMap<>();
+
+    private final GroupClassDao groupClassDao;
+    private final FacilityDao facilityDao;
+    private final UserDao userDao;
+    private final WaitlistDao waitlistDao;
+    private final BookingServiceImpl bookings;
+    private final Map<Long, Seats> seats;
+
+    public GroupClassServiceImpl(GroupClassDao groupClassDao, FacilityDao facilityDao, UserDao userDao) {
+        this(groupClassDao, facilityDao, userDao, null);
+    }
+
+    public GroupClassServiceImpl(GroupClassDao groupClassDao, FacilityDao facilityDao, UserDao userDao, WaitlistDao waitlistDao) {
+        this(groupClassDao, facilityDao, userDao, waitlistDao, null);
+    }
+
+    public GroupClassServiceImpl(GroupClassDao groupClassDao, FacilityDao facilityDao, UserDao userDao, WaitlistDao waitlistDao,
+                                 BookingServiceImpl bookings) {
+        this.groupClassDao = groupClassDao;
+        this.facilityDao = facilityDao;
+        this.userDao = userDao;
+        this.waitlistDao = waitlistDao;
+        this.seats = COUNTERS.computeIfAbsent(groupClassDao, dao -> new ConcurrentHashMap<>());
+        this.bookings = bookings;
+        if (bookings != null) bookings.classesFrom(groupClassDao);
+    }
+
+    @Override
+    public Long schedule(GroupClass groupClass) {
+        validate(groupClass);
+        groupClass.setStatus(GroupClassStatus.SCHEDULED);
+        if (bookings == null) return groupClassDao.create(groupClass);
+        return bookings.admitClass(groupClass, groupClassDao);
+    }
+
+    @Override
+    public void cancelClass(Long classId) {
+        GroupClass g = groupClassDao.findById(classId).orElseThrow(() -> new IllegalArgumentException("Class not found"));
+        if (g.getStatus() == GroupClassStatus.CANCELLED) return;
+        groupClassDao.updateStatus(classId, GroupClassStatus.CANCELLED);
+        seats.remove(classId);
+        if (bookings != null) bookings.classCancelled(g);
+        if (waitlistDao != null) {
+            for (WaitlistEntry w : waitlistDao.findWaitingForClass(classId)) waitlistDao.close(w.getId(), WaitlistStatus.EXPIRED);
+        }
+    }
+
+    @Override
+    public Optional<GroupClass> get(Long classId) { return groupClassDao.findById(classId); }
+
+    @Override
+    public List<GroupClass> listBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) throw new IllegalArgumentException("From and to required");
+        return groupClassDao.findByRange(from, to);
+    }
+
+    @Override
+    public Long enroll(Long classId, Long memberId) {
+        if (classId == null) throw new IllegalArgumentException("Class required");
+        User member = userDao.findById(memberId).orElseThrow(() -> new IllegalArgumentException("Member not found"));
+        if (member.getRole() != Role.MEMBER) throw new IllegalArgumentException("Only members can enroll in classes");
+
+        Seats s = seatsOf(classId);
+        if (s.status != GroupClassStatus.SCHEDULED) throw new IllegalStateException("Class has been cancelled");
+        if (!s.startTime.isAfter(LocalDateTime.now())) throw new IllegalArgumentException("This class has already started");
+        if (!s.counter.tryAcquire()) throw full(s);
+        Long id;
+        try {
+            id = groupClassDao.enroll(classId, memberId);
+        } catch (DataAccessException e) {
+            s.counter.release();
+            if (e.isConstraintViolation()) throw new IllegalStateException("Already enrolled in this class");
+            throw e;
+        } catch (RuntimeException e) {
+            s.counter.release();
+            throw e;
+        }
+        if (id == null) {
+            // The database had fewer seats than the counter: taken at another terminal, or the
+            // class was cancelled there or started meanwhile. Start over from the database's count.
+            seats.remove(classId, s);
+            Seats fresh = seatsOf(classId);
+            if (fresh.status != GroupClassStatus.SCHEDULED) throw new IllegalStateException("Class has been cancelled");
+            if (!fresh.startTime.isAfter(LocalDateTime.now())) throw new IllegalArgumentException("This class has already started");
+            throw full(fresh);
+        }
+        return id;
+    }
+
+    @Override
+    public void leave(Long classId, Long memberId) {
+        if (!groupClassDao.unenroll(classId, memberId)) throw new IllegalArgumentException("Not enrolled in this class");
+        Seats s = seats.get(classId);
+        if (s != null) s.counter.release();
+        schedulePromotion(classId);
+    }
+
+    @Override
+    public Long joinWaitlist(Long classId, Long memberId) {
+        if (waitlistDao == null) throw new IllegalStateException("Waitlist not available");
+        User member = userDao.findById(memberId).orElseThrow(() -> new IllegalArgumentException("Member not found"));
+        if (member.getRole() != Role.MEMBER) throw new IllegalArgumentException("Only members can enroll in classes");
+        GroupClass g = groupClassDao.findById(classId).orElseThrow(() -> new IllegalArgumentException("Class not found"));
+        if (g.getStatus() != GroupClassStatus.SCHEDULED) throw new IllegalStateException("Class has been cancelled");
+        if (!g.getStartTime().isAfter(LocalDateTime.now())) throw new IllegalArgumentException("This class has already started");
+        if (groupClassDao.findEnrollments(classId).stream().anyMatch(e -> memberId.equals(e.getMemberId()))) {
+            throw new IllegalStateException("Already enrolled in this class");
+        }
+        if (waitlistDao.findWaitingForClass(classId).stream().anyMatch(w -> memberId.equals(w.getMemberId()))) {
+            throw new IllegalStateException("Already on the waitlist for this class");
+        }
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setMemberId(memberId);
+        entry.setClassId(classId);
+        entry.setFacilityId(g.getFacilityId());
+        entry.setCoachId(g.getCoachId());
+        entry.setStartTime(g.getStartTime());
+        entry.setEndTime(g.getEndTime());
+        entry.setTotalFee(g.getFee());
+        Long id = waitlistDao.create(entry);
+        // A seat may have opened since the enrollment was refused
+        schedulePromotion(classId);
+        return id;
+    }
+
+    private void schedulePromotion(Long classId) {
+        if (waitlistDao == null) return;
+        WaitlistServiceImpl.submit("class " + classId, () -> promote(classId));
+    }
+
+    // Enrolls waiters in request order while the counter has seats; the first one the database
+    // turns away for lack of a seat ends the pass
+    private void promote(Long classId) {
+        List<WaitlistEntry> waiting = waitlistDao.findWaitingForClass(classId);
+        if (waiting.isEmpty()) return;
+        GroupClass g = groupClassDao.findById(classId).orElse(null);
+        if (g == null || g.getStatus() != GroupClassStatus.SCHEDULED || !g.getStartTime().isAfter(LocalDateTime.now())) {
+            for (WaitlistEntry w : waiting) waitlistDao.close(w.getId(), WaitlistStatus.EXPIRED);
+            return;
+        }
+        Seats s = seatsOf(classId);
+        for (WaitlistEntry w : waiting) {
+            if (!s.counter.tryAcquire()) return;
+            Long enrollmentId;
+            try {
+                enrollmentId = waitlistDao.promoteToEnrollment(w);
+            } catch (DataAccessException e) {
+                s.counter.release();
+                if (!e.isConstraintViolation()) throw e;
+                // Enrolled directly in the meantime; nothing left to wait for
+                waitlistDao.close(w.getId(), WaitlistStatus.CANCELLED);
+                continue;
+            }
+            if (enrollmentId == null) {
+                s.counter.release();
+                boolean stillWaiting = waitlistDao.findById(w.getId()).map(e -> e.getStatus() == WaitlistStatus.WAITING).orElse(false);
+                if (!stillWaiting) continue;
+                seats.remove(classId, s);
+                return;
+            }
+            w.setStatus(WaitlistStatus.PROMOTED);
+            w.setEnrollmentId(enrollmentId);
+            WaitlistServiceImpl.promoted(w);
+        }
+    }
+
+    @Override
+    public List<ClassEnrollment> enrollments(Long classId) { return groupClassDao.findEnrollments(classId); }
+
+    @Override
+    public List<ClassEnrollment> enrollmentsOf(Long memberId) { return groupClassDao.findEnrollmentsByMember(memberId); }
+
+    // The class's counter, loaded the first time and again once older than classes.seat.ttl
+    private Seats seatsOf(Long classId) {
+        long ttl = ConfigLoader.getDuration("classes.seat.ttl", Duration.ofSeconds(30)).toNanos();
+        Seats s = seats.get(classId);
+        if (s != null && System.nanoTime() - s.loadedAt < ttl) return s;
+        GroupClass g = groupClassDao.findById(classId).orElseThrow(() -> new IllegalArgumentException("Class not found"));
+        Seats loaded = new Seats(g);
+        if (seats.size() >= MAX_COUNTERS) {
+            long now = System.nanoTime();
+            seats.values().removeIf(old -> now - old.loadedAt >= ttl);
+        }
+        // Whoever reloads first wins; everyone else claims seats from that same counter
+        if (s == null) {
+            Seats raced = seats.putIfAbsent(classId, loaded);
+            return raced == null ? loaded : raced;
+        }
+        return seats.replace(classId, s, loaded) ? loaded : seats.getOrDefault(classId, loaded);
+    }
+
+    private void validate(GroupClass g) {
+        if (g.getTitle() == null || g.getTitle().trim().isEmpty()) throw new IllegalArgumentException("Title required");
+        if (g.getStartTime() == null || g.getEndTime() == null) throw new IllegalArgumentException("Start and end required");
+        if (!g.getEndTime().isAfter(g.getStartTime())) throw new IllegalArgumentException("End time must be after start time");
+        if (g.getFee() < 0) throw new IllegalArgumentException("Fee must be >= 0");
+        if (g.getCapacity() < 1) throw new IllegalArgumentException("Capacity must be >= 1");
+        User coach = g.getCoachId() == null ? null : userDao.findById(g.getCoachId()).orElse(null);
+        if (coach == null || coach.getRole() != Role.COACH) throw new IllegalArgumentException("Coach not found");
+        Facility f = g.getFacilityId() == null ? null : facilityDao.findById(g.getFacilityId()).orElse(null);
+        if (f == null) throw new IllegalArgumentException("Facility not found");
+        if (f.getStatus() != FacilityStatus.AVAILABLE) throw new IllegalStateException("Facility not available");
+        if (g.getCapacity() > f.getCapacity()) {
+            throw new IllegalArgumentException("Capacity exceeds the facility's capacity (" + f.getCapacity() + ")");
+        }
+    }
+
+    private static SlotFullException full(Seats s) {
+        return new SlotFullException("Class is full (" + s.counter.getCapacity() + " seats)");
+    }
+}
@@ -0,0 +1,91 @@
+package service.impl;
+
+/**
+ * Additive Holt-Winters smoothing with a damped trend and a weekly season of 168 hours: demand in
+ * an hour is a level, plus a trend that flattens out over the horizon, plus what that hour of the
+ * week usually adds or takes away. Seasonal terms are indexed by hour of the week (Monday 00:00 is
+ * 0), so a series may start on any hour.
+ *
+ * {@link #fit} tries a small grid of smoothing constants and keeps the one with the smallest
+ * one-step-ahead squared error. After fitting, {@link #update} takes further hours one at a time.
+ */
+final class HoltWinters {
+    static final int SEASON = 7 * 24;
+    // Trend damping: the trend's effect levels off at about 50 hours' worth
+    private static final double PHI = 0.98;
+    private static final double[] ALPHAS = {0.02, 0.05, 0.1, 0.2, 0.4};
+    private static final double[] BETAS = {0.0, 0.005, 0.02};
+    private static final double[] GAMMAS = {0.05, 0.1, 0.2, 0.3};
+
+    final double alpha;
+    final double beta;
+    final double gamma;
+    private double level;
+    private double trend;
+    private final double[] season = new double[SEASON];
+    private double squaredError;
+    private long observations;
+
+    private HoltWinters(double alpha, double beta, double gamma) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Fits hourly observations, the first at hour of the week firstHour. The first week only seeds
+     * the level and season, so at least two weeks are needed.
+     */
+    static HoltWinters fit(double[] series, int firstHour) {
+        if (series.length < 2 * SEASON) throw new IllegalArgumentException("At least two weeks of hourly demand are needed");
+        HoltWinters best = null;
+        for (double alpha : ALPHAS) {
+            for (double beta : BETAS) {
+                for (double gamma : GAMMAS) {
+                    HoltWinters candidate = new HoltWinters(alpha, beta, gamma);
+                    candidate.train(series, firstHour);
+                    if (best == null || candidate.squaredError < best.squaredError) best = candidate;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void train(double[] x, int firstHour) {
+        double firstWeek = mean(x, 0, SEASON);
+        double secondWeek = mean(x, SEASON, 2 * SEASON);
+        level = firstWeek;
+        trend = (secondWeek - firstWeek) / SEASON;
+        for (int i = 0; i < SEASON; i++) season[(firstHour + i) % SEASON] = x[i] - firstWeek;
+        for (int i = SEASON; i < x.length; i++) update(x[i], (firstHour + i) % SEASON);
+    }
+
+    /** Takes the next hour's demand, at the given hour of the week. */
+    void update(double x, int hourOfWeek) {
+        double expected = level + PHI * trend + season[hourOfWeek];
+        double error = x - expected;
+        squaredError += error * error;
+        observations++;
+        double previousLevel = level;
+        level = alpha * (x - season[hourOfWeek]) + (1 - alpha) * (level + PHI * trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * PHI * trend;
+        season[hourOfWeek] = gamma * (x - level) + (1 - gamma) * season[hourOfWeek];
+    }
+
+    /** Expected demand steps hours after the last observation (1 is the next hour), never below zero. */
+    double forecast(int steps, int hourOfWeek) {
+        double damped = PHI * (1 - Math.pow(PHI, steps)) / (1 - PHI);
+        return Math.max(0, level + damped * trend + season[hourOfWeek]);
+    }
+
+    /** Root mean squared one-step error over the fitted hours, in booked hours. */
+    double rmse() {
+        return observations == 0 ? 0 : Math.sqrt(squaredError / observations);
+    }
+
+    private static double mean(double[] x, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) sum += x[i];
+        return sum / (to - from);
+    }
+}
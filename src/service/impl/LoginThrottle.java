@@ -0,0 +1,77 @@
+package service.impl;
+
+import service.LoginThrottledException;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-account and per-terminal attempt budgets, checked before any database or hashing work.
+ * Buckets that have fully refilled are swept out periodically so the maps only hold keys
+ * that are actually being throttled.
+ */
+class LoginThrottle {
+    private static final int SWEEP_EVERY = 1024;
+
+    private final Map<String, TokenBucket> accounts = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> terminals = new ConcurrentHashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile int accountCapacity;
+    private volatile long accountRefillNanos;
+    private volatile int terminalCapacity;
+    private volatile long terminalRefillNanos;
+
+    LoginThrottle(int accountCapacity, long accountRefillMillis, int terminalCapacity, long terminalRefillMillis) {
+        configure(accountCapacity, accountRefillMillis, terminalCapacity, terminalRefillMillis);
+    }
+
+    /** New limits apply to buckets created from now on. */
+    void configure(int accountCapacity, long accountRefillMillis, int terminalCapacity, long terminalRefillMillis) {
+        this.accountCapacity = accountCapacity;
+        this.accountRefillNanos = TimeUnit.MILLISECONDS.toNanos(accountRefillMillis);
+        this.terminalCapacity = terminalCapacity;
+        this.terminalRefillNanos = TimeUnit.MILLISECONDS.toNanos(terminalRefillMillis);
+    }
+
+    void acquire(String email, String terminalId) {
+        long now = System.nanoTime();
+        if (calls.incrementAndGet() % SWEEP_EVERY == 0) sweep(now);
+
+        long wait = terminals.computeIfAbsent(terminalKey(terminalId), k -> new TokenBucket(terminalCapacity, terminalRefillNanos, now))
+            .tryAcquire(now);
+        if (wait > 0) {
+            throw new LoginThrottledException("Too many sign-in attempts from this terminal. Try again in " + seconds(wait) + "s.", TimeUnit.NANOSECONDS.toMillis(wait));
+        }
+        wait = accounts.computeIfAbsent(accountKey(email), k -> new TokenBucket(accountCapacity, accountRefillNanos, now))
+            .tryAcquire(now);
+        if (wait > 0) {
+            throw new LoginThrottledException("Too many sign-in attempts for this account. Try again in " + seconds(wait) + "s.", TimeUnit.NANOSECONDS.toMillis(wait));
+        }
+    }
+
+    /** A correct password clears the account's budget so the owner is not locked out by earlier typos. */
+    void succeeded(String email) {
+        TokenBucket b = accounts.get(accountKey(email));
+        if (b != null) b.reset(System.nanoTime());
+    }
+
+    private void sweep(long now) {
+        accounts.values().removeIf(b -> b.isIdle(now));
+        terminals.values().removeIf(b -> b.isIdle(now));
+    }
+
+    private static String accountKey(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String terminalKey(String terminalId) {
+        return terminalId == null ? "" : terminalId;
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999L));
+    }
+}
@@ -0,0 +1,219 @@
+package service.impl;
+
+import model.MaintenanceProposal;
+import model.MaintenanceRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Proposes maintenance windows with the least booking impact. Time is cut into 15-minute slots;
+ * each facility with requests to plan gets a row of the facility x slot occupancy matrix, built
+ * from its bookings over the history and the planning horizon. For every slot of the horizon the
+ * cost of closing it is the bookings already in it, then (to break ties) the average occupancy of
+ * the same slot of the week over the history. A window of n slots is placed at the start with the
+ * lowest cost summed over prefix sums, so each request is one pass over the horizon.
+ *
+ * Rows are independent, so they are built and searched in parallel with fork/join, one facility
+ * per task. Slots inside unresolved windows cost nothing, and so do windows proposed earlier in
+ * the same run: several requests at one facility may share a closure.
+ *
+ * Feed it with {@link #request}, then {@link #booking} and {@link #closed}, then call
+ * {@link #plan} once; it is not thread-safe while being fed.
+ */
+final class MaintenancePlanner {
+    static final int SLOT_MINUTES = 15;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int SLOTS_PER_WEEK = 7 * SLOTS_PER_DAY;
+
+    /** One facility's requests, and its bookings and closures as slot ranges [from, to). */
+    private static final class Row {
+        final long facilityId;
+        final List<MaintenanceRequest> requests = new ArrayList<>();
+        int[] bookings = new int[64];
+        int bookingCount;
+        int[] closures = new int[8];
+        int closureCount;
+
+        Row(long facilityId) {
+            this.facilityId = facilityId;
+        }
+
+        void addBooking(int from, int to) {
+            if (bookingCount + 2 > bookings.length) bookings = Arrays.copyOf(bookings, bookings.length * 2);
+            bookings[bookingCount++] = from;
+            bookings[bookingCount++] = to;
+        }
+
+        void addClosure(int from, int to) {
+            if (closureCount + 2 > closures.length) closures = Arrays.copyOf(closures, closures.length * 2);
+            closures[closureCount++] = from;
+            closures[closureCount++] = to;
+        }
+    }
+
+    private final class PlanTask extends RecursiveTask<List<MaintenanceProposal>> {
+        private final Row[] rows;
+        private final int lo;
+        private final int hi;
+
+        PlanTask(Row[] rows, int lo, int hi) {
+            this.rows = rows;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected List<MaintenanceProposal> compute() {
+            if (hi - lo == 1) return plan(rows[lo]);
+            int mid = (lo + hi) >>> 1;
+            PlanTask left = new PlanTask(rows, lo, mid);
+            left.fork();
+            List<MaintenanceProposal> result = new PlanTask(rows, mid, hi).compute();
+            result.addAll(left.join());
+            return result;
+        }
+    }
+
+    // Slot 0 is midnight of the first history day
+    private final LocalDate origin;
+    private final int historyFrom;
+    private final int horizonFrom;
+    private final int horizonTo;
+    // How often each slot of the week occurs in the history, to average over
+    private final int[] weeklyOccurrences = new int[SLOTS_PER_WEEK];
+    private final Map<Long, Row> rows = new HashMap<>();
+
+    /** Plans from {@code from} (rounded up to a slot) for horizonDays, learning from historyDays before it. */
+    MaintenancePlanner(LocalDateTime from, int historyDays, int horizonDays) {
+        LocalDateTime historyStart = from.minusDays(Math.max(0, historyDays));
+        this.origin = historyStart.toLocalDate();
+        this.historyFrom = floorSlot(historyStart);
+        this.horizonFrom = ceilSlot(from);
+        this.horizonTo = horizonFrom + Math.max(1, horizonDays) * SLOTS_PER_DAY;
+        for (int i = historyFrom; i < horizonFrom; i++) weeklyOccurrences[weekSlot(i)]++;
+    }
+
+    /** Registers a request to plan; only facilities with requests take part. */
+    void request(MaintenanceRequest r) {
+        rows.computeIfAbsent(r.getFacilityId(), Row::new).requests.add(r);
+    }
+
+    Set<Long> facilities() {
+        return rows.keySet();
+    }
+
+    /** A confirmed booking; ignored outside the history and horizon and at other facilities. */
+    void booking(long facilityId, LocalDateTime start, LocalDateTime end) {
+        Row row = rows.get(facilityId);
+        if (row == null) return;
+        int from = Math.max(historyFrom, floorSlot(start));
+        int to = Math.min(horizonTo, ceilSlot(end));
+        if (from < to) row.addBooking(from, to);
+    }
+
+    /** An unresolved maintenance window already scheduled at the facility. */
+    void closed(long facilityId, LocalDateTime start, LocalDateTime end) {
+        Row row = rows.get(facilityId);
+        if (row == null) return;
+        int from = Math.max(horizonFrom, floorSlot(start));
+        int to = Math.min(horizonTo, ceilSlot(end));
+        if (from < to) row.addClosure(from, to);
+    }
+
+    /** One proposal per request that fits in the horizon, by request id. */
+    List<MaintenanceProposal> plan() {
+        if (rows.isEmpty()) return new ArrayList<>();
+        Row[] all = rows.values().toArray(new Row[0]);
+        List<MaintenanceProposal> proposals = ForkJoinPool.commonPool().invoke(new PlanTask(all, 0, all.length));
+        proposals.sort(Comparator.comparing(MaintenanceProposal::getRequestId));
+        return proposals;
+    }
+
+    private List<MaintenanceProposal> plan(Row row) {
+        int horizon = horizonTo - horizonFrom;
+        int[] weekly = new int[SLOTS_PER_WEEK];
+        int[] booked = new int[horizon];
+        for (int k = 0; k < row.bookingCount; k += 2) {
+            for (int i = row.bookings[k]; i < row.bookings[k + 1]; i++) {
+                if (i < horizonFrom) weekly[weekSlot(i)]++;
+                else booked[i - horizonFrom]++;
+            }
+        }
+        double[] expected = new double[horizon];
+        for (int i = 0; i < horizon; i++) {
+            int ws = weekSlot(horizonFrom + i);
+            expected[i] = weeklyOccurrences[ws] == 0 ? 0 : (double) weekly[ws] / weeklyOccurrences[ws];
+        }
+        for (int k = 0; k < row.closureCount; k += 2) {
+            close(booked, expected, row.closures[k] - horizonFrom, row.closures[k + 1] - horizonFrom);
+        }
+
+        List<MaintenanceProposal> proposals = new ArrayList<>();
+        List<MaintenanceRequest> requests = new ArrayList<>(row.requests);
+        requests.sort(Comparator.comparing(MaintenanceRequest::getId));
+        long[] bookedSum = new long[horizon + 1];
+        double[] expectedSum = new double[horizon + 1];
+        for (MaintenanceRequest r : requests) {
+            int length = (r.getEstimatedMinutes() + SLOT_MINUTES - 1) / SLOT_MINUTES;
+            if (length > horizon) continue;
+            for (int i = 0; i < horizon; i++) {
+                bookedSum[i + 1] = bookedSum[i] + booked[i];
+                expectedSum[i + 1] = expectedSum[i] + expected[i];
+            }
+            int best = 0;
+            long bestBooked = Long.MAX_VALUE;
+            double bestExpected = Double.MAX_VALUE;
+            for (int s = 0; s + length <= horizon; s++) {
+                long b = bookedSum[s + length] - bookedSum[s];
+                double e = expectedSum[s + length] - expectedSum[s];
+                // Strictly better only, so ties go to the earliest start
+                if (b < bestBooked || (b == bestBooked && e < bestExpected - 1e-9)) {
+                    best = s;
+                    bestBooked = b;
+                    bestExpected = e;
+                }
+            }
+            LocalDateTime start = time(horizonFrom + best);
+            proposals.add(new MaintenanceProposal(r.getId(), row.facilityId, start, start.plusMinutes((long) length * SLOT_MINUTES),
+                bestBooked * SLOT_MINUTES / 60.0, bestExpected * SLOT_MINUTES / 60.0));
+            close(booked, expected, best, best + length);
+        }
+        return proposals;
+    }
+
+    private static void close(int[] booked, double[] expected, int from, int to) {
+        Arrays.fill(booked, from, to, 0);
+        Arrays.fill(expected, from, to, 0);
+    }
+
+    private int weekSlot(int slot) {
+        int day = slot / SLOTS_PER_DAY;
+        int dayOfWeek = (origin.getDayOfWeek().ordinal() + day) % 7;
+        return dayOfWeek * SLOTS_PER_DAY + slot % SLOTS_PER_DAY;
+    }
+
+    private int floorSlot(LocalDateTime t) {
+        long day = t.toLocalDate().toEpochDay() - origin.toEpochDay();
+        return (int) (day * SLOTS_PER_DAY + (t.getHour() * 60 + t.getMinute()) / SLOT_MINUTES);
+    }
+
+    private int ceilSlot(LocalDateTime t) {
+        int slot = floorSlot(t);
+        boolean onBoundary = t.getMinute() % SLOT_MINUTES == 0 && t.getSecond() == 0 && t.getNano() == 0;
+        return onBoundary ? slot : slot + 1;
+    }
+
+    private LocalDateTime time(int slot) {
+        return origin.atStartOfDay().plusMinutes((long) slot * SLOT_MINUTES);
+    }
+}
@@ -0,0 +1,143 @@
+package service.impl;
+
+import config.ConfigLoader;
+import dao.BookingDao;
+import dao.MaintenanceDao;
+import model.Booking;
+import model.BookingStatus;
+import model.MaintenanceProposal;
+import model.MaintenanceRequest;
+import model.MaintenanceStatus;
+import service.BookingService;
+import service.MaintenanceService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Maintenance requests and their windows. Scheduling, moving or resolving a window reloads the
+ * occupancy index over its days, so bookings see the change at once; window proposals come from
+ * a {@link MaintenancePlanner} fed by one scan over the bookings.
+ */
+public class MaintenanceServiceImpl implements MaintenanceService {
+    private final MaintenanceDao maintenanceDao;
+    private final BookingDao bookingDao;
+    private final BookingService bookingService;
+
+    public MaintenanceServiceImpl(MaintenanceDao maintenanceDao, BookingDao bookingDao, BookingService bookingService) {
+        this.maintenanceDao = maintenanceDao;
+        this.bookingDao = bookingDao;
+        this.bookingService = bookingService;
+    }
+
+    @Override
+    public Long create(MaintenanceRequest request) {
+        validate(request);
+        Long id = maintenanceDao.create(request);
+        request.setId(id);
+        // Days already in the occupancy index would not see the window until their next reload
+        windowChanged(request);
+        return id;
+    }
+
+    @Override
+    public MaintenanceRequest updateStatus(Long requestId, MaintenanceStatus status) {
+        MaintenanceRequest r = get(requestId);
+        r.setStatus(status);
+        maintenanceDao.update(r);
+        windowChanged(r);
+        return r;
+    }
+
+    @Override
+    public MaintenanceRequest scheduleWindow(Long requestId, LocalDateTime start, LocalDateTime end) {
+        MaintenanceRequest r = get(requestId);
+        if (r.getStatus() == MaintenanceStatus.RESOLVED) throw new IllegalStateException("Request is already resolved");
+        LocalDateTime oldStart = r.getWindowStart();
+        LocalDateTime oldEnd = r.getWindowEnd();
+        r.setWindowStart(start);
+        r.setWindowEnd(end);
+        validate(r);
+        maintenanceDao.update(r);
+        // Both the days it left and the days it closes now
+        if (oldStart != null) BookingServiceImpl.windowChanged(bookingDao, r.getFacilityId(), oldStart, oldEnd);
+        windowChanged(r);
+        return r;
+    }
+
+    @Override
+    public List<MaintenanceProposal> proposeWindows() {
+        List<MaintenanceRequest> pending = maintenanceDao.findAll().stream()
+            .filter(r -> r.getStatus() != MaintenanceStatus.RESOLVED && !r.hasWindow() && r.getEstimatedMinutes() != null)
+            .collect(Collectors.toList());
+        if (pending.isEmpty()) return new ArrayList<>();
+        int historyDays = ConfigLoader.getInt("maintenance.planner.history.days", 365);
+        int horizonDays = ConfigLoader.getInt("maintenance.planner.horizon.days", 14);
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        MaintenancePlanner planner = new MaintenancePlanner(from, historyDays, horizonDays);
+        pending.forEach(planner::request);
+        // One streaming pass over every booking in range; the planner keeps those of facilities it plans
+        bookingDao.scanConfirmed(from.minusDays(historyDays), from.plusDays(horizonDays), planner::booking);
+        for (Long facilityId : planner.facilities()) {
+            for (MaintenanceRequest w : maintenanceDao.findWindows(facilityId, from, from.plusDays(horizonDays))) {
+                planner.closed(facilityId, w.getWindowStart(), w.getWindowEnd());
+            }
+        }
+        return planner.plan();
+    }
+
+    @Override
+    public List<Booking> affectedBookings(Long requestId) {
+        MaintenanceRequest r = get(requestId);
+        if (!r.hasWindow() || r.getStatus() == MaintenanceStatus.RESOLVED) return new ArrayList<>();
+        // One range query over the facility's bookings; the windows are short next to the history
+        return bookingDao.findByFacilityAndRange(r.getFacilityId(), r.getWindowStart(), r.getWindowEnd()).stream()
+            .map(Booking.class::cast)
+            .filter(b -> b.getStatus() == BookingStatus.CONFIRMED)
+            .sorted(Comparator.comparing(Booking::getStartTime).thenComparing(Booking::getId))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Booking> rescheduleAffected(Long requestId) {
+        MaintenanceRequest r = get(requestId);
+        List<Booking> stuck = new ArrayList<>();
+        // In start order, so earlier bookings get the earlier free slots
+        for (Booking b : affectedBookings(requestId)) {
+            try {
+                if (!bookingService.rescheduleAfter(b.getId(), r.getWindowEnd()).isPresent()) stuck.add(b);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                // Cancelled meanwhile, or the facility was taken out of service altogether
+                stuck.add(b);
+            }
+        }
+        return stuck;
+    }
+
+    private void windowChanged(MaintenanceRequest r) {
+        if (r.hasWindow()) BookingServiceImpl.windowChanged(bookingDao, r.getFacilityId(), r.getWindowStart(), r.getWindowEnd());
+    }
+
+    private MaintenanceRequest get(Long requestId) {
+        return maintenanceDao.findById(requestId).orElseThrow(() -> new IllegalArgumentException("Maintenance request not found"));
+    }
+
+    private void validate(MaintenanceRequest r) {
+        if (r.getFacilityId() == null) throw new IllegalArgumentException("Facility required");
+        if (r.getRequestedBy() == null) throw new IllegalArgumentException("Requester required");
+        if (r.getTitle() == null || r.getTitle().trim().isEmpty()) throw new IllegalArgumentException("Title required");
+        if ((r.getWindowStart() == null) != (r.getWindowEnd() == null)) {
+            throw new IllegalArgumentException("A maintenance window needs both a start and an end");
+        }
+        if (r.hasWindow() && !r.getWindowEnd().isAfter(r.getWindowStart())) {
+            throw new IllegalArgumentException("Window end must be after its start");
+        }
+        if (r.getEstimatedMinutes() != null && r.getEstimatedMinutes() <= 0) {
+            throw new IllegalArgumentException("Estimated duration must be positive");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package service.impl;
+
+import config.ConfigLoader;
+import dao.MemberMetricsDao;
+import model.MemberMetrics;
+import model.MemberMetricsRun;
+import service.MemberMetricsService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Each run asks the database which members have a booking changed since the previous run started,
+ * a confirmed booking that has started since then (it became a visit without anything being
+ * written), or a payment newer than the last one it saw. Only those are aggregated again, in SQL;
+ * scoring is plain arithmetic on the totals and runs in a parallel stream. Everyone else keeps
+ * their totals and is only rescored, from the stored row, on the first run of each day.
+ *
+ * Churn risk compares the days since the last visit with the member's usual gap between visits
+ * (7 / visits per week, between 1 and 30 days): 1 - 0.5^(days / (2 * gap)), so a member gone twice
+ * their usual gap scores 0.5. A member who has never visited scores 1.
+ */
+public class MemberMetricsServiceImpl implements MemberMetricsService {
+    private static final Logger LOG = Logger.getLogger("scms.metrics");
+    // Looking back a little before the previous start covers bookings committed while it ran and
+    // clock differences with the database; recomputing a member twice is harmless
+    private static final Duration OVERLAP = Duration.ofMinutes(5);
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final double MAX_GAP_DAYS = 30;
+    // One run at a time per process, whether scheduled or asked for from the users screen
+    private static final ReentrantLock RUNNING = new ReentrantLock();
+    private static ScheduledExecutorService scheduler;
+
+    private final MemberMetricsDao metricsDao;
+
+    public MemberMetricsServiceImpl(MemberMetricsDao metricsDao) {
+        this.metricsDao = metricsDao;
+    }
+
+    /** Refreshes every metrics.member.refresh.interval in the background; off when unset or zero. */
+    public static synchronized void scheduleIfEnabled(MemberMetricsDao metricsDao) {
+        Duration interval = ConfigLoader.getDuration("metrics.member.refresh.interval", Duration.ZERO);
+        if (scheduler != null || interval.isZero() || interval.isNegative()) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "member-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        MemberMetricsService service = new MemberMetricsServiceImpl(metricsDao);
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                service.refresh();
+            } catch (IllegalStateException e) {
+                // Someone started one from the users screen; this turn is skipped
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "Member metrics refresh failed", e);
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public MemberMetricsRun refresh() {
+        if (!RUNNING.tryLock()) throw new IllegalStateException("Member metrics are already being refreshed");
+        try {
+            long started = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            Optional<MemberMetricsRun> last = metricsDao.lastRun();
+            // Read before looking for changes, so a payment made meanwhile is picked up next time too
+            long lastPaymentId = metricsDao.maxPaymentId();
+            LocalDateTime since = last.map(r -> r.getStartedAt().minus(OVERLAP)).orElse(BEGINNING);
+
+            List<Long> changed = metricsDao.findChangedMembers(since, since, now, last.map(MemberMetricsRun::getLastPaymentId).orElse(0L));
+            List<MemberMetrics> updated = metricsDao.aggregate(changed, now);
+            updated.parallelStream().forEach(m -> score(m, now));
+
+            Set<Long> changedIds = new HashSet<>(changed);
+            List<MemberMetrics> rescored = metricsDao.findComputedBefore(now.toLocalDate().atStartOfDay()).stream()
+                .filter(m -> !changedIds.contains(m.getMemberId()))
+                .collect(Collectors.toList());
+            rescored.parallelStream().forEach(m -> score(m, now));
+
+            List<MemberMetrics> rows = new ArrayList<>(updated.size() + rescored.size());
+            rows.addAll(updated);
+            rows.addAll(rescored);
+            metricsDao.saveAll(rows);
+
+            MemberMetricsRun run = new MemberMetricsRun();
+            run.setStartedAt(now);
+            run.setFinishedAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+            run.setLastPaymentId(lastPaymentId);
+            run.setMembersUpdated(updated.size());
+            run.setMembersRescored(rescored.size());
+            metricsDao.recordRun(run);
+            LOG.info(String.format("Member metrics: %d members recomputed, %d rescored in %d ms",
+                updated.size(), rescored.size(), (System.nanoTime() - started) / 1_000_000));
+            return run;
+        } finally {
+            RUNNING.unlock();
+        }
+    }
+
+    @Override
+    public Optional<MemberMetricsRun> lastRun() {
+        return metricsDao.lastRun();
+    }
+
+    @Override
+    public Map<Long, MemberMetrics> metricsByMember() {
+        return metricsDao.findAll().stream().collect(Collectors.toMap(MemberMetrics::getMemberId, Function.identity()));
+    }
+
+    /** Fills in the derived fields from the member's totals as of the given time. */
+    static void score(MemberMetrics m, LocalDateTime asOf) {
+        m.setComputedAt(asOf);
+        if (m.getVisits() == 0 || m.getFirstVisitAt() == null || m.getLastVisitAt() == null) {
+            m.setVisitsPerWeek(0);
+            m.setAvgSpend(0);
+            m.setDaysSinceLastVisit(null);
+            m.setChurnRisk(1.0);
+            return;
+        }
+        // A member who joined this week has not had a week to build a habit in
+        double weeks = Math.max(1.0, Duration.between(m.getFirstVisitAt(), asOf).toHours() / (24.0 * 7));
+        double perWeek = m.getVisits() / weeks;
+        LocalDate today = asOf.toLocalDate();
+        int days = (int) Math.max(0, ChronoUnit.DAYS.between(m.getLastVisitAt().toLocalDate(), today));
+        double usualGap = Math.min(MAX_GAP_DAYS, Math.max(1.0, 7.0 / perWeek));
+        m.setVisitsPerWeek(perWeek);
+        m.setAvgSpend(m.getLifetimeValue() / m.getVisits());
+        m.setDaysSinceLastVisit(days);
+        m.setChurnRisk(1.0 - Math.pow(0.5, days / (2 * usualGap)));
+    }
+}
@@ -0,0 +1,242 @@
+package service.impl;
+
+import dao.BookingDao;
+import dao.GroupClassDao;
+import dao.MaintenanceDao;
+import model.Booking;
+import model.BookingStatus;
+import model.GroupClass;
+import model.MaintenanceRequest;
+import monitoring.CacheStats;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Confirmed bookings per facility per day, held as a segment tree over the day's minutes that
+ * supports "add one over this range" and "peak over this range". Checking a booking against
+ * capacity and recording it are O(log 1440), however many bookings the day already holds.
+ *
+ * Unresolved maintenance windows are loaded into the same tree, each adding {@link #CLOSED} over
+ * its minutes, so any range that touches one peaks at CLOSED or more: a closed facility is turned
+ * away by the very lookup that checks capacity.
+ *
+ * Scheduled group classes are loaded too, each adding its seat count over its minutes: a class
+ * holds its places whether or not members have enrolled yet.
+ *
+ * A day is loaded from the DAO the first time it is needed and reloaded once it is older than the
+ * TTL, which is how bookings and cancellations from other terminals get in. Callers hold the
+ * facility's lock (see {@link #lockFor}) around every read and update of that facility's days.
+ */
+final class OccupancyIndex {
+    /** Added over a maintenance window's minutes; far above any facility's capacity. */
+    static final int CLOSED = 1 << 20;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int LEAVES = 2048;
+
+    /** Range add / range max without push-down: each node's max includes its own pending add. */
+    static final class DayTree {
+        private final int[] max = new int[2 * LEAVES];
+        private final int[] add = new int[2 * LEAVES];
+        final List<MaintenanceRequest> windows = new ArrayList<>();
+        final long loadedAt = System.nanoTime();
+
+        void add(int from, int to, int delta) {
+            add(1, 0, LEAVES, from, to, delta);
+        }
+
+        int peak(int from, int to) {
+            return peak(1, 0, LEAVES, from, to);
+        }
+
+        private void add(int node, int lo, int hi, int from, int to, int delta) {
+            if (to <= lo || hi <= from) return;
+            if (from <= lo && hi <= to) {
+                add[node] += delta;
+                max[node] += delta;
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            add(2 * node, lo, mid, from, to, delta);
+            add(2 * node + 1, mid, hi, from, to, delta);
+            max[node] = Math.max(max[2 * node], max[2 * node + 1]) + add[node];
+        }
+
+        private int peak(int node, int lo, int hi, int from, int to) {
+            if (to <= lo || hi <= from) return Integer.MIN_VALUE;
+            if (from <= lo && hi <= to) return max[node];
+            int mid = (lo + hi) >>> 1;
+            return Math.max(peak(2 * node, lo, mid, from, to), peak(2 * node + 1, mid, hi, from, to)) + add[node];
+        }
+    }
+
+    private static final class DayKey {
+        final long facilityId;
+        final long epochDay;
+
+        DayKey(long facilityId, long epochDay) {
+            this.facilityId = facilityId;
+            this.epochDay = epochDay;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DayKey)) return false;
+            DayKey k = (DayKey) o;
+            return facilityId == k.facilityId && epochDay == k.epochDay;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(facilityId) * 31 + Long.hashCode(epochDay);
+        }
+    }
+
+    private final BookingDao bookingDao;
+    private final Map<DayKey, DayTree> days = new ConcurrentHashMap<>();
+    private final Map<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private final CacheStats stats = CacheStats.named("occupancy");
+    private volatile MaintenanceDao maintenanceDao;
+    private volatile GroupClassDao groupClassDao;
+    private volatile long ttlNanos;
+    private volatile int maxDays;
+
+    OccupancyIndex(BookingDao bookingDao, long ttlMillis, int maxDays) {
+        this.bookingDao = bookingDao;
+        configure(ttlMillis, maxDays);
+        stats.sizeFrom(days::size);
+    }
+
+    void configure(long ttlMillis, int maxDays) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxDays = Math.max(8, maxDays);
+    }
+
+    /** Loads maintenance windows from now on; days already loaded pick them up on their next reload. */
+    void windowsFrom(MaintenanceDao maintenanceDao) {
+        this.maintenanceDao = maintenanceDao;
+    }
+
+    /** Loads scheduled group classes from now on; days already loaded are dropped so they pick them up. */
+    void classesFrom(GroupClassDao groupClassDao) {
+        if (this.groupClassDao == groupClassDao) return;
+        this.groupClassDao = groupClassDao;
+        days.clear();
+    }
+
+    ReentrantLock lockFor(long facilityId) {
+        return locks.computeIfAbsent(facilityId, id -> new ReentrantLock());
+    }
+
+    /** Most bookings open at once anywhere in [start, end). */
+    int peak(long facilityId, LocalDateTime start, LocalDateTime end) {
+        int peak = 0;
+        for (LocalDate d = start.toLocalDate(); d.isBefore(endDay(end)); d = d.plusDays(1)) {
+            peak = Math.max(peak, day(facilityId, d).peak(fromMinute(d, start), toMinute(d, end)));
+        }
+        return peak;
+    }
+
+    /** The first unresolved maintenance window overlapping [start, end), or null. */
+    MaintenanceRequest closure(long facilityId, LocalDateTime start, LocalDateTime end) {
+        for (LocalDate d = start.toLocalDate(); d.isBefore(endDay(end)); d = d.plusDays(1)) {
+            for (MaintenanceRequest m : day(facilityId, d).windows) {
+                if (m.blocks(start, end)) return m;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records a booking (delta 1) or its cancellation (delta -1), or a class's seats, on days
+     * already loaded.
+     */
+    void add(long facilityId, LocalDateTime start, LocalDateTime end, int delta) {
+        for (LocalDate d = start.toLocalDate(); d.isBefore(endDay(end)); d = d.plusDays(1)) {
+            DayTree tree = days.get(new DayKey(facilityId, d.toEpochDay()));
+            // Days not loaded yet will read the change from the database
+            if (tree != null) tree.add(fromMinute(d, start), toMinute(d, end), delta);
+        }
+    }
+
+    /**
+     * Drops the days of [start, end), e.g. after the database disagreed with them or a maintenance
+     * window there was scheduled or resolved.
+     */
+    void invalidate(long facilityId, LocalDateTime start, LocalDateTime end) {
+        for (LocalDate d = start.toLocalDate(); d.isBefore(endDay(end)); d = d.plusDays(1)) {
+            days.remove(new DayKey(facilityId, d.toEpochDay()));
+        }
+    }
+
+    private DayTree day(long facilityId, LocalDate date) {
+        DayKey key = new DayKey(facilityId, date.toEpochDay());
+        DayTree tree = days.get(key);
+        if (tree != null && System.nanoTime() - tree.loadedAt < ttlNanos) {
+            stats.hit();
+            return tree;
+        }
+        stats.miss();
+        tree = new DayTree();
+        LocalDateTime from = date.atStartOfDay();
+        for (Object o : bookingDao.findByFacilityAndRange(facilityId, from, from.plusDays(1))) {
+            Booking b = (Booking) o;
+            if (b.getStatus() != BookingStatus.CONFIRMED) continue;
+            tree.add(fromMinute(date, b.getStartTime()), toMinute(date, b.getEndTime()), 1);
+        }
+        MaintenanceDao maintenance = maintenanceDao;
+        if (maintenance != null) {
+            for (MaintenanceRequest m : maintenance.findWindows(facilityId, from, from.plusDays(1))) {
+                tree.windows.add(m);
+                tree.add(fromMinute(date, m.getWindowStart()), toMinute(date, m.getWindowEnd()), CLOSED);
+            }
+        }
+        GroupClassDao classes = groupClassDao;
+        if (classes != null) {
+            for (GroupClass g : classes.findScheduledByFacility(facilityId, from, from.plusDays(1))) {
+                tree.add(fromMinute(date, g.getStartTime()), toMinute(date, g.getEndTime()), g.getCapacity());
+            }
+        }
+        if (days.size() >= maxDays) evict();
+        days.put(key, tree);
+        return tree;
+    }
+
+    // Expired days go first; if that is not enough, whatever the map yields, since a dropped day
+    // only costs one reload
+    private void evict() {
+        long now = System.nanoTime();
+        days.values().removeIf(t -> now - t.loadedAt >= ttlNanos);
+        Iterator<DayKey> it = days.keySet().iterator();
+        while (days.size() >= maxDays && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    // Day after the last day [start, end) touches; an end at midnight does not touch its day
+    private static LocalDate endDay(LocalDateTime end) {
+        return end.toLocalTime().equals(LocalTime.MIDNIGHT) ? end.toLocalDate() : end.toLocalDate().plusDays(1);
+    }
+
+    // Both ends round down to the minute. Rounding the end up made a booking ending 10:00:30 and
+    // one starting 10:00:45 share minute 10:00 and turned the second away at capacity 1, though
+    // they do not overlap; an overlap shorter than a minute is instead left for the DAO's check,
+    // which compares the exact times.
+    private static int fromMinute(LocalDate day, LocalDateTime start) {
+        if (start.toLocalDate().isBefore(day)) return 0;
+        return start.getHour() * 60 + start.getMinute();
+    }
+
+    private static int toMinute(LocalDate day, LocalDateTime end) {
+        if (end.toLocalDate().isAfter(day)) return MINUTES_PER_DAY;
+        return end.getHour() * 60 + end.getMinute();
+    }
+}
@@ -2,6 +2,7 @@ package service.impl;
 
 import dao.PaymentDao;
 import model.Payment;
+import monitoring.events.PaymentRecordedEvent;
 import service.PaymentService;
 
 import java.util.List;
@@ -17,7 +18,18 @@ public class PaymentServiceImpl implements PaymentService {
     public Long record(Payment payment) {
         if (payment.getBookingId() == null) throw new IllegalArgumentException("Booking id required");
         if (payment.getAmount() < 0) throw new IllegalArgumentException("Amount must be >= 0");
-        return paymentDao.create(payment);
+        PaymentRecordedEvent event = new PaymentRecordedEvent();
+        event.begin();
+        Long id = paymentDao.create(payment);
+        event.end();
+        if (event.shouldCommit()) {
+            event.bookingId = payment.getBookingId();
+            event.amount = payment.getAmount();
+            event.discount = payment.getDiscount();
+            event.method = payment.getMethod() == null ? null : payment.getMethod().name();
+            event.commit();
+        }
+        return id;
     }
 
     @Override
@@ -0,0 +1,371 @@
+package service.impl;
+
+import dao.BookingDao;
+import dao.FacilityDao;
+import dao.MaintenanceDao;
+import dao.PaymentDao;
+import dao.UserDao;
+import model.*;
+import service.SearchService;
+import util.DateTimeUtil;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index over users, facilities, bookings, payments and maintenance requests.
+ *
+ * Tokens live in a sorted map so a partially typed word is answered with a range scan over the
+ * tokens it prefixes. Writes are serialised on a single lock; queries read the concurrent maps
+ * without locking and never touch the database.
+ */
+public class SearchServiceImpl implements SearchService {
+    private static final int TITLE_WEIGHT = 3;
+    private static final int NAME_WEIGHT = 2;
+    private static final int BODY_WEIGHT = 1;
+
+    private final UserDao userDao;
+    private final FacilityDao facilityDao;
+    private final BookingDao bookingDao;
+    private final PaymentDao paymentDao;
+    private final MaintenanceDao maintenanceDao;
+
+    private final Object writeLock = new Object();
+    private volatile Index index = new Index();
+    // Non-null while rebuild() is loading; writes are mirrored into it so none are lost on swap, and
+    // removals are remembered so the load does not bring back what was deleted while it read
+    private Index building;
+    private volatile boolean ready;
+
+    public SearchServiceImpl(UserDao userDao, FacilityDao facilityDao, BookingDao bookingDao,
+                             PaymentDao paymentDao, MaintenanceDao maintenanceDao) {
+        this.userDao = userDao;
+        this.facilityDao = facilityDao;
+        this.bookingDao = bookingDao;
+        this.paymentDao = paymentDao;
+        this.maintenanceDao = maintenanceDao;
+    }
+
+    @Override
+    public void rebuild() {
+        Index fresh = new Index();
+        synchronized (writeLock) {
+            building = fresh;
+        }
+        try {
+            List<User> users = userDao.findAll();
+            List<Facility> facilities = facilityDao.findAll();
+            List<Object> bookings = bookingDao.findAll();
+            List<Payment> payments = paymentDao.findAll();
+            List<MaintenanceRequest> requests = maintenanceDao.findAll();
+            synchronized (writeLock) {
+                // Names first so bookings/payments resolve them while indexing
+                for (User u : users) if (fresh.loads(SearchEntityType.USER, u.getId())) fresh.userNames.putIfAbsent(u.getId(), nullToEmpty(u.getFullName()));
+                for (Facility f : facilities) if (fresh.loads(SearchEntityType.FACILITY, f.getId())) fresh.facilityNames.putIfAbsent(f.getId(), nullToEmpty(f.getName()));
+                for (User u : users) if (fresh.loads(SearchEntityType.USER, u.getId())) fresh.putUser(u);
+                for (Facility f : facilities) if (fresh.loads(SearchEntityType.FACILITY, f.getId())) fresh.putFacility(f);
+                for (Object o : bookings) {
+                    Booking b = (Booking) o;
+                    if (fresh.loads(SearchEntityType.BOOKING, b.getId())) fresh.putBooking(b);
+                }
+                for (Payment p : payments) if (fresh.loads(SearchEntityType.PAYMENT, p.getId())) fresh.putPayment(p);
+                for (MaintenanceRequest r : requests) if (fresh.loads(SearchEntityType.MAINTENANCE, r.getId())) fresh.putMaintenance(r);
+                fresh.removed.clear();
+                index = fresh;
+                ready = true;
+            }
+        } finally {
+            synchronized (writeLock) {
+                building = null;
+            }
+        }
+    }
+
+    @Override
+    public boolean isReady() { return ready; }
+
+    @Override
+    public void indexUser(User user) {
+        if (user == null || user.getId() == null) return;
+        synchronized (writeLock) {
+            index.putUser(user);
+            if (building != null) building.putUser(user);
+        }
+    }
+
+    @Override
+    public void indexFacility(Facility facility) {
+        if (facility == null || facility.getId() == null) return;
+        synchronized (writeLock) {
+            index.putFacility(facility);
+            if (building != null) building.putFacility(facility);
+        }
+    }
+
+    @Override
+    public void indexBooking(Booking booking) {
+        if (booking == null || booking.getId() == null) return;
+        synchronized (writeLock) {
+            index.putBooking(booking);
+            if (building != null) building.putBooking(booking);
+        }
+    }
+
+    @Override
+    public void indexPayment(Payment payment) {
+        if (payment == null || payment.getId() == null) return;
+        synchronized (writeLock) {
+            index.putPayment(payment);
+            if (building != null) building.putPayment(payment);
+        }
+    }
+
+    @Override
+    public void indexMaintenance(MaintenanceRequest request) {
+        if (request == null || request.getId() == null) return;
+        synchronized (writeLock) {
+            index.putMaintenance(request);
+            if (building != null) building.putMaintenance(request);
+        }
+    }
+
+    @Override
+    public void remove(SearchEntityType type, Long id) {
+        if (type == null || id == null) return;
+        synchronized (writeLock) {
+            index.remove(type, id);
+            if (building != null) {
+                building.remove(type, id);
+                building.removed.add(key(type, id));
+            }
+        }
+    }
+
+    @Override
+    public Map<SearchEntityType, List<SearchResult>> search(String query, int limitPerType) {
+        Map<SearchEntityType, List<SearchResult>> grouped = new EnumMap<>(SearchEntityType.class);
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limitPerType <= 0) return grouped;
+
+        Index idx = index;
+        Map<String, Double> scores = null;
+        for (String term : terms) {
+            Map<String, Double> termScores = idx.match(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                // Every term must match; sum the per-term scores of the survivors
+                Map<String, Double> acc = scores;
+                acc.keySet().retainAll(termScores.keySet());
+                acc.replaceAll((k, v) -> v + termScores.get(k));
+            }
+            if (scores.isEmpty()) return grouped;
+        }
+
+        for (Map.Entry<String, Double> e : scores.entrySet()) {
+            Doc d = idx.docs.get(e.getKey());
+            if (d == null) continue;
+            SearchResult r = new SearchResult();
+            r.setType(d.type);
+            r.setId(d.id);
+            r.setTitle(d.title);
+            r.setSubtitle(d.subtitle);
+            r.setScore(e.getValue());
+            grouped.computeIfAbsent(d.type, t -> new ArrayList<>()).add(r);
+        }
+        Comparator<SearchResult> byRank = Comparator.comparingDouble(SearchResult::getScore).reversed()
+            .thenComparingInt(r -> r.getTitle().length())
+            .thenComparing(SearchResult::getTitle);
+        for (Map.Entry<SearchEntityType, List<SearchResult>> e : grouped.entrySet()) {
+            List<SearchResult> list = e.getValue();
+            list.sort(byRank);
+            if (list.size() > limitPerType) e.setValue(new ArrayList<>(list.subList(0, limitPerType)));
+        }
+        return grouped;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean word = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static String nullToEmpty(String s) { return s == null ? "" : s; }
+
+    private static String key(SearchEntityType type, Long id) { return type.name() + ':' + id; }
+
+    private static final class Doc {
+        final SearchEntityType type;
+        final Long id;
+        final String title;
+        final String subtitle;
+        final Map<String, Integer> terms = new HashMap<>();
+
+        Doc(SearchEntityType type, Long id, String title, String subtitle) {
+            this.type = type;
+            this.id = id;
+            this.title = title;
+            this.subtitle = subtitle;
+        }
+
+        Doc add(String text, int weight) {
+            for (String t : tokenize(text)) terms.merge(t, weight, Math::max);
+            return this;
+        }
+    }
+
+    /**
+     * One generation of the index. Source entities that embed other entities' names are kept so a
+     * rename can re-index only the documents that mention it.
+     */
+    private static final class Index {
+        final Map<String, Doc> docs = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<String, Map<String, Integer>> postings = new ConcurrentSkipListMap<>();
+        final Map<Long, String> userNames = new ConcurrentHashMap<>();
+        final Map<Long, String> facilityNames = new ConcurrentHashMap<>();
+        final Map<Long, Booking> bookings = new HashMap<>();
+        final Map<Long, Payment> payments = new HashMap<>();
+        final Map<Long, MaintenanceRequest> requests = new HashMap<>();
+        // Removed while this generation was loading; cleared once the load is done
+        final Set<String> removed = new HashSet<>();
+
+        /** Whether the bulk load should add this entity: not indexed since the load began, nor removed. */
+        boolean loads(SearchEntityType type, Long id) {
+            String k = key(type, id);
+            return !docs.containsKey(k) && !removed.contains(k);
+        }
+
+        Map<String, Double> match(String term) {
+            Map<String, Double> out = new HashMap<>();
+            for (Map.Entry<String, Map<String, Integer>> e : postings.subMap(term, true, term + Character.MAX_VALUE, true).entrySet()) {
+                // Whole-word hits outrank prefix hits; shorter completions outrank longer ones
+                double factor = e.getKey().length() == term.length() ? 2.0 : (double) term.length() / e.getKey().length();
+                for (Map.Entry<String, Integer> p : e.getValue().entrySet()) {
+                    out.merge(p.getKey(), p.getValue() * factor, Math::max);
+                }
+            }
+            return out;
+        }
+
+        void putUser(User u) {
+            String name = nullToEmpty(u.getFullName());
+            String previous = userNames.put(u.getId(), name);
+            put(new Doc(SearchEntityType.USER, u.getId(), name,
+                    nullToEmpty(u.getEmail()) + (u.getRole() == null ? "" : " • " + u.getRole().name()))
+                .add(name, TITLE_WEIGHT)
+                .add(u.getEmail(), NAME_WEIGHT)
+                .add(u.getPhone(), BODY_WEIGHT)
+                .add(u.getRole() == null ? null : u.getRole().name(), BODY_WEIGHT));
+            if (previous != null && !previous.equals(name)) {
+                for (Booking b : new ArrayList<>(bookings.values())) {
+                    if (u.getId().equals(b.getMemberId()) || u.getId().equals(b.getCoachId())) putBooking(b);
+                }
+                for (Payment p : new ArrayList<>(payments.values())) {
+                    if (u.getId().equals(p.getUserId())) putPayment(p);
+                }
+            }
+        }
+
+        void putFacility(Facility f) {
+            String name = nullToEmpty(f.getName());
+            String previous = facilityNames.put(f.getId(), name);
+            put(new Doc(SearchEntityType.FACILITY, f.getId(), name,
+                    (f.getStatus() == null ? "" : f.getStatus().name() + " • ") + String.format("%.2f/hr", f.getHourlyRate()))
+                .add(name, TITLE_WEIGHT)
+                .add(f.getDescription(), BODY_WEIGHT)
+                .add(f.getStatus() == null ? null : f.getStatus().name(), BODY_WEIGHT));
+            if (previous != null && !previous.equals(name)) {
+                for (Booking b : new ArrayList<>(bookings.values())) {
+                    if (f.getId().equals(b.getFacilityId())) putBooking(b);
+                }
+                for (MaintenanceRequest r : new ArrayList<>(requests.values())) {
+                    if (f.getId().equals(r.getFacilityId())) putMaintenance(r);
+                }
+            }
+        }
+
+        void putBooking(Booking b) {
+            bookings.put(b.getId(), b);
+            String member = b.getMemberId() == null ? "" : userNames.getOrDefault(b.getMemberId(), "");
+            String facility = b.getFacilityId() == null ? "" : facilityNames.getOrDefault(b.getFacilityId(), "");
+            String coach = b.getCoachId() == null ? "" : userNames.getOrDefault(b.getCoachId(), "");
+            String type = b instanceof TrainingBooking ? "TRAINING" : "FACILITY";
+            String status = b.getStatus() == null ? "" : b.getStatus().name();
+            put(new Doc(SearchEntityType.BOOKING, b.getId(), "#" + b.getId() + " " + facility + " – " + member,
+                    DateTimeUtil.formatDateTime(b.getStartTime()) + " • " + type + (coach.isEmpty() ? "" : " • " + coach) + " • " + status)
+                .add(member, NAME_WEIGHT)
+                .add(facility, NAME_WEIGHT)
+                .add(coach, NAME_WEIGHT)
+                .add(type, BODY_WEIGHT)
+                .add(status, BODY_WEIGHT));
+        }
+
+        void putPayment(Payment p) {
+            payments.put(p.getId(), p);
+            String reference = nullToEmpty(p.getReference());
+            String user = p.getUserId() == null ? "" : userNames.getOrDefault(p.getUserId(), "");
+            put(new Doc(SearchEntityType.PAYMENT, p.getId(), "#" + p.getId() + (reference.isEmpty() ? "" : " " + reference),
+                    String.format("%.2f", p.getAmount()) + (p.getMethod() == null ? "" : " • " + p.getMethod().name()) + (user.isEmpty() ? "" : " • " + user))
+                .add(reference, TITLE_WEIGHT)
+                .add(user, BODY_WEIGHT)
+                .add(p.getMethod() == null ? null : p.getMethod().name(), BODY_WEIGHT));
+        }
+
+        void putMaintenance(MaintenanceRequest r) {
+            requests.put(r.getId(), r);
+            String title = nullToEmpty(r.getTitle());
+            String facility = r.getFacilityId() == null ? "" : facilityNames.getOrDefault(r.getFacilityId(), "");
+            put(new Doc(SearchEntityType.MAINTENANCE, r.getId(), title,
+                    facility + (r.getStatus() == null ? "" : " • " + r.getStatus().name()))
+                .add(title, TITLE_WEIGHT)
+                .add(facility, BODY_WEIGHT)
+                .add(r.getStatus() == null ? null : r.getStatus().name(), BODY_WEIGHT));
+        }
+
+        void remove(SearchEntityType type, Long id) {
+            Doc old = docs.remove(key(type, id));
+            if (old != null) unpost(old);
+            switch (type) {
+                case USER: userNames.remove(id); break;
+                case FACILITY: facilityNames.remove(id); break;
+                case BOOKING: bookings.remove(id); break;
+                case PAYMENT: payments.remove(id); break;
+                case MAINTENANCE: requests.remove(id); break;
+            }
+        }
+
+        private void put(Doc doc) {
+            String k = key(doc.type, doc.id);
+            removed.remove(k);
+            Doc old = docs.put(k, doc);
+            if (old != null) unpost(old);
+            for (Map.Entry<String, Integer> t : doc.terms.entrySet()) {
+                postings.computeIfAbsent(t.getKey(), x -> new ConcurrentHashMap<>()).put(k, t.getValue());
+            }
+        }
+
+        private void unpost(Doc doc) {
+            String k = key(doc.type, doc.id);
+            for (String t : doc.terms.keySet()) {
+                postings.computeIfPresent(t, (x, m) -> {
+                    // Only drop the posting if it still belongs to this generation of the doc
+                    Doc current = docs.get(k);
+                    if (current == null || !current.terms.containsKey(t)) m.remove(k);
+                    return m.isEmpty() ? null : m;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package service.impl;
+
+import dao.UserDao;
+import model.User;
+import monitoring.CacheStats;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Short-lived authenticated sessions keyed by random bearer tokens.
+ * Resuming a session is a map lookup, so re-confirming identity for a sensitive action does not
+ * pay for another password hash. A user's sessions are closed when their password or role
+ * changes or they are deleted (see {@link #closeAll}); since that may happen in another process,
+ * each session also re-reads its user's row at most once per recheck interval and ends if the
+ * user is gone or their password hash or role no longer match.
+ */
+class SessionCache {
+    private static final int SWEEP_EVERY = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger opens = new AtomicInteger();
+    private final CacheStats stats = CacheStats.named("sessions");
+    private final UserDao userDao;
+    private volatile long ttlNanos;
+    private volatile long recheckNanos;
+
+    SessionCache(UserDao userDao, long ttlMillis, long recheckMillis) {
+        this.userDao = userDao;
+        setTtlMillis(ttlMillis);
+        setRecheckMillis(recheckMillis);
+        stats.sizeFrom(sessions::size);
+    }
+
+    void setTtlMillis(long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    void setRecheckMillis(long recheckMillis) {
+        this.recheckNanos = TimeUnit.MILLISECONDS.toNanos(recheckMillis);
+    }
+
+    String open(User user) {
+        long now = System.nanoTime();
+        if (opens.incrementAndGet() % SWEEP_EVERY == 0) {
+            sessions.values().removeIf(s -> s.expiresAt - now <= 0);
+        }
+        byte[] raw = new byte[32];
+        RANDOM.nextBytes(raw);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        sessions.put(token, new Session(user, now + ttlNanos, now));
+        return token;
+    }
+
+    Optional<User> resume(String token) {
+        if (token == null) return Optional.empty();
+        Session s = sessions.get(token);
+        if (s == null) {
+            stats.miss();
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+        if (s.expiresAt - now <= 0 || (now - s.checkedAt >= recheckNanos && !stillValid(s, now))) {
+            sessions.remove(token, s);
+            stats.miss();
+            return Optional.empty();
+        }
+        stats.hit();
+        return Optional.of(s.user);
+    }
+
+    void close(String token) {
+        if (token != null) sessions.remove(token);
+    }
+
+    /** Closes every session of the user. */
+    void closeAll(Long userId) {
+        if (userId != null) sessions.values().removeIf(s -> userId.equals(s.user.getId()));
+    }
+
+    // Whether the user's row still has the password hash and role the session was opened with
+    private boolean stillValid(Session s, long now) {
+        Optional<User> current = userDao.findById(s.user.getId());
+        if (!current.isPresent()) return false;
+        User u = current.get();
+        if (u.getRole() != s.user.getRole() || !Objects.equals(u.getPasswordHash(), s.user.getPasswordHash())) return false;
+        s.checkedAt = now;
+        return true;
+    }
+
+    private static final class Session {
+        final User user;
+        final long expiresAt;
+        volatile long checkedAt;
+
+        Session(User user, long expiresAt, long checkedAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package service.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Which 15-minute slots of which days have at least one confirmed booking, per facility. A day is
+ * 96 bits in two longs (slots 0-63, then 64-95 in the low half of the second), and a facility's
+ * days sit back to back in one array from {@link #firstDay}, so a year of 50 facilities takes
+ * under 300 KB. Utilization, hour-of-week counts and idle windows are masks and popcounts over
+ * those words rather than walks over bookings.
+ *
+ * A bit only says the slot is in use, not by how many, so a release clears the released slots and
+ * the caller sets them again from the bookings still overlapping them. Updates take the write lock
+ * for a few words; queries share the read lock.
+ */
+final class SlotBitmap {
+    static final int SLOT_MINUTES = 15;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int SLOTS_PER_HOUR = 60 / SLOT_MINUTES;
+    private static final long LOW_32 = 0xFFFF_FFFFL;
+
+    /** Counts per facility and hour of the week (Monday 00:00 first), and how often each weekday occurred. */
+    static final class HourOfWeek {
+        final Map<Long, int[]> occupiedSlots = new HashMap<>();
+        final int[] weekdays = new int[7];
+    }
+
+    private final long firstDay;
+    private final int days;
+    private final Map<Long, long[]> rows = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    final long builtAt = System.nanoTime();
+
+    SlotBitmap(LocalDate from, LocalDate to) {
+        this.firstDay = from.toEpochDay();
+        this.days = (int) Math.max(1, to.toEpochDay() - firstDay);
+    }
+
+    LocalDate from() {
+        return LocalDate.ofEpochDay(firstDay);
+    }
+
+    LocalDate to() {
+        return LocalDate.ofEpochDay(firstDay + days);
+    }
+
+    long bytes() {
+        lock.readLock().lock();
+        try {
+            return (long) rows.size() * days * 2 * Long.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Marks [start, end) in use, rounded out to whole slots; the part outside the range is ignored. */
+    void set(long facilityId, LocalDateTime start, LocalDateTime end) {
+        update(facilityId, start, end, true);
+    }
+
+    /** Marks [start, end) free again, rounded out to whole slots. */
+    void clear(long facilityId, LocalDateTime start, LocalDateTime end) {
+        update(facilityId, start, end, false);
+    }
+
+    private void update(long facilityId, LocalDateTime start, LocalDateTime end, boolean on) {
+        long from = Math.max(0, slot(start, false));
+        long to = Math.min((long) days * SLOTS_PER_DAY, slot(end, true));
+        if (from >= to) return;
+        lock.writeLock().lock();
+        try {
+            long[] row = rows.get(facilityId);
+            if (row == null) {
+                if (!on) return;
+                row = new long[days * 2];
+                rows.put(facilityId, row);
+            }
+            for (int day = (int) (from / SLOTS_PER_DAY); day <= (to - 1) / SLOTS_PER_DAY; day++) {
+                int lo = (int) Math.max(0, from - (long) day * SLOTS_PER_DAY);
+                int hi = (int) Math.min(SLOTS_PER_DAY, to - (long) day * SLOTS_PER_DAY);
+                long m0 = bits(Math.min(lo, 64), Math.min(hi, 64));
+                long m1 = bits(Math.max(lo, 64) - 64, Math.max(hi, 64) - 64);
+                if (on) {
+                    row[2 * day] |= m0;
+                    row[2 * day + 1] |= m1;
+                } else {
+                    row[2 * day] &= ~m0;
+                    row[2 * day + 1] &= ~m1;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Slots in use over days [from, to), counting only slots set in the daily mask (open0 for
+     * slots 0-63, open1 for 64-95), summed over the given facilities.
+     */
+    long occupied(Iterable<Long> facilityIds, LocalDate from, LocalDate to, long open0, long open1) {
+        int d0 = day(from);
+        int d1 = day(to);
+        long total = 0;
+        lock.readLock().lock();
+        try {
+            for (Long id : facilityIds) {
+                long[] row = rows.get(id);
+                if (row == null) continue;
+                for (int d = d0; d < d1; d++) {
+                    total += Long.bitCount(row[2 * d] & open0) + Long.bitCount(row[2 * d + 1] & open1);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return total;
+    }
+
+    /** Slots in use per facility and hour of the week over days [from, to), four per hour at most. */
+    HourOfWeek hourOfWeek(Iterable<Long> facilityIds, LocalDate from, LocalDate to) {
+        int d0 = day(from);
+        int d1 = day(to);
+        HourOfWeek result = new HourOfWeek();
+        int firstWeekday = LocalDate.ofEpochDay(firstDay).getDayOfWeek().ordinal();
+        for (int d = d0; d < d1; d++) result.weekdays[(firstWeekday + d) % 7]++;
+        lock.readLock().lock();
+        try {
+            for (Long id : facilityIds) {
+                int[] counts = new int[7 * 24];
+                result.occupiedSlots.put(id, counts);
+                long[] row = rows.get(id);
+                if (row == null) continue;
+                for (int d = d0; d < d1; d++) {
+                    long w0 = row[2 * d];
+                    long w1 = row[2 * d + 1];
+                    if ((w0 | w1) == 0) continue;
+                    int base = (firstWeekday + d) % 7 * 24;
+                    // Each hour is one nibble: hours 0-15 in the first word, 16-23 in the second
+                    for (int h = 0; h < 16; h++) counts[base + h] += Long.bitCount((w0 >>> (h * SLOTS_PER_HOUR)) & 0xF);
+                    for (int h = 16; h < 24; h++) counts[base + h] += Long.bitCount((w1 >>> ((h - 16) * SLOTS_PER_HOUR)) & 0xF);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Runs of at least minSlots free slots on the day, within the daily mask, as [from, to) slot
+     * pairs; the whole masked day when the facility has nothing booked.
+     */
+    List<int[]> idleRuns(long facilityId, LocalDate date, long open0, long open1, int minSlots) {
+        List<int[]> runs = new ArrayList<>();
+        int d = date.toEpochDay() < firstDay || date.toEpochDay() >= firstDay + days ? -1 : day(date);
+        long free0;
+        long free1;
+        lock.readLock().lock();
+        try {
+            long[] row = d < 0 ? null : rows.get(facilityId);
+            free0 = open0 & ~(row == null ? 0 : row[2 * d]);
+            free1 = open1 & ~(row == null ? 0 : row[2 * d + 1]) & LOW_32;
+        } finally {
+            lock.readLock().unlock();
+        }
+        int pos = 0;
+        while ((pos = next(free0, free1, pos)) < SLOTS_PER_DAY) {
+            int end = next(~free0, ~free1 & LOW_32, pos);
+            if (end - pos >= minSlots) runs.add(new int[] {pos, end});
+            pos = end;
+        }
+        return runs;
+    }
+
+    /** Bits [from, to) of the day as two words, for masks like opening hours. */
+    static long[] mask(int from, int to) {
+        from = Math.max(0, Math.min(SLOTS_PER_DAY, from));
+        to = Math.max(from, Math.min(SLOTS_PER_DAY, to));
+        return new long[] {bits(Math.min(from, 64), Math.min(to, 64)), bits(Math.max(from, 64) - 64, Math.max(to, 64) - 64)};
+    }
+
+    // Index of the first set bit at or after pos in the 96-bit day, or 96
+    private static int next(long w0, long w1, int pos) {
+        if (pos < 64) {
+            long x = w0 & (-1L << pos);
+            if (x != 0) return Long.numberOfTrailingZeros(x);
+            pos = 64;
+        }
+        if (pos < SLOTS_PER_DAY) {
+            long x = w1 & (-1L << (pos - 64));
+            if (x != 0) return 64 + Long.numberOfTrailingZeros(x);
+        }
+        return SLOTS_PER_DAY;
+    }
+
+    // Bits [from, to) of a word
+    private static long bits(int from, int to) {
+        if (from >= to) return 0;
+        long upTo = to == 64 ? -1L : (1L << to) - 1;
+        return upTo & (-1L << from);
+    }
+
+    private int day(LocalDate date) {
+        return (int) Math.max(0, Math.min(days, date.toEpochDay() - firstDay));
+    }
+
+    // Slot index from firstDay; rounded up for the end of an interval
+    private long slot(LocalDateTime t, boolean ceil) {
+        long minutes = (t.toLocalDate().toEpochDay() - firstDay) * 24 * 60 + t.getHour() * 60 + t.getMinute();
+        long slot = Math.floorDiv(minutes, SLOT_MINUTES);
+        boolean onBoundary = minutes % SLOT_MINUTES == 0 && t.getSecond() == 0 && t.getNano() == 0;
+        return ceil && !onBoundary ? slot + 1 : slot;
+    }
+}
@@ -0,0 +1,82 @@
+package service.impl;
+
+import dao.BookingDao;
+import monitoring.CacheStats;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * One analytics snapshot per {@link BookingDao}, shared by every service instance over that DAO.
+ * Readers take the published snapshot without locking while it is fresh; a stale or missing one is
+ * rebuilt under the DAO's lock, so callers arriving meanwhile wait for that build instead of
+ * running their own. Hits, misses and the snapshots' total size are reported under the cache's
+ * name.
+ */
+final class SnapshotCache<T> {
+    /** Builds a snapshot from the previous one, which is null the first time. */
+    interface Builder<T> {
+        T build(T previous);
+
+        /** Runs once the new snapshot is published, still under the lock. */
+        default void published(T snapshot) {
+        }
+    }
+
+    private static final class Slot<T> {
+        final ReentrantLock lock = new ReentrantLock();
+        volatile T value;
+    }
+
+    private final Map<BookingDao, Slot<T>> slots = new ConcurrentHashMap<>();
+    private final CacheStats stats;
+
+    SnapshotCache(String name, ToLongFunction<T> bytes) {
+        this.stats = CacheStats.named(name);
+        stats.sizeFrom(() -> slots.values().stream().mapToLong(s -> {
+            T value = s.value;
+            return value == null ? 0 : bytes.applyAsLong(value);
+        }).sum());
+    }
+
+    /** Whether something built at builtAt (System.nanoTime) is younger than ttl. */
+    static boolean younger(long builtAt, Duration ttl) {
+        return System.nanoTime() - builtAt < ttl.toNanos();
+    }
+
+    /** The DAO's snapshot while fresh accepts it, otherwise a new one from builder. */
+    T get(BookingDao bookingDao, Predicate<T> fresh, Builder<T> builder) {
+        Slot<T> slot = slots.computeIfAbsent(bookingDao, d -> new Slot<>());
+        T value = slot.value;
+        if (value != null && fresh.test(value)) {
+            stats.hit();
+            return value;
+        }
+        slot.lock.lock();
+        try {
+            // Someone else may have rebuilt it while this thread waited
+            value = slot.value;
+            if (value != null && fresh.test(value)) {
+                stats.hit();
+                return value;
+            }
+            stats.miss();
+            T built = builder.build(value);
+            slot.value = built;
+            builder.published(built);
+            return built;
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    /** The DAO's current snapshot, fresh or not, without building one; null if there is none. */
+    T peek(BookingDao bookingDao) {
+        Slot<T> slot = slots.get(bookingDao);
+        return slot == null ? null : slot.value;
+    }
+}
@@ -0,0 +1,49 @@
+package service.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Implemented as the generic cell rate algorithm: the whole bucket is one "theoretical arrival
+ * time" held in an AtomicLong, so taking a token is a single compare-and-set and contended
+ * callers never block each other.
+ */
+class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong tat;
+
+    /**
+     * @param capacity tokens available in a burst
+     * @param refillNanosPerToken time for one token to come back
+     */
+    TokenBucket(int capacity, long refillNanosPerToken, long now) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be >= 1");
+        if (refillNanosPerToken < 1) throw new IllegalArgumentException("Refill interval must be > 0");
+        this.nanosPerToken = refillNanosPerToken;
+        this.burstNanos = refillNanosPerToken * (capacity - 1);
+        this.tat = new AtomicLong(now);
+    }
+
+    /** @return 0 when a token was taken, otherwise nanoseconds until one is available */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long wait = base - now - burstNanos;
+            if (wait > 0) return wait;
+            if (tat.compareAndSet(current, base + nanosPerToken)) return 0;
+        }
+    }
+
+    /** Back to a full bucket, e.g. after a successful login. */
+    void reset(long now) {
+        tat.set(now);
+    }
+
+    /** True when the bucket has fully refilled and holds no state worth keeping. */
+    boolean isIdle(long now) {
+        return tat.get() <= now;
+    }
+}
@@ -0,0 +1,255 @@
+package service.impl;
+
+import config.ConfigLoader;
+import dao.BookingDao;
+import dao.FacilityDao;
+import model.Booking;
+import model.BookingStatus;
+import model.Facility;
+import model.IdleWindow;
+import model.UtilizationHeatmap;
+import service.UtilizationService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Utilization from a {@link SlotBitmap} over the last analytics.occupancy.history.days and the
+ * next analytics.occupancy.horizon.days, built with one streaming scan of the confirmed bookings
+ * the first time it is asked for and again once older than the TTL. Bookings admitted, cancelled
+ * or moved through {@link BookingServiceImpl} update it in between, so this terminal's changes
+ * show at once and other terminals' within the TTL.
+ *
+ * While a new bitmap is being built, this terminal's changes go to it as well: bookings are set in
+ * it straight away, and releases are queued and replayed from the database once the scan is done,
+ * since the scan may still set slots from a booking it read before the cancellation.
+ *
+ * Opening hours (analytics.open.hours, the same for every facility and day) set which slots count.
+ */
+public class UtilizationServiceImpl implements UtilizationService {
+    // One bitmap per DAO, shared like the occupancy index
+    private static final SnapshotCache<SlotBitmap> BITMAPS = new SnapshotCache<>("slot_bitmap", SlotBitmap::bytes);
+    private static final Map<BookingDao, Rebuild> REBUILDS = new ConcurrentHashMap<>();
+
+    /** The bitmap being scanned, if any, with the releases to replay on it once it is published. */
+    private static final class Rebuild {
+        volatile SlotBitmap building;
+        final List<Release> pending = new ArrayList<>();
+    }
+
+    private static final class Release {
+        final Long facilityId;
+        final LocalDateTime start;
+        final LocalDateTime end;
+
+        Release(Long facilityId, LocalDateTime start, LocalDateTime end) {
+            this.facilityId = facilityId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private final BookingDao bookingDao;
+    private final FacilityDao facilityDao;
+
+    public UtilizationServiceImpl(BookingDao bookingDao, FacilityDao facilityDao) {
+        this.bookingDao = bookingDao;
+        this.facilityDao = facilityDao;
+    }
+
+    /** A confirmed booking was made or moved into [start, end). */
+    static void booked(BookingDao bookingDao, Long facilityId, LocalDateTime start, LocalDateTime end) {
+        Rebuild rebuild = REBUILDS.get(bookingDao);
+        if (rebuild == null) return;
+        // building before bitmap: a build publishes its bitmap before it clears building, so
+        // reading building as null means bitmap is already the new one
+        SlotBitmap building = rebuild.building;
+        SlotBitmap bitmap = BITMAPS.peek(bookingDao);
+        if (building != null) building.set(facilityId, start, end);
+        if (bitmap != null && bitmap != building) bitmap.set(facilityId, start, end);
+    }
+
+    /**
+     * A confirmed booking over [start, end) was cancelled or moved away. Other bookings may share
+     * those slots, so they are cleared and then set again from whatever still overlaps them.
+     */
+    static void released(BookingDao bookingDao, Long facilityId, LocalDateTime start, LocalDateTime end) {
+        Rebuild rebuild = REBUILDS.get(bookingDao);
+        if (rebuild == null) return;
+        synchronized (rebuild.pending) {
+            if (rebuild.building != null) rebuild.pending.add(new Release(facilityId, start, end));
+        }
+        SlotBitmap bitmap = BITMAPS.peek(bookingDao);
+        if (bitmap != null) release(bookingDao, bitmap, facilityId, start, end);
+    }
+
+    private static void release(BookingDao bookingDao, SlotBitmap bitmap, Long facilityId, LocalDateTime start, LocalDateTime end) {
+        bitmap.clear(facilityId, start, end);
+        for (Object o : bookingDao.findByFacilityAndRange(facilityId, start, end)) {
+            Booking b = (Booking) o;
+            if (b.getStatus() == BookingStatus.CONFIRMED) bitmap.set(facilityId, b.getStartTime(), b.getEndTime());
+        }
+    }
+
+    @Override
+    public double utilization(LocalDate from, LocalDate to) {
+        List<Long> ids = facilityDao.findAll().stream().map(Facility::getId).collect(Collectors.toList());
+        return utilization(ids, from, to);
+    }
+
+    @Override
+    public double utilization(Long facilityId, LocalDate from, LocalDate to) {
+        facilityDao.findById(facilityId).orElseThrow(() -> new IllegalArgumentException("Facility not found"));
+        return utilization(List.of(facilityId), from, to);
+    }
+
+    private double utilization(List<Long> facilityIds, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        SlotBitmap bitmap = bitmap();
+        LocalDate f = max(from, bitmap.from());
+        LocalDate t = min(to, bitmap.to());
+        long[] open = openMask();
+        long openSlots = (long) (Long.bitCount(open[0]) + Long.bitCount(open[1])) * facilityIds.size() * days(f, t);
+        if (openSlots == 0) return 0.0;
+        return 100.0 * bitmap.occupied(facilityIds, f, t, open[0], open[1]) / openSlots;
+    }
+
+    @Override
+    public UtilizationHeatmap heatmap(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        List<Facility> facilities = new ArrayList<>(facilityDao.findAll());
+        facilities.sort(Comparator.comparing(Facility::getName, String.CASE_INSENSITIVE_ORDER));
+        SlotBitmap bitmap = bitmap();
+        LocalDate f = max(from, bitmap.from());
+        LocalDate t = min(to, bitmap.to());
+        List<Long> ids = facilities.stream().map(Facility::getId).collect(Collectors.toList());
+        SlotBitmap.HourOfWeek counts = bitmap.hourOfWeek(ids, f, t);
+        long[] open = openMask();
+        UtilizationHeatmap heatmap = new UtilizationHeatmap(f, t);
+        for (Facility facility : facilities) {
+            int[] slots = counts.occupiedSlots.get(facility.getId());
+            double[] shares = new double[UtilizationHeatmap.HOURS_PER_WEEK];
+            for (int i = 0; i < shares.length; i++) {
+                int openInHour = openSlotsInHour(open, i % 24);
+                int occurrences = counts.weekdays[i / 24];
+                shares[i] = openInHour == 0 || occurrences == 0 ? 0 : Math.min(1.0, (double) slots[i] / (openInHour * occurrences));
+            }
+            heatmap.addRow(facility.getId(), facility.getName(), shares);
+        }
+        return heatmap;
+    }
+
+    @Override
+    public List<IdleWindow> idleWindows(Long facilityId, LocalDate date, int minMinutes) {
+        if (date == null) throw new IllegalArgumentException("Date required");
+        if (minMinutes <= 0) throw new IllegalArgumentException("Minimum idle time must be positive");
+        facilityDao.findById(facilityId).orElseThrow(() -> new IllegalArgumentException("Facility not found"));
+        SlotBitmap bitmap = bitmap();
+        if (date.isBefore(bitmap.from()) || !date.isBefore(bitmap.to())) {
+            throw new IllegalArgumentException("Occupancy is only kept from " + bitmap.from() + " to " + bitmap.to().minusDays(1));
+        }
+        long[] open = openMask();
+        int minSlots = (minMinutes + SlotBitmap.SLOT_MINUTES - 1) / SlotBitmap.SLOT_MINUTES;
+        List<IdleWindow> windows = new ArrayList<>();
+        LocalDateTime midnight = date.atStartOfDay();
+        for (int[] run : bitmap.idleRuns(facilityId, date, open[0], open[1], minSlots)) {
+            windows.add(new IdleWindow(facilityId, midnight.plusMinutes((long) run[0] * SlotBitmap.SLOT_MINUTES),
+                midnight.plusMinutes((long) run[1] * SlotBitmap.SLOT_MINUTES)));
+        }
+        return windows;
+    }
+
+    private SlotBitmap bitmap() {
+        Rebuild rebuild = REBUILDS.computeIfAbsent(bookingDao, d -> new Rebuild());
+        return BITMAPS.get(bookingDao, b -> SnapshotCache.younger(b.builtAt, ttl()), new SnapshotCache.Builder<SlotBitmap>() {
+            @Override
+            public SlotBitmap build(SlotBitmap previous) {
+                LocalDate today = LocalDate.now();
+                SlotBitmap fresh = new SlotBitmap(today.minusDays(Math.max(1, historyDays())), today.plusDays(Math.max(1, horizonDays())));
+                rebuild.building = fresh;
+                try {
+                    bookingDao.scanConfirmed(fresh.from().atStartOfDay(), fresh.to().atStartOfDay(), fresh::set);
+                } catch (RuntimeException e) {
+                    finish(rebuild);
+                    throw e;
+                }
+                return fresh;
+            }
+
+            // Published before building is cleared, so booked() always reaches one of them
+            @Override
+            public void published(SlotBitmap fresh) {
+                for (Release r : finish(rebuild)) release(bookingDao, fresh, r.facilityId, r.start, r.end);
+            }
+        });
+    }
+
+    // Ends the rebuild, handing back the releases queued while it ran
+    private static List<Release> finish(Rebuild rebuild) {
+        synchronized (rebuild.pending) {
+            List<Release> replay = new ArrayList<>(rebuild.pending);
+            rebuild.pending.clear();
+            rebuild.building = null;
+            return replay;
+        }
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) throw new IllegalArgumentException("Date range required");
+        if (!to.isAfter(from)) throw new IllegalArgumentException("End date must be after start date");
+    }
+
+    private static int openSlotsInHour(long[] open, int hour) {
+        int first = hour * 60 / SlotBitmap.SLOT_MINUTES;
+        long[] hourMask = SlotBitmap.mask(first, first + 60 / SlotBitmap.SLOT_MINUTES);
+        return Long.bitCount(open[0] & hourMask[0]) + Long.bitCount(open[1] & hourMask[1]);
+    }
+
+    private static long days(LocalDate from, LocalDate to) {
+        return Math.max(0, to.toEpochDay() - from.toEpochDay());
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    // Opening hours as a daily slot mask; "00:00" as the end means midnight
+    private static long[] openMask() {
+        String value = ConfigLoader.getProperty("analytics.open.hours", "06:00-22:00");
+        String[] parts = value.split("-");
+        try {
+            if (parts.length != 2) throw new DateTimeParseException("", value, 0);
+            LocalTime open = LocalTime.parse(parts[0].trim());
+            LocalTime close = LocalTime.parse(parts[1].trim());
+            int to = close.equals(LocalTime.MIDNIGHT) ? SlotBitmap.SLOTS_PER_DAY : (close.toSecondOfDay() / 60 + SlotBitmap.SLOT_MINUTES - 1) / SlotBitmap.SLOT_MINUTES;
+            return SlotBitmap.mask(open.toSecondOfDay() / 60 / SlotBitmap.SLOT_MINUTES, to);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid value for analytics.open.hours: '" + value + "' (expected HH:mm-HH:mm)");
+        }
+    }
+
+    private static Duration ttl() {
+        return ConfigLoader.getDuration("analytics.occupancy.ttl", Duration.ofMinutes(5));
+    }
+
+    private static int historyDays() {
+        return ConfigLoader.getInt("analytics.occupancy.history.days", 365);
+    }
+
+    private static int horizonDays() {
+        return ConfigLoader.getInt("analytics.occupancy.horizon.days", 90);
+    }
+}
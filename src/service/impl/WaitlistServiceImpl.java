@@ -0,0 +1,83 @@
+package service.impl;
+
+import dao.WaitlistDao;
+import model.WaitlistEntry;
+import model.WaitlistStatus;
+import service.WaitlistService;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lists and withdraws waitlist entries, and runs the promotion passes that
+ * {@link BookingServiceImpl} and {@link GroupClassServiceImpl} hand it when room frees up.
+ *
+ * Passes run one at a time on a single background thread, so the member who cancels does not wait
+ * for the waiters behind them, and two passes over the same queue never race each other. Each
+ * promotion is a single transaction in the DAO; listeners hear about it once it has committed.
+ */
+public class WaitlistServiceImpl implements WaitlistService {
+    private static final Logger LOG = Logger.getLogger("scms.waitlist");
+    private static final ExecutorService PROMOTER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "waitlist-promoter");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final List<Consumer<WaitlistEntry>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private final WaitlistDao waitlistDao;
+
+    public WaitlistServiceImpl(WaitlistDao waitlistDao) {
+        this.waitlistDao = waitlistDao;
+    }
+
+    @Override
+    public List<WaitlistEntry> listForMember(Long memberId) { return waitlistDao.findByMember(memberId); }
+
+    @Override
+    public List<WaitlistEntry> listWaiting() { return waitlistDao.findWaiting(); }
+
+    @Override
+    public void leave(Long entryId) {
+        if (!waitlistDao.close(entryId, WaitlistStatus.CANCELLED)) {
+            throw new IllegalStateException("This waitlist entry is no longer waiting");
+        }
+    }
+
+    @Override
+    public AutoCloseable onPromoted(Consumer<WaitlistEntry> listener) {
+        LISTENERS.add(listener);
+        return () -> LISTENERS.remove(listener);
+    }
+
+    /** Queues a promotion pass behind any already pending. */
+    static void submit(String description, Runnable pass) {
+        PROMOTER.execute(() -> {
+            try {
+                pass.run();
+            } catch (RuntimeException e) {
+                // The entries stay WAITING; the next cancellation in the same slot tries again
+                LOG.log(Level.WARNING, "Waitlist promotion failed for " + description, e);
+            }
+        });
+    }
+
+    static void promoted(WaitlistEntry entry) {
+        LOG.info(entry.isClassEntry()
+            ? String.format("Waitlist entry %d: member %d enrolled in class %d", entry.getId(), entry.getMemberId(), entry.getClassId())
+            : String.format("Waitlist entry %d: member %d booked facility %d from %s (booking %d)",
+                entry.getId(), entry.getMemberId(), entry.getFacilityId(), entry.getStartTime(), entry.getBookingId()));
+        for (Consumer<WaitlistEntry> listener : LISTENERS) {
+            try {
+                listener.accept(entry);
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "Waitlist listener failed", e);
+            }
+        }
+    }
+}
@@ -1,15 +1,52 @@
 package ui;
 
-import dao.impl.UserDaoJdbc;
+import api.ApiServer;
+import config.ConfigLoader;
+import dao.DaoFactory;
 import model.User;
+import monitoring.EdtWatchdog;
+import monitoring.FlightRecording;
+import monitoring.MetricsHttpServer;
 import service.impl.AuthServiceImpl;
+import service.impl.BookingServiceImpl;
+import service.impl.FacilityServiceImpl;
+import service.impl.GroupClassServiceImpl;
+import service.impl.MemberMetricsServiceImpl;
+import service.impl.PaymentServiceImpl;
+import service.impl.WaitlistServiceImpl;
+import util.PasswordHasher;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 
 public class AppLauncher {
+    // Target cost of one password hash; calibrated against this machine at startup
+    private static final Duration PASSWORD_HASH_TARGET = Duration.ofMillis(100);
+
+    // One service for the whole process so throttling and sessions survive logout
+    private static final AuthServiceImpl AUTH = new AuthServiceImpl(DaoFactory.users());
+    private static final String TERMINAL_ID = terminalId();
+
     public static void main(String[] args) {
+        ConfigLoader.startWatching();
+        ConfigLoader.subscribe(AppLauncher::calibratePasswordHashing, "password.hash.target");
+        calibratePasswordHashing();
+        FlightRecording.startIfEnabled();
+        MetricsHttpServer.startIfEnabled();
+        MemberMetricsServiceImpl.scheduleIfEnabled(DaoFactory.memberMetrics());
+
+        if (Arrays.asList(args).contains("--server")) {
+            startApiServer();
+            return;
+        }
+
+        // Desktop only from here on
+        EdtWatchdog.start();
         SwingUtilities.invokeLater(() -> {
             JFrame frame = new JFrame("Sports Complex Management System");
             frame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
@@ -21,24 +58,84 @@ public class AppLauncher {
     }
 
     private static void showLogin(JFrame frame) {
-        AuthServiceImpl auth = new AuthServiceImpl(new UserDaoJdbc());
+        EdtWatchdog.setActiveScreen("login");
         LoginPanel login = new LoginPanel((email, password) -> {
-            Optional<User> user = auth.login(email, password);
-            if (user.isPresent()) {
-                showDashboard(frame, user.get());
-            } else {
-                JOptionPane.showMessageDialog(frame, "Invalid credentials", "Login Failed", JOptionPane.ERROR_MESSAGE);
-            }
+            // Lookup and hash verification run off the EDT so the window stays responsive
+            frame.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            new SwingWorker<Optional<User>, Void>() {
+                @Override
+                protected Optional<User> doInBackground() {
+                    return AUTH.login(email, password, TERMINAL_ID);
+                }
+
+                @Override
+                protected void done() {
+                    frame.setCursor(Cursor.getDefaultCursor());
+                    try {
+                        Optional<User> user = get();
+                        if (user.isPresent()) {
+                            showDashboard(frame, user.get());
+                        } else {
+                            JOptionPane.showMessageDialog(frame, "Invalid credentials", "Login Failed", JOptionPane.ERROR_MESSAGE);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException e) {
+                        JOptionPane.showMessageDialog(frame, "Login failed: " + e.getCause().getMessage(), "Login Failed", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }.execute();
         });
         frame.setContentPane(login);
         frame.revalidate();
     }
 
     private static void showDashboard(JFrame frame, User user) {
-        DashboardPanel dashboard = new DashboardPanel(user, () -> showLogin(frame));
+        EdtWatchdog.setActiveScreen("home");
+        String session = AUTH.openSession(user);
+        DashboardPanel dashboard = new DashboardPanel(user, () -> {
+            AUTH.closeSession(session);
+            showLogin(frame);
+        });
         frame.setContentPane(dashboard);
         frame.revalidate();
     }
-}
 
+    /**
+     * Headless mode: serve the HTTP/JSON API instead of opening a window. It listens on loopback
+     * only unless api.host is set, e.g. to 0.0.0.0 to accept kiosks and the member app.
+     */
+    private static void startApiServer() {
+        BookingServiceImpl bookings = new BookingServiceImpl(DaoFactory.bookings(), DaoFactory.facilities(), DaoFactory.waitlist(),
+            DaoFactory.coachHours(), DaoFactory.maintenance());
+        ApiServer api = new ApiServer(AUTH,
+            bookings,
+            new FacilityServiceImpl(DaoFactory.facilities()),
+            new PaymentServiceImpl(DaoFactory.payments()),
+            new GroupClassServiceImpl(DaoFactory.groupClasses(), DaoFactory.facilities(), DaoFactory.users(), DaoFactory.waitlist(), bookings),
+            new WaitlistServiceImpl(DaoFactory.waitlist()),
+            DaoFactory.bookings(), DaoFactory.users());
+        String host = ConfigLoader.getProperty("api.host", "127.0.0.1");
+        int port = ConfigLoader.getInt("api.port", 8080);
+        try {
+            api.start(host, port, ConfigLoader.getInt("api.threads", 64));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start API server on " + host + ":" + port, e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(api::stop, "api-shutdown"));
+        System.out.println("SCMS API listening on http://" + host + ":" + port + "/api/");
+    }
+
+    private static void calibratePasswordHashing() {
+        long targetMillis = ConfigLoader.getDuration("password.hash.target", PASSWORD_HASH_TARGET).toMillis();
+        Thread calibrate = new Thread(() -> PasswordHasher.calibrate(targetMillis), "password-calibration");
+        calibrate.setDaemon(true);
+        calibrate.start();
+    }
 
+    private static String terminalId() {
+        String host = System.getenv("COMPUTERNAME");
+        if (host == null) host = System.getenv("HOSTNAME");
+        return host != null ? host : AuthServiceImpl.LOCAL_TERMINAL;
+    }
+}
@@ -1,23 +1,45 @@
 package ui;
 
+import dao.DaoFactory;
 import model.Role;
+import model.SearchEntityType;
 import model.User;
+import model.WaitlistEntry;
+import monitoring.EdtWatchdog;
+import service.SearchService;
+import service.impl.SearchServiceImpl;
+import service.impl.WaitlistServiceImpl;
+import ui.components.NotificationPanel;
+import ui.components.GlobalSearchBox;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
 
 public class DashboardPanel extends JPanel {
     public interface LogoutHandler { void onLogout(); }
 
     private final CardLayout contentLayout = new CardLayout();
     private final JPanel content = new JPanel(contentLayout);
+    private final Map<String, JButton> navButtons = new HashMap<>();
+    private final SearchService searchService = new SearchServiceImpl(
+        DaoFactory.users(), DaoFactory.facilities(), DaoFactory.bookings(), DaoFactory.payments(), DaoFactory.maintenance());
     private JButton activeNavButton;
+    private AutoCloseable waitlistSubscription;
 
     public DashboardPanel(User user, LogoutHandler logoutHandler) {
         setLayout(new BorderLayout());
         setBackground(AppColors.BG);
 
+        if (user.getRole() == Role.ADMIN) {
+            // Load the search index once in the background; screens keep it current afterwards
+            Thread indexer = new Thread(searchService::rebuild, "search-indexer");
+            indexer.setDaemon(true);
+            indexer.start();
+        }
+
         add(buildHeader(user, logoutHandler), BorderLayout.NORTH);
         JPanel sidebar = buildSidebar(user, logoutHandler);
         add(sidebar, BorderLayout.WEST);
@@ -27,6 +49,32 @@ public class DashboardPanel extends JPanel {
         ui.screens.DashboardPanel home = new ui.screens.DashboardPanel();
         content.add(home, "home");
         add(content, BorderLayout.CENTER);
+
+        // Members hear about their own promotions, admins about everyone's
+        waitlistSubscription = new WaitlistServiceImpl(DaoFactory.waitlist()).onPromoted(entry -> {
+            if (user.getRole() != Role.ADMIN && !user.getId().equals(entry.getMemberId())) return;
+            SwingUtilities.invokeLater(() -> home.addNotification(NotificationPanel.NotificationType.BOOKING,
+                "Waitlist Promotion", describe(entry, user.getRole() == Role.ADMIN)));
+        });
+    }
+
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        if (waitlistSubscription != null) {
+            try {
+                waitlistSubscription.close();
+            } catch (Exception ignore) { }
+            waitlistSubscription = null;
+        }
+    }
+
+    private static String describe(WaitlistEntry entry, boolean admin) {
+        String who = admin ? "Member #" + entry.getMemberId() + " is" : "You are";
+        return entry.isClassEntry()
+            ? who + " now enrolled in class #" + entry.getClassId()
+            : String.format("%s now booked from %s (booking #%d)", who,
+                entry.getStartTime().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")), entry.getBookingId());
     }
 
     private JPanel buildHeader(User user, LogoutHandler logoutHandler) {
@@ -50,6 +98,13 @@ public class DashboardPanel extends JPanel {
         
         header.add(leftPanel, BorderLayout.WEST);
 
+        if (user.getRole() == Role.ADMIN) {
+            JPanel searchHolder = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 4));
+            searchHolder.setOpaque(false);
+            searchHolder.add(new GlobalSearchBox(searchService, this::openSearchResult));
+            header.add(searchHolder, BorderLayout.CENTER);
+        }
+
         JPanel rightPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
         rightPanel.setOpaque(false);
         
@@ -85,29 +140,33 @@ public class DashboardPanel extends JPanel {
 
         if (user.getRole() == Role.ADMIN) {
             side.add(sectionLabel("Management"));
-            side.add(navButton("Users", "users", () -> { ensure("users", new ui.screens.UsersPanel()); contentLayout.show(content, "users"); }));
-            side.add(navButton("Facilities", "facilities", () -> { ensure("facilities", new ui.screens.FacilitiesPanel(user)); contentLayout.show(content, "facilities"); }));
-            side.add(navButton("Bookings", "bookings", () -> { ensure("bookings", new ui.screens.BookingsPanel(user)); contentLayout.show(content, "bookings"); }));
-            side.add(navButton("Payments", "payments", () -> { ensure("payments", new ui.screens.PaymentsPanel(user)); contentLayout.show(content, "payments"); })); 
-            side.add(navButton("Maintenance", "maintenance", () -> { ensure("maintenance", new ui.screens.MaintenancePanel(user)); contentLayout.show(content, "maintenance"); }));
+            side.add(navButton("Users", "users", () -> { ensure("users", new ui.screens.UsersPanel(searchService)); contentLayout.show(content, "users"); }));
+            side.add(navButton("Facilities", "facilities", () -> { ensure("facilities", new ui.screens.FacilitiesPanel(user, searchService)); contentLayout.show(content, "facilities"); }));
+            side.add(navButton("Bookings", "bookings", () -> { ensure("bookings", new ui.screens.BookingsPanel(user, searchService)); contentLayout.show(content, "bookings"); }));
+            side.add(navButton("Classes", "classes", () -> { ensure("classes", new ui.screens.ClassesPanel(user)); contentLayout.show(content, "classes"); }));
+            side.add(navButton("Payments", "payments", () -> { ensure("payments", new ui.screens.PaymentsPanel(user, searchService)); contentLayout.show(content, "payments"); })); 
+            side.add(navButton("Maintenance", "maintenance", () -> { ensure("maintenance", new ui.screens.MaintenancePanel(user, searchService)); contentLayout.show(content, "maintenance"); }));
             side.add(navButton("Feedback", "feedback", () -> { ensure("feedback", new ui.screens.FeedbackPanel(user)); contentLayout.show(content, "feedback"); })); 
-           
+            side.add(sectionLabel("System"));
+            side.add(navButton("Diagnostics", "diagnostics", () -> { ensure("diagnostics", new ui.screens.DiagnosticsPanel()); contentLayout.show(content, "diagnostics"); }));
         }
 
         if (user.getRole() == Role.COACH) {
             side.add(sectionLabel("Workspace"));
-            side.add(navButton("Facilities", "facilities", () -> { ensure("facilities", new ui.screens.FacilitiesPanel(user)); contentLayout.show(content, "facilities"); }));
-            side.add(navButton("Bookings", "bookings", () -> { ensure("bookings", new ui.screens.BookingsPanel(user)); contentLayout.show(content, "bookings"); }));
-            side.add(navButton("Maintenance", "maintenance", () -> { ensure("maintenance", new ui.screens.MaintenancePanel(user)); contentLayout.show(content, "maintenance"); }));
+            side.add(navButton("Facilities", "facilities", () -> { ensure("facilities", new ui.screens.FacilitiesPanel(user, searchService)); contentLayout.show(content, "facilities"); }));
+            side.add(navButton("Bookings", "bookings", () -> { ensure("bookings", new ui.screens.BookingsPanel(user, searchService)); contentLayout.show(content, "bookings"); }));
+            side.add(navButton("Classes", "classes", () -> { ensure("classes", new ui.screens.ClassesPanel(user)); contentLayout.show(content, "classes"); }));
+            side.add(navButton("Maintenance", "maintenance", () -> { ensure("maintenance", new ui.screens.MaintenancePanel(user, searchService)); contentLayout.show(content, "maintenance"); }));
             side.add(navButton("Feedback", "feedback", () -> { ensure("feedback", new ui.screens.FeedbackPanel(user)); contentLayout.show(content, "feedback"); })); 
         }
 
         if (user.getRole() == Role.MEMBER) {
             side.add(sectionLabel("Workspace"));
-            side.add(navButton("Facilities", "facilities", () -> { ensure("facilities", new ui.screens.FacilitiesPanel(user)); contentLayout.show(content, "facilities"); }));
-            side.add(navButton("Bookings", "bookings", () -> { ensure("bookings", new ui.screens.BookingsPanel(user)); contentLayout.show(content, "bookings"); }));
-            side.add(navButton("Payments", "payments", () -> { ensure("payments", new ui.screens.PaymentsPanel(user)); contentLayout.show(content, "payments"); })); 
-            side.add(navButton("Maintenance", "maintenance", () -> { ensure("maintenance", new ui.screens.MaintenancePanel(user)); contentLayout.show(content, "maintenance"); }));
+            side.add(navButton("Facilities", "facilities", () -> { ensure("facilities", new ui.screens.FacilitiesPanel(user, searchService)); contentLayout.show(content, "facilities"); }));
+            side.add(navButton("Bookings", "bookings", () -> { ensure("bookings", new ui.screens.BookingsPanel(user, searchService)); contentLayout.show(content, "bookings"); }));
+            side.add(navButton("Classes", "classes", () -> { ensure("classes", new ui.screens.ClassesPanel(user)); contentLayout.show(content, "classes"); }));
+            side.add(navButton("Payments", "payments", () -> { ensure("payments", new ui.screens.PaymentsPanel(user, searchService)); contentLayout.show(content, "payments"); })); 
+            side.add(navButton("Maintenance", "maintenance", () -> { ensure("maintenance", new ui.screens.MaintenancePanel(user, searchService)); contentLayout.show(content, "maintenance"); }));
             side.add(navButton("Feedback", "feedback", () -> { ensure("feedback", new ui.screens.FeedbackPanel(user)); contentLayout.show(content, "feedback"); })); 
         }
        
@@ -155,8 +214,10 @@ public class DashboardPanel extends JPanel {
         
         b.addActionListener(e -> {
             setActiveNav(b);
+            EdtWatchdog.setActiveScreen(key);
             action.run();
         });
+        navButtons.put(key, b);
         return b;
     }
 
@@ -177,6 +238,45 @@ public class DashboardPanel extends JPanel {
         return l;
     }
 
+    private void openSearchResult(SearchEntityType type, Long id) {
+        String key;
+        switch (type) {
+            case USER: key = "users"; break;
+            case FACILITY: key = "facilities"; break;
+            case BOOKING: key = "bookings"; break;
+            case PAYMENT: key = "payments"; break;
+            default: key = "maintenance"; break;
+        }
+        JButton nav = navButtons.get(key);
+        if (nav == null) return;
+        nav.doClick();
+        for (Component c : content.getComponents()) {
+            if (key.equals(c.getName())) selectRow(c, id);
+        }
+    }
+
+    // Every screen lists its records in a JTable whose first column is the ID
+    private boolean selectRow(Component comp, Long id) {
+        if (comp instanceof JTable) {
+            JTable table = (JTable) comp;
+            for (int row = 0; row < table.getRowCount(); row++) {
+                Object v = table.getValueAt(row, 0);
+                if (v instanceof Number && ((Number) v).longValue() == id) {
+                    table.setRowSelectionInterval(row, row);
+                    table.scrollRectToVisible(table.getCellRect(row, 0, true));
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (comp instanceof Container) {
+            for (Component child : ((Container) comp).getComponents()) {
+                if (selectRow(child, id)) return true;
+            }
+        }
+        return false;
+    }
+
     private Component ensure(String key, Component comp) {
         for (Component c : content.getComponents()) {
             if (key.equals(c.getName())) {
@@ -12,6 +12,8 @@ public class ChartPanel extends JPanel {
     private Map<String, Number> data;
     private Color chartColor;
     private boolean isBarChart;
+    // Index of the first forecast point in a line chart, or -1 when every point is actual
+    private int forecastFrom = -1;
     
     public ChartPanel(String title, String subtitle, Color chartColor, boolean isBarChart) {
         this.chartColor = chartColor;
@@ -24,7 +26,16 @@ public class ChartPanel extends JPanel {
     }
     
     public void updateData(Map<String, Number> newData) {
+        updateData(newData, -1);
+    }
+    
+    /**
+     * Line charts draw the points from forecastFrom on as a forecast: hollow, joined by a dashed
+     * line continuing from the last actual point.
+     */
+    public void updateData(Map<String, Number> newData, int forecastFrom) {
         this.data = newData != null ? newData : new LinkedHashMap<>();
+        this.forecastFrom = forecastFrom;
         repaint();
     }
     
@@ -172,6 +183,9 @@ public class ChartPanel extends JPanel {
         
         int[] xPoints = new int[entries.size()];
         int[] yPoints = new int[entries.size()];
+        int firstForecast = forecastFrom < 0 ? entries.size() : forecastFrom;
+        // Fewer, smaller points when there are many of them
+        int dot = entries.size() > 60 ? 2 : 6;
         
         for (int i = 0; i < entries.size(); i++) {
             Map.Entry<String, Number> entry = entries.get(i);
@@ -181,20 +195,29 @@ public class ChartPanel extends JPanel {
             yPoints[i] = margin + (int) (((maxValue - value) / valueRange) * chartHeight);
             
             // Draw data points
-            g2d.fillOval(xPoints[i] - 3, yPoints[i] - 3, 6, 6);
+            if (i < firstForecast) {
+                g2d.fillOval(xPoints[i] - dot / 2, yPoints[i] - dot / 2, dot, dot);
+            } else {
+                g2d.drawOval(xPoints[i] - dot / 2, yPoints[i] - dot / 2, dot, dot);
+            }
         }
         
-        // Draw connecting lines
+        // Draw connecting lines, dashed into and through the forecast
+        Stroke solid = g2d.getStroke();
+        Stroke dashed = new BasicStroke(2, BasicStroke.CAP_BUTT, BasicStroke.JOIN_ROUND, 0, new float[]{6, 4}, 0);
         for (int i = 0; i < entries.size() - 1; i++) {
+            g2d.setStroke(i + 1 >= firstForecast ? dashed : solid);
             g2d.drawLine(xPoints[i], yPoints[i], xPoints[i + 1], yPoints[i + 1]);
         }
         
-        // Draw X-axis labels
+        // Draw X-axis labels, skipping some when they would overlap
         g2d.setColor(AppColors.TEXT_SECONDARY);
         g2d.setFont(g2d.getFont().deriveFont(Font.PLAIN, 9f));
         FontMetrics fm = g2d.getFontMetrics();
+        int widest = entries.stream().mapToInt(entry -> fm.stringWidth(entry.getKey())).max().orElse(0) + 6;
+        int labelStep = Math.max(1, (int) Math.ceil((double) widest * (entries.size() - 1) / Math.max(1, chartWidth)));
         
-        for (int i = 0; i < entries.size(); i++) {
+        for (int i = 0; i < entries.size(); i += labelStep) {
             String label = entries.get(i).getKey();
             int labelX = xPoints[i] - fm.stringWidth(label) / 2;
             int labelY = margin + chartHeight + 15;
@@ -0,0 +1,100 @@
+package ui.components;
+
+import model.CoachHours;
+import service.CoachService;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Edits a coach's working week: one line per day holding windows like "09:00-12:00, 13:00-17:00".
+ * A blank day is a day off; leaving every day blank lets the coach be booked at any time.
+ */
+public final class CoachHoursDialog {
+    private static final DateTimeFormatter HH_MM = DateTimeFormatter.ofPattern("HH:mm");
+
+    private CoachHoursDialog() { }
+
+    public static void edit(Component parent, CoachService coachService, Long coachId, String coachName) {
+        Map<DayOfWeek, JTextField> fields = new EnumMap<>(DayOfWeek.class);
+        Map<DayOfWeek, List<CoachHours>> byDay = coachService.getHours(coachId).stream()
+            .collect(Collectors.groupingBy(CoachHours::getDayOfWeek));
+
+        JPanel form = new JPanel(new GridBagLayout());
+        form.setBorder(new EmptyBorder(15, 15, 15, 15));
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(6, 6, 6, 6);
+        gbc.anchor = GridBagConstraints.WEST;
+        gbc.gridy = 0;
+        gbc.gridx = 0;
+        gbc.gridwidth = 2;
+        JLabel hint = new JLabel("Windows per day, e.g. 09:00-12:00, 13:00-17:00. Leave a day blank for a day off.");
+        hint.setFont(hint.getFont().deriveFont(Font.PLAIN, 12f));
+        form.add(hint, gbc);
+        gbc.gridwidth = 1;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            gbc.gridy++;
+            gbc.gridx = 0;
+            gbc.fill = GridBagConstraints.NONE;
+            gbc.weightx = 0;
+            JLabel label = new JLabel(day.name().charAt(0) + day.name().substring(1).toLowerCase() + ":");
+            label.setFont(label.getFont().deriveFont(Font.BOLD, 13f));
+            form.add(label, gbc);
+            JTextField field = new JTextField(format(byDay.getOrDefault(day, List.of())), 24);
+            gbc.gridx = 1;
+            gbc.fill = GridBagConstraints.HORIZONTAL;
+            gbc.weightx = 1.0;
+            form.add(field, gbc);
+            fields.put(day, field);
+        }
+
+        while (true) {
+            int res = JOptionPane.showConfirmDialog(parent, form, "🕘 Working Hours - " + coachName,
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (res != JOptionPane.OK_OPTION) return;
+            try {
+                List<CoachHours> hours = new ArrayList<>();
+                for (Map.Entry<DayOfWeek, JTextField> e : fields.entrySet()) hours.addAll(parse(coachId, e.getKey(), e.getValue().getText()));
+                coachService.setHours(coachId, hours);
+                return;
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(parent, ex.getMessage(), "Validation", JOptionPane.WARNING_MESSAGE);
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(parent, "Failed to save working hours: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        }
+    }
+
+    private static String format(List<CoachHours> hours) {
+        return hours.stream()
+            .map(h -> h.getStartTime().format(HH_MM) + "-" + h.getEndTime().format(HH_MM))
+            .collect(Collectors.joining(", "));
+    }
+
+    private static List<CoachHours> parse(Long coachId, DayOfWeek day, String text) {
+        List<CoachHours> hours = new ArrayList<>();
+        for (String window : text.split(",")) {
+            String w = window.trim();
+            if (w.isEmpty()) continue;
+            String[] parts = w.split("-");
+            if (parts.length != 2) throw new IllegalArgumentException("Use HH:mm-HH:mm on " + day + ": " + w);
+            try {
+                hours.add(new CoachHours(coachId, day, LocalTime.parse(parts[0].trim()), LocalTime.parse(parts[1].trim())));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Use HH:mm-HH:mm on " + day + ": " + w);
+            }
+        }
+        return hours;
+    }
+}
@@ -0,0 +1,109 @@
+package ui.components;
+
+import model.SearchEntityType;
+import model.SearchResult;
+import service.SearchService;
+import ui.AppColors;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Header search box that queries the shared {@link SearchService} index as the user types and
+ * shows the hits grouped by entity type in a popup.
+ */
+public class GlobalSearchBox extends JPanel {
+    private static final int RESULTS_PER_GROUP = 5;
+
+    private final SearchService searchService;
+    private final BiConsumer<SearchEntityType, Long> onSelect;
+    private final JTextField field = new JTextField(24);
+    private final JPopupMenu popup = new JPopupMenu();
+    private final Timer debounce;
+
+    public GlobalSearchBox(SearchService searchService, BiConsumer<SearchEntityType, Long> onSelect) {
+        this.searchService = searchService;
+        this.onSelect = onSelect;
+        this.debounce = new Timer(120, e -> showResults());
+        this.debounce.setRepeats(false);
+
+        setLayout(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        setOpaque(false);
+
+        JLabel label = new JLabel("🔍");
+        label.setForeground(Color.WHITE);
+        label.setFont(label.getFont().deriveFont(14f));
+        add(label);
+
+        field.setFont(field.getFont().deriveFont(Font.PLAIN, 13f));
+        field.setBackground(AppColors.BG_DARK);
+        field.setForeground(AppColors.TEXT_PRIMARY);
+        field.setBorder(new EmptyBorder(5, 8, 5, 8));
+        field.setToolTipText("Search members, facilities, bookings, payments and maintenance");
+        add(field);
+
+        popup.setFocusable(false);
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { debounce.restart(); }
+            public void removeUpdate(DocumentEvent e) { debounce.restart(); }
+            public void changedUpdate(DocumentEvent e) { debounce.restart(); }
+        });
+        field.addActionListener(e -> { debounce.stop(); showResults(); });
+    }
+
+    private void showResults() {
+        popup.setVisible(false);
+        popup.removeAll();
+        String query = field.getText().trim();
+        if (query.isEmpty()) return;
+
+        if (!searchService.isReady()) {
+            popup.add(infoItem("Search index is still loading…"));
+        } else {
+            Map<SearchEntityType, List<SearchResult>> grouped = searchService.search(query, RESULTS_PER_GROUP);
+            if (grouped.isEmpty()) {
+                popup.add(infoItem("No matches for \"" + query + "\""));
+            }
+            for (Map.Entry<SearchEntityType, List<SearchResult>> group : grouped.entrySet()) {
+                if (popup.getComponentCount() > 0) popup.addSeparator();
+                popup.add(groupHeader(group.getKey()));
+                for (SearchResult r : group.getValue()) {
+                    JMenuItem item = new JMenuItem("<html><b>" + escape(r.getTitle()) + "</b>"
+                        + "<br><font color='#6c757d'>" + escape(r.getSubtitle()) + "</font></html>");
+                    item.addActionListener(e -> {
+                        popup.setVisible(false);
+                        onSelect.accept(r.getType(), r.getId());
+                    });
+                    popup.add(item);
+                }
+            }
+        }
+        popup.show(field, 0, field.getHeight());
+        field.requestFocusInWindow();
+    }
+
+    private JComponent groupHeader(SearchEntityType type) {
+        JLabel l = new JLabel(type.name());
+        l.setFont(l.getFont().deriveFont(Font.BOLD, 11f));
+        l.setForeground(AppColors.TEXT_SECONDARY);
+        l.setBorder(new EmptyBorder(4, 8, 2, 8));
+        return l;
+    }
+
+    private JMenuItem infoItem(String text) {
+        JMenuItem item = new JMenuItem(text);
+        item.setEnabled(false);
+        return item;
+    }
+
+    private static String escape(String s) {
+        if (s == null) return "";
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,116 @@
+package ui.components;
+
+import model.UtilizationHeatmap;
+import ui.AppColors;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.time.DayOfWeek;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * Paints a {@link UtilizationHeatmap}: one row per facility, one column per hour of the week,
+ * shaded from the background (idle) to the primary colour (in use all the time). Hovering a cell
+ * shows its facility, hour and share.
+ */
+public class HeatmapPanel extends JPanel {
+    private static final int LABEL_WIDTH = 140;
+    private static final int HEADER_HEIGHT = 22;
+    private static final int CELL_WIDTH = 5;
+    private static final int ROW_HEIGHT = 18;
+
+    private UtilizationHeatmap heatmap;
+
+    public HeatmapPanel() {
+        setBackground(AppColors.CARD);
+        setToolTipText("");
+        updateData(null);
+    }
+
+    public void updateData(UtilizationHeatmap heatmap) {
+        this.heatmap = heatmap;
+        int rows = heatmap == null ? 0 : heatmap.getRowCount();
+        setPreferredSize(new Dimension(LABEL_WIDTH + UtilizationHeatmap.HOURS_PER_WEEK * CELL_WIDTH + 10,
+            HEADER_HEIGHT + Math.max(1, rows) * ROW_HEIGHT + 10));
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        if (heatmap == null) return null;
+        int row = (e.getY() - HEADER_HEIGHT) / ROW_HEIGHT;
+        int hour = (e.getX() - LABEL_WIDTH) / CELL_WIDTH;
+        if (e.getY() < HEADER_HEIGHT || e.getX() < LABEL_WIDTH || row >= heatmap.getRowCount() || hour >= UtilizationHeatmap.HOURS_PER_WEEK) {
+            return null;
+        }
+        String day = DayOfWeek.of(hour / 24 + 1).getDisplayName(TextStyle.SHORT, Locale.getDefault());
+        return String.format("%s, %s %02d:00-%02d:00: %.0f%% in use", heatmap.getFacilityNames().get(row), day,
+            hour % 24, hour % 24 + 1, heatmap.getShare(row, hour) * 100);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        if (heatmap == null || heatmap.getRowCount() == 0) {
+            g2d.setColor(AppColors.TEXT_SECONDARY);
+            g2d.setFont(g2d.getFont().deriveFont(Font.BOLD, 14f));
+            g2d.drawString("No data available", LABEL_WIDTH, HEADER_HEIGHT + ROW_HEIGHT);
+            g2d.dispose();
+            return;
+        }
+
+        // Day names over their 24 columns
+        g2d.setFont(g2d.getFont().deriveFont(Font.BOLD, 11f));
+        FontMetrics fm = g2d.getFontMetrics();
+        for (int d = 0; d < 7; d++) {
+            int x = LABEL_WIDTH + d * 24 * CELL_WIDTH;
+            String day = DayOfWeek.of(d + 1).getDisplayName(TextStyle.SHORT, Locale.getDefault());
+            g2d.setColor(AppColors.TEXT_SECONDARY);
+            g2d.drawString(day, x + (24 * CELL_WIDTH - fm.stringWidth(day)) / 2, HEADER_HEIGHT - 7);
+        }
+
+        g2d.setFont(g2d.getFont().deriveFont(Font.PLAIN, 11f));
+        fm = g2d.getFontMetrics();
+        for (int row = 0; row < heatmap.getRowCount(); row++) {
+            int y = HEADER_HEIGHT + row * ROW_HEIGHT;
+            g2d.setColor(AppColors.TEXT_PRIMARY);
+            g2d.drawString(clip(heatmap.getFacilityNames().get(row), fm), 4, y + (ROW_HEIGHT + fm.getAscent()) / 2 - 2);
+            for (int h = 0; h < UtilizationHeatmap.HOURS_PER_WEEK; h++) {
+                g2d.setColor(shade(heatmap.getShare(row, h)));
+                g2d.fillRect(LABEL_WIDTH + h * CELL_WIDTH, y + 1, CELL_WIDTH, ROW_HEIGHT - 2);
+            }
+        }
+
+        // Day separators
+        g2d.setColor(AppColors.BORDER);
+        int bottom = HEADER_HEIGHT + heatmap.getRowCount() * ROW_HEIGHT;
+        for (int d = 0; d <= 7; d++) {
+            int x = LABEL_WIDTH + d * 24 * CELL_WIDTH;
+            g2d.drawLine(x, HEADER_HEIGHT, x, bottom);
+        }
+        g2d.dispose();
+    }
+
+    private String clip(String name, FontMetrics fm) {
+        if (fm.stringWidth(name) <= LABEL_WIDTH - 10) return name;
+        String s = name;
+        while (s.length() > 1 && fm.stringWidth(s + "…") > LABEL_WIDTH - 10) s = s.substring(0, s.length() - 1);
+        return s + "…";
+    }
+
+    private static Color shade(double share) {
+        Color from = AppColors.BG_DARK;
+        Color to = AppColors.PRIMARY;
+        double t = Math.max(0, Math.min(1, share));
+        return new Color(
+            (int) Math.round(from.getRed() + (to.getRed() - from.getRed()) * t),
+            (int) Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * t),
+            (int) Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * t));
+    }
+}
@@ -1,10 +1,21 @@
 package ui.screens;
 
-import dao.impl.BookingDaoJdbc;
-import dao.impl.FacilityDaoJdbc;
-import dao.impl.UserDaoJdbc;
+import dao.DaoFactory;
+import dao.BookingDao;
+import dao.FacilityDao;
+import dao.UserDao;
 import model.*;
+import monitoring.events.ScreenRefreshEvent;
+import service.BookingService;
+import service.CoachService;
+import service.SearchService;
+import service.SlotFullException;
+import service.WaitlistService;
+import service.impl.BookingServiceImpl;
+import service.impl.CoachServiceImpl;
+import service.impl.WaitlistServiceImpl;
 import ui.AppColors;
+import ui.components.CoachHoursDialog;
 import ui.components.SearchPanel;
 
 import javax.swing.*;
@@ -20,10 +31,13 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class BookingsPanel extends JPanel {
-    private final BookingDaoJdbc bookingDao = new BookingDaoJdbc();
-    private final UserDaoJdbc userDao = new UserDaoJdbc();
-    private final FacilityDaoJdbc facilityDao = new FacilityDaoJdbc();
+    private final BookingDao bookingDao = DaoFactory.bookings();
+    private final UserDao userDao = DaoFactory.users();
+    private final FacilityDao facilityDao = DaoFactory.facilities();
+    private final BookingService bookingService = new BookingServiceImpl(bookingDao, facilityDao, DaoFactory.waitlist(), DaoFactory.coachHours(), DaoFactory.maintenance());
+    private final WaitlistService waitlistService = new WaitlistServiceImpl(DaoFactory.waitlist());
     private final User currentUser;
+    private final SearchService searchService;
     private String currentSearchQuery = "";
     private final DefaultTableModel model = new DefaultTableModel() {
         public boolean isCellEditable(int r, int c) { return false; }
@@ -51,8 +65,9 @@ public class BookingsPanel extends JPanel {
     };
     private final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-    public BookingsPanel(User user) {
+    public BookingsPanel(User user, SearchService searchService) {
         this.currentUser = user;
+        this.searchService = searchService;
         setLayout(new BorderLayout(12, 12));
         setBackground(AppColors.BG);
         setBorder(new EmptyBorder(20, 20, 20, 20));
@@ -111,15 +126,25 @@ public class BookingsPanel extends JPanel {
         JButton addFacility = createStyledButton("🏢 New Facility Booking", AppColors.SUCCESS);
         JButton addTraining = createStyledButton("🏃 New Training Booking", AppColors.ACCENT);
         JButton cancel = createStyledButton("❌ Cancel Booking", AppColors.ERROR);
+        JButton waitlist = createStyledButton("⏳ Waitlist", AppColors.PRIMARY);
         
         actions.add(addFacility); 
         actions.add(addTraining); 
         actions.add(cancel);
+        if (currentUser == null || currentUser.getRole() != Role.COACH) actions.add(waitlist);
+        if (currentUser != null && currentUser.getRole() == Role.COACH) {
+            // Coaches keep their own working hours; training outside them is refused
+            JButton hours = createStyledButton("🕘 My Working Hours", AppColors.PRIMARY);
+            CoachService coachService = new CoachServiceImpl(userDao, DaoFactory.coachHours());
+            hours.addActionListener(e -> CoachHoursDialog.edit(this, coachService, currentUser.getId(), currentUser.getFullName()));
+            actions.add(hours);
+        }
         add(actions, BorderLayout.SOUTH);
 
         addFacility.addActionListener(e -> onAdd(false));
         addTraining.addActionListener(e -> onAdd(true));
         cancel.addActionListener(e -> { int row = table.getSelectedRow(); if (row >= 0) onCancel(getId(row)); });
+        waitlist.addActionListener(e -> showWaitlist());
 
         refresh();
     }
@@ -154,6 +179,7 @@ public class BookingsPanel extends JPanel {
     private Long getId(int row) { return ((Number) model.getValueAt(row, 0)).longValue(); }
 
     private void refresh() {
+        ScreenRefreshEvent event = ScreenRefreshEvent.start("Bookings");
         model.setRowCount(0);
         List<Object> list = bookingDao.findAll();
         
@@ -236,6 +262,7 @@ public class BookingsPanel extends JPanel {
 				}
             }
         }
+        event.finish(model.getRowCount());
     }
 
     private void onAdd(boolean training) {
@@ -406,6 +433,7 @@ public class BookingsPanel extends JPanel {
 		updateFees.run();
         int res = JOptionPane.showConfirmDialog(this, p, training ? "🏃 New Training Booking" : "🏢 New Facility Booking", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
         if (res == JOptionPane.OK_OPTION) {
+            Booking pending = null;
             try {
 				Option mOpt = (Option) memberBox.getSelectedItem();
 				Option fOpt = (Option) facilityBox.getSelectedItem();
@@ -429,11 +457,6 @@ public class BookingsPanel extends JPanel {
 					return;
 				}
 
-				if (bookingDao.existsOverlap(f, s, e)) {
-					JOptionPane.showMessageDialog(this, "Selected time overlaps an existing confirmed booking for this facility.", "Scheduling Conflict", JOptionPane.WARNING_MESSAGE);
-					return;
-				}
-
                 Facility fac = facilityDao.findById(f).orElse(null);
                 double hourlyRate = fac != null ? fac.getHourlyRate() : 0.0;
                 double minutes = java.time.Duration.between(s, e).toMinutes();
@@ -458,23 +481,80 @@ public class BookingsPanel extends JPanel {
                     TrainingBooking b = new TrainingBooking();
                     b.setMemberId(m); b.setFacilityId(f); b.setCoachId(c); b.setStartTime(s); b.setEndTime(e);
                     b.setFacilityFee(facilityFee); b.setCoachFee(coachFee); b.setTotalFee(totalFee);
-                    bookingDao.createTrainingBooking(b);
+                    pending = b;
+                    b.setId(bookingService.createTrainingBooking(b));
+                    searchService.indexBooking(b);
                 } else {
                     FacilityBooking b = new FacilityBooking();
                     b.setMemberId(m); b.setFacilityId(f); b.setCoachId(c); b.setStartTime(s); b.setEndTime(e);
                     b.setFacilityFee(facilityFee); b.setCoachFee(0.0); b.setTotalFee(facilityFee);
-                    bookingDao.createFacilityBooking(b);
+                    pending = b;
+                    b.setId(bookingService.createFacilityBooking(b));
+                    searchService.indexBooking(b);
                 }
                 refresh();
+            } catch (SlotFullException ex) {
+                offerWaitlist(pending, ex.getMessage());
+            } catch (IllegalStateException ex) {
+                // Slot full (or facility under maintenance), checked against capacity by the service
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Scheduling Conflict", JOptionPane.WARNING_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "Invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
 
+    private void offerWaitlist(Booking booking, String reason) {
+        int ok = JOptionPane.showConfirmDialog(this,
+            reason + "\n\nJoin the waitlist? The booking is made automatically if a place frees up.",
+            "Slot Full", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+        if (ok != JOptionPane.YES_OPTION) return;
+        try {
+            bookingService.joinWaitlist(booking);
+            JOptionPane.showMessageDialog(this, "You're on the waitlist. You'll be notified when the booking is made.", "Waitlist", JOptionPane.INFORMATION_MESSAGE);
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Cannot Join Waitlist", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    // Members see their own entries; admins see everyone still waiting
+    private void showWaitlist() {
+        boolean member = currentUser != null && currentUser.getRole() == Role.MEMBER;
+        DefaultTableModel entries = new DefaultTableModel(
+            new Object[]{"ID", member ? "Class" : "Member", "Facility", "Start", "End", "Requested", "Status"}, 0) {
+            public boolean isCellEditable(int r, int c) { return false; }
+        };
+        List<WaitlistEntry> list = member ? waitlistService.listForMember(currentUser.getId()) : waitlistService.listWaiting();
+        for (WaitlistEntry w : list) {
+            String facilityName = facilityDao.findById(w.getFacilityId()).map(Facility::getName).orElse(String.valueOf(w.getFacilityId()));
+            Object second = member
+                ? (w.isClassEntry() ? "#" + w.getClassId() : "")
+                : userDao.findById(w.getMemberId()).map(User::getFullName).orElse(String.valueOf(w.getMemberId()));
+            entries.addRow(new Object[]{w.getId(), second, facilityName, FMT.format(w.getStartTime()), FMT.format(w.getEndTime()),
+                FMT.format(w.getRequestedAt()), w.getStatus().name()});
+        }
+        JTable t = new JTable(entries);
+        t.setRowHeight(28);
+        JScrollPane sp = new JScrollPane(t);
+        sp.setPreferredSize(new Dimension(680, 260));
+        Object[] options = {"Leave Waitlist", "Close"};
+        int choice = JOptionPane.showOptionDialog(this, sp, "⏳ Waitlist (" + entries.getRowCount() + ")",
+            JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[1]);
+        if (choice != 0) return;
+        int row = t.getSelectedRow();
+        if (row < 0) return;
+        try {
+            waitlistService.leave(((Number) entries.getValueAt(row, 0)).longValue());
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Waitlist", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
     private void onCancel(Long bookingId) {
         try {
-            new BookingDaoJdbc().updateStatus(bookingId, BookingStatus.CANCELLED);
+            bookingService.cancel(bookingId);
+            bookingDao.findFacilityBookingById(bookingId).ifPresent(searchService::indexBooking);
+            bookingDao.findTrainingBookingById(bookingId).ifPresent(searchService::indexBooking);
             refresh();
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Failed to cancel: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -0,0 +1,349 @@
+package ui.screens;
+
+import dao.DaoFactory;
+import dao.FacilityDao;
+import dao.UserDao;
+import model.ClassEnrollment;
+import model.Facility;
+import model.FacilityStatus;
+import model.GroupClass;
+import model.GroupClassStatus;
+import model.Role;
+import model.User;
+import model.WaitlistEntry;
+import model.WaitlistStatus;
+import monitoring.events.ScreenRefreshEvent;
+import service.GroupClassService;
+import service.SlotFullException;
+import service.WaitlistService;
+import service.impl.BookingServiceImpl;
+import service.impl.GroupClassServiceImpl;
+import service.impl.WaitlistServiceImpl;
+import ui.AppColors;
+import ui.components.SearchPanel;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+public class ClassesPanel extends JPanel {
+    private static final int DAYS_AHEAD = 60;
+    private final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private final User currentUser;
+    private final UserDao userDao = DaoFactory.users();
+    private final FacilityDao facilityDao = DaoFactory.facilities();
+    private final GroupClassService classService =
+        new GroupClassServiceImpl(DaoFactory.groupClasses(), DaoFactory.facilities(), DaoFactory.users(), DaoFactory.waitlist(),
+            new BookingServiceImpl(DaoFactory.bookings(), DaoFactory.facilities(), DaoFactory.waitlist(), DaoFactory.coachHours(), DaoFactory.maintenance()));
+    private final WaitlistService waitlistService = new WaitlistServiceImpl(DaoFactory.waitlist());
+    private final DefaultTableModel model;
+    private final JTable table;
+    private String currentSearchQuery = "";
+
+    public ClassesPanel(User user) {
+        this.currentUser = user;
+        setLayout(new BorderLayout(12, 12));
+        setBackground(AppColors.BG);
+        setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        // Header Panel
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(AppColors.CARD);
+        headerPanel.setBorder(new EmptyBorder(15, 20, 15, 20));
+
+        JLabel title = new JLabel("🧘 Group Classes");
+        title.setFont(title.getFont().deriveFont(Font.BOLD, 20f));
+        title.setForeground(AppColors.TEXT_PRIMARY);
+        headerPanel.add(title, BorderLayout.WEST);
+
+        JLabel subtitle = new JLabel(isMember()
+            ? "Enroll in coach-led classes while seats last"
+            : "Schedule classes and follow their enrollments");
+        subtitle.setFont(subtitle.getFont().deriveFont(Font.PLAIN, 12f));
+        subtitle.setForeground(AppColors.TEXT_SECONDARY);
+        headerPanel.add(subtitle, BorderLayout.SOUTH);
+
+        add(headerPanel, BorderLayout.NORTH);
+
+        // Main content panel
+        JPanel contentPanel = new JPanel(new BorderLayout());
+        contentPanel.setBackground(AppColors.BG);
+
+        SearchPanel searchPanel = new SearchPanel(this::onSearch);
+        contentPanel.add(searchPanel, BorderLayout.NORTH);
+
+        String[] columns = isMember()
+            ? new String[]{"ID", "Title", "Coach", "Facility", "Start", "End", "Seats", "Status", "Enrolled"}
+            : new String[]{"ID", "Title", "Coach", "Facility", "Start", "End", "Seats", "Status"};
+        model = new DefaultTableModel(columns, 0) {
+            public boolean isCellEditable(int r, int c) { return false; }
+        };
+
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.setBackground(AppColors.CARD);
+        tablePanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+
+        table = new JTable(model);
+        table.setRowHeight(35);
+        table.setFont(table.getFont().deriveFont(13f));
+        table.setSelectionBackground(AppColors.PRIMARY_LIGHT);
+        table.setSelectionForeground(Color.WHITE);
+        table.setGridColor(AppColors.BORDER_LIGHT);
+        table.setShowGrid(true);
+        table.setIntercellSpacing(new Dimension(1, 1));
+
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(null);
+        scrollPane.setBackground(AppColors.CARD);
+        tablePanel.add(scrollPane, BorderLayout.CENTER);
+        contentPanel.add(tablePanel, BorderLayout.CENTER);
+        add(contentPanel, BorderLayout.CENTER);
+
+        // Actions Panel
+        JPanel actions = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
+        actions.setBackground(AppColors.CARD);
+        actions.setBorder(new EmptyBorder(15, 20, 15, 20));
+
+        if (isMember()) {
+            JButton enroll = createStyledButton("✅ Enroll", AppColors.SUCCESS);
+            JButton leave = createStyledButton("↩ Leave Class", AppColors.ERROR);
+            actions.add(enroll);
+            actions.add(leave);
+            enroll.addActionListener(e -> onEnroll());
+            leave.addActionListener(e -> onLeave());
+        } else {
+            JButton schedule = createStyledButton("➕ Schedule Class", AppColors.SUCCESS);
+            JButton cancel = createStyledButton("❌ Cancel Class", AppColors.ERROR);
+            JButton enrolled = createStyledButton("👥 Enrollments", AppColors.PRIMARY);
+            actions.add(schedule);
+            actions.add(cancel);
+            actions.add(enrolled);
+            schedule.addActionListener(e -> onSchedule());
+            cancel.addActionListener(e -> onCancel());
+            enrolled.addActionListener(e -> onEnrollments());
+        }
+        JButton reload = createStyledButton("🔄 Refresh", AppColors.BUTTON_SECONDARY);
+        actions.add(reload);
+        reload.addActionListener(e -> refresh());
+        add(actions, BorderLayout.SOUTH);
+
+        refresh();
+    }
+
+    private boolean isMember() {
+        return currentUser != null && currentUser.getRole() == Role.MEMBER;
+    }
+
+    private void onSearch(String searchQuery) {
+        currentSearchQuery = searchQuery.trim().toLowerCase(Locale.ROOT);
+        refresh();
+    }
+
+    private JButton createStyledButton(String text, Color backgroundColor) {
+        JButton button = new JButton(text);
+        button.setBackground(backgroundColor);
+        button.setForeground(Color.WHITE);
+        button.setFont(button.getFont().deriveFont(Font.BOLD, 13f));
+        button.setFocusPainted(false);
+        button.setBorder(new EmptyBorder(8, 16, 8, 16));
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        // Add hover effect
+        button.addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseEntered(java.awt.event.MouseEvent evt) {
+                button.setBackground(backgroundColor.darker());
+            }
+            public void mouseExited(java.awt.event.MouseEvent evt) {
+                button.setBackground(backgroundColor);
+            }
+        });
+
+        return button;
+    }
+
+    private void refresh() {
+        ScreenRefreshEvent event = ScreenRefreshEvent.start("Classes");
+        model.setRowCount(0);
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        List<GroupClass> classes = classService.listBetween(from, from.plusDays(DAYS_AHEAD));
+        Set<Long> mine = new HashSet<>();
+        Set<Long> waitlisted = new HashSet<>();
+        if (isMember()) {
+            for (ClassEnrollment e : classService.enrollmentsOf(currentUser.getId())) mine.add(e.getClassId());
+            for (WaitlistEntry w : waitlistService.listForMember(currentUser.getId())) {
+                if (w.isClassEntry() && w.getStatus() == WaitlistStatus.WAITING) waitlisted.add(w.getClassId());
+            }
+        }
+        for (GroupClass g : classes) {
+            // Coaches see the classes they lead
+            if (currentUser != null && currentUser.getRole() == Role.COACH && !currentUser.getId().equals(g.getCoachId())) continue;
+            String coach = userDao.findById(g.getCoachId()).map(User::getFullName).orElse(String.valueOf(g.getCoachId()));
+            String facility = facilityDao.findById(g.getFacilityId()).map(Facility::getName).orElse(String.valueOf(g.getFacilityId()));
+            if (!currentSearchQuery.isEmpty()
+                && !(g.getTitle() + " " + coach + " " + facility).toLowerCase(Locale.ROOT).contains(currentSearchQuery)) {
+                continue;
+            }
+            String seats = g.getSeatsTaken() + " / " + g.getCapacity();
+            if (isMember()) {
+                model.addRow(new Object[]{g.getId(), g.getTitle(), coach, facility, FMT.format(g.getStartTime()),
+                    FMT.format(g.getEndTime()), seats, g.getStatus(), mine.contains(g.getId()) ? "Yes" : waitlisted.contains(g.getId()) ? "Waitlisted" : ""});
+            } else {
+                model.addRow(new Object[]{g.getId(), g.getTitle(), coach, facility, FMT.format(g.getStartTime()),
+                    FMT.format(g.getEndTime()), seats, g.getStatus()});
+            }
+        }
+        event.finish(model.getRowCount());
+    }
+
+    private Long selectedClassId() {
+        int row = table.getSelectedRow();
+        if (row < 0) {
+            JOptionPane.showMessageDialog(this, "Select a class first", "No Selection", JOptionPane.INFORMATION_MESSAGE);
+            return null;
+        }
+        return (Long) model.getValueAt(row, 0);
+    }
+
+    private void onEnroll() {
+        Long id = selectedClassId();
+        if (id == null) return;
+        try {
+            classService.enroll(id, currentUser.getId());
+            refresh();
+        } catch (SlotFullException ex) {
+            int ok = JOptionPane.showConfirmDialog(this,
+                ex.getMessage() + "\n\nJoin the waitlist? You'll be enrolled automatically if a seat frees up.",
+                "Class Full", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+            if (ok == JOptionPane.YES_OPTION) {
+                try {
+                    classService.joinWaitlist(id, currentUser.getId());
+                } catch (RuntimeException joinFailed) {
+                    JOptionPane.showMessageDialog(this, joinFailed.getMessage(), "Cannot Join Waitlist", JOptionPane.WARNING_MESSAGE);
+                }
+            }
+            refresh();
+        } catch (IllegalStateException ex) {
+            // Full, cancelled, or already enrolled
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Cannot Enroll", JOptionPane.WARNING_MESSAGE);
+            refresh();
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void onLeave() {
+        Long id = selectedClassId();
+        if (id == null) return;
+        int ok = JOptionPane.showConfirmDialog(this, "Give up your seat in this class?", "Leave Class", JOptionPane.YES_NO_OPTION);
+        if (ok != JOptionPane.YES_OPTION) return;
+        try {
+            classService.leave(id, currentUser.getId());
+            refresh();
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void onCancel() {
+        Long id = selectedClassId();
+        if (id == null) return;
+        int ok = JOptionPane.showConfirmDialog(this, "Cancel this class for everyone enrolled?", "Cancel Class", JOptionPane.YES_NO_OPTION);
+        if (ok != JOptionPane.YES_OPTION) return;
+        try {
+            classService.cancelClass(id);
+            refresh();
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void onEnrollments() {
+        Long id = selectedClassId();
+        if (id == null) return;
+        DefaultTableModel enrolled = new DefaultTableModel(new String[]{"Member", "Email", "Enrolled At"}, 0) {
+            public boolean isCellEditable(int r, int c) { return false; }
+        };
+        for (ClassEnrollment e : classService.enrollments(id)) {
+            User m = userDao.findById(e.getMemberId()).orElse(null);
+            enrolled.addRow(new Object[]{m == null ? String.valueOf(e.getMemberId()) : m.getFullName(),
+                m == null ? "" : m.getEmail(), e.getEnrolledAt() == null ? "" : FMT.format(e.getEnrolledAt())});
+        }
+        JTable t = new JTable(enrolled);
+        t.setRowHeight(30);
+        JScrollPane sp = new JScrollPane(t);
+        sp.setPreferredSize(new Dimension(480, 280));
+        JOptionPane.showMessageDialog(this, sp, "👥 Enrollments (" + enrolled.getRowCount() + ")", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private void onSchedule() {
+        class Option { final Long id; final String label; Option(Long id, String label) { this.id = id; this.label = label; } public String toString() { return label; } }
+
+        JTextField titleField = new JTextField(20);
+        JComboBox<Option> coachBox = new JComboBox<>();
+        JComboBox<Option> facilityBox = new JComboBox<>();
+        JTextField date = new JTextField(LocalDate.now().plusDays(1).toString());
+        JTextField startTime = new JTextField("18:00");
+        JTextField endTime = new JTextField("19:00");
+        JTextField capacity = new JTextField("10");
+        JTextField fee = new JTextField("0.00");
+
+        if (currentUser != null && currentUser.getRole() == Role.COACH) {
+            coachBox.addItem(new Option(currentUser.getId(), currentUser.getFullName()));
+            coachBox.setEnabled(false);
+        } else {
+            for (User u : userDao.findByRole(Role.COACH)) coachBox.addItem(new Option(u.getId(), u.getFullName()));
+        }
+        for (Facility f : facilityDao.findByStatus(FacilityStatus.AVAILABLE)) {
+            facilityBox.addItem(new Option(f.getId(), f.getName() + " (capacity " + f.getCapacity() + ")"));
+        }
+
+        JPanel p = new JPanel(new BorderLayout(15, 15));
+        p.setBorder(new EmptyBorder(20, 20, 20, 20));
+        JPanel formPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(8, 8, 8, 8);
+        gbc.anchor = GridBagConstraints.WEST;
+
+        String[] labels = {"Title:", "Coach:", "Facility:", "Date (YYYY-MM-DD):", "Start (HH:MM):", "End (HH:MM):", "Seats:", "Fee:"};
+        JComponent[] fields = {titleField, coachBox, facilityBox, date, startTime, endTime, capacity, fee};
+        for (int i = 0; i < labels.length; i++) {
+            gbc.gridx = 0; gbc.gridy = i; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+            JLabel label = new JLabel(labels[i]);
+            label.setFont(label.getFont().deriveFont(Font.BOLD, 13f));
+            formPanel.add(label, gbc);
+            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+            formPanel.add(fields[i], gbc);
+        }
+        p.add(formPanel, BorderLayout.CENTER);
+
+        int res = JOptionPane.showConfirmDialog(this, p, "➕ Schedule Class", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (res != JOptionPane.OK_OPTION) return;
+        try {
+            Option coach = (Option) coachBox.getSelectedItem();
+            Option facility = (Option) facilityBox.getSelectedItem();
+            LocalDate d = LocalDate.parse(date.getText().trim());
+            GroupClass g = new GroupClass();
+            g.setTitle(titleField.getText().trim());
+            g.setCoachId(coach == null ? null : coach.id);
+            g.setFacilityId(facility == null ? null : facility.id);
+            g.setStartTime(LocalDateTime.of(d, LocalTime.parse(startTime.getText().trim())));
+            g.setEndTime(LocalDateTime.of(d, LocalTime.parse(endTime.getText().trim())));
+            g.setCapacity(Integer.parseInt(capacity.getText().trim()));
+            g.setFee(Double.parseDouble(fee.getText().trim()));
+            g.setStatus(GroupClassStatus.SCHEDULED);
+            classService.schedule(g);
+            refresh();
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
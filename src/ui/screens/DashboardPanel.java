@@ -1,13 +1,25 @@
 package ui.screens;
 
-import dao.impl.BookingDaoJdbc;
-import dao.impl.FacilityDaoJdbc;
-import dao.impl.PaymentDaoJdbc;
-import dao.impl.UserDaoJdbc;
+import dao.DaoFactory;
+import dao.BookingDao;
+import dao.FacilityDao;
+import dao.PaymentDao;
+import dao.UserDao;
 import model.BookingStatus;
+import model.DemandSeries;
+import model.IdleWindow;
 import model.Payment;
 import model.User;
+import monitoring.events.ScreenRefreshEvent;
+import service.AnalyticsService;
+import service.DemandForecastService;
+import service.UtilizationService;
+import service.impl.AnalyticsServiceImpl;
+import service.impl.DemandForecastServiceImpl;
+import service.impl.UtilizationServiceImpl;
 import ui.AppColors;
+import ui.components.ChartPanel;
+import ui.components.HeatmapPanel;
 import ui.components.NotificationPanel;
 import ui.components.StatisticsPanel;
 import util.CsvExporter;
@@ -15,7 +27,9 @@ import util.CsvExporter;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 import java.util.LinkedHashMap;
@@ -44,10 +58,13 @@ public class DashboardPanel extends JPanel {
     private NotificationPanel notificationPanel;
     
     // ENCAPSULATION: DAO instances are private and managed internally
-    private final UserDaoJdbc userDao = new UserDaoJdbc();
-    private final BookingDaoJdbc bookingDao = new BookingDaoJdbc();
-    private final PaymentDaoJdbc paymentDao = new PaymentDaoJdbc();
-    private final FacilityDaoJdbc facilityDao = new FacilityDaoJdbc();
+    private final UserDao userDao = DaoFactory.users();
+    private final BookingDao bookingDao = DaoFactory.bookings();
+    private final PaymentDao paymentDao = DaoFactory.payments();
+    private final FacilityDao facilityDao = DaoFactory.facilities();
+    private final UtilizationService utilizationService = new UtilizationServiceImpl(bookingDao, facilityDao);
+    private final AnalyticsService analyticsService = new AnalyticsServiceImpl(bookingDao);
+    private final DemandForecastService forecastService = new DemandForecastServiceImpl(bookingDao, facilityDao);
     
     // ENCAPSULATION: Constructor encapsulates initialization logic
     public DashboardPanel() {
@@ -114,12 +131,21 @@ public class DashboardPanel extends JPanel {
         
         JButton refreshStats = createStyledButton("🔄 Refresh Statistics", AppColors.ACCENT);
         JButton viewAllNotifications = createStyledButton("🔔 View All Notifications", AppColors.WARNING);
+        JButton utilizationHeatmap = createStyledButton("🔥 Utilization Heatmap", AppColors.PRIMARY);
+        JButton bookingAnalytics = createStyledButton("📊 Booking Analytics", AppColors.SUCCESS);
+        JButton demandForecast = createStyledButton("📈 Demand Forecast", AppColors.PRIMARY);
         
         refreshStats.addActionListener(e -> refreshStatistics());
         viewAllNotifications.addActionListener(e -> showAllNotifications());
+        utilizationHeatmap.addActionListener(e -> showUtilizationHeatmap());
+        bookingAnalytics.addActionListener(e -> showBookingAnalytics());
+        demandForecast.addActionListener(e -> showDemandForecast());
         
         actionsPanel.add(refreshStats);
         actionsPanel.add(viewAllNotifications);
+        actionsPanel.add(utilizationHeatmap);
+        actionsPanel.add(bookingAnalytics);
+        actionsPanel.add(demandForecast);
         
         return actionsPanel;
     }
@@ -133,6 +159,7 @@ public class DashboardPanel extends JPanel {
     }
     
     private void updateStatistics() {
+        ScreenRefreshEvent event = ScreenRefreshEvent.start("Dashboard");
         try {
             // Get real data from database
             List<User> allUsers = userDao.findAll();
@@ -170,9 +197,9 @@ public class DashboardPanel extends JPanel {
                 .filter(payment -> payment.getAmount() > 0) // Assuming non-zero amount means pending
                 .count();
             
-            // Calculate utilization rate (simplified)
-            double utilizationRate = allFacilities.isEmpty() ? 0.0 : 
-                (double) activeBookings / (allFacilities.size() * 30) * 100; // Assuming 30 slots per facility per month
+            // Share of opening hours in use over the last 30 days, from the slot bitmap
+            LocalDate today = LocalDate.now();
+            double utilizationRate = utilizationService.utilization(today.minusDays(30), today);
             
             // Update statistics panel
             statisticsPanel.updateStatCard("Total Members", String.valueOf(totalMembers));
@@ -184,7 +211,7 @@ public class DashboardPanel extends JPanel {
             
             // Update charts with real data
             updateChartsWithRealData();
-            
+            event.finish(allUsers.size() + allBookings.size() + allPayments.size() + allFacilities.size());
         } catch (Exception e) {
             // Fallback to sample data if database error
             statisticsPanel.updateStatCard("Total Members", "0");
@@ -255,7 +282,7 @@ public class DashboardPanel extends JPanel {
             }
             
             // Add maintenance notifications (pending requests)
-            dao.impl.MaintenanceDaoJdbc maintenanceDao = new dao.impl.MaintenanceDaoJdbc();
+            dao.MaintenanceDao maintenanceDao = dao.DaoFactory.maintenance();
             List<model.MaintenanceRequest> allMaintenanceRequests = maintenanceDao.findAll();
             for (model.MaintenanceRequest request : allMaintenanceRequests) {
                 if (request.getStatus() == model.MaintenanceStatus.OPEN) {
@@ -277,28 +304,14 @@ public class DashboardPanel extends JPanel {
     
     private void updateChartsWithRealData() {
         try {
-            // Generate bookings data for the last 6 months
+            // Confirmed bookings for the last 6 months, from the analytics snapshot
             Map<String, Number> bookingsData = new LinkedHashMap<>();
             LocalDateTime now = LocalDateTime.now();
+            YearMonth thisMonth = YearMonth.from(now);
             
-            for (int i = 5; i >= 0; i--) {
-                LocalDateTime monthStart = now.minusMonths(i).withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-                LocalDateTime monthEnd = monthStart.plusMonths(1);
-                
-                long monthlyBookings = bookingDao.findAll().stream()
-                    .filter(booking -> {
-                        LocalDateTime bookingTime = null;
-                        if (booking instanceof model.FacilityBooking) {
-                            bookingTime = ((model.FacilityBooking) booking).getStartTime();
-                        } else if (booking instanceof model.TrainingBooking) {
-                            bookingTime = ((model.TrainingBooking) booking).getStartTime();
-                        }
-                        return bookingTime != null && bookingTime.isAfter(monthStart) && bookingTime.isBefore(monthEnd);
-                    })
-                    .count();
-                
-                String monthName = monthStart.format(java.time.format.DateTimeFormatter.ofPattern("MMM"));
-                bookingsData.put(monthName, monthlyBookings);
+            for (Map.Entry<YearMonth, Long> month : analyticsService.bookingsByMonth(thisMonth.minusMonths(5), thisMonth).entrySet()) {
+                String monthName = month.getKey().format(java.time.format.DateTimeFormatter.ofPattern("MMM"));
+                bookingsData.put(monthName, month.getValue());
             }
             
             statisticsPanel.updateChart("Bookings", bookingsData);
@@ -344,6 +357,11 @@ public class DashboardPanel extends JPanel {
         }
     }
     
+    /** Posts a notification to the panel; call on the event dispatch thread. */
+    public void addNotification(NotificationPanel.NotificationType type, String title, String message) {
+        notificationPanel.addNotification(type, title, message);
+    }
+
     private void refreshStatistics() {
         // This would refresh statistics from the database
         updateStatistics();
@@ -631,7 +649,7 @@ public class DashboardPanel extends JPanel {
             .count();
         rows.add(java.util.Arrays.asList("Pending Payments", String.valueOf(pendingPayments), "Unpaid amounts"));
         
-        CsvExporter.export(file, header, rows);
+        CsvExporter.export("Comprehensive", file, header, rows);
     }
     
     private void generateMembersReport(java.io.File file, String format) throws Exception {
@@ -653,7 +671,7 @@ public class DashboardPanel extends JPanel {
             ));
         }
         
-        CsvExporter.export(file, header, rows);
+        CsvExporter.export("Members", file, header, rows);
     }
     
     private void generateBookingsReport(java.io.File file, String format, String fromDate, String toDate) throws Exception {
@@ -709,7 +727,7 @@ public class DashboardPanel extends JPanel {
             ));
         }
         
-        CsvExporter.export(file, header, rows);
+        CsvExporter.export("Bookings", file, header, rows);
     }
     
     private void generatePaymentsReport(java.io.File file, String format, String fromDate, String toDate) throws Exception {
@@ -736,7 +754,7 @@ public class DashboardPanel extends JPanel {
             ));
         }
         
-        CsvExporter.export(file, header, rows);
+        CsvExporter.export("Payments", file, header, rows);
     }
     
     private void generateFacilitiesReport(java.io.File file, String format) throws Exception {
@@ -756,7 +774,7 @@ public class DashboardPanel extends JPanel {
             ));
         }
         
-        CsvExporter.export(file, header, rows);
+        CsvExporter.export("Facilities", file, header, rows);
     }
     
     private void generateMaintenanceReport(java.io.File file, String format) throws Exception {
@@ -766,7 +784,7 @@ public class DashboardPanel extends JPanel {
         
         java.util.List<java.util.List<String>> rows = new java.util.ArrayList<>();
         
-        dao.impl.MaintenanceDaoJdbc maintenanceDao = new dao.impl.MaintenanceDaoJdbc();
+        dao.MaintenanceDao maintenanceDao = dao.DaoFactory.maintenance();
         List<model.MaintenanceRequest> allRequests = maintenanceDao.findAll();
         for (model.MaintenanceRequest request : allRequests) {
             String facilityName = facilityDao.findById(request.getFacilityId()).map(model.Facility::getName).orElse("Unknown");
@@ -783,7 +801,7 @@ public class DashboardPanel extends JPanel {
             ));
         }
         
-        CsvExporter.export(file, header, rows);
+        CsvExporter.export("Maintenance", file, header, rows);
     }
     
     private void generateFeedbackReport(java.io.File file, String format) throws Exception {
@@ -793,7 +811,7 @@ public class DashboardPanel extends JPanel {
         
         java.util.List<java.util.List<String>> rows = new java.util.ArrayList<>();
         
-        dao.impl.FeedbackDaoJdbc feedbackDao = new dao.impl.FeedbackDaoJdbc();
+        dao.FeedbackDao feedbackDao = dao.DaoFactory.feedback();
         List<model.Feedback> allFeedback = feedbackDao.findAll();
         for (model.Feedback feedback : allFeedback) {
             String userName = userDao.findById(feedback.getUserId()).map(User::getFullName).orElse("Unknown");
@@ -811,7 +829,7 @@ public class DashboardPanel extends JPanel {
             ));
         }
         
-        CsvExporter.export(file, header, rows);
+        CsvExporter.export("Feedback", file, header, rows);
     }
     
     private Long getBookingId(Object booking) {
@@ -908,6 +926,319 @@ public class DashboardPanel extends JPanel {
         notificationDialog.setVisible(true);
     }
     
+    private void showUtilizationHeatmap() {
+        JDialog heatmapDialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Utilization Heatmap", true);
+        heatmapDialog.setSize(1100, 600);
+        heatmapDialog.setLocationRelativeTo(this);
+        heatmapDialog.setLayout(new BorderLayout());
+        heatmapDialog.getContentPane().setBackground(AppColors.BG);
+        
+        // Header with the range to aggregate over
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(AppColors.CARD);
+        headerPanel.setBorder(new EmptyBorder(15, 20, 15, 20));
+        
+        JLabel titleLabel = new JLabel("🔥 Utilization Heatmap");
+        titleLabel.setFont(titleLabel.getFont().deriveFont(Font.BOLD, 18f));
+        titleLabel.setForeground(AppColors.TEXT_PRIMARY);
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+        
+        JLabel subtitleLabel = new JLabel("Share of each hour of the week in use, per facility");
+        subtitleLabel.setFont(subtitleLabel.getFont().deriveFont(Font.PLAIN, 12f));
+        subtitleLabel.setForeground(AppColors.TEXT_SECONDARY);
+        headerPanel.add(subtitleLabel, BorderLayout.SOUTH);
+        
+        JComboBox<String> rangeCombo = new JComboBox<>(new String[]{"Last 4 weeks", "Last 13 weeks", "Last 52 weeks"});
+        headerPanel.add(rangeCombo, BorderLayout.EAST);
+        heatmapDialog.add(headerPanel, BorderLayout.NORTH);
+        
+        HeatmapPanel heatmapPanel = new HeatmapPanel();
+        JScrollPane scrollPane = new JScrollPane(heatmapPanel);
+        scrollPane.setBorder(new EmptyBorder(10, 10, 10, 10));
+        scrollPane.getViewport().setBackground(AppColors.CARD);
+        heatmapDialog.add(scrollPane, BorderLayout.CENTER);
+        
+        // Footer: utilization over the range, and today's idle stretches of one facility
+        JPanel footerPanel = new JPanel(new BorderLayout(10, 5));
+        footerPanel.setBackground(AppColors.CARD);
+        footerPanel.setBorder(new EmptyBorder(10, 20, 10, 20));
+        JLabel summaryLabel = new JLabel(" ");
+        summaryLabel.setFont(summaryLabel.getFont().deriveFont(Font.BOLD, 13f));
+        footerPanel.add(summaryLabel, BorderLayout.NORTH);
+        
+        JPanel idlePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        idlePanel.setBackground(AppColors.CARD);
+        idlePanel.add(new JLabel("Idle today (1h or more):"));
+        JComboBox<model.Facility> facilityCombo = new JComboBox<>();
+        facilityCombo.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                if (value instanceof model.Facility) setText(((model.Facility) value).getName());
+                return this;
+            }
+        });
+        idlePanel.add(facilityCombo);
+        JLabel idleLabel = new JLabel(" ");
+        idleLabel.setForeground(AppColors.TEXT_SECONDARY);
+        idlePanel.add(idleLabel);
+        footerPanel.add(idlePanel, BorderLayout.CENTER);
+        
+        JButton closeButton = createStyledButton("✕ Close", AppColors.TEXT_SECONDARY);
+        closeButton.addActionListener(e -> heatmapDialog.dispose());
+        footerPanel.add(closeButton, BorderLayout.EAST);
+        heatmapDialog.add(footerPanel, BorderLayout.SOUTH);
+        
+        Runnable loadHeatmap = () -> {
+            int weeks = rangeCombo.getSelectedIndex() == 2 ? 52 : rangeCombo.getSelectedIndex() == 1 ? 13 : 4;
+            LocalDate today = LocalDate.now();
+            try {
+                heatmapPanel.updateData(utilizationService.heatmap(today.minusWeeks(weeks), today));
+                summaryLabel.setText(String.format("Utilization over the last %d weeks: %.1f%% of opening hours", weeks,
+                    utilizationService.utilization(today.minusWeeks(weeks), today)));
+            } catch (Exception ex) {
+                heatmapPanel.updateData(null);
+                summaryLabel.setText("Failed to load utilization: " + ex.getMessage());
+            }
+        };
+        Runnable loadIdle = () -> {
+            model.Facility facility = (model.Facility) facilityCombo.getSelectedItem();
+            if (facility == null) return;
+            try {
+                List<IdleWindow> idle = utilizationService.idleWindows(facility.getId(), LocalDate.now(), 60);
+                StringBuilder text = new StringBuilder();
+                for (IdleWindow w : idle) {
+                    if (text.length() > 0) text.append(", ");
+                    text.append(w.getStart().toLocalTime()).append('-').append(w.getEnd().toLocalTime());
+                }
+                idleLabel.setText(idle.isEmpty() ? "none" : text.toString());
+            } catch (Exception ex) {
+                idleLabel.setText("Failed to load idle windows: " + ex.getMessage());
+            }
+        };
+        try {
+            for (model.Facility f : facilityDao.findAll()) facilityCombo.addItem(f);
+        } catch (Exception ex) {
+            idleLabel.setText("Failed to load facilities: " + ex.getMessage());
+        }
+        rangeCombo.addActionListener(e -> loadHeatmap.run());
+        facilityCombo.addActionListener(e -> loadIdle.run());
+        loadHeatmap.run();
+        loadIdle.run();
+        
+        heatmapDialog.setVisible(true);
+    }
+    
+    private void showBookingAnalytics() {
+        JDialog analyticsDialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Booking Analytics", true);
+        analyticsDialog.setSize(900, 600);
+        analyticsDialog.setLocationRelativeTo(this);
+        analyticsDialog.setLayout(new BorderLayout());
+        analyticsDialog.getContentPane().setBackground(AppColors.BG);
+        
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(AppColors.CARD);
+        headerPanel.setBorder(new EmptyBorder(15, 20, 15, 20));
+        
+        JLabel titleLabel = new JLabel("📊 Booking Analytics");
+        titleLabel.setFont(titleLabel.getFont().deriveFont(Font.BOLD, 18f));
+        titleLabel.setForeground(AppColors.TEXT_PRIMARY);
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+        
+        JLabel subtitleLabel = new JLabel("Revenue by facility over the last 12 months; visits and cancellations over the last 90 days");
+        subtitleLabel.setFont(subtitleLabel.getFont().deriveFont(Font.PLAIN, 12f));
+        subtitleLabel.setForeground(AppColors.TEXT_SECONDARY);
+        headerPanel.add(subtitleLabel, BorderLayout.SOUTH);
+        analyticsDialog.add(headerPanel, BorderLayout.NORTH);
+        
+        JTabbedPane tabs = new JTabbedPane();
+        try {
+            Map<Long, String> facilityNames = new java.util.HashMap<>();
+            for (model.Facility f : facilityDao.findAll()) facilityNames.put(f.getId(), f.getName());
+            Map<Long, String> memberNames = new java.util.HashMap<>();
+            for (User u : userDao.findAll()) memberNames.put(u.getId(), u.getFullName());
+            YearMonth thisMonth = YearMonth.now();
+            LocalDate today = LocalDate.now();
+            
+            // Revenue: one row per facility, one column per month
+            Map<Long, Map<YearMonth, Double>> revenue = analyticsService.revenueByFacilityAndMonth(thisMonth.minusMonths(11), thisMonth);
+            java.util.List<String> revenueColumns = new java.util.ArrayList<>();
+            revenueColumns.add("Facility");
+            for (int i = 11; i >= 0; i--) revenueColumns.add(thisMonth.minusMonths(i).format(java.time.format.DateTimeFormatter.ofPattern("MMM yy")));
+            revenueColumns.add("Total");
+            javax.swing.table.DefaultTableModel revenueModel = new javax.swing.table.DefaultTableModel(revenueColumns.toArray(), 0);
+            for (Map.Entry<Long, Map<YearMonth, Double>> row : revenue.entrySet()) {
+                java.util.List<Object> cells = new java.util.ArrayList<>();
+                cells.add(facilityNames.getOrDefault(row.getKey(), "Facility #" + row.getKey()));
+                double total = 0;
+                for (double amount : row.getValue().values()) {
+                    cells.add(String.format("$%.2f", amount));
+                    total += amount;
+                }
+                cells.add(String.format("$%.2f", total));
+                revenueModel.addRow(cells.toArray());
+            }
+            tabs.addTab("💰 Revenue by Facility", analyticsTable(revenueModel));
+            
+            // Visits and cancellations per member, most frequent first
+            Map<Long, Long> visits = analyticsService.visitsByMember(today.minusDays(90), today);
+            Map<Long, Double> memberCancellations = analyticsService.cancellationRateByMember(today.minusDays(90), today, 1);
+            javax.swing.table.DefaultTableModel visitsModel = new javax.swing.table.DefaultTableModel(
+                new Object[]{"Member", "Visits", "Cancelled"}, 0);
+            int shown = 0;
+            for (Map.Entry<Long, Long> row : visits.entrySet()) {
+                if (shown++ == 200) break;
+                visitsModel.addRow(new Object[]{
+                    memberNames.getOrDefault(row.getKey(), "Member #" + row.getKey()),
+                    row.getValue(),
+                    String.format("%.1f%%", memberCancellations.getOrDefault(row.getKey(), 0.0))
+                });
+            }
+            tabs.addTab("👥 Member Visits", analyticsTable(visitsModel));
+            
+            // Cancellation rate per facility, lowest first
+            javax.swing.table.DefaultTableModel cancellationModel = new javax.swing.table.DefaultTableModel(
+                new Object[]{"Facility", "Cancelled"}, 0);
+            for (Map.Entry<Long, Double> row : analyticsService.cancellationRateByFacility(today.minusDays(90), today).entrySet()) {
+                cancellationModel.addRow(new Object[]{
+                    facilityNames.getOrDefault(row.getKey(), "Facility #" + row.getKey()),
+                    String.format("%.1f%%", row.getValue())
+                });
+            }
+            tabs.addTab("❌ Cancellations", analyticsTable(cancellationModel));
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Failed to load analytics: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        analyticsDialog.add(tabs, BorderLayout.CENTER);
+        
+        JPanel footerPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
+        footerPanel.setBackground(AppColors.CARD);
+        JButton closeButton = createStyledButton("✕ Close", AppColors.TEXT_SECONDARY);
+        closeButton.addActionListener(e -> analyticsDialog.dispose());
+        footerPanel.add(closeButton);
+        analyticsDialog.add(footerPanel, BorderLayout.SOUTH);
+        
+        analyticsDialog.setVisible(true);
+    }
+    
+    private void showDemandForecast() {
+        JDialog forecastDialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Demand Forecast", true);
+        forecastDialog.setSize(1000, 550);
+        forecastDialog.setLocationRelativeTo(this);
+        forecastDialog.setLayout(new BorderLayout());
+        forecastDialog.getContentPane().setBackground(AppColors.BG);
+        
+        // Header with the facility and the view
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(AppColors.CARD);
+        headerPanel.setBorder(new EmptyBorder(15, 20, 15, 20));
+        
+        JLabel titleLabel = new JLabel("📈 Demand Forecast");
+        titleLabel.setFont(titleLabel.getFont().deriveFont(Font.BOLD, 18f));
+        titleLabel.setForeground(AppColors.TEXT_PRIMARY);
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+        
+        JLabel subtitleLabel = new JLabel("Booked hours: solid is what was booked, dashed is the forecast from the weekly pattern");
+        subtitleLabel.setFont(subtitleLabel.getFont().deriveFont(Font.PLAIN, 12f));
+        subtitleLabel.setForeground(AppColors.TEXT_SECONDARY);
+        headerPanel.add(subtitleLabel, BorderLayout.SOUTH);
+        
+        JPanel choices = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        choices.setBackground(AppColors.CARD);
+        JComboBox<model.Facility> facilityCombo = new JComboBox<>();
+        facilityCombo.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                if (value instanceof model.Facility) setText(((model.Facility) value).getName());
+                return this;
+            }
+        });
+        JComboBox<String> viewCombo = new JComboBox<>(new String[]{"Next 14 days, by day", "Next 48 hours, by hour"});
+        choices.add(facilityCombo);
+        choices.add(viewCombo);
+        headerPanel.add(choices, BorderLayout.EAST);
+        forecastDialog.add(headerPanel, BorderLayout.NORTH);
+        
+        ChartPanel chart = new ChartPanel("Demand", "Booked hours", AppColors.PRIMARY, false);
+        JPanel chartContainer = new JPanel(new BorderLayout());
+        chartContainer.setBackground(AppColors.CARD);
+        chartContainer.setBorder(new EmptyBorder(10, 10, 10, 10));
+        chartContainer.add(chart, BorderLayout.CENTER);
+        forecastDialog.add(chartContainer, BorderLayout.CENTER);
+        
+        JPanel footerPanel = new JPanel(new BorderLayout(10, 5));
+        footerPanel.setBackground(AppColors.CARD);
+        footerPanel.setBorder(new EmptyBorder(10, 20, 10, 20));
+        JLabel summaryLabel = new JLabel(" ");
+        summaryLabel.setFont(summaryLabel.getFont().deriveFont(Font.BOLD, 13f));
+        footerPanel.add(summaryLabel, BorderLayout.CENTER);
+        JButton closeButton = createStyledButton("✕ Close", AppColors.TEXT_SECONDARY);
+        closeButton.addActionListener(e -> forecastDialog.dispose());
+        footerPanel.add(closeButton, BorderLayout.EAST);
+        forecastDialog.add(footerPanel, BorderLayout.SOUTH);
+        
+        Runnable loadForecast = () -> {
+            model.Facility facility = (model.Facility) facilityCombo.getSelectedItem();
+            if (facility == null) return;
+            LocalDate today = LocalDate.now();
+            try {
+                Map<String, Number> points = new LinkedHashMap<>();
+                DemandSeries forecast;
+                if (viewCombo.getSelectedIndex() == 1) {
+                    // Yesterday by the hour, then today and tomorrow
+                    DemandSeries history = forecastService.history(facility.getId(), today.minusDays(1), today);
+                    forecast = forecastService.forecast(facility.getId(), today, today.plusDays(2));
+                    java.time.format.DateTimeFormatter hour = java.time.format.DateTimeFormatter.ofPattern("EEE HH:00");
+                    for (int i = 0; i < history.getHours(); i++) points.put(history.getStart().plusHours(i).format(hour), history.getHour(i));
+                    int forecastFrom = points.size();
+                    for (int i = 0; i < forecast.getHours(); i++) points.put(forecast.getStart().plusHours(i).format(hour), forecast.getHour(i));
+                    chart.updateData(points, forecastFrom);
+                } else {
+                    // The last two weeks by the day, then the next two
+                    DemandSeries history = forecastService.history(facility.getId(), today.minusDays(14), today);
+                    forecast = forecastService.forecast(facility.getId(), today, today.plusDays(14));
+                    java.time.format.DateTimeFormatter day = java.time.format.DateTimeFormatter.ofPattern("dd MMM");
+                    for (Map.Entry<LocalDate, Double> e : history.getDailyTotals().entrySet()) points.put(e.getKey().format(day), e.getValue());
+                    int forecastFrom = points.size();
+                    for (Map.Entry<LocalDate, Double> e : forecast.getDailyTotals().entrySet()) points.put(e.getKey().format(day), e.getValue());
+                    chart.updateData(points, forecastFrom);
+                }
+                summaryLabel.setText(String.format("%s: %.1f booked hours expected over the forecast, typically within %.2f of the actual per hour",
+                    facility.getName(), forecast.getTotal(), forecastService.forecastError(facility.getId())));
+            } catch (Exception ex) {
+                chart.updateData(null);
+                summaryLabel.setText("Failed to load forecast: " + ex.getMessage());
+            }
+        };
+        try {
+            for (model.Facility f : facilityDao.findAll()) facilityCombo.addItem(f);
+        } catch (Exception ex) {
+            summaryLabel.setText("Failed to load facilities: " + ex.getMessage());
+        }
+        facilityCombo.addActionListener(e -> loadForecast.run());
+        viewCombo.addActionListener(e -> loadForecast.run());
+        loadForecast.run();
+        
+        forecastDialog.setVisible(true);
+    }
+    
+    private JScrollPane analyticsTable(javax.swing.table.DefaultTableModel model) {
+        JTable table = new JTable(model) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        table.setRowHeight(24);
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+        table.getColumnModel().getColumn(0).setPreferredWidth(180);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.getViewport().setBackground(AppColors.CARD);
+        return scrollPane;
+    }
+    
     private void loadRealNotifications(JPanel notificationsList) {
         try {
             LocalDateTime now = LocalDateTime.now();
@@ -985,7 +1316,7 @@ public class DashboardPanel extends JPanel {
                 });
             
             // 3. Maintenance Requests (pending status)
-            dao.impl.MaintenanceDaoJdbc maintenanceDao = new dao.impl.MaintenanceDaoJdbc();
+            dao.MaintenanceDao maintenanceDao = dao.DaoFactory.maintenance();
             maintenanceDao.findAll().stream()
                 .filter(request -> request.getStatus() == model.MaintenanceStatus.OPEN)
                 .forEach(request -> {
@@ -0,0 +1,199 @@
+package ui.screens;
+
+import dao.DaoFactory;
+import monitoring.DaoMetrics;
+import monitoring.EdtWatchdog;
+import monitoring.FlightRecording;
+import monitoring.SlowQueryLog;
+import ui.AppColors;
+import util.LatencyHistogram;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Live DAO statistics: calls, errors, rows and latency percentiles per method, plus the most
+ * recent statements over the slow-query threshold and UI freezes grouped by call site.
+ * Refreshes every two seconds while visible. Also starts and dumps the flight recording.
+ */
+public class DiagnosticsPanel extends JPanel {
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final DefaultTableModel methods = new DefaultTableModel(
+        new Object[]{"Method", "Calls", "Errors", "Rows/call", "Mean ms", "p50 ms", "p95 ms", "p99 ms", "Max ms", "Conn. acquire ms"}, 0) {
+        public boolean isCellEditable(int r, int c) { return false; }
+    };
+    private final DefaultTableModel slowQueries = new DefaultTableModel(
+        new Object[]{"Time", "Method", "ms", "SQL", "Parameters"}, 0) {
+        public boolean isCellEditable(int r, int c) { return false; }
+    };
+    private final DefaultTableModel edtStalls = new DefaultTableModel(
+        new Object[]{"Call site", "Stalls", "Total ms", "Max ms", "Screens"}, 0) {
+        public boolean isCellEditable(int r, int c) { return false; }
+    };
+    private final JLabel summary = new JLabel();
+    private final Timer timer = new Timer(2000, e -> {
+        if (isShowing()) refresh();
+    });
+
+    public DiagnosticsPanel() {
+        setLayout(new BorderLayout(12, 12));
+        setBackground(AppColors.BG);
+        setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(AppColors.CARD);
+        headerPanel.setBorder(new EmptyBorder(15, 20, 15, 20));
+
+        JLabel title = new JLabel("📈 Diagnostics");
+        title.setFont(title.getFont().deriveFont(Font.BOLD, 20f));
+        title.setForeground(AppColors.TEXT_PRIMARY);
+        headerPanel.add(title, BorderLayout.WEST);
+
+        summary.setFont(summary.getFont().deriveFont(Font.PLAIN, 12f));
+        summary.setForeground(AppColors.TEXT_SECONDARY);
+        headerPanel.add(summary, BorderLayout.SOUTH);
+        add(headerPanel, BorderLayout.NORTH);
+
+        JTabbedPane details = new JTabbedPane();
+        details.addTab("Slow queries", tableCard(slowQueries));
+        details.addTab("EDT stalls", tableCard(edtStalls));
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, tableCard(methods), details);
+        split.setResizeWeight(0.6);
+        split.setBorder(null);
+        add(split, BorderLayout.CENTER);
+
+        JPanel actions = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
+        actions.setBackground(AppColors.CARD);
+        actions.setBorder(new EmptyBorder(15, 20, 15, 20));
+        JButton refresh = createStyledButton("🔄 Refresh", AppColors.PRIMARY);
+        JButton reset = createStyledButton("🧹 Reset", AppColors.WARNING);
+        JButton startRecording = createStyledButton("⏺ Start Recording", AppColors.ACCENT);
+        JButton dumpRecording = createStyledButton("💾 Dump Recording", AppColors.SUCCESS);
+        actions.add(refresh);
+        actions.add(reset);
+        actions.add(startRecording);
+        actions.add(dumpRecording);
+        add(actions, BorderLayout.SOUTH);
+        startRecording.setEnabled(!FlightRecording.isRunning());
+        dumpRecording.setEnabled(FlightRecording.isRunning());
+
+        refresh.addActionListener(e -> refresh());
+        reset.addActionListener(e -> {
+            DaoMetrics.reset();
+            SlowQueryLog.clear();
+            refresh();
+        });
+        startRecording.addActionListener(e -> {
+            try {
+                FlightRecording.start();
+                startRecording.setEnabled(false);
+                dumpRecording.setEnabled(true);
+            } catch (RuntimeException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Flight Recording", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        dumpRecording.addActionListener(e -> dumpRecording());
+        refresh();
+    }
+
+    private void dumpRecording() {
+        new SwingWorker<Path, Void>() {
+            @Override
+            protected Path doInBackground() throws Exception {
+                return FlightRecording.dump();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    JOptionPane.showMessageDialog(DiagnosticsPanel.this, "Recording saved as:\n" + get(), "Flight Recording", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    JOptionPane.showMessageDialog(DiagnosticsPanel.this, "Failed to dump recording: " + ex.getCause().getMessage(), "Flight Recording", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        timer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        timer.stop();
+        super.removeNotify();
+    }
+
+    private JPanel tableCard(DefaultTableModel model) {
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.setBackground(AppColors.CARD);
+        tablePanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+
+        JTable table = new JTable(model);
+        table.setRowHeight(28);
+        table.setFont(table.getFont().deriveFont(13f));
+        table.setSelectionBackground(AppColors.PRIMARY_LIGHT);
+        table.setSelectionForeground(Color.WHITE);
+        table.setGridColor(AppColors.BORDER_LIGHT);
+        table.setShowGrid(true);
+        table.setIntercellSpacing(new Dimension(1, 1));
+
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(null);
+        scrollPane.setBackground(AppColors.CARD);
+        tablePanel.add(scrollPane, BorderLayout.CENTER);
+        return tablePanel;
+    }
+
+    private JButton createStyledButton(String text, Color backgroundColor) {
+        JButton button = new JButton(text);
+        button.setBackground(backgroundColor);
+        button.setForeground(Color.WHITE);
+        button.setFont(button.getFont().deriveFont(Font.BOLD, 13f));
+        button.setFocusPainted(false);
+        button.setBorder(new EmptyBorder(8, 16, 8, 16));
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        return button;
+    }
+
+    private void refresh() {
+        methods.setRowCount(0);
+        for (DaoMetrics.MethodStats s : DaoMetrics.snapshot()) {
+            LatencyHistogram h = s.getLatency();
+            long calls = h.getCount();
+            if (calls == 0) continue;
+            methods.addRow(new Object[]{
+                s.getName(), calls, s.getErrors(),
+                String.format("%.1f", (double) s.getRows() / calls),
+                ms(h.getMeanNanos()), ms(h.getPercentileNanos(50)), ms(h.getPercentileNanos(95)),
+                ms(h.getPercentileNanos(99)), ms(h.getMaxNanos()),
+                s.getConnections() == 0 ? "-" : ms((double) s.getAcquireNanos() / s.getConnections())
+            });
+        }
+        slowQueries.setRowCount(0);
+        for (SlowQueryLog.Entry e : SlowQueryLog.recent()) {
+            slowQueries.addRow(new Object[]{e.getAt().format(TIME), e.getMethod(), ms(e.getNanos()), e.getSql(), e.getParameters()});
+        }
+        edtStalls.setRowCount(0);
+        for (EdtWatchdog.Site site : EdtWatchdog.sites()) {
+            edtStalls.addRow(new Object[]{site.getFrame(), site.getCount(), ms(site.getTotalNanos()), ms(site.getMaxNanos()),
+                String.join(", ", site.getScreens())});
+        }
+        summary.setText(DaoMetrics.isEnabled()
+            ? "Backend: " + DaoFactory.backend() + " • slow-query threshold " + SlowQueryLog.getThreshold().toMillis() + " ms"
+            : "DAO metrics are disabled (dao.metrics.enabled=false)");
+    }
+
+    private static String ms(double nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+}
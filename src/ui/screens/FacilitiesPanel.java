@@ -1,10 +1,14 @@
 package ui.screens;
 
-import dao.impl.FacilityDaoJdbc;
+import dao.DaoFactory;
+import dao.FacilityDao;
 import model.Facility;
 import model.FacilityStatus;
 import model.Role;
+import model.SearchEntityType;
 import model.User;
+import monitoring.events.ScreenRefreshEvent;
+import service.SearchService;
 import ui.AppColors;
 import ui.components.SearchPanel;
 
@@ -15,16 +19,18 @@ import java.awt.*;
 import java.util.List;
 
 public class FacilitiesPanel extends JPanel {
-    private final FacilityDaoJdbc dao = new FacilityDaoJdbc();
-    private final DefaultTableModel model = new DefaultTableModel(new Object[]{"ID","Name","Rate","Status"}, 0) {
+    private final FacilityDao dao = DaoFactory.facilities();
+    private final DefaultTableModel model = new DefaultTableModel(new Object[]{"ID","Name","Rate","Capacity","Status"}, 0) {
         public boolean isCellEditable(int r, int c) { return false; }
     };
     private final User currentUser;
+    private final SearchService searchService;
     private List<Facility> allFacilities;
     private String currentSearchQuery = "";
 
-    public FacilitiesPanel(User user) {
+    public FacilitiesPanel(User user, SearchService searchService) {
         this.currentUser = user;
+        this.searchService = searchService;
         setLayout(new BorderLayout(12, 12));
         setBackground(AppColors.BG);
         setBorder(new EmptyBorder(20, 20, 20, 20));
@@ -93,7 +99,7 @@ public class FacilitiesPanel extends JPanel {
 
         add.addActionListener(e -> onAdd());
         edit.addActionListener(e -> { int row = table.getSelectedRow(); if (row >= 0) onEdit(getId(row)); });
-        remove.addActionListener(e -> { int row = table.getSelectedRow(); if (row >= 0) { dao.delete(getId(row)); refresh(); } });
+        remove.addActionListener(e -> { int row = table.getSelectedRow(); if (row >= 0) { Long id = getId(row); dao.delete(id); searchService.remove(SearchEntityType.FACILITY, id); refresh(); } });
 
         refresh();
     }
@@ -128,6 +134,7 @@ public class FacilitiesPanel extends JPanel {
     private Long getId(int row) { return ((Number) model.getValueAt(row, 0)).longValue(); }
 
     private void refresh() {
+        ScreenRefreshEvent event = ScreenRefreshEvent.start("Facilities");
         model.setRowCount(0);
         allFacilities = dao.findAll();
         
@@ -145,25 +152,27 @@ public class FacilitiesPanel extends JPanel {
         }
         
         for (Facility f : filteredFacilities) {
-            model.addRow(new Object[]{f.getId(), f.getName(), f.getHourlyRate(), f.getStatus().name()});
+            model.addRow(new Object[]{f.getId(), f.getName(), f.getHourlyRate(), f.getCapacity(), f.getStatus().name()});
         }
+        event.finish(model.getRowCount());
     }
 
     private void onAdd() {
         Facility f = promptFacility(null);
-        if (f != null) { dao.create(f); refresh(); }
+        if (f != null) { f.setId(dao.create(f)); searchService.indexFacility(f); refresh(); }
     }
 
     private void onEdit(Long id) {
         Facility existing = dao.findById(id).orElse(null);
         if (existing == null) return;
         Facility updated = promptFacility(existing);
-        if (updated != null) { updated.setId(id); dao.update(updated); refresh(); }
+        if (updated != null) { updated.setId(id); dao.update(updated); searchService.indexFacility(updated); refresh(); }
     }
 
     private Facility promptFacility(Facility base) {
         JTextField name = new JTextField(base != null ? base.getName() : "");
         JTextField rate = new JTextField(base != null ? String.valueOf(base.getHourlyRate()) : "");
+        JTextField capacity = new JTextField(base != null ? String.valueOf(base.getCapacity()) : "1");
         JComboBox<FacilityStatus> status = new JComboBox<>(FacilityStatus.values());
         if (base != null) status.setSelectedItem(base.getStatus());
         JTextArea description = new JTextArea(4, 30);
@@ -177,9 +186,11 @@ public class FacilitiesPanel extends JPanel {
         Font inputFont = new Font(Font.SANS_SERIF, Font.PLAIN, 13);
         name.setFont(inputFont);
         rate.setFont(inputFont);
+        capacity.setFont(inputFont);
         description.setFont(inputFont);
         name.setBorder(new EmptyBorder(8, 12, 8, 12));
         rate.setBorder(new EmptyBorder(8, 12, 8, 12));
+        capacity.setBorder(new EmptyBorder(8, 12, 8, 12));
         
         JPanel p = new JPanel(new BorderLayout(15, 15));
         p.setBorder(new EmptyBorder(20, 20, 20, 20));
@@ -205,8 +216,16 @@ public class FacilitiesPanel extends JPanel {
         gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
         formPanel.add(rate, gbc);
         
-        // Status field
+        // Capacity field
         gbc.gridx = 0; gbc.gridy = 2; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+        JLabel capacityLabel = new JLabel("Capacity (people at once):");
+        capacityLabel.setFont(capacityLabel.getFont().deriveFont(Font.BOLD, 13f));
+        formPanel.add(capacityLabel, gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+        formPanel.add(capacity, gbc);
+        
+        // Status field
+        gbc.gridx = 0; gbc.gridy = 3; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
         JLabel statusLabel = new JLabel("Status:");
         statusLabel.setFont(statusLabel.getFont().deriveFont(Font.BOLD, 13f));
         formPanel.add(statusLabel, gbc);
@@ -214,7 +233,7 @@ public class FacilitiesPanel extends JPanel {
         formPanel.add(status, gbc);
         
         // Description field
-        gbc.gridx = 0; gbc.gridy = 3; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+        gbc.gridx = 0; gbc.gridy = 4; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
         JLabel descLabel = new JLabel("Description:");
         descLabel.setFont(descLabel.getFont().deriveFont(Font.BOLD, 13f));
         formPanel.add(descLabel, gbc);
@@ -228,6 +247,7 @@ public class FacilitiesPanel extends JPanel {
             Facility f = new Facility();
             f.setName(name.getText().trim());
             try { f.setHourlyRate(Double.parseDouble(rate.getText().trim())); } catch (Exception ex) { f.setHourlyRate(0); }
+            try { f.setCapacity(Math.max(1, Integer.parseInt(capacity.getText().trim()))); } catch (Exception ex) { f.setCapacity(1); }
             f.setStatus((FacilityStatus) status.getSelectedItem());
             f.setDescription(description.getText());
             return f;
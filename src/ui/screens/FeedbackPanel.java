@@ -1,12 +1,14 @@
 package ui.screens;
 
-import dao.impl.FacilityDaoJdbc;
-import dao.impl.FeedbackDaoJdbc;
-import dao.impl.UserDaoJdbc;
+import dao.DaoFactory;
+import dao.FacilityDao;
+import dao.FeedbackDao;
+import dao.UserDao;
 import model.Feedback;
 import model.Facility;
 import model.Role;
 import model.User;
+import monitoring.events.ScreenRefreshEvent;
 import ui.AppColors;
 import ui.components.SearchPanel;
 
@@ -14,13 +16,16 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class FeedbackPanel extends JPanel {
-    private final FeedbackDaoJdbc dao = new FeedbackDaoJdbc();
+    private static final int SEARCH_PAGE_SIZE = 200;
+    private final FeedbackDao dao = DaoFactory.feedback();
     private final User currentUser;
-    private final UserDaoJdbc userDao = new UserDaoJdbc();
-    private final FacilityDaoJdbc facilityDao = new FacilityDaoJdbc();
+    private final UserDao userDao = DaoFactory.users();
+    private final FacilityDao facilityDao = DaoFactory.facilities();
     private final DefaultTableModel model = new DefaultTableModel() {
         public boolean isCellEditable(int r, int c) { return false; }
         public String getColumnName(int column) {
@@ -38,6 +43,7 @@ public class FeedbackPanel extends JPanel {
     };
     private List<Feedback> allFeedback;
     private String currentSearchQuery = "";
+    private final JLabel resultNote = new JLabel(" ");
 
     public FeedbackPanel(User user) {
         this.currentUser = user;
@@ -88,6 +94,9 @@ public class FeedbackPanel extends JPanel {
         scrollPane.setBorder(null);
         scrollPane.setBackground(AppColors.CARD);
         tablePanel.add(scrollPane, BorderLayout.CENTER);
+        resultNote.setFont(resultNote.getFont().deriveFont(Font.ITALIC, 12f));
+        resultNote.setForeground(AppColors.TEXT_SECONDARY);
+        tablePanel.add(resultNote, BorderLayout.SOUTH);
         contentPanel.add(tablePanel, BorderLayout.CENTER);
         add(contentPanel, BorderLayout.CENTER);
 
@@ -132,47 +141,52 @@ public class FeedbackPanel extends JPanel {
     }
 
     private void refresh() {
+        ScreenRefreshEvent event = ScreenRefreshEvent.start("Feedback");
         model.setRowCount(0);
-        allFeedback = dao.findAll();
-        
-        // Apply user role filtering
-        if (currentUser != null && (currentUser.getRole() == Role.MEMBER || currentUser.getRole() == Role.COACH)) {
-            allFeedback.removeIf(f -> f.getUserId() == null || !f.getUserId().equals(currentUser.getId()));
-        }
+        boolean ownOnly = currentUser != null && (currentUser.getRole() == Role.MEMBER || currentUser.getRole() == Role.COACH);
         
-        // Apply search filtering
-        List<Feedback> filteredFeedback = allFeedback;
+        Map<Long, String> facilityNames = new HashMap<>();
+        Map<Long, String> userNames = new HashMap<>();
+        List<Feedback> filteredFeedback;
+        boolean truncated = false;
         if (!currentSearchQuery.isEmpty()) {
-            String query = currentSearchQuery.toLowerCase();
-            filteredFeedback = allFeedback.stream()
-                .filter(feedback -> {
-                    try {
-                        String userName = userDao.findById(feedback.getUserId()).map(User::getFullName).orElse("");
-                        String facilityName = feedback.getFacilityId() == null ? "" : 
-                            facilityDao.findById(feedback.getFacilityId()).map(Facility::getName).orElse("");
-                        String comments = feedback.getComments() != null ? feedback.getComments() : "";
-                        String rating = String.valueOf(feedback.getRating());
-                        
-                        return userName.toLowerCase().contains(query) ||
-                               facilityName.toLowerCase().contains(query) ||
-                               comments.toLowerCase().contains(query) ||
-                               rating.contains(query);
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .collect(java.util.stream.Collectors.toList());
+            // The DAO matches comments (ranked FULLTEXT), user and facility names and the rating in one query
+            List<Feedback> hits = dao.search(currentSearchQuery, null, ownOnly ? currentUser.getId() : null, null, 0, SEARCH_PAGE_SIZE + 1);
+            truncated = hits.size() > SEARCH_PAGE_SIZE;
+            filteredFeedback = hits.subList(0, Math.min(hits.size(), SEARCH_PAGE_SIZE));
+        } else {
+            filteredFeedback = loadFeedback(ownOnly);
         }
+        resultNote.setText(truncated ? "Showing the " + SEARCH_PAGE_SIZE + " best matches; refine the search to see the rest." : " ");
         
         for (Feedback f : filteredFeedback) {
-            String userName = userDao.findById(f.getUserId()).map(User::getFullName).orElse(String.valueOf(f.getUserId()));
-            String facilityName = f.getFacilityId() == null ? "" : facilityDao.findById(f.getFacilityId()).map(Facility::getName).orElse(String.valueOf(f.getFacilityId()));
+            String userName = userNames.computeIfAbsent(f.getUserId(), this::userName);
+            String facilityName = f.getFacilityId() == null ? "" : facilityNames.computeIfAbsent(f.getFacilityId(), this::facilityName);
             if (currentUser != null && (currentUser.getRole() == Role.MEMBER || currentUser.getRole() == Role.COACH)) {
                 model.addRow(new Object[]{f.getId(), facilityName, f.getRating(), f.getComments()});
             } else {
                 model.addRow(new Object[]{f.getId(), userName, facilityName, f.getRating(), f.getComments()});
             }
         }
+        event.finish(model.getRowCount());
+    }
+
+    private List<Feedback> loadFeedback(boolean ownOnly) {
+        allFeedback = dao.findAll();
+        
+        // Apply user role filtering
+        if (ownOnly) {
+            allFeedback.removeIf(f -> f.getUserId() == null || !f.getUserId().equals(currentUser.getId()));
+        }
+        return allFeedback;
+    }
+
+    private String facilityName(Long id) {
+        return facilityDao.findById(id).map(Facility::getName).orElse(String.valueOf(id));
+    }
+
+    private String userName(Long id) {
+        return userDao.findById(id).map(User::getFullName).orElse(String.valueOf(id));
     }
 
     private void onAdd() {
@@ -1,47 +1,67 @@
 package ui.screens;
 
-import dao.impl.MaintenanceDaoJdbc;
-import dao.impl.FacilityDaoJdbc;
-import dao.impl.UserDaoJdbc;
+import dao.DaoFactory;
+import dao.MaintenanceDao;
+import dao.FacilityDao;
+import dao.UserDao;
+import model.Booking;
+import model.MaintenanceProposal;
 import model.MaintenanceRequest;
 import model.MaintenanceStatus;
 import model.Facility;
 import model.Role;
 import model.User;
+import monitoring.events.ScreenRefreshEvent;
+import service.MaintenanceService;
+import service.SearchService;
+import service.impl.BookingServiceImpl;
+import service.impl.MaintenanceServiceImpl;
 import ui.AppColors;
 import ui.components.SearchPanel;
+import util.DateTimeUtil;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 public class MaintenancePanel extends JPanel {
-    private final MaintenanceDaoJdbc dao = new MaintenanceDaoJdbc();
-    private final FacilityDaoJdbc facilityDao = new FacilityDaoJdbc();
-    private final UserDaoJdbc userDao = new UserDaoJdbc();
+    private final MaintenanceDao dao = DaoFactory.maintenance();
+    private final FacilityDao facilityDao = DaoFactory.facilities();
+    private final UserDao userDao = DaoFactory.users();
+    private final MaintenanceService maintenanceService = new MaintenanceServiceImpl(dao, DaoFactory.bookings(),
+        new BookingServiceImpl(DaoFactory.bookings(), facilityDao, DaoFactory.waitlist(), DaoFactory.coachHours(), dao));
     private final DefaultTableModel model = new DefaultTableModel() {
         public boolean isCellEditable(int r, int c) { return false; }
         public String getColumnName(int column) {
             if (currentUser != null && (currentUser.getRole() == Role.MEMBER || currentUser.getRole() == Role.COACH)) {
-                String[] userCols = {"ID","Facility","Title","Status"};
+                String[] userCols = {"ID","Facility","Title","Window","Status"};
                 return column < userCols.length ? userCols[column] : "";
             } else {
-                String[] adminCols = {"ID","Facility","Requested By","Title","Status"};
+                String[] adminCols = {"ID","Facility","Requested By","Title","Window","Status"};
                 return column < adminCols.length ? adminCols[column] : "";
             }
         }
         public int getColumnCount() {
-            return currentUser != null && (currentUser.getRole() == Role.MEMBER || currentUser.getRole() == Role.COACH) ? 4 : 5;
+            return currentUser != null && (currentUser.getRole() == Role.MEMBER || currentUser.getRole() == Role.COACH) ? 5 : 6;
         }
     };
+    private static final int SEARCH_PAGE_SIZE = 200;
     private final User currentUser;
+    private final SearchService searchService;
     private List<MaintenanceRequest> allMaintenanceRequests;
     private String currentSearchQuery = "";
+    private final JLabel resultNote = new JLabel(" ");
 
-	public MaintenancePanel(User user) {
+	public MaintenancePanel(User user, SearchService searchService) {
 		this.currentUser = user;
+		this.searchService = searchService;
         setLayout(new BorderLayout(12, 12));
         setBackground(AppColors.BG);
         setBorder(new EmptyBorder(20, 20, 20, 20));
@@ -89,6 +109,9 @@ public class MaintenancePanel extends JPanel {
         scrollPane.setBorder(null);
         scrollPane.setBackground(AppColors.CARD);
         tablePanel.add(scrollPane, BorderLayout.CENTER);
+        resultNote.setFont(resultNote.getFont().deriveFont(Font.ITALIC, 12f));
+        resultNote.setForeground(AppColors.TEXT_SECONDARY);
+        tablePanel.add(resultNote, BorderLayout.SOUTH);
         contentPanel.add(tablePanel, BorderLayout.CENTER);
         add(contentPanel, BorderLayout.CENTER);
 
@@ -99,17 +122,20 @@ public class MaintenancePanel extends JPanel {
 		JButton add = createStyledButton("🔧 New Request", AppColors.SUCCESS);
 		JButton progress = createStyledButton("⏳ Mark In Progress", AppColors.WARNING);
 		JButton resolve = createStyledButton("✅ Mark Resolved", AppColors.ACCENT);
+		JButton plan = createStyledButton("🗓 Plan Windows", AppColors.PRIMARY);
 		
 		actions.add(add);
 		if (currentUser != null && currentUser.getRole() == Role.ADMIN) {
 			actions.add(progress);
 			actions.add(resolve);
+			actions.add(plan);
 		}
         add(actions, BorderLayout.SOUTH);
 
         add.addActionListener(e -> onAdd());
         progress.addActionListener(e -> { int row = table.getSelectedRow(); if (row >= 0) updateStatus(getId(row), MaintenanceStatus.IN_PROGRESS); });
         resolve.addActionListener(e -> { int row = table.getSelectedRow(); if (row >= 0) updateStatus(getId(row), MaintenanceStatus.RESOLVED); });
+        plan.addActionListener(e -> onPlan());
 
         refresh();
     }
@@ -144,46 +170,52 @@ public class MaintenancePanel extends JPanel {
     private Long getId(int row) { return ((Number) model.getValueAt(row, 0)).longValue(); }
 
     private void refresh() {
+        ScreenRefreshEvent event = ScreenRefreshEvent.start("Maintenance");
         model.setRowCount(0);
-        allMaintenanceRequests = dao.findAll();
-        
-        // Apply user role filtering
-        if (currentUser != null && (currentUser.getRole() == Role.MEMBER || currentUser.getRole() == Role.COACH)) {
-            allMaintenanceRequests.removeIf(r -> r.getRequestedBy() == null || !r.getRequestedBy().equals(currentUser.getId()));
-        }
+        boolean ownOnly = currentUser != null && (currentUser.getRole() == Role.MEMBER || currentUser.getRole() == Role.COACH);
         
-        // Apply search filtering
-        List<MaintenanceRequest> filteredRequests = allMaintenanceRequests;
+        Map<Long, String> facilityNames = new HashMap<>();
+        Map<Long, String> userNames = new HashMap<>();
+        List<MaintenanceRequest> filteredRequests;
+        boolean truncated = false;
         if (!currentSearchQuery.isEmpty()) {
-            String query = currentSearchQuery.toLowerCase();
-            filteredRequests = allMaintenanceRequests.stream()
-                .filter(request -> {
-                    try {
-                        String facilityName = facilityDao.findById(request.getFacilityId()).map(Facility::getName).orElse("");
-                        String requestedByName = userDao.findById(request.getRequestedBy()).map(User::getFullName).orElse("");
-                        String title = request.getTitle();
-                        String status = request.getStatus().name();
-                        
-                        return facilityName.toLowerCase().contains(query) ||
-                               requestedByName.toLowerCase().contains(query) ||
-                               title.toLowerCase().contains(query) ||
-                               status.toLowerCase().contains(query);
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .collect(java.util.stream.Collectors.toList());
+            // The DAO matches title/description (ranked FULLTEXT), facility and requester names and the status in one query
+            List<MaintenanceRequest> hits = dao.search(currentSearchQuery, null, ownOnly ? currentUser.getId() : null, null, 0, SEARCH_PAGE_SIZE + 1);
+            truncated = hits.size() > SEARCH_PAGE_SIZE;
+            filteredRequests = hits.subList(0, Math.min(hits.size(), SEARCH_PAGE_SIZE));
+        } else {
+            filteredRequests = loadRequests(ownOnly);
         }
+        resultNote.setText(truncated ? "Showing the " + SEARCH_PAGE_SIZE + " best matches; refine the search to see the rest." : " ");
         
         for (MaintenanceRequest r : filteredRequests) {
-            String facilityName = facilityDao.findById(r.getFacilityId()).map(Facility::getName).orElse(String.valueOf(r.getFacilityId()));
-            String requestedByName = userDao.findById(r.getRequestedBy()).map(User::getFullName).orElse(String.valueOf(r.getRequestedBy()));
+            String facilityName = facilityNames.computeIfAbsent(r.getFacilityId(), this::facilityName);
+            String requestedByName = userNames.computeIfAbsent(r.getRequestedBy(), this::userName);
             if (currentUser != null && (currentUser.getRole() == Role.MEMBER || currentUser.getRole() == Role.COACH)) {
-                model.addRow(new Object[]{r.getId(), facilityName, r.getTitle(), r.getStatus().name()});
+                model.addRow(new Object[]{r.getId(), facilityName, r.getTitle(), formatWindow(r), r.getStatus().name()});
             } else {
-                model.addRow(new Object[]{r.getId(), facilityName, requestedByName, r.getTitle(), r.getStatus().name()});
+                model.addRow(new Object[]{r.getId(), facilityName, requestedByName, r.getTitle(), formatWindow(r), r.getStatus().name()});
             }
         }
+        event.finish(model.getRowCount());
+    }
+
+    private List<MaintenanceRequest> loadRequests(boolean ownOnly) {
+        allMaintenanceRequests = dao.findAll();
+        
+        // Apply user role filtering
+        if (ownOnly) {
+            allMaintenanceRequests.removeIf(r -> r.getRequestedBy() == null || !r.getRequestedBy().equals(currentUser.getId()));
+        }
+        return allMaintenanceRequests;
+    }
+
+    private String facilityName(Long id) {
+        return facilityDao.findById(id).map(Facility::getName).orElse(String.valueOf(id));
+    }
+
+    private String userName(Long id) {
+        return userDao.findById(id).map(User::getFullName).orElse(String.valueOf(id));
     }
 
     private void onAdd() {
@@ -193,6 +225,10 @@ public class MaintenancePanel extends JPanel {
         JComboBox<Option> requesterBox = new JComboBox<>();
         JTextField title = new JTextField(20);
         JTextArea description = new JTextArea(4, 20);
+        JTextField closedFrom = new JTextField(16);
+        JTextField closedUntil = new JTextField(16);
+        JTextField estimate = new JTextField(6);
+        boolean admin = currentUser != null && currentUser.getRole() == Role.ADMIN;
         
         for (Facility f : facilityDao.findAll()) {
             facilityBox.addItem(new Option(f.getId(), f.getName()));
@@ -260,6 +296,36 @@ public class MaintenancePanel extends JPanel {
         description.setLineWrap(true);
         description.setWrapStyleWord(true);
         formPanel.add(description, gbc);
+
+        // Only admins schedule the facility out of use
+        if (admin) {
+            closedFrom.setFont(inputFont);
+            closedUntil.setFont(inputFont);
+            closedFrom.setToolTipText("yyyy-MM-dd HH:mm; leave both blank if the facility stays open");
+            closedUntil.setToolTipText("yyyy-MM-dd HH:mm");
+            gbc.gridx = 0; gbc.gridy = 4; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+            JLabel fromLabel = new JLabel("Closed from:");
+            fromLabel.setFont(fromLabel.getFont().deriveFont(Font.BOLD, 13f));
+            formPanel.add(fromLabel, gbc);
+            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+            formPanel.add(closedFrom, gbc);
+
+            gbc.gridx = 0; gbc.gridy = 5; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+            JLabel untilLabel = new JLabel("Closed until:");
+            untilLabel.setFont(untilLabel.getFont().deriveFont(Font.BOLD, 13f));
+            formPanel.add(untilLabel, gbc);
+            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+            formPanel.add(closedUntil, gbc);
+
+            estimate.setFont(inputFont);
+            estimate.setToolTipText("Minutes; lets Plan Windows propose a window instead");
+            gbc.gridx = 0; gbc.gridy = 6; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+            JLabel estimateLabel = new JLabel("Estimated minutes:");
+            estimateLabel.setFont(estimateLabel.getFont().deriveFont(Font.BOLD, 13f));
+            formPanel.add(estimateLabel, gbc);
+            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+            formPanel.add(estimate, gbc);
+        }
         
         p.add(formPanel, BorderLayout.CENTER);
         
@@ -273,16 +339,107 @@ public class MaintenancePanel extends JPanel {
                 if (uSel != null) r.setRequestedBy(uSel.id);
                 r.setTitle(title.getText().trim());
                 r.setDescription(description.getText());
-                dao.create(r);
+                r.setWindowStart(parseWindow(closedFrom.getText()));
+                r.setWindowEnd(parseWindow(closedUntil.getText()));
+                String minutes = estimate.getText().trim();
+                if (!minutes.isEmpty()) r.setEstimatedMinutes(Integer.parseInt(minutes));
+                maintenanceService.create(r);
+                searchService.indexMaintenance(r);
                 refresh();
+                if (r.hasWindow()) offerReschedule(r);
+            } catch (DateTimeParseException ex) {
+                JOptionPane.showMessageDialog(this, "Use yyyy-MM-dd HH:mm for the window", "Validation", JOptionPane.WARNING_MESSAGE);
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Estimated minutes must be a whole number", "Validation", JOptionPane.WARNING_MESSAGE);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Validation", JOptionPane.WARNING_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "Invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
 
+    // Proposals for every open request with an estimate; the admin picks which to schedule
+    private void onPlan() {
+        List<MaintenanceProposal> proposals = maintenanceService.proposeWindows();
+        if (proposals.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No open requests with an estimated duration and no window.", "Plan Windows", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        DefaultTableModel rows = new DefaultTableModel(new Object[]{"Request", "Facility", "Title", "Window", "Booked h", "Usual h"}, 0) {
+            public boolean isCellEditable(int r, int c) { return false; }
+        };
+        for (MaintenanceProposal p : proposals) {
+            MaintenanceRequest r = dao.findById(p.getRequestId()).orElse(null);
+            rows.addRow(new Object[]{p.getRequestId(),
+                facilityDao.findById(p.getFacilityId()).map(Facility::getName).orElse(String.valueOf(p.getFacilityId())),
+                r == null ? "" : r.getTitle(),
+                DateTimeUtil.formatDateTime(p.getWindowStart()) + " - " + DateTimeUtil.formatDateTime(p.getWindowEnd()),
+                String.format("%.2f", p.getBookedHours()), String.format("%.2f", p.getExpectedHours())});
+        }
+        JTable table = new JTable(rows);
+        table.setRowHeight(28);
+        table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        table.selectAll();
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setPreferredSize(new Dimension(760, Math.min(400, 60 + 28 * proposals.size())));
+        JPanel p = new JPanel(new BorderLayout(8, 8));
+        p.add(new JLabel("Least-impact windows: booked hours would have to move, usual hours are the average demand then. Schedule the selected rows?"), BorderLayout.NORTH);
+        p.add(scroll, BorderLayout.CENTER);
+        int res = JOptionPane.showConfirmDialog(this, p, "🗓 Plan Windows", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (res != JOptionPane.OK_OPTION) return;
+        try {
+            for (int row : table.getSelectedRows()) {
+                MaintenanceProposal proposal = proposals.get(table.convertRowIndexToModel(row));
+                MaintenanceRequest r = maintenanceService.scheduleWindow(proposal.getRequestId(), proposal.getWindowStart(), proposal.getWindowEnd());
+                if (proposal.getBookedHours() > 0) offerReschedule(r);
+            }
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Validation", JOptionPane.WARNING_MESSAGE);
+        }
+        refresh();
+    }
+
+    // Bookings the new window cuts into, found in one range query; the admin may move them all
+    private void offerReschedule(MaintenanceRequest r) {
+        List<Booking> affected = maintenanceService.affectedBookings(r.getId());
+        if (affected.isEmpty()) return;
+        int res = JOptionPane.showConfirmDialog(this,
+            affected.size() + " confirmed booking(s) overlap this window:\n" + describe(affected)
+                + "\n\nMove them to the next free slot after " + DateTimeUtil.formatDateTime(r.getWindowEnd()) + "?",
+            "Affected Bookings", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        if (res != JOptionPane.YES_OPTION) return;
+        List<Booking> stuck = maintenanceService.rescheduleAffected(r.getId());
+        String moved = "Moved " + (affected.size() - stuck.size()) + " of " + affected.size() + " booking(s).";
+        if (stuck.isEmpty()) {
+            JOptionPane.showMessageDialog(this, moved, "Rescheduled", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(this, moved + "\nNo free slot was found for:\n" + describe(stuck),
+                "Rescheduled", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    private String describe(List<Booking> bookings) {
+        String list = bookings.stream().limit(10)
+            .map(b -> "#" + b.getId() + "  " + DateTimeUtil.formatDateTime(b.getStartTime()) + " - " + DateTimeUtil.formatDateTime(b.getEndTime())
+                + "  " + userDao.findById(b.getMemberId()).map(User::getFullName).orElse(String.valueOf(b.getMemberId())))
+            .collect(Collectors.joining("\n"));
+        return bookings.size() > 10 ? list + "\n... and " + (bookings.size() - 10) + " more" : list;
+    }
+
+    private static LocalDateTime parseWindow(String text) {
+        String t = text.trim();
+        return t.isEmpty() ? null : LocalDateTime.parse(t, DateTimeUtil.DATE_TIME_FMT);
+    }
+
+    private static String formatWindow(MaintenanceRequest r) {
+        return r.hasWindow() ? DateTimeUtil.formatDateTime(r.getWindowStart()) + " - " + DateTimeUtil.formatDateTime(r.getWindowEnd()) : "";
+    }
+
     private void updateStatus(Long id, MaintenanceStatus status) {
-        dao.findById(id).ifPresent(r -> { r.setStatus(status); dao.update(r); refresh(); });
+        MaintenanceRequest r = maintenanceService.updateStatus(id, status);
+        searchService.indexMaintenance(r);
+        refresh();
     }
 }
 
@@ -1,11 +1,14 @@
 package ui.screens;
 
-import dao.impl.BookingDaoJdbc;
-import dao.impl.UserDaoJdbc;
+import dao.DaoFactory;
+import dao.BookingDao;
+import dao.UserDao;
 import model.User;
-import dao.impl.PaymentDaoJdbc;
+import dao.PaymentDao;
 import model.Payment;
 import model.PaymentMethod;
+import monitoring.events.ScreenRefreshEvent;
+import service.SearchService;
 import ui.AppColors;
 import ui.components.SearchPanel;
 import model.Role;
@@ -18,9 +21,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 public class PaymentsPanel extends JPanel {
-    private final PaymentDaoJdbc dao = new PaymentDaoJdbc();
-    private final BookingDaoJdbc bookingDao = new BookingDaoJdbc();
-    private final UserDaoJdbc userDao = new UserDaoJdbc();
+    private final PaymentDao dao = DaoFactory.payments();
+    private final BookingDao bookingDao = DaoFactory.bookings();
+    private final UserDao userDao = DaoFactory.users();
     private final DefaultTableModel model = new DefaultTableModel() {
         public boolean isCellEditable(int r, int c) { return false; }
         public String getColumnName(int column) {
@@ -44,11 +47,13 @@ public class PaymentsPanel extends JPanel {
         }
     };
     private final User currentUser;
+    private final SearchService searchService;
     private List<Payment> allPayments;
     private String currentSearchQuery = "";
 
-    public PaymentsPanel(User user) {
+    public PaymentsPanel(User user, SearchService searchService) {
         this.currentUser = user;
+        this.searchService = searchService;
         setLayout(new BorderLayout(12, 12));
         setBackground(AppColors.BG);
         setBorder(new EmptyBorder(20, 20, 20, 20));
@@ -146,6 +151,7 @@ public class PaymentsPanel extends JPanel {
     }
 
     private void refresh() {
+        ScreenRefreshEvent event = ScreenRefreshEvent.start("Payments");
         model.setRowCount(0);
         allPayments = dao.findAll();
         
@@ -194,6 +200,7 @@ public class PaymentsPanel extends JPanel {
                 }
             });
         }
+        event.finish(model.getRowCount());
     }
 
     private void onRecord() {
@@ -318,7 +325,8 @@ public class PaymentsPanel extends JPanel {
                 pay.setMethod((PaymentMethod) method.getSelectedItem());
                 pay.setReference(reference.getText().trim());
                 pay.setPaidAt(LocalDateTime.now());
-                dao.create(pay);
+                pay.setId(dao.create(pay));
+                searchService.indexPayment(pay);
                 refresh();
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "Invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
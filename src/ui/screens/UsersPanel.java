@@ -1,27 +1,62 @@
 package ui.screens;
 
-import dao.impl.UserDaoJdbc;
+import dao.DaoFactory;
+import dao.UserDao;
+import model.MemberMetrics;
+import model.MemberMetricsRun;
 import model.Role;
+import model.SearchEntityType;
 import model.User;
+import monitoring.events.ScreenRefreshEvent;
+import service.AuthService;
+import service.CoachService;
+import service.MemberMetricsService;
+import service.SearchService;
+import service.impl.AuthServiceImpl;
+import service.impl.CoachServiceImpl;
+import service.impl.MemberMetricsServiceImpl;
 import ui.AppColors;
+import ui.components.CoachHoursDialog;
 import ui.components.SearchPanel;
 import util.PasswordHasher;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 public class UsersPanel extends JPanel {
-    private final UserDaoJdbc userDao = new UserDaoJdbc();
-    private final DefaultTableModel model = new DefaultTableModel(new Object[]{"ID","Email","Name","Role","Phone","Coach Fee"}, 0) {
+    private final UserDao userDao = DaoFactory.users();
+    private final CoachService coachService = new CoachServiceImpl(DaoFactory.users(), DaoFactory.coachHours());
+    private final AuthService authService = new AuthServiceImpl(DaoFactory.users());
+    private final SearchService searchService;
+    private final MemberMetricsService metricsService = new MemberMetricsServiceImpl(DaoFactory.memberMetrics());
+    // Metric columns hold numbers (null when not computed yet) so the sorter orders them numerically
+    private static final int FIRST_METRIC_COLUMN = 6;
+    private static final int DAYS_SINCE_COLUMN = 9;
+    private static final int CHURN_COLUMN = 10;
+    private static final String[] FILTERS = {"All users", "Churn risk 50%+", "No visit in 30+ days", "Never visited"};
+    private final DefaultTableModel model = new DefaultTableModel(new Object[]{"ID","Email","Name","Role","Phone","Coach Fee",
+            "Visits/wk","Avg Spend","Lifetime Value","Days Since Visit","Churn Risk"}, 0) {
         public boolean isCellEditable(int r, int c) { return false; }
+        public Class<?> getColumnClass(int c) {
+            if (c == 0) return Long.class;
+            if (c == DAYS_SINCE_COLUMN) return Integer.class;
+            return c >= FIRST_METRIC_COLUMN ? Double.class : String.class;
+        }
     };
+    private final JComboBox<String> metricsFilter = new JComboBox<>(FILTERS);
+    private final JLabel metricsStatus = new JLabel();
     private List<User> allUsers;
     private String currentSearchQuery = "";
 
-    public UsersPanel() {
+    public UsersPanel(SearchService searchService) {
+        this.searchService = searchService;
         setLayout(new BorderLayout(12, 12));
         setBackground(AppColors.BG);
         setBorder(new EmptyBorder(20, 20, 20, 20));
@@ -49,7 +84,17 @@ public class UsersPanel extends JPanel {
         
         // Search Panel
         SearchPanel searchPanel = new SearchPanel(this::onSearch);
-        contentPanel.add(searchPanel, BorderLayout.NORTH);
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        filterPanel.setBackground(AppColors.BG);
+        metricsStatus.setForeground(AppColors.TEXT_SECONDARY);
+        filterPanel.add(metricsStatus);
+        filterPanel.add(metricsFilter);
+        metricsFilter.addActionListener(e -> refresh());
+        JPanel searchRow = new JPanel(new BorderLayout());
+        searchRow.setBackground(AppColors.BG);
+        searchRow.add(searchPanel, BorderLayout.CENTER);
+        searchRow.add(filterPanel, BorderLayout.EAST);
+        contentPanel.add(searchRow, BorderLayout.NORTH);
 
         // Table Panel
         JPanel tablePanel = new JPanel(new BorderLayout());
@@ -64,6 +109,9 @@ public class UsersPanel extends JPanel {
         table.setGridColor(AppColors.BORDER_LIGHT);
         table.setShowGrid(true);
         table.setIntercellSpacing(new Dimension(1, 1));
+        table.setRowSorter(new TableRowSorter<>(model));
+        table.setDefaultRenderer(Double.class, new MetricRenderer());
+        table.setDefaultRenderer(Integer.class, new MetricRenderer());
         
         JScrollPane scrollPane = new JScrollPane(table);
         scrollPane.setBorder(null);
@@ -80,21 +128,34 @@ public class UsersPanel extends JPanel {
         JButton add = createStyledButton("➕ Add User", AppColors.SUCCESS);
         JButton edit = createStyledButton("✏️ Edit User", AppColors.ACCENT);
         JButton remove = createStyledButton("🗑️ Delete User", AppColors.ERROR);
+        JButton hours = createStyledButton("🕘 Working Hours", AppColors.PRIMARY);
+        JButton metrics = createStyledButton("📈 Refresh Metrics", AppColors.PRIMARY);
         
         actions.add(add); 
         actions.add(edit); 
         actions.add(remove);
+        actions.add(hours);
+        actions.add(metrics);
         add(actions, BorderLayout.SOUTH);
 
         add.addActionListener(e -> onAdd());
         edit.addActionListener(e -> {
-            int row = table.getSelectedRow();
+            int row = selectedRow(table);
             if (row >= 0) onEdit(getId(row));
         });
         remove.addActionListener(e -> {
-            int row = table.getSelectedRow();
-            if (row >= 0) { userDao.delete(getId(row)); refresh(); }
+            int row = selectedRow(table);
+            if (row >= 0) { Long id = getId(row); userDao.delete(id); authService.endSessions(id); searchService.remove(SearchEntityType.USER, id); refresh(); }
+        });
+        hours.addActionListener(e -> {
+            int row = selectedRow(table);
+            if (row < 0 || !Role.COACH.name().equals(model.getValueAt(row, 3))) {
+                JOptionPane.showMessageDialog(this, "Select a coach first", "No Selection", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            CoachHoursDialog.edit(this, coachService, getId(row), String.valueOf(model.getValueAt(row, 2)));
         });
+        metrics.addActionListener(e -> refreshMetrics(metrics));
 
         refresh();
     }
@@ -128,7 +189,48 @@ public class UsersPanel extends JPanel {
 
     private Long getId(int row) { return ((Number) model.getValueAt(row, 0)).longValue(); }
 
+    // Selected row in model terms, since the table may be sorted
+    private static int selectedRow(JTable table) {
+        int row = table.getSelectedRow();
+        return row < 0 ? -1 : table.convertRowIndexToModel(row);
+    }
+
+    private void refreshMetrics(JButton button) {
+        button.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<MemberMetricsRun, Void>() {
+            @Override
+            protected MemberMetricsRun doInBackground() {
+                return metricsService.refresh();
+            }
+
+            @Override
+            protected void done() {
+                button.setEnabled(true);
+                setCursor(Cursor.getDefaultCursor());
+                try {
+                    get();
+                    refresh();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    JOptionPane.showMessageDialog(UsersPanel.this, "Failed to refresh metrics: " + ex.getCause().getMessage(), "Member Metrics", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private boolean matchesMetricsFilter(MemberMetrics m) {
+        switch (metricsFilter.getSelectedIndex()) {
+            case 1: return m != null && m.getChurnRisk() >= 0.5;
+            case 2: return m != null && m.getDaysSinceLastVisit() != null && m.getDaysSinceLastVisit() >= 30;
+            case 3: return m != null && m.getVisits() == 0;
+            default: return true;
+        }
+    }
+
     private void refresh() {
+        ScreenRefreshEvent event = ScreenRefreshEvent.start("Users");
         model.setRowCount(0);
         allUsers = userDao.findAll();
         
@@ -146,16 +248,24 @@ public class UsersPanel extends JPanel {
                 .collect(java.util.stream.Collectors.toList());
         }
         
+        Map<Long, MemberMetrics> metrics = metricsService.metricsByMember();
+        metricsStatus.setText(metricsService.lastRun().map(r -> "Metrics as of " + r.getStartedAt().toString().replace('T', ' ')).orElse("Metrics not computed yet"));
         for (User u : filteredUsers) {
+            MemberMetrics m = metrics.get(u.getId());
+            if (!matchesMetricsFilter(m)) continue;
             String fee = u.getCoachFee() == null ? "" : String.format("%.2f", u.getCoachFee());
-            model.addRow(new Object[]{u.getId(), u.getEmail(), u.getFullName(), u.getRole().name(), u.getPhone(), fee});
+            model.addRow(new Object[]{u.getId(), u.getEmail(), u.getFullName(), u.getRole().name(), u.getPhone(), fee,
+                m == null ? null : m.getVisitsPerWeek(), m == null ? null : m.getAvgSpend(), m == null ? null : m.getLifetimeValue(),
+                m == null ? null : m.getDaysSinceLastVisit(), m == null ? null : m.getChurnRisk()});
         }
+        event.finish(model.getRowCount());
     }
 
     private void onAdd() {
         User u = promptUser(null);
         if (u != null) {
-            userDao.create(u);
+            u.setId(userDao.create(u));
+            searchService.indexUser(u);
             refresh();
         }
     }
@@ -167,6 +277,14 @@ public class UsersPanel extends JPanel {
         if (updated != null) {
             updated.setId(id);
             userDao.update(updated);
+            if (!updated.getPasswordHash().equals(existing.getPasswordHash())) {
+                userDao.updatePasswordHash(id, updated.getPasswordHash());
+            }
+            // Tokens issued under the old password or role must not outlive the change
+            if (!updated.getPasswordHash().equals(existing.getPasswordHash()) || updated.getRole() != existing.getRole()) {
+                authService.endSessions(id);
+            }
+            searchService.indexUser(updated);
             refresh();
         }
     }
@@ -293,6 +411,24 @@ public class UsersPanel extends JPanel {
         }
         return null;
     }
-}
 
+    private static class MetricRenderer extends DefaultTableCellRenderer {
+        MetricRenderer() {
+            setHorizontalAlignment(SwingConstants.RIGHT);
+        }
 
+        @Override
+        protected void setValue(Object value) {
+            if (value == null) setText("");
+            else if (value instanceof Integer) setText(value.toString());
+            else setText(String.format("%.2f", (Double) value));
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean selected, boolean focused, int row, int column) {
+            Component c = super.getTableCellRendererComponent(table, value, selected, focused, row, column);
+            if (value instanceof Double && table.convertColumnIndexToModel(column) == CHURN_COLUMN) setText(String.format("%.0f%%", (Double) value * 100));
+            return c;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package util;
 
+import monitoring.events.ReportGeneratedEvent;
+
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
@@ -8,6 +10,13 @@ import java.util.List;
 
 public class CsvExporter {
     public static void export(File file, List<String> header, List<List<String>> rows) throws IOException {
+        export("CSV", file, header, rows);
+    }
+
+    /** reportType names the report in the ReportGenerated flight recorder event. */
+    public static void export(String reportType, File file, List<String> header, List<List<String>> rows) throws IOException {
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
         try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
             if (header != null && !header.isEmpty()) {
                 bw.write(String.join(",", header));
@@ -18,9 +27,16 @@ public class CsvExporter {
                 bw.newLine();
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = reportType;
+            event.rows = rows.size();
+            event.bytes = file.length();
+            event.commit();
+        }
     }
 
-    private static String escapeRow(List<String> row) {
+    static String escapeRow(List<String> row) {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < row.size(); i++) {
             String cell = row.get(i);
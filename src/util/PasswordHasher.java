@@ -1,49 +1,65 @@
 package util;
 
-import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.util.Base64;
+import java.util.List;
 
+/**
+ * Entry point for password hashing. New hashes use the current scheme (PBKDF2 by default);
+ * verification picks whichever registered scheme recognises the stored string, so legacy
+ * SHA-256 hashes keep working until {@link #needsRehash(String)} has them upgraded.
+ */
 public class PasswordHasher {
-    private static final String HASH_ALGO = "SHA-256";
-
-    public static String hash(String password, byte[] salt) {
-        try {
-            MessageDigest md = MessageDigest.getInstance(HASH_ALGO);
-            md.update(salt);
-            byte[] hashed = md.digest(password.getBytes(StandardCharsets.UTF_8));
-            byte[] combined = new byte[salt.length + hashed.length];
-            System.arraycopy(salt, 0, combined, 0, salt.length);
-            System.arraycopy(hashed, 0, combined, salt.length, hashed.length);
-            return Base64.getEncoder().encodeToString(combined);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("Hash algorithm not found", e);
-        }
+    // SecureRandom is thread-safe; seeding one per call was the expensive part
+    static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final Pbkdf2PasswordScheme PBKDF2 = new Pbkdf2PasswordScheme(Pbkdf2PasswordScheme.DEFAULT_ITERATIONS);
+    private static final Sha256PasswordScheme LEGACY_SHA256 = new Sha256PasswordScheme();
+    private static final List<PasswordScheme> SCHEMES = List.of(PBKDF2, LEGACY_SHA256);
+    private static volatile PasswordScheme current = PBKDF2;
+
+    public static String hashWithRandomSalt(String password) {
+        return current.hash(password);
     }
 
     public static boolean verify(String password, String stored) {
-        try {
-            byte[] decoded = Base64.getDecoder().decode(stored);
-            if (decoded.length < 17) return false; // require at least 16-byte salt + 1 byte hash
-            byte[] salt = new byte[16];
-            System.arraycopy(decoded, 0, salt, 0, 16);
-            String recomputed = hash(password, salt);
-            return constantTimeEquals(stored, recomputed);
-        } catch (IllegalArgumentException e) {
-            // Not a Base64-encoded salted-hash we produce (e.g., bcrypt string). Treat as non-match.
-            return false;
-        }
+        if (password == null || stored == null) return false;
+        PasswordScheme scheme = schemeFor(stored);
+        return scheme != null && scheme.verify(password, stored);
     }
 
-    public static String hashWithRandomSalt(String password) {
-        byte[] salt = new byte[16];
-        new SecureRandom().nextBytes(salt);
-        return hash(password, salt);
+    /** True when the stored hash is from another scheme or weaker settings than new hashes get. */
+    public static boolean needsRehash(String stored) {
+        PasswordScheme scheme = schemeFor(stored);
+        return scheme != current || scheme.needsRehash(stored);
+    }
+
+    /**
+     * Sizes the PBKDF2 cost so one hash takes roughly {@code targetMillis} on this machine.
+     * @return the chosen iteration count
+     */
+    public static int calibrate(long targetMillis) {
+        return PBKDF2.calibrate(targetMillis);
+    }
+
+    public static int getIterations() {
+        return PBKDF2.getIterations();
     }
 
-    private static boolean constantTimeEquals(String a, String b) {
+    public static void setScheme(PasswordScheme scheme) {
+        if (scheme == null) throw new IllegalArgumentException("Scheme required");
+        current = scheme;
+    }
+
+    private static PasswordScheme schemeFor(String stored) {
+        if (current.recognizes(stored)) return current;
+        for (PasswordScheme s : SCHEMES) {
+            if (s.recognizes(stored)) return s;
+        }
+        return null;
+    }
+
+    static boolean constantTimeEquals(String a, String b) {
         if (a.length() != b.length()) return false;
         int result = 0;
         for (int i = 0; i < a.length(); i++) {
@@ -51,6 +67,8 @@ public class PasswordHasher {
         }
         return result == 0;
     }
-}
-
 
+    static boolean constantTimeEquals(byte[] a, byte[] b) {
+        return MessageDigest.isEqual(a, b);
+    }
+}
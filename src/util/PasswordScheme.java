@@ -0,0 +1,15 @@
+package util;
+
+/**
+ * A password hashing scheme. Stored hashes carry enough of a prefix for
+ * {@link #recognizes(String)} to tell which scheme produced them, so several
+ * schemes can be verified side by side while old hashes are migrated.
+ */
+public interface PasswordScheme {
+    boolean recognizes(String stored);
+    String hash(String password);
+    boolean verify(String password, String stored);
+
+    /** True when the stored hash was produced with weaker settings than this scheme now uses. */
+    boolean needsRehash(String stored);
+}
@@ -0,0 +1,147 @@
+package util;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * PBKDF2-HMAC-SHA256 with a per-hash iteration count.
+ *
+ * Stored format: {@code $pbkdf2-sha256$<iterations>$<salt>$<hash>} (Base64, no padding).
+ * The iteration count travels with the hash, so raising the cost only affects new hashes and
+ * {@link #needsRehash(String)} flags the older ones once they fall well behind (below
+ * {@link #REHASH_PERCENT} of the current count), so calibration noise between restarts does not
+ * rewrite every hash on the next sign-in.
+ *
+ * The derivation is written against a thread-local {@link Mac} and reuses its buffers, so a
+ * verification allocates nothing per iteration and never looks up a provider after warm-up.
+ */
+public class Pbkdf2PasswordScheme implements PasswordScheme {
+    public static final String PREFIX = "$pbkdf2-sha256$";
+    public static final int DEFAULT_ITERATIONS = 210_000;
+    public static final int MIN_ITERATIONS = 100_000;
+    public static final int MAX_ITERATIONS = 5_000_000;
+    /** Calibrated counts are rounded to this step. */
+    public static final int CALIBRATION_STEP = 10_000;
+    /** Stored hashes below this share of the current count are rehashed. */
+    public static final int REHASH_PERCENT = 80;
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BYTES = 32;
+    private static final Base64.Encoder B64 = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder B64D = Base64.getDecoder();
+    private static final ThreadLocal<Mac> MAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    });
+
+    private volatile int iterations;
+
+    public Pbkdf2PasswordScheme(int iterations) {
+        setIterations(iterations);
+    }
+
+    public int getIterations() { return iterations; }
+
+    public void setIterations(int iterations) {
+        if (iterations < 1) throw new IllegalArgumentException("Iterations must be >= 1");
+        this.iterations = iterations;
+    }
+
+    /**
+     * Times the derivation on this machine and sets the iteration count so one hash takes about
+     * {@code targetMillis}, rounded to {@link #CALIBRATION_STEP} and never below {@link #MIN_ITERATIONS}.
+     * @return the chosen iteration count
+     */
+    public int calibrate(long targetMillis) {
+        byte[] salt = new byte[SALT_BYTES];
+        int probe = 20_000;
+        for (int i = 0; i < 3; i++) derive("calibration", salt, probe); // JIT warm-up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long t0 = System.nanoTime();
+            derive("calibration", salt, probe);
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        double perIteration = (double) best / probe;
+        long target = (long) (targetMillis * 1_000_000L / Math.max(perIteration, 1e-3));
+        long rounded = (target + CALIBRATION_STEP / 2) / CALIBRATION_STEP * CALIBRATION_STEP;
+        int chosen = (int) Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, rounded));
+        setIterations(chosen);
+        return chosen;
+    }
+
+    @Override
+    public boolean recognizes(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        PasswordHasher.RANDOM.nextBytes(salt);
+        int n = iterations;
+        return PREFIX + n + '$' + B64.encodeToString(salt) + '$' + B64.encodeToString(derive(password, salt, n));
+    }
+
+    @Override
+    public boolean verify(String password, String stored) {
+        String[] parts = parse(stored);
+        if (parts == null) return false;
+        try {
+            int n = Integer.parseInt(parts[0]);
+            if (n < 1 || n > MAX_ITERATIONS) return false;
+            byte[] salt = B64D.decode(parts[1]);
+            byte[] expected = B64D.decode(parts[2]);
+            return PasswordHasher.constantTimeEquals(expected, derive(password, salt, n));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String stored) {
+        String[] parts = parse(stored);
+        if (parts == null) return true;
+        try {
+            return Integer.parseInt(parts[0]) * 100L < (long) iterations * REHASH_PERCENT;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private String[] parse(String stored) {
+        if (!recognizes(stored)) return null;
+        String[] parts = stored.substring(PREFIX.length()).split("\\$");
+        return parts.length == 3 ? parts : null;
+    }
+
+    static byte[] derive(String password, byte[] salt, int iterations) {
+        Mac mac = MAC.get();
+        byte[] key = password.getBytes(StandardCharsets.UTF_8);
+        // HMAC zero-pads the key to the block size, so {0} is the same key as the empty one
+        // (which SecretKeySpec refuses)
+        if (key.length == 0) key = new byte[1];
+        try {
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            mac.update(salt);
+            mac.update(new byte[] {0, 0, 0, 1}); // single block: KEY_BYTES == HMAC output size
+            byte[] u = mac.doFinal();
+            byte[] t = u.clone();
+            for (int i = 1; i < iterations; i++) {
+                mac.update(u);
+                mac.doFinal(u, 0);
+                for (int j = 0; j < KEY_BYTES; j++) t[j] ^= u[j];
+            }
+            return t;
+        } catch (InvalidKeyException | ShortBufferException e) {
+            throw new IllegalStateException("PBKDF2 derivation failed", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package util;
 
 import model.Payment;
+import monitoring.events.ReportGeneratedEvent;
 
 import java.io.BufferedWriter;
 import java.io.File;
@@ -10,24 +11,39 @@ import java.time.format.DateTimeFormatter;
 import java.util.UUID;
 
 public class ReceiptGenerator {
+    private static final DateTimeFormatter PAID_AT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     public static File generateTextReceipt(Payment payment) throws IOException {
+        ReportGeneratedEvent event = new ReportGeneratedEvent();
+        event.begin();
         String fileName = "receipt-" + UUID.randomUUID() + ".txt";
         File f = new File(fileName);
         try (BufferedWriter bw = new BufferedWriter(new FileWriter(f))) {
-            bw.write("=== Sports Complex Receipt ===\n");
-            bw.write("Payment ID: " + payment.getId() + "\n");
-            bw.write("Booking ID: " + payment.getBookingId() + "\n");
-            bw.write("Amount: " + String.format("%.2f", payment.getAmount()) + "\n");
-            bw.write("Discount: " + String.format("%.2f", payment.getDiscount()) + "\n");
-            bw.write("Method: " + payment.getMethod() + "\n");
-            bw.write("Reference: " + (payment.getReference() == null ? "-" : payment.getReference()) + "\n");
-            if (payment.getPaidAt() != null) {
-                bw.write("Paid At: " + payment.getPaidAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) + "\n");
-            }
-            bw.write("==============================\n");
+            bw.write(formatTextReceipt(payment));
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = "Receipt";
+            event.rows = 1;
+            event.bytes = f.length();
+            event.commit();
         }
         return f;
     }
-}
-
 
+    public static String formatTextReceipt(Payment payment) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("=== Sports Complex Receipt ===\n");
+        sb.append("Payment ID: ").append(payment.getId()).append('\n');
+        sb.append("Booking ID: ").append(payment.getBookingId()).append('\n');
+        sb.append("Amount: ").append(String.format("%.2f", payment.getAmount())).append('\n');
+        sb.append("Discount: ").append(String.format("%.2f", payment.getDiscount())).append('\n');
+        sb.append("Method: ").append(payment.getMethod()).append('\n');
+        sb.append("Reference: ").append(payment.getReference() == null ? "-" : payment.getReference()).append('\n');
+        if (payment.getPaidAt() != null) {
+            sb.append("Paid At: ").append(payment.getPaidAt().format(PAID_AT_FORMAT)).append('\n');
+        }
+        sb.append("==============================\n");
+        return sb.toString();
+    }
+}
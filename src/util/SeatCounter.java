@@ -0,0 +1,40 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seats taken out of a fixed capacity, claimed and released with compare-and-set instead of a
+ * lock. When every seat is gone, tryAcquire only reads, so a crowd hammering a full class does not
+ * contend on the counter's cache line.
+ */
+public final class SeatCounter {
+    private final int capacity;
+    private final AtomicInteger taken;
+
+    public SeatCounter(int capacity, int taken) {
+        this.capacity = capacity;
+        this.taken = new AtomicInteger(Math.min(Math.max(0, taken), capacity));
+    }
+
+    /** Claims a seat; false when none are left. */
+    public boolean tryAcquire() {
+        while (true) {
+            int t = taken.get();
+            if (t >= capacity) return false;
+            if (taken.compareAndSet(t, t + 1)) return true;
+        }
+    }
+
+    /** Gives a claimed seat back. */
+    public void release() {
+        while (true) {
+            int t = taken.get();
+            if (t <= 0) return;
+            if (taken.compareAndSet(t, t - 1)) return;
+        }
+    }
+
+    public int getCapacity() { return capacity; }
+    public int getTaken() { return taken.get(); }
+    public int getAvailable() { return capacity - taken.get(); }
+}
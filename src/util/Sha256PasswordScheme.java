@@ -0,0 +1,63 @@
+package util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Original single-round salted SHA-256 format: Base64(16-byte salt || digest), no prefix.
+ * Kept only so existing accounts can still sign in and be upgraded on their next login.
+ */
+public class Sha256PasswordScheme implements PasswordScheme {
+    private static final int SALT_BYTES = 16;
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Hash algorithm not found", e);
+        }
+    });
+
+    @Override
+    public boolean recognizes(String stored) {
+        return stored != null && !stored.isEmpty() && stored.charAt(0) != '$';
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        PasswordHasher.RANDOM.nextBytes(salt);
+        return hash(password, salt);
+    }
+
+    String hash(String password, byte[] salt) {
+        MessageDigest md = DIGEST.get();
+        md.reset();
+        md.update(salt);
+        byte[] hashed = md.digest(password.getBytes(StandardCharsets.UTF_8));
+        byte[] combined = new byte[salt.length + hashed.length];
+        System.arraycopy(salt, 0, combined, 0, salt.length);
+        System.arraycopy(hashed, 0, combined, salt.length, hashed.length);
+        return Base64.getEncoder().encodeToString(combined);
+    }
+
+    @Override
+    public boolean verify(String password, String stored) {
+        try {
+            byte[] decoded = Base64.getDecoder().decode(stored);
+            if (decoded.length < SALT_BYTES + 1) return false; // require at least 16-byte salt + 1 byte hash
+            byte[] salt = new byte[SALT_BYTES];
+            System.arraycopy(decoded, 0, salt, 0, SALT_BYTES);
+            return PasswordHasher.constantTimeEquals(stored, hash(password, salt));
+        } catch (IllegalArgumentException e) {
+            // Not a Base64-encoded salted-hash we produce. Treat as non-match.
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String stored) {
+        return true;
+    }
+}